@@ -0,0 +1,50 @@
+package org.elece.benchmark;
+
+import org.elece.config.DbConfig;
+import org.elece.exception.StorageException;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Parameters shared by the index benchmarks, which combine into one index configuration per run.
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractIndexBenchmark {
+    @Param({"8", "32", "128"})
+    protected int bTreeDegree;
+
+    @Param({"INT", "VARCHAR"})
+    protected BenchmarkIndex.KeyType keyType;
+
+    @Param({"32"})
+    protected int varcharLength;
+
+    @Param({"IMMEDIATE", "COMMITTABLE"})
+    protected DbConfig.SessionStrategy sessionStrategy;
+
+    @Param({"ORGANIZED", "COMPACT"})
+    protected DbConfig.IndexStorageManagerStrategy indexStorageManagerStrategy;
+
+    protected BenchmarkIndex<?> createIndex() throws IOException, StorageException {
+        return BenchmarkIndex.create(keyType, varcharLength, bTreeDegree, sessionStrategy, indexStorageManagerStrategy);
+    }
+
+    /**
+     * @return The numbers from 1 to {@code count} in a random order that is the same on every run.
+     */
+    protected static int[] shuffledNumbers(int count) {
+        List<Integer> numbers = new ArrayList<>(count);
+        for (int number = 1; number <= count; number++) {
+            numbers.add(number);
+        }
+        Collections.shuffle(numbers, new Random(42));
+        return numbers.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,142 @@
+package org.elece.benchmark;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.db.schema.model.Column;
+import org.elece.db.schema.model.builder.ColumnBuilder;
+import org.elece.exception.*;
+import org.elece.index.IndexId;
+import org.elece.index.IndexManager;
+import org.elece.index.TreeIndexManager;
+import org.elece.memory.Pointer;
+import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.memory.data.PointerBinaryObject;
+import org.elece.memory.tree.node.DefaultNodeFactory;
+import org.elece.serializer.IntegerSerializer;
+import org.elece.serializer.StringSerializer;
+import org.elece.sql.parser.expression.internal.Order;
+import org.elece.sql.parser.expression.internal.SqlType;
+import org.elece.storage.file.DefaultFileHandlerPoolFactory;
+import org.elece.storage.file.FileHandlerPoolFactory;
+import org.elece.storage.index.DefaultIndexStorageManagerFactory;
+import org.elece.storage.index.header.DefaultIndexHeaderManagerFactory;
+import org.elece.storage.index.session.factory.DefaultSessionFactory;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * A tree index stored in its own temporary directory, built with the configuration being benchmarked.
+ * <p>
+ * Keys are addressed by a positive number and mapped to the key type of the index, so every benchmark works the same
+ * way over integer and string keys, and the numeric order of the numbers is also the order of the keys.
+ *
+ * @param <K> The type of keys stored in the index.
+ */
+public class BenchmarkIndex<K extends Comparable<K>> implements AutoCloseable {
+    public enum KeyType {
+        INT, VARCHAR
+    }
+
+    private final Path dbPath;
+    private final FileHandlerPoolFactory fileHandlerPoolFactory;
+    private final IndexManager<K, Pointer> indexManager;
+    private final IntFunction<K> keyFunction;
+
+    private BenchmarkIndex(Path dbPath, DbConfig dbConfig, BinaryObjectFactory<K> kBinaryObjectFactory,
+                           IntFunction<K> keyFunction) throws StorageException {
+        this.dbPath = dbPath;
+        this.keyFunction = keyFunction;
+        this.fileHandlerPoolFactory = new DefaultFileHandlerPoolFactory(dbConfig);
+
+        IndexId indexId = new IndexId(1, 1);
+        PointerBinaryObject.Factory vBinaryObjectFactory = new PointerBinaryObject.Factory();
+        this.indexManager = new TreeIndexManager<>(
+                indexId.asInt(),
+                new DefaultIndexStorageManagerFactory(dbConfig, fileHandlerPoolFactory, new DefaultIndexHeaderManagerFactory()).create(indexId),
+                DefaultSessionFactory.getInstance(dbConfig),
+                dbConfig,
+                kBinaryObjectFactory,
+                vBinaryObjectFactory,
+                new DefaultNodeFactory<>(kBinaryObjectFactory, vBinaryObjectFactory)
+        );
+    }
+
+    public static BenchmarkIndex<?> create(KeyType keyType, int varcharLength, int bTreeDegree,
+                                           DbConfig.SessionStrategy sessionStrategy,
+                                           DbConfig.IndexStorageManagerStrategy indexStorageManagerStrategy) throws
+                                                                                                             IOException,
+                                                                                                             StorageException {
+        Path dbPath = Files.createTempDirectory("elece_benchmark");
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setBTreeDegree(bTreeDegree)
+                .setSessionStrategy(sessionStrategy)
+                .setIndexStorageManagerStrategy(indexStorageManagerStrategy)
+                .build();
+
+        if (keyType == KeyType.INT) {
+            Column column = ColumnBuilder.builder().setSqlType(SqlType.intType).build();
+            return new BenchmarkIndex<>(dbPath, dbConfig, new IntegerSerializer().getBinaryObjectFactory(column), number -> number);
+        }
+
+        // Zero padded so the order of the strings is the order of the numbers.
+        Column column = ColumnBuilder.builder().setSqlType(SqlType.varchar(varcharLength)).build();
+        String keyFormat = "k%0" + (varcharLength - 1) + "d";
+        return new BenchmarkIndex<>(dbPath, dbConfig, new StringSerializer.StringBinaryObjectFactory(column, new StringSerializer()), number -> String.format(keyFormat, number));
+    }
+
+    public void add(int number) throws BTreeException, StorageException, SerializationException,
+                                       InterruptedTaskException, FileChannelException {
+        indexManager.addIndex(keyFunction.apply(number), new Pointer(Pointer.TYPE_DATA, number, 0));
+    }
+
+    public boolean remove(int number) throws BTreeException, StorageException, SerializationException,
+                                             InterruptedTaskException, FileChannelException {
+        return indexManager.removeIndex(keyFunction.apply(number));
+    }
+
+    public Optional<Pointer> get(int number) throws BTreeException, StorageException, InterruptedTaskException,
+                                                    FileChannelException {
+        return indexManager.getIndex(keyFunction.apply(number));
+    }
+
+    /**
+     * Iterates over the values of the keys between both numbers, inclusive.
+     */
+    public void range(int from, int to, Consumer<Pointer> consumer) throws BTreeException, StorageException,
+                                                                          InterruptedTaskException,
+                                                                          FileChannelException {
+        Iterator<Pointer> iterator = indexManager.getBetweenRange(keyFunction.apply(from), keyFunction.apply(to), Set.of(), Order.ASC);
+        while (iterator.hasNext()) {
+            consumer.accept(iterator.next());
+        }
+    }
+
+    @Override
+    public void close() throws StorageException, InterruptedTaskException, FileChannelException, IOException {
+        fileHandlerPoolFactory.getFileHandlerPool().closeAll();
+        Files.walkFileTree(dbPath, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path path, BasicFileAttributes basicFileAttributes) throws IOException {
+                Files.delete(path);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException ioException) throws IOException {
+                Files.delete(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
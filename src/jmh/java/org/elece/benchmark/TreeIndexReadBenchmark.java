@@ -0,0 +1,51 @@
+package org.elece.benchmark;
+
+import org.elece.memory.Pointer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures point lookups and range iterations over an index filled once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeIndexReadBenchmark extends AbstractIndexBenchmark {
+    @Param({"100000"})
+    private int entries;
+
+    @Param({"100"})
+    private int rangeSize;
+
+    private BenchmarkIndex<?> index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        index = createIndex();
+        for (int number : shuffledNumbers(entries)) {
+            index.add(number);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Benchmark
+    public Optional<Pointer> getIndex() throws Exception {
+        return index.get(ThreadLocalRandom.current().nextInt(entries) + 1);
+    }
+
+    @Benchmark
+    public void rangeIteration(Blackhole blackhole) throws Exception {
+        int from = ThreadLocalRandom.current().nextInt(entries - rangeSize + 1) + 1;
+        index.range(from, from + rangeSize - 1, blackhole::consume);
+    }
+}
@@ -0,0 +1,69 @@
+package org.elece.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures inserting keys into an empty index and removing every key of a full one, in random order.
+ * <p>
+ * Each iteration runs {@link #KEYS} operations over an index created for that iteration, so its score is the time
+ * taken to insert or remove all of them; the index is built before the iteration starts and is not measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = TreeIndexWriteBenchmark.KEYS)
+@Measurement(iterations = 5, batchSize = TreeIndexWriteBenchmark.KEYS)
+@Fork(1)
+public class TreeIndexWriteBenchmark {
+    static final int KEYS = 10_000;
+
+    public static class AddState extends AbstractIndexBenchmark {
+        private BenchmarkIndex<?> index;
+        private int[] numbers;
+        private int cursor;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws Exception {
+            index = createIndex();
+            numbers = shuffledNumbers(KEYS);
+            cursor = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws Exception {
+            index.close();
+        }
+    }
+
+    public static class RemoveState extends AbstractIndexBenchmark {
+        private BenchmarkIndex<?> index;
+        private int[] numbers;
+        private int cursor;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws Exception {
+            index = createIndex();
+            for (int number = 1; number <= KEYS; number++) {
+                index.add(number);
+            }
+            numbers = shuffledNumbers(KEYS);
+            cursor = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws Exception {
+            index.close();
+        }
+    }
+
+    @Benchmark
+    public void addIndex(AddState state) throws Exception {
+        state.index.add(state.numbers[state.cursor++]);
+    }
+
+    @Benchmark
+    public boolean removeIndex(RemoveState state) throws Exception {
+        return state.index.remove(state.numbers[state.cursor++]);
+    }
+}
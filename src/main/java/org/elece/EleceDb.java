@@ -37,7 +37,11 @@ public class EleceDb {
         clazzHandlers.put(TimeUnit.class, enumParser(TimeUnit.class));
         clazzHandlers.put(DbConfig.IndexStorageManagerStrategy.class, enumParser(DbConfig.IndexStorageManagerStrategy.class));
         clazzHandlers.put(DbConfig.FileHandlerStrategy.class, enumParser(DbConfig.FileHandlerStrategy.class));
+        clazzHandlers.put(DbConfig.FileChannelStrategy.class, enumParser(DbConfig.FileChannelStrategy.class));
+        clazzHandlers.put(DbConfig.ReservedSlotTracerStrategy.class, enumParser(DbConfig.ReservedSlotTracerStrategy.class));
         clazzHandlers.put(DbConfig.SessionStrategy.class, enumParser(DbConfig.SessionStrategy.class));
+        clazzHandlers.put(DbConfig.BloomFilterStrategy.class, enumParser(DbConfig.BloomFilterStrategy.class));
+        clazzHandlers.put(DbConfig.SecondaryIndexStrategy.class, enumParser(DbConfig.SecondaryIndexStrategy.class));
     }
 
     public static void main(String[] args) throws ServerException, InterruptedTaskException, StorageException,
@@ -80,6 +84,22 @@ public class EleceDb {
         applyProperty(builder, "elece.db.bloom.enabled", Boolean.class, DefaultDbConfigBuilder::setBloomFilterEnabled);
         applyProperty(builder, "elece.db.bloom.falsePositiveRate", Double.class, DefaultDbConfigBuilder::setBloomFilterFalsePositiveRate);
         applyProperty(builder, "elece.db.bloom.expectedInsertions", Integer.class, DefaultDbConfigBuilder::setBloomFilterExpectedInsertions);
+        applyProperty(builder, "elece.db.bloom.persistInterval", Long.class, DefaultDbConfigBuilder::setBloomFilterPersistInterval);
+        applyProperty(builder, "elece.db.bloom.strategy", DbConfig.BloomFilterStrategy.class, DefaultDbConfigBuilder::setBloomFilterStrategy);
+        applyProperty(builder, "elece.db.btree.nodeCacheSize", Integer.class, DefaultDbConfigBuilder::setBTreeNodeCacheSize);
+        applyProperty(builder, "elece.db.fileChannelStrategy", DbConfig.FileChannelStrategy.class, DefaultDbConfigBuilder::setFileChannelStrategy);
+        applyProperty(builder, "elece.db.wal.enabled", Boolean.class, DefaultDbConfigBuilder::setWalEnabled);
+        applyProperty(builder, "elece.db.wal.checkpointSize", Long.class, DefaultDbConfigBuilder::setWalCheckpointSize);
+        applyProperty(builder, "elece.db.dbPageFlushInterval", Long.class, DefaultDbConfigBuilder::setDbPageFlushInterval);
+        applyProperty(builder, "elece.db.dbPageDirtyRatio", Double.class, DefaultDbConfigBuilder::setDbPageDirtyRatio);
+        applyProperty(builder, "elece.db.reservedSlotTracerStrategy", DbConfig.ReservedSlotTracerStrategy.class, DefaultDbConfigBuilder::setReservedSlotTracerStrategy);
+        applyProperty(builder, "elece.db.btree.bulkLoadRunSize", Integer.class, DefaultDbConfigBuilder::setBTreeBulkLoadRunSize);
+        applyProperty(builder, "elece.db.btree.bulkLoadThreads", Integer.class, DefaultDbConfigBuilder::setBTreeBulkLoadThreads);
+        applyProperty(builder, "elece.db.btree.readAheadLeaves", Integer.class, DefaultDbConfigBuilder::setBTreeReadAheadLeaves);
+        applyProperty(builder, "elece.db.secondaryIndexStrategy", DbConfig.SecondaryIndexStrategy.class, DefaultDbConfigBuilder::setSecondaryIndexStrategy);
+        applyProperty(builder, "elece.db.btree.deleteStrategy", DbConfig.BTreeDeleteStrategy.class, DefaultDbConfigBuilder::setBTreeDeleteStrategy);
+        applyProperty(builder, "elece.db.btree.lazyDeleteFillFactor", Double.class, DefaultDbConfigBuilder::setBTreeLazyDeleteFillFactor);
+        applyProperty(builder, "elece.db.btree.maintenanceInterval", Long.class, DefaultDbConfigBuilder::setBTreeMaintenanceInterval);
 
         return builder.build();
     }
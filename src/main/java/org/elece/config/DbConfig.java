@@ -51,6 +51,38 @@ public interface DbConfig {
 
     int getBloomFilterExpectedInsertions();
 
+    long getBloomFilterPersistInterval();
+
+    BloomFilterStrategy getBloomFilterStrategy();
+
+    int getBTreeNodeCacheSize();
+
+    FileChannelStrategy getFileChannelStrategy();
+
+    boolean isWalEnabled();
+
+    long getWalCheckpointSize();
+
+    long getDbPageFlushInterval();
+
+    double getDbPageDirtyRatio();
+
+    ReservedSlotTracerStrategy getReservedSlotTracerStrategy();
+
+    int getBTreeBulkLoadRunSize();
+
+    int getBTreeBulkLoadThreads();
+
+    int getBTreeReadAheadLeaves();
+
+    SecondaryIndexStrategy getSecondaryIndexStrategy();
+
+    BTreeDeleteStrategy getBTreeDeleteStrategy();
+
+    double getBTreeLazyDeleteFillFactor();
+
+    long getBTreeMaintenanceInterval();
+
     enum SessionStrategy {
         COMMITTABLE, IMMEDIATE
     }
@@ -62,4 +94,24 @@ public interface DbConfig {
     enum FileHandlerStrategy {
         LIMITED, UNLIMITED
     }
+
+    enum FileChannelStrategy {
+        ASYNC, MAPPED
+    }
+
+    enum ReservedSlotTracerStrategy {
+        IN_MEMORY, PERSISTENT
+    }
+
+    enum BloomFilterStrategy {
+        STANDARD, SCALABLE
+    }
+
+    enum SecondaryIndexStrategy {
+        CLUSTER_ID, ROW_POINTER
+    }
+
+    enum BTreeDeleteStrategy {
+        EAGER, LAZY
+    }
 }
@@ -18,7 +18,15 @@ public record DefaultDbConfig(int port, int poolCoreSize, int poolMaxSize, long
                               DbConfig.FileHandlerStrategy fileHandlerStrategy, int fileHandlerPoolThreads,
                               DbConfig.SessionStrategy sessionStrategy, int dbPageSize, int dbPageBufferSize,
                               int dbPageMaxFileSize, int dbQueryCacheSize, boolean bloomFilterEnabled,
-                              double bloomFilterFalsePositiveRate, int bloomFilterExpectedInsertions)
+                              double bloomFilterFalsePositiveRate, int bloomFilterExpectedInsertions,
+                              long bloomFilterPersistInterval, DbConfig.BloomFilterStrategy bloomFilterStrategy,
+                              int bTreeNodeCacheSize, DbConfig.FileChannelStrategy fileChannelStrategy,
+                              boolean walEnabled, long walCheckpointSize, long dbPageFlushInterval,
+                              double dbPageDirtyRatio, DbConfig.ReservedSlotTracerStrategy reservedSlotTracerStrategy,
+                              int bTreeBulkLoadRunSize, int bTreeBulkLoadThreads, int bTreeReadAheadLeaves,
+                              DbConfig.SecondaryIndexStrategy secondaryIndexStrategy,
+                              DbConfig.BTreeDeleteStrategy bTreeDeleteStrategy, double bTreeLazyDeleteFillFactor,
+                              long bTreeMaintenanceInterval)
         implements DbConfig {
 
     @Override
@@ -135,4 +143,84 @@ public record DefaultDbConfig(int port, int poolCoreSize, int poolMaxSize, long
     public int getBloomFilterExpectedInsertions() {
         return bloomFilterExpectedInsertions;
     }
+
+    @Override
+    public long getBloomFilterPersistInterval() {
+        return bloomFilterPersistInterval;
+    }
+
+    @Override
+    public BloomFilterStrategy getBloomFilterStrategy() {
+        return bloomFilterStrategy;
+    }
+
+    @Override
+    public int getBTreeNodeCacheSize() {
+        return bTreeNodeCacheSize;
+    }
+
+    @Override
+    public FileChannelStrategy getFileChannelStrategy() {
+        return fileChannelStrategy;
+    }
+
+    @Override
+    public boolean isWalEnabled() {
+        return walEnabled;
+    }
+
+    @Override
+    public long getWalCheckpointSize() {
+        return walCheckpointSize;
+    }
+
+    @Override
+    public long getDbPageFlushInterval() {
+        return dbPageFlushInterval;
+    }
+
+    @Override
+    public double getDbPageDirtyRatio() {
+        return dbPageDirtyRatio;
+    }
+
+    @Override
+    public ReservedSlotTracerStrategy getReservedSlotTracerStrategy() {
+        return reservedSlotTracerStrategy;
+    }
+
+    @Override
+    public int getBTreeBulkLoadRunSize() {
+        return bTreeBulkLoadRunSize;
+    }
+
+    @Override
+    public int getBTreeBulkLoadThreads() {
+        return bTreeBulkLoadThreads;
+    }
+
+    @Override
+    public int getBTreeReadAheadLeaves() {
+        return bTreeReadAheadLeaves;
+    }
+
+    @Override
+    public SecondaryIndexStrategy getSecondaryIndexStrategy() {
+        return secondaryIndexStrategy;
+    }
+
+    @Override
+    public BTreeDeleteStrategy getBTreeDeleteStrategy() {
+        return bTreeDeleteStrategy;
+    }
+
+    @Override
+    public double getBTreeLazyDeleteFillFactor() {
+        return bTreeLazyDeleteFillFactor;
+    }
+
+    @Override
+    public long getBTreeMaintenanceInterval() {
+        return bTreeMaintenanceInterval;
+    }
 }
@@ -27,6 +27,22 @@ public class DefaultDbConfigBuilder {
     private Boolean bloomFilterEnabled;
     private Double bloomFilterFalsePositiveRate;
     private Integer bloomFilterExpectedInsertions;
+    private Long bloomFilterPersistInterval;
+    private DbConfig.BloomFilterStrategy bloomFilterStrategy;
+    private Integer bTreeNodeCacheSize;
+    private DbConfig.FileChannelStrategy fileChannelStrategy;
+    private Boolean walEnabled;
+    private Long walCheckpointSize;
+    private Long dbPageFlushInterval;
+    private Double dbPageDirtyRatio;
+    private DbConfig.ReservedSlotTracerStrategy reservedSlotTracerStrategy;
+    private Integer bTreeBulkLoadRunSize;
+    private Integer bTreeBulkLoadThreads;
+    private Integer bTreeReadAheadLeaves;
+    private DbConfig.SecondaryIndexStrategy secondaryIndexStrategy;
+    private DbConfig.BTreeDeleteStrategy bTreeDeleteStrategy;
+    private Double bTreeLazyDeleteFillFactor;
+    private Long bTreeMaintenanceInterval;
 
     private DefaultDbConfigBuilder() {
         // private constructor
@@ -151,6 +167,86 @@ public class DefaultDbConfigBuilder {
         return this;
     }
 
+    public DefaultDbConfigBuilder setBloomFilterPersistInterval(Long bloomFilterPersistInterval) {
+        this.bloomFilterPersistInterval = bloomFilterPersistInterval;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setBloomFilterStrategy(DbConfig.BloomFilterStrategy bloomFilterStrategy) {
+        this.bloomFilterStrategy = bloomFilterStrategy;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setSecondaryIndexStrategy(DbConfig.SecondaryIndexStrategy secondaryIndexStrategy) {
+        this.secondaryIndexStrategy = secondaryIndexStrategy;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setBTreeNodeCacheSize(Integer bTreeNodeCacheSize) {
+        this.bTreeNodeCacheSize = bTreeNodeCacheSize;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setFileChannelStrategy(DbConfig.FileChannelStrategy fileChannelStrategy) {
+        this.fileChannelStrategy = fileChannelStrategy;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setWalEnabled(Boolean walEnabled) {
+        this.walEnabled = walEnabled;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setWalCheckpointSize(Long walCheckpointSize) {
+        this.walCheckpointSize = walCheckpointSize;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setDbPageFlushInterval(Long dbPageFlushInterval) {
+        this.dbPageFlushInterval = dbPageFlushInterval;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setDbPageDirtyRatio(Double dbPageDirtyRatio) {
+        this.dbPageDirtyRatio = dbPageDirtyRatio;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setReservedSlotTracerStrategy(DbConfig.ReservedSlotTracerStrategy reservedSlotTracerStrategy) {
+        this.reservedSlotTracerStrategy = reservedSlotTracerStrategy;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setBTreeBulkLoadRunSize(Integer bTreeBulkLoadRunSize) {
+        this.bTreeBulkLoadRunSize = bTreeBulkLoadRunSize;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setBTreeBulkLoadThreads(Integer bTreeBulkLoadThreads) {
+        this.bTreeBulkLoadThreads = bTreeBulkLoadThreads;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setBTreeReadAheadLeaves(Integer bTreeReadAheadLeaves) {
+        this.bTreeReadAheadLeaves = bTreeReadAheadLeaves;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setBTreeDeleteStrategy(DbConfig.BTreeDeleteStrategy bTreeDeleteStrategy) {
+        this.bTreeDeleteStrategy = bTreeDeleteStrategy;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setBTreeLazyDeleteFillFactor(Double bTreeLazyDeleteFillFactor) {
+        this.bTreeLazyDeleteFillFactor = bTreeLazyDeleteFillFactor;
+        return this;
+    }
+
+    public DefaultDbConfigBuilder setBTreeMaintenanceInterval(Long bTreeMaintenanceInterval) {
+        this.bTreeMaintenanceInterval = bTreeMaintenanceInterval;
+        return this;
+    }
+
     private int getPort() {
         return Objects.requireNonNullElse(port, 3000);
     }
@@ -243,12 +339,82 @@ public class DefaultDbConfigBuilder {
         return Objects.requireNonNullElse(bloomFilterExpectedInsertions, 100000);
     }
 
+    private long getBloomFilterPersistInterval() {
+        return Objects.requireNonNullElse(bloomFilterPersistInterval, 30000L);
+    }
+
+    private DbConfig.BloomFilterStrategy getBloomFilterStrategy() {
+        return Objects.requireNonNullElse(bloomFilterStrategy, DbConfig.BloomFilterStrategy.STANDARD);
+    }
+
+    private int getBTreeNodeCacheSize() {
+        return Objects.requireNonNullElse(bTreeNodeCacheSize, 1000);
+    }
+
+    private DbConfig.FileChannelStrategy getFileChannelStrategy() {
+        return Objects.requireNonNullElse(fileChannelStrategy, DbConfig.FileChannelStrategy.ASYNC);
+    }
+
+    private boolean getWalEnabled() {
+        return Objects.requireNonNullElse(walEnabled, false);
+    }
+
+    private long getWalCheckpointSize() {
+        return Objects.requireNonNullElse(walCheckpointSize, 64L * 1024 * 1024);
+    }
+
+    private long getDbPageFlushInterval() {
+        return Objects.requireNonNullElse(dbPageFlushInterval, 0L);
+    }
+
+    private double getDbPageDirtyRatio() {
+        return Objects.requireNonNullElse(dbPageDirtyRatio, 0.5);
+    }
+
+    private DbConfig.ReservedSlotTracerStrategy getReservedSlotTracerStrategy() {
+        return Objects.requireNonNullElse(reservedSlotTracerStrategy, DbConfig.ReservedSlotTracerStrategy.PERSISTENT);
+    }
+
+    private int getBTreeBulkLoadRunSize() {
+        return Objects.requireNonNullElse(bTreeBulkLoadRunSize, 100_000);
+    }
+
+    private int getBTreeBulkLoadThreads() {
+        return Objects.requireNonNullElse(bTreeBulkLoadThreads, 2);
+    }
+
+    private int getBTreeReadAheadLeaves() {
+        return Objects.requireNonNullElse(bTreeReadAheadLeaves, 4);
+    }
+
+    private DbConfig.SecondaryIndexStrategy getSecondaryIndexStrategy() {
+        return Objects.requireNonNullElse(secondaryIndexStrategy, DbConfig.SecondaryIndexStrategy.CLUSTER_ID);
+    }
+
+    private DbConfig.BTreeDeleteStrategy getBTreeDeleteStrategy() {
+        return Objects.requireNonNullElse(bTreeDeleteStrategy, DbConfig.BTreeDeleteStrategy.EAGER);
+    }
+
+    private double getBTreeLazyDeleteFillFactor() {
+        return Objects.requireNonNullElse(bTreeLazyDeleteFillFactor, 0.25);
+    }
+
+    private long getBTreeMaintenanceInterval() {
+        return Objects.requireNonNullElse(bTreeMaintenanceInterval, 60000L);
+    }
+
     public DefaultDbConfig build() {
         return new DefaultDbConfig(getPort(), getPoolCoreSize(), getPoolMaxSize(), getKeepAliveTime(),
                 getFileDescriptorAcquisitionSize(), getCloseTimeoutTime(), getAcquisitionTimeoutTime(), getTimeoutUnit(),
                 getbTreeDegree(), getbTreeGrowthNodeAllocationCount(), getBaseDbPath(), getBTreeMaxFileSize(),
                 getIndexStorageManagerStrategy(), getFileHandlerStrategy(), getFileHandlerPoolThreads(), getSessionStrategy(),
                 getDbPageSize(), getDbPageBufferSize(), getDbPageMaxFileSize(), getDbQueryCacheSize(),
-                getBloomFilterEnabled(), getBloomFilterFalsePositiveRate(), getBloomFilterExpectedInsertions());
+                getBloomFilterEnabled(), getBloomFilterFalsePositiveRate(), getBloomFilterExpectedInsertions(),
+                getBloomFilterPersistInterval(), getBloomFilterStrategy(),
+                getBTreeNodeCacheSize(), getFileChannelStrategy(), getWalEnabled(), getWalCheckpointSize(),
+                getDbPageFlushInterval(), getDbPageDirtyRatio(), getReservedSlotTracerStrategy(),
+                getBTreeBulkLoadRunSize(), getBTreeBulkLoadThreads(), getBTreeReadAheadLeaves(),
+                getSecondaryIndexStrategy(), getBTreeDeleteStrategy(), getBTreeLazyDeleteFillFactor(),
+                getBTreeMaintenanceInterval());
     }
 }
\ No newline at end of file
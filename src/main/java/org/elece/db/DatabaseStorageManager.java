@@ -19,4 +19,6 @@ public interface DatabaseStorageManager {
                                                       FileChannelException;
 
     void remove(Pointer pointer) throws DbException, StorageException, InterruptedTaskException, FileChannelException;
+
+    void close() throws StorageException, InterruptedTaskException, FileChannelException;
 }
@@ -28,6 +28,25 @@ public class DbObject {
         this.verify();
     }
 
+    /**
+     * Wraps row data that isn't stored in any page, such as a row rebuilt from the values stored in an index, so it can
+     * go through the same steps as the rows read from disk. The object is alive, but it must never be stored.
+     *
+     * @param tableId The id of the table of the row.
+     * @param data    The serialized row.
+     * @return The object wrapping a copy of the data.
+     * @throws DbException If the data is too small to be a row.
+     */
+    public static DbObject detached(int tableId, byte[] data) throws DbException {
+        Page page = new Page(-1, -1, new byte[Page.META_BYTES + META_BYTES + data.length + 1]);
+        DbObject dbObject = new DbObject(page, Page.META_BYTES, Page.META_BYTES + META_BYTES + data.length);
+        dbObject.setSize(data.length);
+        dbObject.modifyData(data);
+        dbObject.setTableId(tableId);
+        dbObject.activate();
+        return dbObject;
+    }
+
     public void setSize(int size) {
         System.arraycopy(BinaryUtils.integerToBytes(size), 0, this.wrappedData, begin + META_SIZE_OFFSET, Integer.BYTES);
     }
@@ -7,7 +7,6 @@ import org.elece.db.page.PageBuffer;
 import org.elece.db.page.PageTitle;
 import org.elece.exception.*;
 import org.elece.memory.Pointer;
-import org.elece.storage.file.FileChannel;
 import org.elece.storage.file.FileHandlerPool;
 
 import java.nio.file.Path;
@@ -20,13 +19,11 @@ import java.util.Optional;
 public class DiskPageDatabaseStorageManager implements DatabaseStorageManager {
     private final PageBuffer pageBuffer;
     private final DbConfig dbConfig;
-    private final FileHandlerPool fileHandlerPool;
     private final ReservedSlotTracer reservedSlotTracer;
 
     public DiskPageDatabaseStorageManager(DbConfig dbConfig, FileHandlerPool fileHandlerPool,
                                           ReservedSlotTracer reservedSlotTracer) {
         this.dbConfig = dbConfig;
-        this.fileHandlerPool = fileHandlerPool;
         this.reservedSlotTracer = reservedSlotTracer;
         this.pageBuffer = new PageBuffer(dbConfig, new DefaultPageFactory(dbConfig, fileHandlerPool, this::getDbFileName), fileHandlerPool, this::getDbFileName);
     }
@@ -53,14 +50,15 @@ public class DiskPageDatabaseStorageManager implements DatabaseStorageManager {
             Page page = this.getBufferedPage(dbObjectSlotLocation.pointer().getChunk(), dbObjectSlotLocation.pointer().getPosition());
             int offset = (int) (dbObjectSlotLocation.pointer().getPosition() % this.dbConfig.getDbPageSize());
 
-            Optional<DbObject> optionalDbObject = page.getDbObjectWrapper(offset);
-            if (optionalDbObject.isPresent()) {
-                try {
+            try {
+                // The slot may still hold a live object if its removal was lost on a crash.
+                Optional<DbObject> optionalDbObject = page.getDbObjectWrapper(offset);
+                if (optionalDbObject.isPresent() && !optionalDbObject.get().isAlive()) {
                     this.store(optionalDbObject.get(), tableId, data);
                     return dbObjectSlotLocation.pointer();
-                } finally {
-                    this.pageBuffer.release(PageTitle.of(page));
                 }
+            } finally {
+                this.pageBuffer.release(PageTitle.of(page));
             }
         }
 
@@ -197,6 +195,20 @@ public class DiskPageDatabaseStorageManager implements DatabaseStorageManager {
         }
     }
 
+    /**
+     * Writes every page modified since the last flush, stops the background page flusher and closes the tracer of
+     * free slots.
+     *
+     * @throws StorageException         If an error related to storage mechanisms occurs.
+     * @throws InterruptedTaskException If the task is interrupted while flushing.
+     * @throws FileChannelException     If there is an error with the file channel while flushing.
+     */
+    @Override
+    public void close() throws StorageException, InterruptedTaskException, FileChannelException {
+        this.pageBuffer.close();
+        this.reservedSlotTracer.close();
+    }
+
     private Page getBufferedPage(int chunk, long offset) throws DbException, InterruptedTaskException,
                                                                 FileChannelException, StorageException {
         int pageNumber = (int) (offset / this.dbConfig.getDbPageSize());
@@ -210,12 +222,7 @@ public class DiskPageDatabaseStorageManager implements DatabaseStorageManager {
 
     private void commitPage(Page page) throws InterruptedTaskException,
                                               StorageException, FileChannelException {
-        Path path = getDbFileName(page.getChunk());
-        FileChannel fileChannel = this.fileHandlerPool.acquireFileHandler(path);
-
-        fileChannel.write((long) page.getPageNumber() * this.dbConfig.getDbPageSize(), page.getData());
-
-        this.fileHandlerPool.releaseFileHandler(path);
+        this.pageBuffer.commit(page);
     }
 
     private void store(DbObject dbObject, int tableId, byte[] data) throws DbException, InterruptedTaskException,
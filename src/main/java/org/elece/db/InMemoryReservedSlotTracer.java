@@ -47,4 +47,9 @@ public class InMemoryReservedSlotTracer implements ReservedSlotTracer {
 
         return Optional.ofNullable(dbObjectSlotLocation);
     }
+
+    @Override
+    public void close() {
+        // Nothing to release, the free slots only live in memory.
+    }
 }
@@ -0,0 +1,235 @@
+package org.elece.db;
+
+import org.elece.config.DbConfig;
+import org.elece.exception.DbError;
+import org.elece.exception.StorageException;
+import org.elece.memory.Pointer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * {@link ReservedSlotTracer} that keeps the free slots in a map sorted by length, so the best fitting slot is found
+ * with a single ceiling lookup, and that survives restarts by logging every change to a file next to the chunk files.
+ * <p>
+ * The file is a sequence of fixed size entries, each one either adding or taking a slot. It is replayed when the
+ * tracer is created and rewritten with only the free slots once most of its entries are obsolete. The file is not
+ * forced on every change, as the pages holding the objects are not either; a slot that is lost on a crash is only
+ * space that won't be reused, and a slot whose removal never reached the disk is checked by the storage manager
+ * before being reused.
+ * <p>
+ * Each slot length is a size class with its own lock, so adding and taking slots of different lengths do not wait for
+ * each other. Only the appends to the file are serialized, by a separate lock. A size class is changed before its
+ * entry is appended, while still holding the class lock, so a compaction never drops a slot whose entry is already in
+ * the file, and the entries of the same slot are appended in the order their changes happened. Size classes are never
+ * removed once created, since there are only as many of them as there are distinct object lengths.
+ */
+public class PersistentReservedSlotTracer implements ReservedSlotTracer {
+    public static final String FILE_NAME = "elece_free_space.bin";
+
+    private static final byte ADD_ENTRY = 0x01;
+    private static final byte TAKE_ENTRY = 0x02;
+    private static final int ENTRY_BYTES = Byte.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int MIN_COMPACTION_ENTRIES = 1024;
+
+    private final Path path;
+    private final ConcurrentNavigableMap<Integer, Set<Pointer>> freeSlotsByLength;
+    private final Map<Pointer, Integer> freeSlots;
+    private final Object fileLock;
+    private FileChannel channel;
+    private long entries;
+
+    public PersistentReservedSlotTracer(DbConfig dbConfig) throws StorageException {
+        this.path = Path.of(dbConfig.getBaseDbPath(), FILE_NAME);
+        this.freeSlotsByLength = new ConcurrentSkipListMap<>();
+        this.freeSlots = new ConcurrentHashMap<>();
+        this.fileLock = new Object();
+        try {
+            Files.createDirectories(path.getParent());
+            this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        } catch (IOException exception) {
+            throw new StorageException(DbError.CHANNEL_OPENING_ERROR, exception.getMessage());
+        }
+        this.load();
+    }
+
+    @Override
+    public void add(DbObjectSlotLocation dbObjectSlotLocation) throws StorageException {
+        Pointer pointer = dbObjectSlotLocation.pointer();
+        int length = dbObjectSlotLocation.length();
+        Set<Pointer> sizeClass = getSizeClass(length);
+        synchronized (sizeClass) {
+            if (!this.track(pointer, length)) {
+                return;
+            }
+            try {
+                this.append(ADD_ENTRY, pointer, length);
+            } catch (StorageException exception) {
+                this.untrack(pointer);
+                throw exception;
+            }
+        }
+    }
+
+    @Override
+    public Optional<DbObjectSlotLocation> getFreeDbObjectSlotLocation(int length) throws StorageException {
+        for (Map.Entry<Integer, Set<Pointer>> entry : freeSlotsByLength.tailMap(length, true).entrySet()) {
+            Set<Pointer> sizeClass = entry.getValue();
+            synchronized (sizeClass) {
+                if (sizeClass.isEmpty()) {
+                    continue;
+                }
+
+                Pointer pointer = sizeClass.iterator().next();
+                this.untrack(pointer);
+                try {
+                    this.append(TAKE_ENTRY, pointer, entry.getKey());
+                } catch (StorageException exception) {
+                    this.track(pointer, entry.getKey());
+                    throw exception;
+                }
+                this.compactIfNeeded();
+                return Optional.of(new DbObjectSlotLocation(pointer, entry.getKey()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void close() throws StorageException {
+        synchronized (fileLock) {
+            try {
+                channel.force(true);
+                channel.close();
+            } catch (IOException exception) {
+                throw new StorageException(DbError.FAIL_TO_CLOSE_CHANNEL_ERROR, exception.getMessage());
+            }
+        }
+    }
+
+    private Set<Pointer> getSizeClass(int length) {
+        return freeSlotsByLength.computeIfAbsent(length, _ -> new LinkedHashSet<>());
+    }
+
+    /**
+     * Marks the slot as free. Must be called while holding the lock of the size class of the given length.
+     *
+     * @return false if the slot was already free.
+     */
+    private boolean track(Pointer pointer, int length) {
+        if (Objects.nonNull(freeSlots.putIfAbsent(pointer, length))) {
+            return false;
+        }
+        getSizeClass(length).add(pointer);
+        return true;
+    }
+
+    /**
+     * Marks the slot as taken. Must be called while holding the lock of the size class the slot is in.
+     */
+    private void untrack(Pointer pointer) {
+        Integer length = freeSlots.remove(pointer);
+        if (Objects.isNull(length)) {
+            return;
+        }
+
+        freeSlotsByLength.get(length).remove(pointer);
+    }
+
+    private void load() throws StorageException {
+        try {
+            // A trailing partial entry is a write torn by a crash and is dropped.
+            long size = channel.size() - (channel.size() % ENTRY_BYTES);
+            ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES);
+            for (long position = 0; position < size; position += ENTRY_BYTES) {
+                buffer.clear();
+                channel.read(buffer, position);
+                buffer.flip();
+                byte type = buffer.get();
+                Pointer pointer = new Pointer(Pointer.TYPE_DATA, buffer.getLong(), buffer.getInt());
+                int length = buffer.getInt();
+                if (type == ADD_ENTRY) {
+                    this.untrack(pointer);
+                    this.track(pointer, length);
+                } else {
+                    this.untrack(pointer);
+                }
+            }
+            this.entries = size / ENTRY_BYTES;
+            channel.truncate(size);
+        } catch (IOException exception) {
+            throw new StorageException(DbError.FILE_READ_ERROR, String.format("Failed to load free space map: %s", exception.getMessage()));
+        }
+        this.compactIfNeeded();
+    }
+
+    private void append(byte type, Pointer pointer, int length) throws StorageException {
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES);
+        buffer.put(type).putLong(pointer.getPosition()).putInt(pointer.getChunk()).putInt(length);
+        buffer.flip();
+        synchronized (fileLock) {
+            try {
+                long position = entries * ENTRY_BYTES;
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                entries++;
+            } catch (IOException exception) {
+                throw new StorageException(DbError.FILE_WRITE_ERROR, String.format("Failed to write free space map: %s", exception.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Rewrites the file with one entry per free slot once obsolete entries outnumber the live ones, so the file stays
+     * proportional to the free space it describes.
+     */
+    private void compactIfNeeded() throws StorageException {
+        synchronized (fileLock) {
+            if (entries >= MIN_COMPACTION_ENTRIES && entries >= 2L * freeSlots.size()) {
+                this.compact();
+            }
+        }
+    }
+
+    /**
+     * Must be called while holding the file lock. Slots changed concurrently may or may not be part of the rewritten
+     * file, in which case their entry is appended after it.
+     */
+    private void compact() throws StorageException {
+        Map<Pointer, Integer> liveSlots = new HashMap<>(freeSlots);
+        Path compactedPath = Path.of(path.toString() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES * Math.max(1, liveSlots.size()));
+        for (Map.Entry<Pointer, Integer> entry : liveSlots.entrySet()) {
+            buffer.put(ADD_ENTRY).putLong(entry.getKey().getPosition()).putInt(entry.getKey().getChunk()).putInt(entry.getValue());
+        }
+        buffer.flip();
+
+        try (FileChannel compactedChannel = FileChannel.open(compactedPath, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                compactedChannel.write(buffer);
+            }
+            compactedChannel.force(true);
+        } catch (IOException exception) {
+            throw new StorageException(DbError.FILE_WRITE_ERROR, String.format("Failed to compact free space map: %s", exception.getMessage()));
+        }
+
+        try {
+            channel.close();
+            Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.entries = liveSlots.size();
+        } catch (IOException exception) {
+            throw new StorageException(DbError.CHANNEL_OPENING_ERROR, exception.getMessage());
+        }
+    }
+}
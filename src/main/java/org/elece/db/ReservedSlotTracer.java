@@ -1,9 +1,13 @@
 package org.elece.db;
 
+import org.elece.exception.StorageException;
+
 import java.util.Optional;
 
 public interface ReservedSlotTracer {
-    void add(DbObjectSlotLocation dbObjectSlotLocation);
+    void add(DbObjectSlotLocation dbObjectSlotLocation) throws StorageException;
+
+    Optional<DbObjectSlotLocation> getFreeDbObjectSlotLocation(int length) throws StorageException;
 
-    Optional<DbObjectSlotLocation> getFreeDbObjectSlotLocation(int length);
+    void close() throws StorageException;
 }
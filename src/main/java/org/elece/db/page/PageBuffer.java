@@ -2,7 +2,8 @@ package org.elece.db.page;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.RemovalListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.elece.config.DbConfig;
 import org.elece.exception.*;
 import org.elece.storage.file.FileChannel;
@@ -11,21 +12,40 @@ import org.elece.storage.file.FileHandlerPool;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 /**
  * PageBuffer is responsible for managing a buffer of pages within a database.
  * It uses a cache to store pages and manages loaded pages using a ConcurrentHashMap.
- * This class ensures synchronized acquirement and release of pages, and handles creation
- * of new empty pages when necessary.
+ * Acquirement and release of pages only rely on per-page atomic operations of concurrent maps and on each page's
+ * own reference count, and the class handles creation of new empty pages when necessary.
+ * <p>
+ * Modified pages are written back lazily: {@link #commit(Page)} only marks the page as dirty, and a background
+ * flusher writes dirty pages once they have been dirty for longer than the configured flush interval, or as soon
+ * as the number of dirty pages reaches the configured ratio of the buffer capacity. Dirty pages are also tracked
+ * outside the cache, so a page evicted from the cache before being flushed is still served from memory and
+ * eventually written. {@link #close()} flushes every remaining dirty page.
  */
 public class PageBuffer {
+    private final Logger logger = LogManager.getLogger(PageBuffer.class);
+
     private final Cache<PageTitle, PageWrapper> buffer;
     private final PageFactory pageFactory;
     private final Map<PageTitle, PageWrapper> loadedPages;
+    private final Map<PageTitle, PageWrapper> dirtyPages;
+    private final Map<PageTitle, CompletableFuture<PageWrapper>> loadingPages;
+    private final Object tailLock;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested;
     private final FileHandlerPool fileHandlerPool;
     private final DbConfig dbConfig;
     private final Function<Integer, Path> dbFileFunction;
@@ -39,24 +59,36 @@ public class PageBuffer {
         this.dbConfig = dbConfig;
         this.dbFileFunction = dbFileFunction;
         this.loadedPages = new ConcurrentHashMap<>();
+        this.dirtyPages = new ConcurrentHashMap<>();
+        this.loadingPages = new ConcurrentHashMap<>();
+        this.tailLock = new Object();
+        this.flushRequested = new AtomicBoolean(false);
         this.buffer = CacheBuilder
                 .newBuilder()
                 .maximumSize(dbConfig.getDbPageBufferSize())
                 .initialCapacity(dbConfig.getDbPageBufferSize() / 2)
-                .removalListener((RemovalListener<PageTitle, PageWrapper>) notification -> {
-                    if (notification.getValue() == null) {
-                        throw new RuntimeDbException(DbError.INTERNAL_DATABASE_ERROR, "Page is null");
-                    }
-                    if (notification.getValue().getRefCount() == 0) {
-                        loadedPages.remove(notification.getKey());
-                    }
-                })
                 .build();
+
+        if (dbConfig.getDbPageFlushInterval() > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "page-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(() -> flushDirtyPages(dbConfig.getDbPageFlushInterval()),
+                    dbConfig.getDbPageFlushInterval(), dbConfig.getDbPageFlushInterval(), TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
     }
 
     /**
      * Acquires a Page associated with the given PageTitle. If the Page is not already loaded into memory,
      * it will be fetched and loaded. The reference count of the Page will also be incremented.
+     * <p>
+     * Hits never take a buffer wide lock. On a miss, the first thread registers a load future for the title and
+     * reads the page, while other threads asking for the same title wait on that future; misses on different
+     * titles load in parallel.
      *
      * @param title The title of the page to acquire, containing chunk and page number information.
      * @return The Page object associated with the given PageTitle.
@@ -65,21 +97,19 @@ public class PageBuffer {
      * @throws StorageException         If there is an error during storage operations.
      * @throws FileChannelException     If there is an error related to file channel operations.
      */
-    public synchronized Page acquire(PageTitle title) throws DbException, InterruptedTaskException, StorageException,
-                                                             FileChannelException {
-        PageWrapper pageWrapper = this.loadedPages.get(title);
-        if (pageWrapper == null) {
-            pageWrapper = this.buffer.getIfPresent(title);
+    public Page acquire(PageTitle title) throws DbException, InterruptedTaskException, StorageException,
+                                                FileChannelException {
+        while (true) {
+            PageWrapper pageWrapper = findBufferedPage(title);
             if (pageWrapper == null) {
-                Page page = pageFactory.getPage(title);
-                pageWrapper = new PageWrapper(page);
-                buffer.put(title, pageWrapper);
-                this.loadedPages.put(title, pageWrapper);
+                pageWrapper = loadPage(title);
             }
-        }
 
-        pageWrapper.incrementRefCount();
-        return pageWrapper.getPage();
+            PageWrapper pinnedPageWrapper = pin(title, pageWrapper);
+            if (pinnedPageWrapper != null) {
+                return pinnedPageWrapper.getPage();
+            }
+        }
     }
 
     /**
@@ -89,15 +119,220 @@ public class PageBuffer {
      *
      * @param title The title of the page to release, containing chunk and page number information.
      */
-    public synchronized void release(PageTitle title) {
-        AtomicBoolean referred = new AtomicBoolean(false);
+    public void release(PageTitle title) {
         this.loadedPages.computeIfPresent(title, (_, pageWrapper) -> {
-            referred.set(true);
             pageWrapper.decrementRefCount();
+            return pageWrapper.getRefCount() > 0 ? pageWrapper : null;
+        });
+    }
+
+    private PageWrapper findBufferedPage(PageTitle title) {
+        PageWrapper pageWrapper = this.loadedPages.get(title);
+        if (pageWrapper == null) {
+            pageWrapper = this.buffer.getIfPresent(title);
+        }
+        if (pageWrapper == null) {
+            pageWrapper = this.dirtyPages.get(title);
+            if (pageWrapper != null) {
+                this.buffer.put(title, pageWrapper);
+            }
+        }
+        return pageWrapper;
+    }
+
+    private PageWrapper loadPage(PageTitle title) throws DbException, InterruptedTaskException, StorageException,
+                                                         FileChannelException {
+        CompletableFuture<PageWrapper> future = new CompletableFuture<>();
+        CompletableFuture<PageWrapper> existingFuture = this.loadingPages.putIfAbsent(title, future);
+        if (existingFuture != null) {
+            return awaitLoad(existingFuture);
+        }
+
+        try {
+            // Another thread may have finished loading the page between the lookup and registering the future.
+            PageWrapper pageWrapper = findBufferedPage(title);
+            if (pageWrapper == null) {
+                pageWrapper = new PageWrapper(pageFactory.getPage(title));
+                // A dirty wrapper put back into the buffer meanwhile is newer than the page read from disk.
+                PageWrapper bufferedPageWrapper = this.buffer.asMap().putIfAbsent(title, pageWrapper);
+                if (bufferedPageWrapper != null) {
+                    pageWrapper = bufferedPageWrapper;
+                }
+            }
+            future.complete(pageWrapper);
             return pageWrapper;
+        } catch (DbException | InterruptedTaskException | StorageException | FileChannelException |
+                 RuntimeException exception) {
+            // Threads already waiting on the future must be released whatever the failure is.
+            future.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            this.loadingPages.remove(title, future);
+        }
+    }
+
+    private PageWrapper awaitLoad(CompletableFuture<PageWrapper> future) throws DbException, InterruptedTaskException,
+                                                                                StorageException, FileChannelException {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            switch (exception.getCause()) {
+                case DbException dbException -> throw dbException;
+                case InterruptedTaskException interruptedTaskException -> throw interruptedTaskException;
+                case StorageException storageException -> throw storageException;
+                case FileChannelException fileChannelException -> throw fileChannelException;
+                case RuntimeException runtimeException -> throw runtimeException;
+                default -> throw new DbException(DbError.PAGE_ACQUISITION_ERROR, "Failed to load page");
+            }
+        }
+    }
+
+    /**
+     * Increments the reference count of the page and keeps it in the loaded pages while it is referenced. If a
+     * wrapper for the same title is already loaded, that one wins, so every holder shares one instance. Otherwise the
+     * candidate is only pinned if it is still the buffered one, since it may have been evicted and replaced by a newer
+     * wrapper after it was found.
+     *
+     * @return The pinned wrapper, or null if the candidate is stale and the page has to be looked up again.
+     */
+    private PageWrapper pin(PageTitle title, PageWrapper candidate) {
+        PageWrapper[] pinned = new PageWrapper[1];
+        this.loadedPages.compute(title, (_, current) -> {
+            if (current != null) {
+                current.incrementRefCount();
+                pinned[0] = current;
+                return current;
+            }
+
+            candidate.incrementRefCount();
+            if (this.buffer.getIfPresent(title) != candidate) {
+                candidate.decrementRefCount();
+                return null;
+            }
+            pinned[0] = candidate;
+            return candidate;
         });
-        if (referred.get()) {
-            this.loadedPages.remove(title);
+        return pinned[0];
+    }
+
+    /**
+     * Persists the modifications done to an acquired page. With a flush interval configured the page is only marked
+     * as dirty and written later by the background flusher, otherwise it is written immediately.
+     *
+     * @param page The acquired page whose content was modified.
+     * @throws InterruptedTaskException If the task is interrupted during execution.
+     * @throws StorageException         If there is an error during storage operations.
+     * @throws FileChannelException     If there is an error related to file channel operations.
+     */
+    public void commit(Page page) throws InterruptedTaskException, StorageException, FileChannelException {
+        if (Objects.isNull(flusher)) {
+            writePage(page, page.getData());
+            return;
+        }
+
+        PageTitle title = PageTitle.of(page);
+        PageWrapper pageWrapper = this.loadedPages.get(title);
+        if (pageWrapper == null) {
+            pageWrapper = this.buffer.getIfPresent(title);
+        }
+        if (pageWrapper == null || pageWrapper.getPage() != page) {
+            // The page is no longer tracked by the buffer, so it can't be written back later.
+            writePage(page, page.getData());
+            return;
+        }
+
+        PageWrapper dirtyPageWrapper = pageWrapper;
+        this.dirtyPages.compute(title, (_, _) -> {
+            dirtyPageWrapper.markDirty();
+            return dirtyPageWrapper;
+        });
+
+        if (this.dirtyPages.size() >= this.dbConfig.getDbPageDirtyRatio() * this.dbConfig.getDbPageBufferSize()
+                && this.flushRequested.compareAndSet(false, true)) {
+            this.flusher.execute(() -> {
+                this.flushRequested.set(false);
+                flushDirtyPages(0);
+            });
+        }
+    }
+
+    /**
+     * Writes every dirty page to disk.
+     *
+     * @throws InterruptedTaskException If the task is interrupted during execution.
+     * @throws StorageException         If there is an error during storage operations.
+     * @throws FileChannelException     If there is an error related to file channel operations.
+     */
+    public void flush() throws InterruptedTaskException, StorageException, FileChannelException {
+        for (Map.Entry<PageTitle, PageWrapper> entry : this.dirtyPages.entrySet()) {
+            flushPage(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Stops the background flusher and writes every remaining dirty page.
+     *
+     * @throws InterruptedTaskException If the task is interrupted during execution.
+     * @throws StorageException         If there is an error during storage operations.
+     * @throws FileChannelException     If there is an error related to file channel operations.
+     */
+    public void close() throws InterruptedTaskException, StorageException, FileChannelException {
+        if (Objects.nonNull(flusher)) {
+            flusher.shutdown();
+            try {
+                if (!flusher.awaitTermination(dbConfig.getCloseTimeoutTime(), dbConfig.getTimeoutUnit())) {
+                    logger.warn("Timed out waiting for the page flusher to stop");
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedTaskException(DbError.TASK_INTERRUPTED_ERROR, "Interrupted while stopping the page flusher");
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Writes the dirty pages that have been dirty for at least the given age. Failures are logged and the page
+     * stays dirty, so it is retried on the next run.
+     */
+    private void flushDirtyPages(long minimumAge) {
+        long threshold = System.currentTimeMillis() - minimumAge;
+        for (Map.Entry<PageTitle, PageWrapper> entry : this.dirtyPages.entrySet()) {
+            long dirtySince = entry.getValue().getDirtySince();
+            if (dirtySince == 0 || dirtySince > threshold) {
+                continue;
+            }
+            try {
+                flushPage(entry.getKey(), entry.getValue());
+            } catch (InterruptedTaskException | StorageException | FileChannelException exception) {
+                logger.error("Failed to flush page {} of chunk {}", entry.getKey().getPageNumber(), entry.getKey().getChunk(), exception);
+            }
+        }
+    }
+
+    private void flushPage(PageTitle title, PageWrapper pageWrapper) throws InterruptedTaskException,
+                                                                             StorageException, FileChannelException {
+        if (pageWrapper.clearDirty()) {
+            byte[] data = pageWrapper.getPage().getData().clone();
+            try {
+                writePage(pageWrapper.getPage(), data);
+            } catch (InterruptedTaskException | StorageException | FileChannelException exception) {
+                pageWrapper.markDirty();
+                throw exception;
+            }
+        }
+        // Only stop tracking the page if it was not modified again while it was being written.
+        this.dirtyPages.computeIfPresent(title, (_, current) -> current.isDirty() ? current : null);
+    }
+
+    private void writePage(Page page, byte[] data) throws InterruptedTaskException, StorageException,
+                                                          FileChannelException {
+        Path path = dbFileFunction.apply(page.getChunk());
+        FileChannel fileChannel = this.fileHandlerPool.acquireFileHandler(path);
+        try {
+            fileChannel.write((long) page.getPageNumber() * this.dbConfig.getDbPageSize(), data);
+        } finally {
+            this.fileHandlerPool.releaseFileHandler(path);
         }
     }
 
@@ -130,7 +365,7 @@ public class PageBuffer {
             return Optional.empty();
         }
 
-        synchronized (this) {
+        synchronized (tailLock) {
             int pageNumber;
             FileChannel fileChannel = fileHandlerPool.acquireFileHandler(dbFileFunction.apply(lastChunk));
             pageNumber = (int) (fileChannel.size() / this.dbConfig.getDbPageSize());
@@ -156,24 +391,27 @@ public class PageBuffer {
      */
     public Page getBufferedNewPage() throws DbException, InterruptedTaskException, StorageException,
                                             FileChannelException {
-        PageTitle tempLastPageTitle = this.lastPageTitle;
+        // Serialized with other tail changes so concurrent callers never allocate the same page number.
+        synchronized (tailLock) {
+            PageTitle tempLastPageTitle = this.lastPageTitle;
 
-        int chunk = 0;
-        int pageNumber = 0;
+            int chunk = 0;
+            int pageNumber = 0;
 
-        if (tempLastPageTitle != null) {
-            chunk = tempLastPageTitle.getChunk();
-            pageNumber = tempLastPageTitle.getPageNumber() + 1;
-        }
+            if (tempLastPageTitle != null) {
+                chunk = tempLastPageTitle.getChunk();
+                pageNumber = tempLastPageTitle.getPageNumber() + 1;
+            }
 
-        if (this.dbConfig.getDbPageMaxFileSize() != DbConfig.UNLIMITED_FILE_SIZE && (long) pageNumber * this.dbConfig.getDbPageSize() > this.dbConfig.getDbPageMaxFileSize()) {
-            chunk += 1;
-        }
+            if (this.dbConfig.getDbPageMaxFileSize() != DbConfig.UNLIMITED_FILE_SIZE && (long) pageNumber * this.dbConfig.getDbPageSize() > this.dbConfig.getDbPageMaxFileSize()) {
+                chunk += 1;
+            }
 
-        this.generateNewEmptyPage(chunk);
+            this.generateNewEmptyPage(chunk);
 
-        this.lastPageTitle = new PageTitle(chunk, pageNumber);
-        return this.acquire(this.lastPageTitle);
+            this.lastPageTitle = new PageTitle(chunk, pageNumber);
+            return this.acquire(this.lastPageTitle);
+        }
     }
 
 
@@ -1,10 +1,18 @@
 package org.elece.db.page;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class PageWrapper {
+    private static final long CLEAN = 0L;
+
     private final Page page;
     private final AtomicInteger refCount = new AtomicInteger(0);
+    /**
+     * Time, in milliseconds, at which the page was first modified after its last flush, or {@link #CLEAN} if the
+     * in-memory content matches the disk.
+     */
+    private final AtomicLong dirtySince = new AtomicLong(CLEAN);
 
     public PageWrapper(Page page) {
         this.page = page;
@@ -25,4 +33,26 @@ public class PageWrapper {
     public int getRefCount() {
         return refCount.get();
     }
+
+    public void markDirty() {
+        dirtySince.compareAndSet(CLEAN, Math.max(System.currentTimeMillis(), 1L));
+    }
+
+    /**
+     * Marks the page as clean before its content is written, so modifications done while the write is in progress
+     * mark it dirty again instead of being lost.
+     *
+     * @return true if the page was dirty.
+     */
+    public boolean clearDirty() {
+        return dirtySince.getAndSet(CLEAN) != CLEAN;
+    }
+
+    public boolean isDirty() {
+        return dirtySince.get() != CLEAN;
+    }
+
+    public long getDirtySince() {
+        return dirtySince.get();
+    }
 }
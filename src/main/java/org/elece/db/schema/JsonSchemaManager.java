@@ -15,6 +15,7 @@ import org.elece.db.schema.model.Table;
 import org.elece.db.schema.model.builder.SchemaBuilder;
 import org.elece.exception.*;
 import org.elece.index.ColumnIndexManagerProvider;
+import org.elece.index.CompositeKey;
 import org.elece.index.IndexManager;
 import org.elece.index.LockableIterator;
 import org.elece.memory.Pointer;
@@ -28,6 +29,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -194,7 +198,8 @@ public class JsonSchemaManager implements SchemaManager {
                 table.addIndex(new Index("cluster_index", CLUSTER_ID));
                 columnIndexManagerProvider.getClusterIndexManager(table);
             } else if (column.isUnique()) {
-                table.addIndex(new Index(String.format("col_index_%d", column.getId()), column.getName()));
+                table.addIndex(new Index(String.format("col_index_%d", column.getId()), column.getName())
+                        .withSecondaryIndexStrategy(dbConfig.getSecondaryIndexStrategy()));
                 columnIndexManagerProvider.getIndexManager(table, column);
             }
         }
@@ -256,7 +261,7 @@ public class JsonSchemaManager implements SchemaManager {
 
         logger.info("Removing all related indexes from table {}", tableName);
         for (Column column : table.getColumns()) {
-            if (column.isUnique()) {
+            if (!CLUSTER_ID.equals(column.getName()) && (column.isUnique() || SchemaSearcher.columnIsIndexed(table, column.getName()))) {
                 logger.info("Clearing indexed column {}", column.getName());
                 IndexManager<?, ?> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
                 indexManager.purgeIndex();
@@ -270,12 +275,13 @@ public class JsonSchemaManager implements SchemaManager {
     }
 
     /**
-     * Creates an index on a specified table. The index ensures that the column specified is unique and updates the schema
-     * accordingly. The process of creating an index involves reading all rows from disk, extracting the value of the column being indexed, and add those files to the new index.
+     * Creates an index on a specified table. A unique index ensures that the column specified is unique and updates the schema
+     * accordingly, while a non-unique index lets the values of the column repeat. The process of creating an index involves reading all rows from disk, extracting the value of the column being indexed, and add those files to the new index.
      *
      * @param <K>       The type of keys used in the index, which must be compatible with the clustered column.
      * @param tableName The name of the table on which the index is to be created.
      * @param index     The index definition, including the column to be indexed.
+     * @param unique    Whether the values of the column must be unique.
      * @return The number of rows that were affected by creating the new index.
      * @throws SchemaException          If there are errors related to the schema, such as the table or column not being found.
      * @throws StorageException         If there are issues with storage operations.
@@ -287,7 +293,7 @@ public class JsonSchemaManager implements SchemaManager {
      * @throws FileChannelException     If there are issues with file channel operations.
      */
     @Override
-    public synchronized <K extends Number & Comparable<K>> int createIndex(String tableName, Index index) throws
+    public synchronized <K extends Number & Comparable<K>> int createIndex(String tableName, Index index, boolean unique) throws
                                                                                                           SchemaException,
                                                                                                           StorageException,
                                                                                                           DbException,
@@ -304,6 +310,8 @@ public class JsonSchemaManager implements SchemaManager {
         }
 
         Table table = optionalTable.get();
+        // The values of the index keep the layout they are created with, whatever the configuration is later.
+        index = index.withSecondaryIndexStrategy(dbConfig.getSecondaryIndexStrategy());
         table.addIndex(index);
 
         Optional<Column> optionalColumn = SchemaSearcher.findColumn(table, index.getColumnName());
@@ -312,32 +320,21 @@ public class JsonSchemaManager implements SchemaManager {
         }
 
         Column column = optionalColumn.get();
-        column.addConstraint(SqlConstraint.UNIQUE);
+        if (unique) {
+            column.addConstraint(SqlConstraint.UNIQUE);
+        }
 
         persistSchema();
 
-        int rowCount = 0;
-
         IndexManager<K, Pointer> clusterIndexManager = columnIndexManagerProvider.getClusterIndexManager(table);
-        IndexManager<?, K> indexManager = columnIndexManagerProvider.getIndexManager(table, optionalColumn.get());
+        IndexManager<?, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, optionalColumn.get());
         LockableIterator<LeafTreeNode.KeyValue<K, Pointer>> sortedIterator = clusterIndexManager.getSortedIterator();
 
         logger.info("Creating new index {} on table {}; Trying to update indexes", index, tableName);
+        int rowCount;
         try {
             sortedIterator.lock();
-            while (sortedIterator.hasNext()) {
-                LeafTreeNode.KeyValue<K, Pointer> keyValue = sortedIterator.next();
-
-                Optional<DbObject> optionalDbObject = databaseStorageManager.select(keyValue.value());
-                if (optionalDbObject.isEmpty() || !optionalDbObject.get().isAlive()) {
-                    continue;
-                }
-
-                DbObject dbObject = optionalDbObject.get();
-
-                indexManager.addIndex(SerializationUtils.getValueOfFieldAsObject(table, column, dbObject.getData()), keyValue.key());
-                rowCount++;
-            }
+            rowCount = bulkLoadIndex(table, column, indexManager, sortedIterator, unique);
         } finally {
             sortedIterator.unlock();
         }
@@ -346,6 +343,73 @@ public class JsonSchemaManager implements SchemaManager {
         return rowCount;
     }
 
+    /**
+     * Feeds the value of the column in every live row, paired with the row's cluster id, or its location depending on
+     * the secondary index strategy, and the covered values if the index is covering, to the bulk load of the index,
+     * reading the rows in cluster id order. A non-unique
+     * index is keyed by the values of its key columns and the cluster id together, see {@link CompositeKey}.
+     *
+     * @return The number of rows added to the index.
+     */
+    @SuppressWarnings("unchecked")
+    private <V extends Comparable<V>, K extends Number & Comparable<K>> int bulkLoadIndex(Table table, Column column,
+                                                                                          IndexManager<V, Object> indexManager,
+                                                                                          LockableIterator<LeafTreeNode.KeyValue<K, Pointer>> sortedIterator,
+                                                                                          boolean unique) throws
+                                                                                                                                                                BTreeException,
+                                                                                                                                                                StorageException,
+                                                                                                                                                                SerializationException,
+                                                                                                                                                                InterruptedTaskException,
+                                                                                                                                                                FileChannelException {
+        AtomicInteger rowCount = new AtomicInteger(0);
+        indexManager.bulkLoad(new Iterator<>() {
+            private LeafTreeNode.KeyValue<V, Object> nextKeyValue;
+
+            @Override
+            public boolean hasNext() {
+                while (Objects.isNull(nextKeyValue) && sortedIterator.hasNext()) {
+                    LeafTreeNode.KeyValue<K, Pointer> keyValue = sortedIterator.next();
+                    try {
+                        Optional<DbObject> optionalDbObject = databaseStorageManager.select(keyValue.value());
+                        if (optionalDbObject.isPresent() && optionalDbObject.get().isAlive()) {
+                            byte[] rowData = optionalDbObject.get().getData();
+                            V key = unique ? SerializationUtils.getValueOfFieldAsObject(table, column, rowData) :
+                                    (V) getNonUniqueIndexKey(table, column, rowData, keyValue.key());
+                            Object indexValue = columnIndexManagerProvider.getSecondaryIndexValue(table, column, keyValue.key().intValue(), keyValue.value(), rowData);
+                            nextKeyValue = new LeafTreeNode.KeyValue<>(key, indexValue);
+                        }
+                    } catch (DbException | InterruptedTaskException | StorageException | FileChannelException |
+                             DeserializationException exception) {
+                        throw new RuntimeDbException(exception.getDbError(), exception.getMessage());
+                    }
+                }
+                return !Objects.isNull(nextKeyValue);
+            }
+
+            @Override
+            public LeafTreeNode.KeyValue<V, Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                LeafTreeNode.KeyValue<V, Object> output = nextKeyValue;
+                nextKeyValue = null;
+                rowCount.incrementAndGet();
+                return output;
+            }
+        });
+        return rowCount.get();
+    }
+
+    private static CompositeKey getNonUniqueIndexKey(Table table, Column column, byte[] rowData, Number clusterId) throws
+                                                                                                               DeserializationException {
+        List<Comparable<?>> keyValues = new ArrayList<>();
+        for (Column indexColumn : SchemaSearcher.findIndexColumns(table, column)) {
+            keyValues.add(SerializationUtils.getValueOfFieldAsObject(table, indexColumn, rowData));
+        }
+        keyValues.add(clusterId.intValue());
+        return CompositeKey.of(keyValues);
+    }
+
     private void validateSchemaExists() throws SchemaException {
         if (Objects.isNull(schema)) {
             throw new SchemaException(DbError.SCHEMA_NOT_FOUND_ERROR, "Database schema is not defined");
@@ -19,12 +19,13 @@ public interface SchemaManager {
                                                                                 DbException, InterruptedTaskException,
                                                                                 FileChannelException;
 
-    <K extends Number & Comparable<K>> int createIndex(String tableName, Index index) throws SchemaException,
-                                                                                             StorageException,
-                                                                                             DbException,
-                                                                                             DeserializationException,
-                                                                                             BTreeException,
-                                                                                             SerializationException,
-                                                                                             InterruptedTaskException,
-                                                                                             FileChannelException;
+    <K extends Number & Comparable<K>> int createIndex(String tableName, Index index, boolean unique) throws
+                                                                                                          SchemaException,
+                                                                                                          StorageException,
+                                                                                                          DbException,
+                                                                                                          DeserializationException,
+                                                                                                          BTreeException,
+                                                                                                          SerializationException,
+                                                                                                          InterruptedTaskException,
+                                                                                                          FileChannelException;
 }
@@ -1,11 +1,14 @@
 package org.elece.db.schema;
 
 import org.elece.db.schema.model.Column;
+import org.elece.db.schema.model.Index;
 import org.elece.db.schema.model.Schema;
 import org.elece.db.schema.model.Table;
 import org.elece.exception.DbError;
 import org.elece.exception.SchemaException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.elece.db.schema.model.Column.CLUSTER_ID;
@@ -39,4 +42,47 @@ public class SchemaSearcher {
     public static boolean columnIsIndexed(Table table, String name) {
         return table.getIndexes().stream().anyMatch(index -> index.getColumnName().equals(name));
     }
+
+    public static Optional<Index> findIndex(Table table, String columnName) {
+        return table.getIndexes().stream().filter(index -> index.getColumnName().equals(columnName)).findFirst();
+    }
+
+    /**
+     * Finds the columns of the key of the index of a column, which are the indexed column followed by the additional
+     * columns, if the index is composite.
+     *
+     * @return The key columns, which is only the column itself if it has no composite index.
+     */
+    public static List<Column> findIndexColumns(Table table, Column column) {
+        Optional<Index> index = findIndex(table, column.getName());
+        if (index.isEmpty() || !index.get().isComposite()) {
+            return List.of(column);
+        }
+
+        List<Column> indexColumns = new ArrayList<>();
+        indexColumns.add(column);
+        for (String additionalColumn : index.get().getAdditionalColumns()) {
+            findColumn(table, additionalColumn).ifPresent(indexColumns::add);
+        }
+        return indexColumns;
+    }
+
+    /**
+     * Finds the columns whose values are stored in the index of a column, which are the key columns followed by the
+     * included columns, if the index is covering.
+     *
+     * @return The covered columns, or an empty list if the column has no covering index.
+     */
+    public static List<Column> findCoveredColumns(Table table, Column column) {
+        Optional<Index> index = findIndex(table, column.getName());
+        if (index.isEmpty() || !index.get().isCovering()) {
+            return List.of();
+        }
+
+        List<Column> coveredColumns = new ArrayList<>(findIndexColumns(table, column));
+        for (String includedColumn : index.get().getIncludedColumns()) {
+            findColumn(table, includedColumn).ifPresent(coveredColumns::add);
+        }
+        return coveredColumns;
+    }
 }
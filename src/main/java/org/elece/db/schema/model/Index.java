@@ -1,14 +1,44 @@
 package org.elece.db.schema.model;
 
+import org.elece.config.DbConfig;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 public class Index {
     private final String name;
     private final String columnName;
+    private final List<String> additionalColumns;
+    private final List<String> includedColumns;
+    private final Type type;
+    private final DbConfig.SecondaryIndexStrategy secondaryIndexStrategy;
 
     public Index(String name, String columnName) {
+        this(name, columnName, List.of());
+    }
+
+    public Index(String name, String columnName, List<String> includedColumns) {
+        this(name, columnName, List.of(), includedColumns);
+    }
+
+    public Index(String name, String columnName, List<String> additionalColumns, List<String> includedColumns) {
+        this(name, columnName, additionalColumns, includedColumns, Type.BTREE);
+    }
+
+    public Index(String name, String columnName, List<String> additionalColumns, List<String> includedColumns,
+                 Type type) {
+        this(name, columnName, additionalColumns, includedColumns, type, null);
+    }
+
+    public Index(String name, String columnName, List<String> additionalColumns, List<String> includedColumns,
+                 Type type, DbConfig.SecondaryIndexStrategy secondaryIndexStrategy) {
         this.name = name;
         this.columnName = columnName;
+        this.additionalColumns = additionalColumns;
+        this.includedColumns = includedColumns;
+        this.type = type;
+        this.secondaryIndexStrategy = secondaryIndexStrategy;
     }
 
     public String getName() {
@@ -19,6 +49,63 @@ public class Index {
         return columnName;
     }
 
+    /**
+     * The columns that follow the leading column in the key of a composite index, in order. Schemas persisted before
+     * this was added have none.
+     */
+    public List<String> getAdditionalColumns() {
+        return Objects.isNull(additionalColumns) ? List.of() : additionalColumns;
+    }
+
+    /**
+     * All the columns of the key of the index, starting with the leading column.
+     */
+    public List<String> getColumnNames() {
+        List<String> columnNames = new ArrayList<>();
+        columnNames.add(columnName);
+        columnNames.addAll(getAdditionalColumns());
+        return columnNames;
+    }
+
+    public boolean isComposite() {
+        return !getAdditionalColumns().isEmpty();
+    }
+
+    /**
+     * The columns whose values are stored in the index next to the indexed column, so queries that only need these
+     * columns can be answered from the index alone. Schemas persisted before this was added have none.
+     */
+    public List<String> getIncludedColumns() {
+        return Objects.isNull(includedColumns) ? List.of() : includedColumns;
+    }
+
+    public boolean isCovering() {
+        return !getIncludedColumns().isEmpty();
+    }
+
+    /**
+     * The structure that stores the index. Schemas persisted before this was added only have B+ tree indexes.
+     */
+    public Type getType() {
+        return Objects.isNull(type) ? Type.BTREE : type;
+    }
+
+    /**
+     * What the index stores to reference each row, fixed when the index is created so the values already in the index
+     * are still read correctly once {@link DbConfig#getSecondaryIndexStrategy()} changes. Schemas persisted before
+     * this was added store cluster ids.
+     */
+    public DbConfig.SecondaryIndexStrategy getSecondaryIndexStrategy() {
+        return Objects.isNull(secondaryIndexStrategy) ? DbConfig.SecondaryIndexStrategy.CLUSTER_ID : secondaryIndexStrategy;
+    }
+
+    /**
+     * Returns a copy of the index that references rows with the given strategy.
+     */
+    public Index withSecondaryIndexStrategy(DbConfig.SecondaryIndexStrategy secondaryIndexStrategy) {
+        return new Index(name, columnName, additionalColumns, includedColumns, type, secondaryIndexStrategy);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -28,12 +115,16 @@ public class Index {
             return false;
         }
         Index index = (Index) obj;
-        return Objects.equals(name, index.name) && Objects.equals(columnName, index.columnName);
+        return Objects.equals(name, index.name) && Objects.equals(columnName, index.columnName) &&
+                Objects.equals(getAdditionalColumns(), index.getAdditionalColumns()) &&
+                Objects.equals(getIncludedColumns(), index.getIncludedColumns()) && getType() == index.getType() &&
+                getSecondaryIndexStrategy() == index.getSecondaryIndexStrategy();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, columnName);
+        return Objects.hash(name, columnName, getAdditionalColumns(), getIncludedColumns(), getType(),
+                getSecondaryIndexStrategy());
     }
 
     @Override
@@ -41,6 +132,15 @@ public class Index {
         return "Index{" +
                 "name='" + name + '\'' +
                 ", columnName='" + columnName + '\'' +
+                ", additionalColumns=" + getAdditionalColumns() +
+                ", includedColumns=" + getIncludedColumns() +
+                ", type=" + getType() +
+                ", secondaryIndexStrategy=" + getSecondaryIndexStrategy() +
                 '}';
     }
+
+    public enum Type {
+        BTREE,
+        HASH
+    }
 }
@@ -1,10 +1,17 @@
 package org.elece.db.schema.model.builder;
 
+import org.elece.config.DbConfig;
 import org.elece.db.schema.model.Index;
 
+import java.util.List;
+
 public class IndexBuilder {
     private String name;
     private String columnName;
+    private List<String> additionalColumns = List.of();
+    private List<String> includedColumns = List.of();
+    private Index.Type type = Index.Type.BTREE;
+    private DbConfig.SecondaryIndexStrategy secondaryIndexStrategy;
 
     private IndexBuilder() {
         // private constructor
@@ -24,7 +31,27 @@ public class IndexBuilder {
         return this;
     }
 
+    public IndexBuilder setAdditionalColumns(List<String> additionalColumns) {
+        this.additionalColumns = additionalColumns;
+        return this;
+    }
+
+    public IndexBuilder setIncludedColumns(List<String> includedColumns) {
+        this.includedColumns = includedColumns;
+        return this;
+    }
+
+    public IndexBuilder setType(Index.Type type) {
+        this.type = type;
+        return this;
+    }
+
+    public IndexBuilder setSecondaryIndexStrategy(DbConfig.SecondaryIndexStrategy secondaryIndexStrategy) {
+        this.secondaryIndexStrategy = secondaryIndexStrategy;
+        return this;
+    }
+
     public Index build() {
-        return new Index(name, columnName);
+        return new Index(name, columnName, additionalColumns, includedColumns, type, secondaryIndexStrategy);
     }
 }
\ No newline at end of file
@@ -27,7 +27,6 @@ public enum DbError {
     INCOMPATIBLE_TYPE_FOR_INDEX_ERROR,
     INCOMPATIBLE_TYPE_FOR_PRIMARY_KEY_ERROR,
     INDEX_ALREADY_EXISTS_ERROR,
-    INDEX_NOT_UNIQUE_ERROR,
     INVALID_COLUMN_ERROR,
     MULTIPLE_ORDER_BY_EXPRESSIONS_ERROR,
     MULTIPLE_PRIMARY_KEYS_ERROR,
@@ -63,7 +62,11 @@ public enum DbError {
     TASK_ENDED_IN_FAILURE_ERROR,
     FAILED_TO_ALLOCATE_BYTES_ERROR,
     FAILED_TO_REMOVE_TEMPORARY_FILE_ERROR,
-    IO_ERROR, SERVER_ERROR, TOO_MANY_VALUES_ERROR;
+    IO_ERROR, SERVER_ERROR, TOO_MANY_VALUES_ERROR,
+    INCOMPLETE_COMPOSITE_KEY_ERROR,
+    INVALID_INCLUDED_COLUMN_ERROR,
+    INVALID_COMPOSITE_INDEX_ERROR,
+    INVALID_HASH_INDEX_ERROR;
 
     DbError() {
     }
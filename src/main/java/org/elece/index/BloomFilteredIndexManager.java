@@ -3,16 +3,20 @@ package org.elece.index;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elece.exception.*;
-import org.elece.index.filter.BloomFilter;
+import org.elece.index.filter.BloomFilterFile;
+import org.elece.index.filter.MembershipFilter;
 import org.elece.memory.tree.node.LeafTreeNode;
 import org.elece.sql.parser.expression.internal.Order;
 
+import java.nio.ByteBuffer;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * Wraps an {@link IndexManager} with a {@link BloomFilter} so that equality lookups for keys that are definitely absent
+ * Wraps an {@link IndexManager} with a {@link MembershipFilter} so that equality lookups for keys that are definitely absent
  * can be answered without traversing the underlying B+ tree, avoiding the page reads such a traversal would incur.
  * <p>
  * The filter is only ever consulted as a negative check: if it reports a key as absent the lookup returns empty
@@ -20,11 +24,15 @@ import java.util.Set;
  * harmless (a wasted tree lookup that finds nothing) while false negatives are prevented by construction:
  * <ul>
  *     <li>insertions record the key in the filter before it reaches the tree, so the filter is never behind the tree;</li>
- *     <li>removals deliberately leave the filter untouched, since clearing a bit could evict other keys that share it
- *     (the cost is a gradually rising false positive rate as deleted keys accumulate, reset only on a purge);</li>
+ *     <li>removals only take the key out of filters that {@linkplain MembershipFilter#supportsRemoval() support it},
+ *     once the key has left the tree and only if the filter was populated before, so the key was counted in it. Other
+ *     filters keep removed keys as false positives, which gradually raise the false positive rate until a purge;</li>
  *     <li>on first read the filter is lazily populated from the keys already persisted in the index, so data that
  *     survived a restart is accounted for before the filter is trusted.</li>
  * </ul>
+ * When given a {@link BloomFilterFile}, the filter is loaded from it instead of being populated from the index, and
+ * {@link #persist()} writes it back. The file is marked dirty before the first key that is not part of it is added,
+ * so a file that missed keys, for instance after a crash, is never loaded and the filter is populated from the index.
  * Range queries cannot benefit from a membership filter and are delegated unchanged.
  *
  * @param <K> the key type of the index.
@@ -34,16 +42,31 @@ public class BloomFilteredIndexManager<K extends Comparable<K>, V> extends Abstr
     private static final Logger logger = LogManager.getLogger(BloomFilteredIndexManager.class);
 
     private final IndexManager<K, V> delegate;
-    private final BloomFilter<K> bloomFilter;
+    private final MembershipFilter<K> bloomFilter;
+    private final BloomFilterFile bloomFilterFile;
     private final Object populationLock = new Object();
+    // Held to change the filter, and exclusively to copy the filter, so a copy never misses part of a key.
+    private final ReentrantReadWriteLock filterLock = new ReentrantReadWriteLock();
+    private final Object fileLock = new Object();
 
     private volatile boolean populated = false;
     private volatile boolean bypass = false;
+    // Whether the file holds every key of the filter and is marked clean, only changed while holding the file lock.
+    private volatile boolean stored = false;
 
-    public BloomFilteredIndexManager(int indexId, IndexManager<K, V> delegate, BloomFilter<K> bloomFilter) {
+    public BloomFilteredIndexManager(int indexId, IndexManager<K, V> delegate, MembershipFilter<K> bloomFilter) {
+        this(indexId, delegate, bloomFilter, null);
+    }
+
+    public BloomFilteredIndexManager(int indexId, IndexManager<K, V> delegate, MembershipFilter<K> bloomFilter,
+                                     BloomFilterFile bloomFilterFile) {
         super(indexId);
         this.delegate = delegate;
         this.bloomFilter = bloomFilter;
+        this.bloomFilterFile = bloomFilterFile;
+        if (Objects.nonNull(bloomFilterFile)) {
+            load();
+        }
     }
 
     @Override
@@ -51,10 +74,33 @@ public class BloomFilteredIndexManager<K extends Comparable<K>, V> extends Abstr
             InterruptedTaskException, FileChannelException {
         // Record in the filter first: if the delegate rejects the key the filter merely gains a false positive (safe),
         // whereas recording it after a successful insert risks a false negative if the filter update were to fail.
-        bloomFilter.add(identifier);
+        record(identifier);
         delegate.addIndex(identifier, value);
     }
 
+    @Override
+    public void bulkLoad(Iterator<LeafTreeNode.KeyValue<K, V>> keyValues) throws BTreeException, StorageException,
+            SerializationException, InterruptedTaskException, FileChannelException {
+        // Same ordering as addIndex: every key reaches the filter before the delegate sees it.
+        delegate.bulkLoad(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return keyValues.hasNext();
+            }
+
+            @Override
+            public LeafTreeNode.KeyValue<K, V> next() {
+                LeafTreeNode.KeyValue<K, V> keyValue = keyValues.next();
+                try {
+                    record(keyValue.key());
+                } catch (BTreeException | SerializationException | StorageException exception) {
+                    throw new RuntimeDbException(exception.getDbError(), exception.getMessage());
+                }
+                return keyValue;
+            }
+        });
+    }
+
     @Override
     public void updateIndex(K identifier, V value) throws BTreeException, StorageException, SerializationException,
             InterruptedTaskException, FileChannelException {
@@ -74,13 +120,20 @@ public class BloomFilteredIndexManager<K extends Comparable<K>, V> extends Abstr
     @Override
     public boolean removeIndex(K identifier) throws BTreeException, StorageException, SerializationException,
             InterruptedTaskException, FileChannelException {
-        // Intentionally not removed from the filter, to preserve the no false negative invariant.
-        return delegate.removeIndex(identifier);
+        // A filter populated after the key left the tree never counted it, so only filters populated before forget it.
+        boolean counted = populated && !bypass && bloomFilter.supportsRemoval();
+        boolean removed = delegate.removeIndex(identifier);
+        if (removed && counted) {
+            update(() -> bloomFilter.remove(identifier));
+        }
+        return removed;
     }
 
     @Override
     public void purgeIndex() throws InterruptedTaskException, StorageException, FileChannelException {
         delegate.purgeIndex();
+        // A stored filter with the keys of the purged index would only cause false positives, but it is rewritten.
+        markStale();
         bloomFilter.clear();
     }
 
@@ -163,4 +216,102 @@ public class BloomFilteredIndexManager<K extends Comparable<K>, V> extends Abstr
             }
         }
     }
+
+    /**
+     * Writes the filter to its file, if it changed since it was last written. The filter is only written once it holds
+     * every key of the index.
+     *
+     * @throws StorageException If the file can't be written.
+     */
+    public void persist() throws StorageException {
+        if (Objects.isNull(bloomFilterFile) || !populated || bypass) {
+            return;
+        }
+
+        synchronized (fileLock) {
+            if (stored) {
+                return;
+            }
+
+            byte[] state;
+            filterLock.writeLock().lock();
+            try {
+                state = bloomFilter.getState();
+                // Keys added from now on wait for the file lock to mark the file dirty, so they follow the write.
+                stored = true;
+            } finally {
+                filterLock.writeLock().unlock();
+            }
+
+            try {
+                bloomFilterFile.write(bloomFilter.getType(), state);
+            } catch (StorageException exception) {
+                stored = false;
+                throw exception;
+            }
+        }
+    }
+
+    /**
+     * Loads the filter from its file, which makes populating it from the index unnecessary. A file that can't be
+     * trusted is marked dirty, so it is not loaded later either, and the filter is populated from the index.
+     */
+    private void load() {
+        try {
+            Optional<ByteBuffer> state = bloomFilterFile.read(bloomFilter.getType());
+            if (state.isPresent() && bloomFilter.loadState(state.get())) {
+                populated = true;
+                stored = true;
+            } else {
+                bloomFilterFile.markDirty();
+            }
+        } catch (StorageException exception) {
+            logger.warn("Failed to load bloom filter for index {}, populating it from the index", getIndexId(), exception);
+        }
+    }
+
+    /**
+     * Adds a key to the filter, marking the file dirty first if it holds the filter, so it is never trusted while it
+     * misses the key.
+     */
+    private void record(K key) throws BTreeException, SerializationException, StorageException {
+        update(() -> bloomFilter.add(key));
+    }
+
+    /**
+     * Changes the filter, marking the file dirty first if it holds the filter, so it is never trusted while it differs
+     * from the filter.
+     */
+    private void update(FilterUpdate filterUpdate) throws BTreeException, SerializationException, StorageException {
+        while (true) {
+            markStale();
+            filterLock.readLock().lock();
+            try {
+                // The filter may have been written in between, in which case the file is marked dirty again.
+                if (!stored) {
+                    filterUpdate.apply();
+                    return;
+                }
+            } finally {
+                filterLock.readLock().unlock();
+            }
+        }
+    }
+
+    private void markStale() throws StorageException {
+        if (!stored) {
+            return;
+        }
+        synchronized (fileLock) {
+            if (stored) {
+                bloomFilterFile.markDirty();
+                stored = false;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface FilterUpdate {
+        void apply() throws BTreeException, SerializationException;
+    }
 }
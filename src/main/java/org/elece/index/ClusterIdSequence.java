@@ -0,0 +1,44 @@
+package org.elece.index;
+
+import org.elece.exception.FileChannelException;
+import org.elece.exception.InterruptedTaskException;
+import org.elece.exception.StorageException;
+import org.elece.memory.Pointer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out the cluster ids of the rows inserted in a table.
+ * <p>
+ * The sequence starts after the last id stored in the cluster index, which is the only state it needs, so it is
+ * recovered from the index itself after a restart and nothing else has to be persisted. Ids are taken with a single
+ * atomic increment, so concurrent inserts never share an id and never descend the tree to find one. An id taken by an
+ * insert that later fails is not reused, which only leaves a gap in the sequence.
+ */
+public class ClusterIdSequence {
+    private final AtomicInteger lastId;
+
+    public ClusterIdSequence(int lastId) {
+        this.lastId = new AtomicInteger(lastId);
+    }
+
+    /**
+     * Creates a sequence that continues after the greatest id in the cluster index.
+     *
+     * @param clusterIndexManager The cluster index of the table.
+     * @return The sequence for the table.
+     */
+    public static ClusterIdSequence fromClusterIndex(IndexManager<Integer, Pointer> clusterIndexManager) throws
+                                                                                                        StorageException,
+                                                                                                        InterruptedTaskException,
+                                                                                                        FileChannelException {
+        return new ClusterIdSequence(clusterIndexManager.getLastIndex().orElse(0));
+    }
+
+    /**
+     * @return The id for the next row of the table.
+     */
+    public int next() {
+        return lastId.incrementAndGet();
+    }
+}
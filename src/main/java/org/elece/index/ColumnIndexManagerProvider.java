@@ -1,12 +1,19 @@
 package org.elece.index;
 
 import org.elece.config.DbConfig;
+import org.elece.db.schema.SchemaSearcher;
 import org.elece.db.schema.model.Column;
+import org.elece.db.schema.model.Index;
 import org.elece.db.schema.model.Table;
+import org.elece.exception.FileChannelException;
+import org.elece.exception.InterruptedTaskException;
 import org.elece.exception.SchemaException;
 import org.elece.exception.StorageException;
 import org.elece.memory.Pointer;
 import org.elece.storage.index.IndexStorageManagerFactory;
+import org.elece.utils.SerializationUtils;
+
+import java.util.List;
 
 public abstract class ColumnIndexManagerProvider {
     protected final DbConfig dbConfig;
@@ -17,9 +24,55 @@ public abstract class ColumnIndexManagerProvider {
         this.indexStorageManagerFactory = indexStorageManagerFactory;
     }
 
-    public abstract <K extends Comparable<K>, T extends Number> IndexManager<K, T> getIndexManager(Table table, Column column) throws SchemaException, StorageException;
+    public abstract <K extends Comparable<K>, T> IndexManager<K, T> getIndexManager(Table table, Column column) throws SchemaException, StorageException;
 
     public abstract <K extends Comparable<K>> IndexManager<K, Pointer> getClusterIndexManager(Table table) throws SchemaException, StorageException;
 
+    public abstract ClusterIdSequence getClusterIdSequence(Table table) throws SchemaException, StorageException,
+                                                                               InterruptedTaskException,
+                                                                               FileChannelException;
+
     public abstract void clearIndexManager(Table table, Column column);
+
+    public abstract void close() throws StorageException, InterruptedTaskException;
+
+    /**
+     * Builds the value stored for a row in the index of a column, which is either its cluster id or a
+     * {@link RowPointer}, depending on the {@link Index#getSecondaryIndexStrategy()} the index was created with. If the
+     * index is covering, the value also holds the values of the covered columns, see {@link CoveringIndexValue}.
+     *
+     * @param table     The table of the row.
+     * @param column    The indexed column.
+     * @param clusterId The cluster id of the row.
+     * @param pointer   The location of the row on disk.
+     * @param rowData   The serialized row.
+     */
+    public Object getSecondaryIndexValue(Table table, Column column, int clusterId, Pointer pointer, byte[] rowData) {
+        Object rowReference = clusterId;
+        if (getSecondaryIndexStrategy(table, column) == DbConfig.SecondaryIndexStrategy.ROW_POINTER) {
+            rowReference = new RowPointer(clusterId, pointer);
+        }
+
+        List<Column> coveredColumns = SchemaSearcher.findCoveredColumns(table, column);
+        if (coveredColumns.isEmpty()) {
+            return rowReference;
+        }
+
+        byte[] coveredData = new byte[getCoveredSize(coveredColumns)];
+        for (Column coveredColumn : coveredColumns) {
+            byte[] value = SerializationUtils.getValueOfField(table, coveredColumn, rowData);
+            SerializationUtils.setValueOfField(coveredColumns, coveredColumn, value, coveredData);
+        }
+        return new CoveringIndexValue(rowReference, coveredData);
+    }
+
+    protected static DbConfig.SecondaryIndexStrategy getSecondaryIndexStrategy(Table table, Column column) {
+        return SchemaSearcher.findIndex(table, column.getName())
+                .map(Index::getSecondaryIndexStrategy)
+                .orElse(DbConfig.SecondaryIndexStrategy.CLUSTER_ID);
+    }
+
+    protected static int getCoveredSize(List<Column> coveredColumns) {
+        return coveredColumns.stream().mapToInt(SerializationUtils::getByteArraySizeOfField).sum();
+    }
 }
@@ -0,0 +1,118 @@
+package org.elece.index;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A key made of several values, ordered by its first value, then by its second one, and so on.
+ * <p>
+ * A key may hold fewer values than the keys stored in an index, in which case it is a prefix, used as the boundary of
+ * a scan. A prefix sorts before every stored key that starts with it if its bound is {@link Bound#LOWEST}, or after
+ * them if it is {@link Bound#HIGHEST}, so a scan between the lowest and the highest key of a prefix finds exactly the
+ * keys that start with it.
+ */
+public final class CompositeKey implements Comparable<CompositeKey> {
+    private final List<Comparable<?>> values;
+    private final Bound bound;
+
+    private CompositeKey(List<Comparable<?>> values, Bound bound) {
+        this.values = values;
+        this.bound = bound;
+    }
+
+    public static CompositeKey of(Comparable<?>... values) {
+        return new CompositeKey(List.of(values), Bound.LOWEST);
+    }
+
+    public static CompositeKey of(List<Comparable<?>> values) {
+        return new CompositeKey(List.copyOf(values), Bound.LOWEST);
+    }
+
+    /**
+     * Builds a key that sorts before every key starting with the given values.
+     */
+    public static CompositeKey lowest(Comparable<?>... prefix) {
+        return new CompositeKey(List.of(prefix), Bound.LOWEST);
+    }
+
+    /**
+     * Builds a key that sorts after every key starting with the given values.
+     */
+    public static CompositeKey highest(Comparable<?>... prefix) {
+        return new CompositeKey(List.of(prefix), Bound.HIGHEST);
+    }
+
+    public List<Comparable<?>> getValues() {
+        return values;
+    }
+
+    public Comparable<?> getValue(int index) {
+        return values.get(index);
+    }
+
+    public Bound getBound() {
+        return bound;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int compareTo(CompositeKey other) {
+        int commonSize = Math.min(values.size(), other.values.size());
+        for (int index = 0; index < commonSize; index++) {
+            int comparison = ((Comparable<Object>) values.get(index)).compareTo(other.values.get(index));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+
+        if (values.size() == other.values.size()) {
+            return bound.compareTo(other.bound);
+        }
+        // The shorter key is a prefix of the longer one, so its bound places it before or after the longer one.
+        return values.size() < other.values.size() ? bound.getOrder() : -other.bound.getOrder();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (Objects.isNull(obj) || getClass() != obj.getClass()) {
+            return false;
+        }
+        CompositeKey that = (CompositeKey) obj;
+        return Objects.equals(values, that.values) && bound == that.bound;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(values, bound);
+    }
+
+    @Override
+    public String toString() {
+        return "CompositeKey{" +
+                "values=" + values +
+                ", bound=" + bound +
+                '}';
+    }
+
+    public enum Bound {
+        LOWEST(-1),
+        HIGHEST(1);
+
+        private final int order;
+
+        Bound(int order) {
+            this.order = order;
+        }
+
+        public int getOrder() {
+            return order;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.elece.index;
+
+/**
+ * The value stored for a row in a covering index: the reference used to find the row, which is either its cluster id
+ * or a {@link RowPointer}, followed by the serialized values of the columns covered by the index, so queries that
+ * only need these columns can skip reading the row.
+ *
+ * @param rowReference The value the index would store for the row if it wasn't covering.
+ * @param coveredData  The values of the covered columns, serialized one after the other in the order of the index.
+ */
+public record CoveringIndexValue(Object rowReference, byte[] coveredData) {
+}
@@ -1,30 +1,75 @@
 package org.elece.index;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.elece.config.DbConfig;
 import org.elece.db.schema.SchemaSearcher;
 import org.elece.db.schema.model.Column;
+import org.elece.db.schema.model.Index;
 import org.elece.db.schema.model.Table;
-import org.elece.exception.DbError;
-import org.elece.exception.SchemaException;
-import org.elece.exception.StorageException;
+import org.elece.exception.*;
 import org.elece.index.filter.BloomFilter;
+import org.elece.index.filter.BloomFilterFile;
+import org.elece.index.filter.MembershipFilter;
+import org.elece.index.filter.ScalableBloomFilter;
+import org.elece.memory.Pointer;
 import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.memory.data.CompositeKeyBinaryObject;
+import org.elece.memory.data.CoveringIndexValueBinaryObject;
+import org.elece.memory.data.RowPointerBinaryObject;
 import org.elece.memory.tree.node.DefaultNodeFactory;
 import org.elece.serializer.Serializer;
 import org.elece.serializer.SerializerRegistry;
 import org.elece.storage.index.IndexStorageManagerFactory;
 import org.elece.storage.index.session.factory.DefaultSessionFactory;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.elece.db.schema.model.Column.CLUSTER_ID;
 
 public class DefaultColumnIndexManagerProvider extends ColumnIndexManagerProvider {
-    private final Map<String, IndexManager<?, ?>> indexManagers = new HashMap<>();
+    private static final Logger logger = LogManager.getLogger(DefaultColumnIndexManagerProvider.class);
+
+    private final Map<String, IndexManager<?, ?>> indexManagers = new ConcurrentHashMap<>();
+    private final Map<Integer, ClusterIdSequence> clusterIdSequences = new ConcurrentHashMap<>();
+    private final Map<String, BloomFilteredIndexManager<?, ?>> bloomFilteredIndexManagers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService bloomFilterWriter;
+    private final Map<String, TreeIndexManager<?, ?>> maintainedIndexManagers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService treeMaintainer;
 
     public DefaultColumnIndexManagerProvider(DbConfig dbConfig, IndexStorageManagerFactory indexStorageManagerFactory) {
         super(dbConfig, indexStorageManagerFactory);
+
+        if (dbConfig.isBloomFilterEnabled() && dbConfig.getBloomFilterPersistInterval() > 0) {
+            this.bloomFilterWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "bloom-filter-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.bloomFilterWriter.scheduleWithFixedDelay(this::persistBloomFilters, dbConfig.getBloomFilterPersistInterval(),
+                    dbConfig.getBloomFilterPersistInterval(), TimeUnit.MILLISECONDS);
+        } else {
+            this.bloomFilterWriter = null;
+        }
+
+        if (dbConfig.getBTreeDeleteStrategy() == DbConfig.BTreeDeleteStrategy.LAZY && dbConfig.getBTreeMaintenanceInterval() > 0) {
+            this.treeMaintainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "btree-maintainer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.treeMaintainer.scheduleWithFixedDelay(this::mergeSparseLeaves, dbConfig.getBTreeMaintenanceInterval(),
+                    dbConfig.getBTreeMaintenanceInterval(), TimeUnit.MILLISECONDS);
+        } else {
+            this.treeMaintainer = null;
+        }
     }
 
     @Override
@@ -37,23 +82,127 @@ public class DefaultColumnIndexManagerProvider extends ColumnIndexManagerProvide
     public IndexManager<?, ?> getIndexManager(Table table, Column column) throws SchemaException, StorageException {
         IndexId indexId = new IndexId(table.getId(), column.getId());
         String indexIdString = indexId.asString();
-        if (indexManagers.containsKey(indexIdString)) {
-            return indexManagers.get(indexIdString);
-        } else {
-            IndexManager<?, ?> indexManager = buildIndexManager(table, column);
-            indexManagers.put(indexIdString, indexManager);
+        IndexManager<?, ?> indexManager = indexManagers.get(indexIdString);
+        if (!Objects.isNull(indexManager)) {
+            return indexManager;
+        }
+
+        // Every caller has to share one manager per index, since its locks and latches only guard the tree through it.
+        synchronized (indexManagers) {
+            indexManager = indexManagers.get(indexIdString);
+            if (Objects.isNull(indexManager)) {
+                indexManager = buildIndexManager(table, column);
+                indexManagers.put(indexIdString, indexManager);
+            }
             return indexManager;
         }
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public ClusterIdSequence getClusterIdSequence(Table table) throws SchemaException, StorageException,
+                                                                      InterruptedTaskException, FileChannelException {
+        ClusterIdSequence clusterIdSequence = clusterIdSequences.get(table.getId());
+        if (!Objects.isNull(clusterIdSequence)) {
+            return clusterIdSequence;
+        }
+
+        // The cluster index is only read the first time a table is used, every later id comes from the sequence.
+        synchronized (clusterIdSequences) {
+            clusterIdSequence = clusterIdSequences.get(table.getId());
+            if (Objects.isNull(clusterIdSequence)) {
+                IndexManager<Integer, Pointer> clusterIndexManager = (IndexManager<Integer, Pointer>) getClusterIndexManager(table);
+                clusterIdSequence = ClusterIdSequence.fromClusterIndex(clusterIndexManager);
+                clusterIdSequences.put(table.getId(), clusterIdSequence);
+            }
+            return clusterIdSequence;
+        }
+    }
+
     @Override
     public void clearIndexManager(Table table, Column column) {
         IndexId indexId = new IndexId(table.getId(), column.getId());
-        indexManagers.remove(indexId.asString());
+        synchronized (indexManagers) {
+            indexManagers.remove(indexId.asString());
+            bloomFilteredIndexManagers.remove(indexId.asString());
+            maintainedIndexManagers.remove(indexId.asString());
+        }
+        if (CLUSTER_ID.equals(column.getName())) {
+            clusterIdSequences.remove(table.getId());
+        }
+    }
+
+    /**
+     * Stops the background maintenance of the trees and the background writer of the bloom filters, and writes every
+     * filter that changed since it was last written.
+     */
+    @Override
+    public void close() throws StorageException, InterruptedTaskException {
+        stop(treeMaintainer, "b+ tree maintainer");
+        stop(bloomFilterWriter, "bloom filter writer");
+        for (BloomFilteredIndexManager<?, ?> bloomFilteredIndexManager : bloomFilteredIndexManagers.values()) {
+            bloomFilteredIndexManager.persist();
+        }
+    }
+
+    private void stop(ScheduledExecutorService executorService, String name) throws InterruptedTaskException {
+        if (Objects.isNull(executorService)) {
+            return;
+        }
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(dbConfig.getCloseTimeoutTime(), dbConfig.getTimeoutUnit())) {
+                logger.warn("Timed out waiting for the {} to stop", name);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedTaskException(DbError.TASK_INTERRUPTED_ERROR, String.format("Interrupted while stopping the %s", name));
+        }
+    }
+
+    /**
+     * Merges the leaves that the lazy delete strategy left with fewer keys than the minimum of the tree. Failures are
+     * logged, and the leaves are merged on the next run.
+     */
+    private void mergeSparseLeaves() {
+        for (TreeIndexManager<?, ?> treeIndexManager : maintainedIndexManagers.values()) {
+            try {
+                int rebalancedLeaves = treeIndexManager.mergeSparseLeaves();
+                if (rebalancedLeaves > 0) {
+                    logger.debug("Rebalanced {} sparse leaves of index {}", rebalancedLeaves, treeIndexManager.getIndexId());
+                }
+            } catch (BaseDbException exception) {
+                logger.warn("Failed to merge sparse leaves of index {}", treeIndexManager.getIndexId(), exception);
+            }
+        }
+    }
+
+    /**
+     * Keeps track of the trees whose sparse leaves are merged in the background, when deletes are lazy.
+     */
+    private <T extends TreeIndexManager<?, ?>> T maintain(IndexId indexId, T treeIndexManager) {
+        if (dbConfig.getBTreeDeleteStrategy() == DbConfig.BTreeDeleteStrategy.LAZY) {
+            maintainedIndexManagers.put(indexId.asString(), treeIndexManager);
+        }
+        return treeIndexManager;
+    }
+
+    /**
+     * Writes the bloom filters that changed since they were last written. Failures are logged, and the filter is
+     * written again on the next run.
+     */
+    private void persistBloomFilters() {
+        for (BloomFilteredIndexManager<?, ?> bloomFilteredIndexManager : bloomFilteredIndexManagers.values()) {
+            try {
+                bloomFilteredIndexManager.persist();
+            } catch (StorageException exception) {
+                logger.warn("Failed to write bloom filter for index {}", bloomFilteredIndexManager.getIndexId(), exception);
+            }
+        }
     }
 
-    private <K extends Comparable<K>, V extends Comparable<V>> IndexManager<K, ?> buildIndexManager(Table table,
-                                                                                                    Column column) throws
+    private <K extends Comparable<K>, C extends Comparable<C>, V> IndexManager<K, ?> buildIndexManager(Table table,
+                                                                                                       Column column) throws
             StorageException,
             SchemaException {
         IndexId indexId = new IndexId(table.getId(), column.getId());
@@ -63,27 +212,42 @@ public class DefaultColumnIndexManagerProvider extends ColumnIndexManagerProvide
         if (CLUSTER_ID.equals(column.getName())) {
             BinaryObjectFactory<K> kBinaryObjectFactory = serializer.getBinaryObjectFactory(column);
 
-            return new ClusterTreeIndexManager<>(
+            return maintain(indexId, new ClusterTreeIndexManager<>(
                     indexId.asInt(),
                     indexStorageManagerFactory.create(indexId),
                     DefaultSessionFactory.getInstance(dbConfig),
                     dbConfig,
                     kBinaryObjectFactory
-            );
-        }
-
-        if (!column.isUnique()) {
-            throw new SchemaException(DbError.INCOMPATIBLE_TYPE_FOR_INDEX_ERROR, String.format("Type %s used for column %s is not usable for index", column.getName(), column.getSqlType().getType()));
+            ));
         }
 
         Column clusterColumn = SchemaSearcher.findClusterColumn(table);
 
-        Serializer<V> clusterSerializer = SerializerRegistry.getInstance().getSerializer(clusterColumn.getSqlType().getType());
+        Serializer<C> clusterSerializer = SerializerRegistry.getInstance().getSerializer(clusterColumn.getSqlType().getType());
 
         BinaryObjectFactory<K> kBinaryObjectFactory = serializer.getBinaryObjectFactory(column);
-        BinaryObjectFactory<V> vBinaryObjectFactory = clusterSerializer.getBinaryObjectFactory(clusterColumn);
+        BinaryObjectFactory<C> clusterIdBinaryObjectFactory = clusterSerializer.getBinaryObjectFactory(clusterColumn);
+        BinaryObjectFactory<V> vBinaryObjectFactory = getSecondaryIndexValueFactory(table, column, clusterIdBinaryObjectFactory);
 
-        IndexManager<K, V> indexManager = new TreeIndexManager<>(
+        if (!column.isUnique()) {
+            if (!SchemaSearcher.columnIsIndexed(table, column.getName())) {
+                throw new SchemaException(DbError.INCOMPATIBLE_TYPE_FOR_INDEX_ERROR, String.format("Type %s used for column %s is not usable for index", column.getName(), column.getSqlType().getType()));
+            }
+            List<BinaryObjectFactory<?>> keyBinaryObjectFactories = new ArrayList<>();
+            for (Column indexColumn : SchemaSearcher.findIndexColumns(table, column)) {
+                keyBinaryObjectFactories.add(SerializerRegistry.getInstance().getSerializer(indexColumn.getSqlType().getType()).getBinaryObjectFactory(indexColumn));
+            }
+            keyBinaryObjectFactories.add(clusterIdBinaryObjectFactory);
+            return buildNonUniqueIndexManager(indexId, keyBinaryObjectFactories, vBinaryObjectFactory);
+        }
+
+        // A hash index reads a single bucket to find a key, so it isn't wrapped by a bloom filter.
+        if (SchemaSearcher.findIndex(table, column.getName()).map(Index::getType).orElse(Index.Type.BTREE) == Index.Type.HASH) {
+            return new HashIndexManager<>(indexId.asInt(), indexStorageManagerFactory.createHashIndexStorageManager(indexId),
+                    kBinaryObjectFactory, vBinaryObjectFactory);
+        }
+
+        IndexManager<K, V> indexManager = maintain(indexId, new TreeIndexManager<>(
                 indexId.asInt(),
                 indexStorageManagerFactory.create(indexId),
                 DefaultSessionFactory.getInstance(dbConfig),
@@ -91,14 +255,73 @@ public class DefaultColumnIndexManagerProvider extends ColumnIndexManagerProvide
                 kBinaryObjectFactory,
                 vBinaryObjectFactory,
                 new DefaultNodeFactory<>(kBinaryObjectFactory, vBinaryObjectFactory)
-        );
+        ));
 
         if (dbConfig.isBloomFilterEnabled()) {
-            BloomFilter<K> bloomFilter = new BloomFilter<>(dbConfig.getBloomFilterExpectedInsertions(),
-                    dbConfig.getBloomFilterFalsePositiveRate(), kBinaryObjectFactory);
-            return new BloomFilteredIndexManager<>(indexId.asInt(), indexManager, bloomFilter);
+            MembershipFilter<K> bloomFilter;
+            if (dbConfig.getBloomFilterStrategy() == DbConfig.BloomFilterStrategy.SCALABLE) {
+                bloomFilter = new ScalableBloomFilter<>(dbConfig.getBloomFilterExpectedInsertions(),
+                        dbConfig.getBloomFilterFalsePositiveRate(), kBinaryObjectFactory);
+            } else {
+                bloomFilter = new BloomFilter<>(dbConfig.getBloomFilterExpectedInsertions(),
+                        dbConfig.getBloomFilterFalsePositiveRate(), kBinaryObjectFactory);
+            }
+            BloomFilteredIndexManager<K, V> bloomFilteredIndexManager = new BloomFilteredIndexManager<>(indexId.asInt(),
+                    indexManager, bloomFilter, BloomFilterFile.of(dbConfig, indexId.asInt()));
+            bloomFilteredIndexManagers.put(indexId.asString(), bloomFilteredIndexManager);
+            return bloomFilteredIndexManager;
         }
 
         return indexManager;
     }
+
+    /**
+     * Secondary indexes store either the cluster id of each row, or the location of the row next to its cluster id,
+     * followed by the values of the covered columns if the index is covering, see
+     * {@link ColumnIndexManagerProvider#getSecondaryIndexValue(Table, Column, int, Pointer, byte[])}.
+     */
+    @SuppressWarnings("unchecked")
+    private <V> BinaryObjectFactory<V> getSecondaryIndexValueFactory(Table table, Column column,
+                                                                     BinaryObjectFactory<?> clusterIdBinaryObjectFactory) {
+        BinaryObjectFactory<?> rowReferenceFactory = clusterIdBinaryObjectFactory;
+        if (getSecondaryIndexStrategy(table, column) == DbConfig.SecondaryIndexStrategy.ROW_POINTER) {
+            rowReferenceFactory = new RowPointerBinaryObject.Factory();
+        }
+
+        List<Column> coveredColumns = SchemaSearcher.findCoveredColumns(table, column);
+        if (coveredColumns.isEmpty()) {
+            return (BinaryObjectFactory<V>) rowReferenceFactory;
+        }
+        return (BinaryObjectFactory<V>) new CoveringIndexValueBinaryObject.Factory((BinaryObjectFactory<Object>) rowReferenceFactory, getCoveredSize(coveredColumns));
+    }
+
+    /**
+     * Builds the index of a column whose values may repeat. Every row is stored under the pair of its value and its
+     * cluster id, which is unique, so rows sharing a value sit next to each other in the tree, ordered by cluster id.
+     * Lookups scan between the lowest and the highest key that start with the value.
+     * <p>
+     * A composite index stores the values of all its key columns before the cluster id, concatenated in the order of
+     * the columns, so rows are ordered by the first column, then by the second one, and so on, and any prefix of the
+     * columns can be scanned the same way.
+     * <p>
+     * Bloom filters are not used, since equality lookups are range scans over such an index.
+     */
+    @SuppressWarnings("unchecked")
+    private <K extends Comparable<K>, V> IndexManager<K, ?> buildNonUniqueIndexManager(IndexId indexId,
+                                                                                      List<BinaryObjectFactory<?>> keyBinaryObjectFactories,
+                                                                                      BinaryObjectFactory<V> vBinaryObjectFactory) throws
+            StorageException {
+        BinaryObjectFactory<CompositeKey> compositeKeyFactory = new CompositeKeyBinaryObject.Factory(keyBinaryObjectFactories);
+
+        IndexManager<CompositeKey, V> indexManager = maintain(indexId, new TreeIndexManager<>(
+                indexId.asInt(),
+                indexStorageManagerFactory.create(indexId),
+                DefaultSessionFactory.getInstance(dbConfig),
+                dbConfig,
+                compositeKeyFactory,
+                vBinaryObjectFactory,
+                new DefaultNodeFactory<>(compositeKeyFactory, vBinaryObjectFactory)
+        ));
+        return (IndexManager<K, ?>) (IndexManager<?, ?>) indexManager;
+    }
 }
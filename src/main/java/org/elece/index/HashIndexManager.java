@@ -0,0 +1,545 @@
+package org.elece.index;
+
+import org.elece.exception.*;
+import org.elece.index.filter.Murmur3;
+import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.memory.tree.node.LeafTreeNode;
+import org.elece.sql.parser.expression.internal.Order;
+import org.elece.storage.index.HashIndexStorageManager;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * An index that stores its keys in the buckets of an extendible hash table instead of a B+ tree, so an equality lookup
+ * reads a single bucket, instead of a node per level of the tree. It can only hold unique keys.
+ * <p>
+ * The file starts with a header holding the sizes of the keys and the values and the number of buckets, followed by
+ * the buckets, which have a fixed size. Each bucket holds the keys whose hash ends with the bits of its prefix, whose
+ * length is the local depth of the bucket. The directory, which maps the last bits of a hash to its bucket, is kept in
+ * memory, and rebuilt from the headers of the buckets the first time the index is used.
+ * <p>
+ * A full bucket is split in two buckets with one more bit of prefix, doubling the directory if the bucket already used
+ * every bit of it. Past the maximum depth, full buckets are chained to overflow buckets instead, which only happens if
+ * many keys share most of their hash.
+ * <p>
+ * Keys are not ordered in the buckets, so range queries and the sorted iterator read and sort every key of the index,
+ * and are only meant for maintenance.
+ * <p>
+ * A single write lock over the whole index serializes every write, even to unrelated buckets, while reads share its
+ * read lock, so concurrent inserts into one hash index do not run in parallel.
+ *
+ * @param <K> the key type of the index.
+ * @param <V> the value type of the index.
+ */
+public class HashIndexManager<K extends Comparable<K>, V> extends AbstractTreeIndexManager<K, V> {
+    private static final int MAGIC = 0x48415348;
+    private static final int SEED = 0x68617368;
+    // The magic number, the key size, the value size and the number of buckets.
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    // The local depth, the prefix, the number of entries and the next overflow bucket.
+    private static final int BUCKET_HEADER_BYTES = 4 * Integer.BYTES;
+    private static final int BUCKET_BYTES = 4096;
+    private static final int MAX_DEPTH = 20;
+    private static final int OVERFLOW_DEPTH = -1;
+    private static final int NO_BUCKET = -1;
+
+    private final HashIndexStorageManager storageManager;
+    private final BinaryObjectFactory<K> kBinaryObjectFactory;
+    private final BinaryObjectFactory<V> vBinaryObjectFactory;
+    private final int keySize;
+    private final int entrySize;
+    private final int bucketCapacity;
+    private final int bucketSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean loaded = false;
+    // Empty until the first key is added.
+    private int[] directory = new int[0];
+    private int globalDepth = 0;
+    private int bucketCount = 0;
+
+    public HashIndexManager(int indexId, HashIndexStorageManager storageManager,
+                            BinaryObjectFactory<K> kBinaryObjectFactory, BinaryObjectFactory<V> vBinaryObjectFactory) {
+        super(indexId);
+        this.storageManager = storageManager;
+        this.kBinaryObjectFactory = kBinaryObjectFactory;
+        this.vBinaryObjectFactory = vBinaryObjectFactory;
+        this.keySize = kBinaryObjectFactory.size();
+        this.entrySize = keySize + vBinaryObjectFactory.size();
+        this.bucketCapacity = Math.max(2, (BUCKET_BYTES - BUCKET_HEADER_BYTES) / entrySize);
+        this.bucketSize = BUCKET_HEADER_BYTES + bucketCapacity * entrySize;
+    }
+
+    @Override
+    public void addIndex(K identifier, V value) throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        byte[] keyBytes = kBinaryObjectFactory.create(identifier).getBytes();
+        byte[] entry = new byte[entrySize];
+        System.arraycopy(keyBytes, 0, entry, 0, keySize);
+        System.arraycopy(vBinaryObjectFactory.create(value).getBytes(), 0, entry, keySize, entrySize - keySize);
+
+        ensureLoaded();
+        lock.writeLock().lock();
+        try {
+            if (bucketCount == 0) {
+                initialize();
+            }
+
+            int hash = hash(keyBytes);
+            while (true) {
+                List<Bucket> chain = readChain(directory[slot(hash)]);
+                for (Bucket bucket : chain) {
+                    if (bucket.indexOf(keyBytes) >= 0) {
+                        throw new BTreeException(DbError.DUPLICATE_INDEX_INSERTION_ERROR, String.format("Indexed key '%s' already exists", identifier));
+                    }
+                }
+
+                for (Bucket bucket : chain) {
+                    if (bucket.entries.size() < bucketCapacity) {
+                        bucket.entries.add(entry);
+                        writeBucket(bucket);
+                        return;
+                    }
+                }
+
+                Bucket primary = chain.getFirst();
+                if (primary.localDepth < MAX_DEPTH) {
+                    split(primary);
+                    continue;
+                }
+
+                Bucket overflow = newBucket(OVERFLOW_DEPTH, 0);
+                overflow.entries.add(entry);
+                appendBucket(overflow);
+                chain.getLast().next = overflow.number;
+                writeBucket(chain.getLast());
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateIndex(K identifier, V value) throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        byte[] keyBytes = kBinaryObjectFactory.create(identifier).getBytes();
+        byte[] valueBytes = vBinaryObjectFactory.create(value).getBytes();
+
+        ensureLoaded();
+        lock.writeLock().lock();
+        try {
+            if (bucketCount > 0) {
+                for (Bucket bucket : readChain(directory[slot(hash(keyBytes))])) {
+                    int entryIndex = bucket.indexOf(keyBytes);
+                    if (entryIndex >= 0) {
+                        System.arraycopy(valueBytes, 0, bucket.entries.get(entryIndex), keySize, entrySize - keySize);
+                        writeBucket(bucket);
+                        return;
+                    }
+                }
+            }
+            throw new BTreeException(DbError.INDEX_NOT_FOUND_ERROR, "Failed to find indexed key");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<V> getIndex(K identifier) throws BTreeException, StorageException, InterruptedTaskException,
+            FileChannelException {
+        byte[] keyBytes;
+        try {
+            keyBytes = kBinaryObjectFactory.create(identifier).getBytes();
+        } catch (SerializationException exception) {
+            // A key that can't be serialized was never added.
+            return Optional.empty();
+        }
+
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            if (bucketCount == 0) {
+                return Optional.empty();
+            }
+            for (Bucket bucket : readChain(directory[slot(hash(keyBytes))])) {
+                int entryIndex = bucket.indexOf(keyBytes);
+                if (entryIndex >= 0) {
+                    return Optional.of(vBinaryObjectFactory.create(bucket.entries.get(entryIndex), keySize).asObject());
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeIndex(K identifier) throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        byte[] keyBytes = kBinaryObjectFactory.create(identifier).getBytes();
+
+        ensureLoaded();
+        lock.writeLock().lock();
+        try {
+            if (bucketCount == 0) {
+                return false;
+            }
+            // Buckets are never merged, an emptied bucket keeps its place in the directory for the keys to come.
+            for (Bucket bucket : readChain(directory[slot(hash(keyBytes))])) {
+                int entryIndex = bucket.indexOf(keyBytes);
+                if (entryIndex >= 0) {
+                    bucket.entries.remove(entryIndex);
+                    writeBucket(bucket);
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void purgeIndex() throws InterruptedTaskException, StorageException, FileChannelException {
+        lock.writeLock().lock();
+        try {
+            // Without a valid header the buckets are ignored, and overwritten as the index grows again.
+            storageManager.write(0, new byte[HEADER_BYTES]);
+            directory = new int[0];
+            globalDepth = 0;
+            bucketCount = 0;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public LockableIterator<LeafTreeNode.KeyValue<K, V>> getSortedIterator() throws StorageException,
+            InterruptedTaskException,
+            FileChannelException {
+        Iterator<LeafTreeNode.KeyValue<K, V>> iterator = readSortedKeyValues().iterator();
+        return new LockableIterator<>() {
+            @Override
+            public void lock() {
+                // The key values were read when the iterator was created.
+            }
+
+            @Override
+            public void unlock() {
+                // The key values were read when the iterator was created.
+            }
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public LeafTreeNode.KeyValue<K, V> next() {
+                return iterator.next();
+            }
+        };
+    }
+
+    @Override
+    public Optional<K> getLastIndex() throws StorageException, InterruptedTaskException, FileChannelException {
+        List<LeafTreeNode.KeyValue<K, V>> keyValues = readSortedKeyValues();
+        return keyValues.isEmpty() ? Optional.empty() : Optional.of(keyValues.getLast().key());
+    }
+
+    @Override
+    public Iterator<V> getGreaterThan(K k, Set<K> kExclusions, Order order) throws StorageException, BTreeException,
+            InterruptedTaskException,
+            FileChannelException {
+        K normalizedK = normalizeKey(k);
+        return query(key -> key.compareTo(normalizedK) > 0, kExclusions, order);
+    }
+
+    @Override
+    public Iterator<V> getGreaterThanEqual(K k, Set<K> kExclusions, Order order) throws StorageException,
+            BTreeException,
+            InterruptedTaskException,
+            FileChannelException {
+        K normalizedK = normalizeKey(k);
+        return query(key -> key.compareTo(normalizedK) >= 0, kExclusions, order);
+    }
+
+    @Override
+    public Iterator<V> getLessThan(K k, Set<K> kExclusions, Order order) throws StorageException, BTreeException,
+            InterruptedTaskException,
+            FileChannelException {
+        K normalizedK = normalizeKey(k);
+        return query(key -> key.compareTo(normalizedK) < 0, kExclusions, order);
+    }
+
+    @Override
+    public Iterator<V> getLessThanEqual(K k, Set<K> kExclusions, Order order) throws StorageException, BTreeException,
+            InterruptedTaskException,
+            FileChannelException {
+        K normalizedK = normalizeKey(k);
+        return query(key -> key.compareTo(normalizedK) <= 0, kExclusions, order);
+    }
+
+    @Override
+    public Iterator<V> getBetweenRange(K k1, K k2, Set<K> kExclusions, Order order) throws StorageException,
+            BTreeException,
+            InterruptedTaskException,
+            FileChannelException {
+        K normalizedK1 = normalizeKey(k1);
+        K normalizedK2 = normalizeKey(k2);
+        return query(key -> key.compareTo(normalizedK1) >= 0 && key.compareTo(normalizedK2) <= 0, kExclusions, order);
+    }
+
+    private Iterator<V> query(Predicate<K> predicate, Set<K> kExclusions, Order order) throws StorageException,
+            InterruptedTaskException,
+            FileChannelException {
+        List<LeafTreeNode.KeyValue<K, V>> keyValues = readSortedKeyValues();
+        if (order == Order.DESC) {
+            keyValues = keyValues.reversed();
+        }
+        return keyValues.stream()
+                .filter(keyValue -> predicate.test(keyValue.key()) && !kExclusions.contains(keyValue.key()))
+                .map(LeafTreeNode.KeyValue::value)
+                .iterator();
+    }
+
+    private List<LeafTreeNode.KeyValue<K, V>> readSortedKeyValues() throws StorageException, InterruptedTaskException,
+            FileChannelException {
+        ensureLoaded();
+        List<LeafTreeNode.KeyValue<K, V>> keyValues = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int bucketNumber = 0; bucketNumber < bucketCount; bucketNumber++) {
+                for (byte[] entry : readBucket(bucketNumber).entries) {
+                    keyValues.add(new LeafTreeNode.KeyValue<>(kBinaryObjectFactory.create(entry, 0).asObject(),
+                            vBinaryObjectFactory.create(entry, keySize).asObject()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        keyValues.sort(Comparator.comparing(LeafTreeNode.KeyValue::key));
+        return keyValues;
+    }
+
+    private K normalizeKey(K identifier) {
+        try {
+            return kBinaryObjectFactory.normalize(identifier);
+        } catch (BTreeException | SerializationException | RuntimeDbException exception) {
+            return identifier;
+        }
+    }
+
+    /**
+     * Rebuilds the directory from the headers of the buckets, once. Buckets are applied from the shallowest to the
+     * deepest, so the slots of a split bucket end up pointing to the deeper buckets that took its keys.
+     */
+    private void ensureLoaded() throws StorageException, InterruptedTaskException, FileChannelException {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+
+            ByteBuffer header = ByteBuffer.wrap(storageManager.read(0, HEADER_BYTES));
+            if (header.getInt() == MAGIC) {
+                if (header.getInt() != keySize || header.getInt() != entrySize - keySize) {
+                    throw new StorageException(DbError.INTERNAL_STORAGE_ERROR, String.format("Hash index %d was stored with other key or value sizes", getIndexId()));
+                }
+                bucketCount = header.getInt();
+
+                List<Bucket> primaryBuckets = new ArrayList<>();
+                for (int bucketNumber = 0; bucketNumber < bucketCount; bucketNumber++) {
+                    ByteBuffer bucketHeader = ByteBuffer.wrap(storageManager.read(getPosition(bucketNumber), BUCKET_HEADER_BYTES));
+                    int localDepth = bucketHeader.getInt();
+                    if (localDepth != OVERFLOW_DEPTH) {
+                        primaryBuckets.add(new Bucket(bucketNumber, localDepth, bucketHeader.getInt(), NO_BUCKET, List.of()));
+                    }
+                }
+
+                globalDepth = primaryBuckets.stream().mapToInt(bucket -> bucket.localDepth).max().orElse(0);
+                directory = new int[1 << globalDepth];
+                primaryBuckets.sort(Comparator.comparingInt(bucket -> bucket.localDepth));
+                for (Bucket bucket : primaryBuckets) {
+                    pointDirectory(bucket);
+                }
+                for (Bucket bucket : primaryBuckets) {
+                    repairInterruptedSplit(bucket);
+                }
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A split interrupted after its new bucket was counted still leaves the moved keys in the split bucket, which
+     * keeps its previous depth, so part of the slots of its prefix point to the new bucket. The moved keys are dropped
+     * from the split bucket and its depth is raised, as the split would have done.
+     */
+    private void repairInterruptedSplit(Bucket bucket) throws StorageException, InterruptedTaskException,
+            FileChannelException {
+        int mask = (1 << bucket.localDepth) - 1;
+        boolean split = false;
+        for (int slot = bucket.prefix; slot < directory.length; slot += mask + 1) {
+            split |= directory[slot] != bucket.number;
+        }
+        if (!split) {
+            return;
+        }
+
+        Bucket splitBucket = readBucket(bucket.number);
+        splitBucket.localDepth++;
+        splitBucket.entries.removeIf(entry -> directory[slot(hash(Arrays.copyOf(entry, keySize)))] != bucket.number);
+        writeBucket(splitBucket);
+    }
+
+    private void initialize() throws StorageException, InterruptedTaskException, FileChannelException {
+        globalDepth = 0;
+        directory = new int[]{0};
+        appendBucket(newBucket(0, 0));
+    }
+
+    /**
+     * Moves the keys of a full bucket whose next bit of hash is set to a new bucket. The new bucket is appended before
+     * the split one is rewritten without the moved keys, so a crash in between leaves them in both buckets instead of
+     * in neither, and the copies left in the split bucket are dropped when the index is loaded again.
+     */
+    private void split(Bucket bucket) throws StorageException, InterruptedTaskException, FileChannelException {
+        if (bucket.localDepth == globalDepth) {
+            int[] doubledDirectory = Arrays.copyOf(directory, directory.length * 2);
+            System.arraycopy(directory, 0, doubledDirectory, directory.length, directory.length);
+            directory = doubledDirectory;
+            globalDepth++;
+        }
+
+        int splitBit = 1 << bucket.localDepth;
+        Bucket sibling = newBucket(bucket.localDepth + 1, bucket.prefix | splitBit);
+        bucket.localDepth++;
+
+        Iterator<byte[]> entries = bucket.entries.iterator();
+        while (entries.hasNext()) {
+            byte[] entry = entries.next();
+            if ((hash(Arrays.copyOf(entry, keySize)) & splitBit) != 0) {
+                sibling.entries.add(entry);
+                entries.remove();
+            }
+        }
+
+        appendBucket(sibling);
+        writeBucket(bucket);
+        pointDirectory(sibling);
+    }
+
+    /**
+     * Points every slot of the directory ending with the prefix of the bucket to it.
+     */
+    private void pointDirectory(Bucket bucket) {
+        int mask = (1 << bucket.localDepth) - 1;
+        for (int slot = bucket.prefix; slot < directory.length; slot += mask + 1) {
+            directory[slot] = bucket.number;
+        }
+    }
+
+    /**
+     * Creates a bucket numbered after the last one, which is only part of the index once it is appended.
+     */
+    private Bucket newBucket(int localDepth, int prefix) {
+        return new Bucket(bucketCount, localDepth, prefix, NO_BUCKET, new ArrayList<>());
+    }
+
+    /**
+     * Writes a new bucket and only then counts it in the header, so the header never counts a bucket that was not
+     * written, which the directory would be rebuilt from after a crash.
+     */
+    private void appendBucket(Bucket bucket) throws StorageException, InterruptedTaskException, FileChannelException {
+        writeBucket(bucket);
+        bucketCount++;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(keySize).putInt(entrySize - keySize).putInt(bucketCount);
+        storageManager.write(0, header.array());
+    }
+
+    private List<Bucket> readChain(int bucketNumber) throws StorageException, InterruptedTaskException,
+            FileChannelException {
+        List<Bucket> chain = new ArrayList<>();
+        while (bucketNumber != NO_BUCKET) {
+            Bucket bucket = readBucket(bucketNumber);
+            chain.add(bucket);
+            bucketNumber = bucket.next;
+        }
+        return chain;
+    }
+
+    private Bucket readBucket(int bucketNumber) throws StorageException, InterruptedTaskException,
+            FileChannelException {
+        ByteBuffer buffer = ByteBuffer.wrap(storageManager.read(getPosition(bucketNumber), bucketSize));
+        int localDepth = buffer.getInt();
+        int prefix = buffer.getInt();
+        int entryCount = buffer.getInt();
+        int next = buffer.getInt();
+
+        List<byte[]> entries = new ArrayList<>(entryCount);
+        for (int entryIndex = 0; entryIndex < entryCount; entryIndex++) {
+            byte[] entry = new byte[entrySize];
+            buffer.get(entry);
+            entries.add(entry);
+        }
+        return new Bucket(bucketNumber, localDepth, prefix, next, entries);
+    }
+
+    private void writeBucket(Bucket bucket) throws StorageException, InterruptedTaskException, FileChannelException {
+        ByteBuffer buffer = ByteBuffer.allocate(bucketSize);
+        buffer.putInt(bucket.localDepth).putInt(bucket.prefix).putInt(bucket.entries.size()).putInt(bucket.next);
+        for (byte[] entry : bucket.entries) {
+            buffer.put(entry);
+        }
+        storageManager.write(getPosition(bucket.number), buffer.array());
+    }
+
+    private long getPosition(int bucketNumber) {
+        return HEADER_BYTES + (long) bucketNumber * bucketSize;
+    }
+
+    private int slot(int hash) {
+        return hash & (directory.length - 1);
+    }
+
+    private static int hash(byte[] keyBytes) {
+        return (int) Murmur3.hash128(keyBytes, SEED)[0];
+    }
+
+    private final class Bucket {
+        private final int number;
+        private final int prefix;
+        private final List<byte[]> entries;
+        private int localDepth;
+        private int next;
+
+        private Bucket(int number, int localDepth, int prefix, int next, List<byte[]> entries) {
+            this.number = number;
+            this.localDepth = localDepth;
+            this.prefix = prefix;
+            this.next = next;
+            this.entries = entries;
+        }
+
+        private int indexOf(byte[] keyBytes) {
+            for (int entryIndex = 0; entryIndex < entries.size(); entryIndex++) {
+                if (Arrays.equals(entries.get(entryIndex), 0, keySize, keyBytes, 0, keySize)) {
+                    return entryIndex;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -3,12 +3,29 @@ package org.elece.index;
 import org.elece.exception.*;
 import org.elece.memory.tree.node.LeafTreeNode;
 
+import java.util.Iterator;
 import java.util.Optional;
 
 public interface IndexManager<K extends Comparable<K>, V> extends Queryable<K, V> {
     void addIndex(K identifier, V value) throws BTreeException, StorageException, SerializationException,
                                                 InterruptedTaskException, FileChannelException;
 
+    /**
+     * Adds every given key-value pair to the index. Implementations may build the index in bulk, which is much cheaper
+     * than adding the pairs one at a time when the index is empty.
+     *
+     * @param keyValues The key-value pairs to add, in any order.
+     */
+    default void bulkLoad(Iterator<LeafTreeNode.KeyValue<K, V>> keyValues) throws BTreeException, StorageException,
+                                                                                 SerializationException,
+                                                                                 InterruptedTaskException,
+                                                                                 FileChannelException {
+        while (keyValues.hasNext()) {
+            LeafTreeNode.KeyValue<K, V> keyValue = keyValues.next();
+            addIndex(keyValue.key(), keyValue.value());
+        }
+    }
+
     void updateIndex(K identifier, V value) throws BTreeException, StorageException, SerializationException,
                                                    InterruptedTaskException, FileChannelException;
 
@@ -0,0 +1,72 @@
+package org.elece.index;
+
+import org.elece.memory.Pointer;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-write latches over the nodes of a tree, keyed by the position of the node.
+ * <p>
+ * Nodes are read into new objects by every session, so there is no shared node object to synchronize on. A latch only
+ * exists while some thread holds or waits for it, so the table stays as small as the number of nodes in use.
+ */
+public class NodeLatches {
+    private final Map<NodeKey, NodeLatch> latches = new ConcurrentHashMap<>();
+
+    /**
+     * Latches a node for reading, which only excludes threads changing the node.
+     *
+     * @param pointer The pointer of the node.
+     * @return The held latch, released by closing it.
+     */
+    public Latch shared(Pointer pointer) {
+        return this.acquire(pointer, false);
+    }
+
+    /**
+     * Latches a node for changing it, which excludes every other thread using the node.
+     *
+     * @param pointer The pointer of the node.
+     * @return The held latch, released by closing it.
+     */
+    public Latch exclusive(Pointer pointer) {
+        return this.acquire(pointer, true);
+    }
+
+    private Latch acquire(Pointer pointer, boolean exclusive) {
+        NodeKey nodeKey = new NodeKey(pointer.getChunk(), pointer.getPosition());
+        NodeLatch nodeLatch = latches.compute(nodeKey, (_, current) -> {
+            NodeLatch latch = Objects.isNull(current) ? new NodeLatch() : current;
+            latch.users++;
+            return latch;
+        });
+
+        Lock lock = exclusive ? nodeLatch.lock.writeLock() : nodeLatch.lock.readLock();
+        lock.lock();
+        return () -> {
+            lock.unlock();
+            latches.computeIfPresent(nodeKey, (_, current) -> --current.users == 0 ? null : current);
+        };
+    }
+
+    /**
+     * A held latch, which is released when closed.
+     */
+    public interface Latch extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record NodeKey(int chunk, long position) {
+    }
+
+    private static class NodeLatch {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // Only changed inside the compute functions of the table, which are atomic for the key.
+        private int users;
+    }
+}
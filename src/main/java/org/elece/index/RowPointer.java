@@ -0,0 +1,14 @@
+package org.elece.index;
+
+import org.elece.memory.Pointer;
+
+/**
+ * The value stored for a row in secondary indexes when they point directly at rows, see
+ * {@link org.elece.config.DbConfig.SecondaryIndexStrategy#ROW_POINTER}. The pointer lets scans read the row without
+ * looking it up in the cluster index, and the cluster id tells whether the pointer still holds the row.
+ *
+ * @param clusterId The cluster id of the row.
+ * @param pointer   The location of the row on disk.
+ */
+public record RowPointer(int clusterId, Pointer pointer) {
+}
@@ -6,22 +6,47 @@ import org.elece.memory.KeyValueSize;
 import org.elece.memory.Pointer;
 import org.elece.memory.data.BinaryObjectFactory;
 import org.elece.memory.tree.node.*;
+import org.elece.memory.tree.operation.BulkLoadIndexOperation;
 import org.elece.memory.tree.operation.CreateIndexOperation;
 import org.elece.memory.tree.operation.DeleteIndexOperation;
+import org.elece.memory.tree.operation.ExternalKeyValueSorter;
 import org.elece.sql.parser.expression.internal.Order;
 import org.elece.sql.token.model.type.Symbol;
 import org.elece.storage.index.IndexStorageManager;
 import org.elece.storage.index.NodeData;
+import org.elece.storage.index.session.ImmediateSession;
 import org.elece.storage.index.session.Session;
 import org.elece.storage.index.session.factory.SessionFactory;
 import org.elece.utils.BTreeUtils;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
 
+/**
+ * Index stored as a B+ tree, which can be used by several threads at the same time.
+ * <p>
+ * Most changes only touch one leaf: an insertion into a leaf with room for the key, a removal that leaves the leaf with
+ * enough keys, or an update. These run while holding the read lock of the tree structure, which keeps every internal
+ * node, sibling pointer and the root unchanged, and latch only the leaf they change, so changes to different leaves run
+ * in parallel, and readers only wait for a change to the leaf they are reading. An insertion that splits a leaf or a
+ * removal that rebalances it changes the structure, so it is retried holding the write lock of the structure.
+ * <p>
+ * Iterators keep a leaf between calls without holding any lock, so when the structure changed in the meantime they
+ * find the next keys from the root again instead of following sibling pointers that may lead to a removed node.
+ */
 public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIndexManager<K, V> {
     private final IndexStorageManager indexStorageManager;
     private final SessionFactory sessionFactory;
@@ -30,6 +55,19 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
     private final BinaryObjectFactory<V> vBinaryObjectFactory;
     private final NodeFactory<K> nodeFactory;
     protected final KeyValueSize keyValueSize;
+    private final int minKeys;
+    private final int leafMinKeys;
+    private final ReentrantReadWriteLock structureLock;
+    private final NodeLatches nodeLatches;
+    // Only changed while holding the write lock of the structure, and read while holding its read lock.
+    private long structureVersion;
+    private volatile boolean rootExists;
+    // The last leaf, where increasing keys such as cluster ids are added, valid while the structure version is the same.
+    private volatile RightmostLeaf<K> rightmostLeaf;
+    // A removed key of each leaf the lazy delete strategy left with fewer keys than the minimum, which still leads to it.
+    private final Set<K> sparseLeafKeys;
+    // Reads leaves ahead of iterators, null when read-ahead is disabled or there is no node cache to read them into.
+    private final ThreadPoolExecutor readAheadExecutor;
 
     public TreeIndexManager(int indexId, IndexStorageManager indexStorageManager, SessionFactory iOSessionFactory,
                             DbConfig dbConfig, BinaryObjectFactory<K> kBinaryObjectFactory,
@@ -42,63 +80,307 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
         this.vBinaryObjectFactory = vBinaryObjectFactory;
         this.nodeFactory = nodeFactory;
         this.keyValueSize = new KeyValueSize(kBinaryObjectFactory.size(), vBinaryObjectFactory.size());
+        this.minKeys = (dbConfig.getBTreeDegree() - 1) / 2;
+        this.leafMinKeys = DeleteIndexOperation.getLeafMinKeys(dbConfig);
+        this.structureLock = new ReentrantReadWriteLock();
+        this.nodeLatches = new NodeLatches();
+        this.sparseLeafKeys = ConcurrentHashMap.newKeySet();
+        this.readAheadExecutor = createReadAheadExecutor(dbConfig);
+    }
+
+    /**
+     * Creates the executor the leaves are read ahead on. Its threads are bounded by the number of leaves read ahead and
+     * time out when idle, so an index that is not scanned holds no thread.
+     */
+    private static ThreadPoolExecutor createReadAheadExecutor(DbConfig dbConfig) {
+        if (dbConfig.getBTreeReadAheadLeaves() <= 0 || dbConfig.getBTreeNodeCacheSize() <= 0) {
+            return null;
+        }
+
+        int threads = Math.min(dbConfig.getBTreeReadAheadLeaves(), Runtime.getRuntime().availableProcessors());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "btree-read-ahead");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @Override
     public void addIndex(K identifier, V value) throws BTreeException, StorageException, SerializationException,
             InterruptedTaskException, FileChannelException {
+        ensureRoot();
+
+        structureLock.readLock().lock();
+        try {
+            if (addIndexToLeaf(identifier, value)) {
+                return;
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+
+        structureLock.writeLock().lock();
+        try {
+            Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
+            AbstractTreeNode<K> root = getRoot(session);
+            new CreateIndexOperation<>(dbConfig, session, kBinaryObjectFactory, vBinaryObjectFactory, keyValueSize).addIndex(root, identifier, value);
+            structureVersion++;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the key to its leaf if the leaf has room for it, which leaves every other node unchanged.
+     * A key past the last key of the tree is added to the last leaf without descending from the root.
+     *
+     * @return False if the leaf is full, so adding the key splits it.
+     */
+    private boolean addIndexToLeaf(K identifier, V value) throws BTreeException, StorageException,
+            SerializationException, InterruptedTaskException, FileChannelException {
         Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
-        AbstractTreeNode<K> root = getRoot(session);
-        new CreateIndexOperation<>(dbConfig, session, kBinaryObjectFactory, vBinaryObjectFactory, keyValueSize).addIndex(root, identifier, value);
+
+        RightmostLeaf<K> cachedLeaf = rightmostLeaf;
+        if (Objects.nonNull(cachedLeaf) && cachedLeaf.version() == structureVersion && identifier.compareTo(cachedLeaf.lastKey()) > 0) {
+            try (NodeLatches.Latch _ = nodeLatches.exclusive(cachedLeaf.pointer())) {
+                AbstractTreeNode<K> leaf = session.read(cachedLeaf.pointer());
+                List<K> keys = leaf.getKeyList(dbConfig.getBTreeDegree(), vBinaryObjectFactory.size());
+                // Every separator in the path of a leaf is at most its first key, so a greater key belongs to the last leaf.
+                if (leaf.isRoot() || (!keys.isEmpty() && identifier.compareTo(keys.getFirst()) > 0)) {
+                    return addIndexToLeaf(session, leaf, keys, identifier, value);
+                }
+            }
+        }
+
+        Pointer leafPointer = getResponsibleLeafPointer(session, identifier);
+        try (NodeLatches.Latch _ = nodeLatches.exclusive(leafPointer)) {
+            AbstractTreeNode<K> leaf = session.read(leafPointer);
+            return addIndexToLeaf(session, leaf, leaf.getKeyList(dbConfig.getBTreeDegree(), vBinaryObjectFactory.size()), identifier, value);
+        }
+    }
+
+    private boolean addIndexToLeaf(Session<K> session, AbstractTreeNode<K> leaf, List<K> keys, K identifier, V value)
+            throws BTreeException, StorageException, SerializationException, InterruptedTaskException,
+            FileChannelException {
+        if (keys.size() >= dbConfig.getBTreeDegree() - 1) {
+            return false;
+        }
+
+        // With the leaf as the only node of the path, the operation stops at the leaf.
+        new CreateIndexOperation<>(dbConfig, session, kBinaryObjectFactory, vBinaryObjectFactory, keyValueSize).addIndex(leaf, identifier, value);
+
+        if (((LeafTreeNode<?, ?>) leaf).getNextSiblingPointer(dbConfig.getBTreeDegree()).isEmpty()) {
+            K lastKey = keys.isEmpty() || identifier.compareTo(keys.getLast()) > 0 ? identifier : keys.getLast();
+            rightmostLeaf = new RightmostLeaf<>(leaf.getPointer(), structureVersion, lastKey);
+        }
+        return true;
+    }
+
+    /**
+     * Sorts the given key-value pairs externally and builds the tree bottom-up from them when the index is empty.
+     * If the index already holds keys, the pairs are added one at a time.
+     */
+    @Override
+    public void bulkLoad(Iterator<LeafTreeNode.KeyValue<K, V>> keyValues) throws BTreeException, StorageException,
+            SerializationException, InterruptedTaskException, FileChannelException {
+        structureLock.writeLock().lock();
+        try {
+            bulkLoadExclusively(keyValues);
+            structureVersion++;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    private void bulkLoadExclusively(Iterator<LeafTreeNode.KeyValue<K, V>> keyValues) throws BTreeException,
+            StorageException, SerializationException, InterruptedTaskException, FileChannelException {
+        // The whole tree is written before it becomes reachable, so there is nothing a committable session could undo.
+        Session<K> session = new ImmediateSession<>(indexStorageManager, nodeFactory, indexId, keyValueSize);
+        Optional<AbstractTreeNode<K>> optionalRoot = session.getRoot();
+        if (optionalRoot.isPresent() && !optionalRoot.get().getKeyList(dbConfig.getBTreeDegree(), vBinaryObjectFactory.size()).isEmpty()) {
+            while (keyValues.hasNext()) {
+                LeafTreeNode.KeyValue<K, V> keyValue = keyValues.next();
+                addIndex(keyValue.key(), keyValue.value());
+            }
+            return;
+        }
+
+        try (ExternalKeyValueSorter<K, V>.SortedKeyValues sortedKeyValues = new ExternalKeyValueSorter<>(dbConfig, kBinaryObjectFactory, vBinaryObjectFactory).sort(keyValues)) {
+            if (!sortedKeyValues.hasNext()) {
+                return;
+            }
+            new BulkLoadIndexOperation<>(dbConfig, session, kBinaryObjectFactory, vBinaryObjectFactory, keyValueSize).bulkLoad(sortedKeyValues);
+        }
+
+        // The empty root that was replaced is no longer reachable.
+        if (optionalRoot.isPresent()) {
+            session.remove(optionalRoot.get());
+        }
     }
 
     @Override
     public void updateIndex(K identifier, V value) throws BTreeException, StorageException, SerializationException,
             InterruptedTaskException, FileChannelException {
-        Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
+        ensureRoot();
 
-        K normalizedIdentifier = normalizeKey(identifier);
-        int bTreeDegree = dbConfig.getBTreeDegree();
-        LeafTreeNode<K, V> node = BTreeUtils.getResponsibleNode(indexStorageManager, getRoot(session), normalizedIdentifier, indexId, bTreeDegree, nodeFactory, vBinaryObjectFactory);
-        List<K> keyList = node.getKeyList(bTreeDegree);
-        if (!keyList.contains(normalizedIdentifier)) {
-            throw new BTreeException(DbError.INDEX_NOT_FOUND_ERROR, "Failed to find indexed key");
-        }
+        structureLock.readLock().lock();
+        try {
+            Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
+
+            K normalizedIdentifier = normalizeKey(identifier);
+            int bTreeDegree = dbConfig.getBTreeDegree();
+            Pointer leafPointer = getResponsibleLeafPointer(session, normalizedIdentifier);
+            try (NodeLatches.Latch _ = nodeLatches.exclusive(leafPointer)) {
+                LeafTreeNode<K, V> node = (LeafTreeNode<K, V>) session.read(leafPointer);
+                int keyIndex = node.indexOfKey(normalizedIdentifier, bTreeDegree);
+                if (keyIndex < 0) {
+                    throw new BTreeException(DbError.INDEX_NOT_FOUND_ERROR, "Failed to find indexed key");
+                }
 
-        node.setKeyValue(keyList.indexOf(normalizedIdentifier), new LeafTreeNode.KeyValue<>(normalizedIdentifier, value));
-        session.update(node);
-        session.commit();
+                node.setKeyValue(keyIndex, new LeafTreeNode.KeyValue<>(normalizedIdentifier, value));
+                session.update(node);
+                session.commit();
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
     }
 
     @Override
     public Optional<V> getIndex(K identifier) throws BTreeException, StorageException, InterruptedTaskException,
             FileChannelException {
-        Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
+        ensureRoot();
 
-        K normalizedIdentifier = normalizeKey(identifier);
-        int bTreeDegree = dbConfig.getBTreeDegree();
-        LeafTreeNode<K, V> baseTreeNode = BTreeUtils.getResponsibleNode(indexStorageManager, getRoot(session), normalizedIdentifier, indexId, bTreeDegree, nodeFactory, vBinaryObjectFactory);
-        for (LeafTreeNode.KeyValue<K, V> entry : baseTreeNode.getKeyValueList(bTreeDegree)) {
-            if (entry.key().compareTo(normalizedIdentifier) == 0) {
-                return Optional.of(entry.value());
-            }
-        }
+        structureLock.readLock().lock();
+        try {
+            Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
 
-        return Optional.empty();
+            K normalizedIdentifier = normalizeKey(identifier);
+            LeafTreeNode<K, V> baseTreeNode = readLeaf(session, getResponsibleLeafPointer(session, normalizedIdentifier));
+            return baseTreeNode.getValue(normalizedIdentifier, dbConfig.getBTreeDegree());
+        } finally {
+            structureLock.readLock().unlock();
+        }
     }
 
     @Override
     public boolean removeIndex(K identifier) throws BTreeException, StorageException, SerializationException,
             InterruptedTaskException, FileChannelException {
+        ensureRoot();
+        K normalizedIdentifier = normalizeKey(identifier);
+
+        structureLock.readLock().lock();
+        try {
+            Optional<Boolean> removed = removeIndexFromLeaf(normalizedIdentifier);
+            if (removed.isPresent()) {
+                return removed.get();
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+
+        structureLock.writeLock().lock();
+        try {
+            Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
+            AbstractTreeNode<K> root = getRoot(session);
+            boolean removed = new DeleteIndexOperation<>(dbConfig, session, vBinaryObjectFactory, nodeFactory, indexId).removeIndex(root, normalizedIdentifier);
+            structureVersion++;
+            if (removed && leafMinKeys < minKeys) {
+                // The leaf was only rebalanced up to the lazy minimum, and may still be sparse.
+                sparseLeafKeys.add(normalizedIdentifier);
+            }
+            return removed;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the key from its leaf if the leaf keeps enough keys afterward, which leaves every other node unchanged.
+     *
+     * @return Whether the key was removed, or empty if removing it leaves the leaf under filled, so it has to be
+     * rebalanced.
+     */
+    private Optional<Boolean> removeIndexFromLeaf(K identifier) throws BTreeException, StorageException,
+            SerializationException, InterruptedTaskException, FileChannelException {
         Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
-        AbstractTreeNode<K> root = getRoot(session);
-        return new DeleteIndexOperation<>(dbConfig, session, vBinaryObjectFactory, nodeFactory, indexId).removeIndex(root, normalizeKey(identifier));
+        int bTreeDegree = dbConfig.getBTreeDegree();
+        Pointer leafPointer = getResponsibleLeafPointer(session, identifier);
+        try (NodeLatches.Latch _ = nodeLatches.exclusive(leafPointer)) {
+            LeafTreeNode<K, V> leaf = (LeafTreeNode<K, V>) session.read(leafPointer);
+            if (leaf.indexOfKey(identifier, bTreeDegree) < 0) {
+                return Optional.of(false);
+            }
+            int keyCount = leaf.getKeyList(bTreeDegree).size();
+            if (!leaf.isRoot() && keyCount <= leafMinKeys) {
+                return Optional.empty();
+            }
+
+            // With the leaf as the only node of the path, the operation stops at the leaf.
+            boolean removed = new DeleteIndexOperation<>(dbConfig, session, vBinaryObjectFactory, nodeFactory, indexId).removeIndex(leaf, identifier);
+            if (removed && !leaf.isRoot() && keyCount <= minKeys) {
+                sparseLeafKeys.add(identifier);
+            }
+            return Optional.of(removed);
+        }
+    }
+
+    /**
+     * Rebalances the leaves left with fewer keys than the minimum of the tree by the
+     * {@link DbConfig.BTreeDeleteStrategy#LAZY} delete strategy, merging them with their siblings or borrowing keys from
+     * them. Only the leaves recorded by the deletes that left them sparse are visited, each one rebalanced holding the
+     * write lock of the structure, so other operations run in between. Leaves left sparse before the index was opened
+     * are not recorded, and are only merged once a delete leaves them sparse again.
+     *
+     * @return The number of times a leaf was rebalanced.
+     */
+    public int mergeSparseLeaves() throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        if (sparseLeafKeys.isEmpty()) {
+            return 0;
+        }
+        ensureRoot();
+
+        // Separators of removed keys are kept, so each key still leads to the leaf it was removed from, or to the leaf
+        // that leaf was merged into.
+        List<K> leafKeys = new ArrayList<>(sparseLeafKeys);
+        sparseLeafKeys.removeAll(leafKeys);
+
+        int rebalancedLeaves = 0;
+        for (K key : leafKeys) {
+            // Each rebalancing either adds a key to the leaf or merges it, so a leaf is done after a few of them.
+            boolean rebalanced = true;
+            while (rebalanced) {
+                structureLock.writeLock().lock();
+                try {
+                    Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
+                    rebalanced = new DeleteIndexOperation<>(dbConfig, session, vBinaryObjectFactory, nodeFactory, indexId).rebalanceLeaf(getRoot(session), key);
+                    if (rebalanced) {
+                        structureVersion++;
+                        rebalancedLeaves++;
+                    }
+                } finally {
+                    structureLock.writeLock().unlock();
+                }
+            }
+        }
+        return rebalancedLeaves;
     }
 
     @Override
     public void purgeIndex() throws InterruptedTaskException, StorageException, FileChannelException {
         if (this.indexStorageManager.supportsPurge()) {
-            this.indexStorageManager.purgeIndex(indexId);
+            structureLock.writeLock().lock();
+            try {
+                this.indexStorageManager.purgeIndex(indexId);
+                sparseLeafKeys.clear();
+                structureVersion++;
+                rootExists = false;
+            } finally {
+                structureLock.writeLock().unlock();
+            }
         }
     }
 
@@ -106,11 +388,20 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
     public LockableIterator<LeafTreeNode.KeyValue<K, V>> getSortedIterator() throws StorageException,
             InterruptedTaskException,
             FileChannelException {
-        Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
+        ensureRoot();
+
+        LeafCursor leafCursor;
+        structureLock.readLock().lock();
+        try {
+            Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
+            leafCursor = new LeafCursor(getFarLeftLeaf(session, getRoot(session)), Order.ASC);
+        } finally {
+            structureLock.readLock().unlock();
+        }
 
         return new LockableIterator<>() {
             private int keyIndex = 0;
-            LeafTreeNode<K, V> currentLeaf = getFarLeftLeaf(session, getRoot(session));
+            private List<LeafTreeNode.KeyValue<K, V>> keyValueList = leafCursor.getKeyValueList();
 
             @Override
             public void lock() {
@@ -124,29 +415,22 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
 
             @Override
             public boolean hasNext() {
-                int size = currentLeaf.getKeyList(dbConfig.getBTreeDegree()).size();
-                if (keyIndex == size) {
-                    return currentLeaf.getNextSiblingPointer(dbConfig.getBTreeDegree()).isPresent();
-                }
-                return true;
-            }
-
-            @Override
-            public LeafTreeNode.KeyValue<K, V> next() {
-                List<LeafTreeNode.KeyValue<K, V>> keyValueList = currentLeaf.getKeyValueList(dbConfig.getBTreeDegree());
-
                 if (keyIndex == keyValueList.size()) {
                     try {
-                        Optional<Pointer> nextSiblingPointer = currentLeaf.getNextSiblingPointer(dbConfig.getBTreeDegree());
-                        if (nextSiblingPointer.isEmpty()) {
-                            throw new StorageException(DbError.INTERNAL_STORAGE_ERROR, "Sibling pointer was deleted and points to empty memory location");
-                        }
-                        currentLeaf = (LeafTreeNode<K, V>) session.read(nextSiblingPointer.get());
-                    } catch (StorageException | InterruptedTaskException | FileChannelException exception) {
+                        keyValueList = leafCursor.move();
+                    } catch (StorageException | BTreeException | InterruptedTaskException |
+                             FileChannelException exception) {
                         throw new RuntimeDbException(exception.getDbError(), exception.getMessage());
                     }
                     keyIndex = 0;
-                    keyValueList = currentLeaf.getKeyValueList(dbConfig.getBTreeDegree());
+                }
+                return keyIndex < keyValueList.size();
+            }
+
+            @Override
+            public LeafTreeNode.KeyValue<K, V> next() {
+                if (!hasNext()) {
+                    throw new RuntimeDbException(DbError.INTERNAL_STORAGE_ERROR, "Sibling pointer was deleted and points to empty memory location");
                 }
 
                 LeafTreeNode.KeyValue<K, V> output = keyValueList.get(keyIndex);
@@ -158,17 +442,24 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
 
     @Override
     public Optional<K> getLastIndex() throws StorageException, InterruptedTaskException, FileChannelException {
-        Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
-        AbstractTreeNode<K> root = getRoot(session);
-        LeafTreeNode<K, V> farRightLeaf = getFarRightLeaf(session, root);
-        List<K> keyList = farRightLeaf.getKeyList(dbConfig.getBTreeDegree());
-        return !keyList.isEmpty() ? Optional.of(keyList.getLast()) : Optional.empty();
+        ensureRoot();
+
+        structureLock.readLock().lock();
+        try {
+            Session<K> session = this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
+            AbstractTreeNode<K> root = getRoot(session);
+            LeafTreeNode<K, V> farRightLeaf = getFarRightLeaf(session, root);
+            List<K> keyList = farRightLeaf.getKeyList(dbConfig.getBTreeDegree());
+            return !keyList.isEmpty() ? Optional.of(keyList.getLast()) : Optional.empty();
+        } finally {
+            structureLock.readLock().unlock();
+        }
     }
 
     /**
      * Normalizes a lookup key to the exact representation stored in the tree. Keys are persisted through
      * {@link #kBinaryObjectFactory} (for example strings are padded to the column width), whereas a key coming from a
-     * query is the raw literal. Round tripping it through the same factory reproduces the stored form so that navigation
+     * query is the raw literal. Normalizing it through the same factory reproduces the stored form so that navigation
      * and equality comparisons match; for fixed width types (such as integers) this is an identity transformation.
      * <p>
      * If the key cannot be encoded to the column's stored form it is returned unchanged, which preserves the previous
@@ -176,12 +467,47 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
      */
     private K normalizeKey(K identifier) {
         try {
-            return kBinaryObjectFactory.create(identifier).asObject();
+            return kBinaryObjectFactory.normalize(identifier);
         } catch (BTreeException | SerializationException | RuntimeDbException exception) {
             return identifier;
         }
     }
 
+    /**
+     * Creates the root of an empty index while holding the write lock of the structure, so operations holding the read
+     * lock always find a root and never write one themselves.
+     */
+    private void ensureRoot() throws StorageException, InterruptedTaskException, FileChannelException {
+        if (rootExists) {
+            return;
+        }
+
+        structureLock.writeLock().lock();
+        try {
+            getRoot(this.sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize));
+            rootExists = true;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the leaf responsible for a key. Internal nodes only change while holding the write lock of the structure,
+     * so they are read without latches, and so is the leaf, which is only read to find where the descent ends, so
+     * callers read it again holding its latch.
+     */
+    private Pointer getResponsibleLeafPointer(Session<K> session, K identifier) throws BTreeException,
+            StorageException, InterruptedTaskException, FileChannelException {
+        return BTreeUtils.getResponsibleNode(indexStorageManager, getRoot(session), identifier, indexId, dbConfig.getBTreeDegree(), nodeFactory, vBinaryObjectFactory).getPointer();
+    }
+
+    private LeafTreeNode<K, V> readLeaf(Session<K> session, Pointer pointer) throws StorageException,
+            InterruptedTaskException, FileChannelException {
+        try (NodeLatches.Latch _ = nodeLatches.shared(pointer)) {
+            return (LeafTreeNode<K, V>) session.read(pointer);
+        }
+    }
+
     private AbstractTreeNode<K> getRoot(Session<K> session) throws StorageException, InterruptedTaskException,
             FileChannelException {
         Optional<AbstractTreeNode<K>> optionalRoot = session.getRoot();
@@ -201,26 +527,18 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
     protected LeafTreeNode<K, V> getFarLeftLeaf(Session<K> session, AbstractTreeNode<K> root) throws StorageException,
             InterruptedTaskException,
             FileChannelException {
-        if (root.isLeaf()) {
-            return (LeafTreeNode<K, V>) root;
-        }
-
         AbstractTreeNode<K> farLeftChild = root;
 
         while (!farLeftChild.isLeaf()) {
             farLeftChild = session.read(((InternalTreeNode<K>) farLeftChild).getChildAtIndex(0));
         }
 
-        return (LeafTreeNode<K, V>) farLeftChild;
+        return readLeaf(session, farLeftChild.getPointer());
     }
 
     protected LeafTreeNode<K, V> getFarRightLeaf(Session<K> session, AbstractTreeNode<K> root) throws StorageException,
             InterruptedTaskException,
             FileChannelException {
-        if (root.isLeaf()) {
-            return (LeafTreeNode<K, V>) root;
-        }
-
         AbstractTreeNode<K> farRightChild = root;
 
         while (!farRightChild.isLeaf()) {
@@ -228,14 +546,15 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
             farRightChild = session.read(childrenList.getLast());
         }
 
-        return (LeafTreeNode<K, V>) farRightChild;
+        return readLeaf(session, farRightChild.getPointer());
     }
 
     @Override
     public Iterator<V> getGreaterThan(K k, Set<K> kExclusions, Order order) throws StorageException, BTreeException,
             InterruptedTaskException,
             FileChannelException {
-        return new QueryIterator(order, key -> key.compareTo(k) > 0, k, Symbol.GT, kExclusions);
+        K normalizedK = normalizeKey(k);
+        return new QueryIterator(order, key -> key.compareTo(normalizedK) > 0, normalizedK, Symbol.GT, kExclusions);
     }
 
     @Override
@@ -243,21 +562,24 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
             BTreeException,
             InterruptedTaskException,
             FileChannelException {
-        return new QueryIterator(order, key -> key.compareTo(k) >= 0, k, Symbol.GT_EQ, kExclusions);
+        K normalizedK = normalizeKey(k);
+        return new QueryIterator(order, key -> key.compareTo(normalizedK) >= 0, normalizedK, Symbol.GT_EQ, kExclusions);
     }
 
     @Override
     public Iterator<V> getLessThan(K k, Set<K> kExclusions, Order order) throws StorageException, BTreeException,
             InterruptedTaskException,
             FileChannelException {
-        return new QueryIterator(order, key -> key.compareTo(k) < 0, k, Symbol.LT, kExclusions);
+        K normalizedK = normalizeKey(k);
+        return new QueryIterator(order, key -> key.compareTo(normalizedK) < 0, normalizedK, Symbol.LT, kExclusions);
     }
 
     @Override
     public Iterator<V> getLessThanEqual(K k, Set<K> kExclusions, Order order) throws StorageException, BTreeException,
             InterruptedTaskException,
             FileChannelException {
-        return new QueryIterator(order, key -> key.compareTo(k) <= 0, k, Symbol.LT_EQ, kExclusions);
+        K normalizedK = normalizeKey(k);
+        return new QueryIterator(order, key -> key.compareTo(normalizedK) <= 0, normalizedK, Symbol.LT_EQ, kExclusions);
     }
 
     @Override
@@ -265,19 +587,20 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
             BTreeException,
             InterruptedTaskException,
             FileChannelException {
-        return new QueryIterator(order, key -> key.compareTo(k1) >= 0 && key.compareTo(k2) <= 0, k1, null, kExclusions);
+        K normalizedK1 = normalizeKey(k1);
+        K normalizedK2 = normalizeKey(k2);
+        return new QueryIterator(order, key -> key.compareTo(normalizedK1) >= 0 && key.compareTo(normalizedK2) <= 0, normalizedK1, null, kExclusions);
     }
 
     private class QueryIterator implements Iterator<V> {
         private final Order order;
-        private final Session<K> session;
         private final Function<K, Boolean> comparisonFunction;
 
         private final K key;
         private final Symbol operation;
         private final Set<K> kExclusions;
 
-        private LeafTreeNode<K, V> targetTreeNode;
+        private LeafCursor leafCursor;
         private List<LeafTreeNode.KeyValue<K, V>> nodeKeyValueList;
         private Integer keyValueIndex;
 
@@ -289,25 +612,31 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
             this.key = key;
             this.operation = operation;
             this.kExclusions = kExclusions;
-            this.session = sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
             this.keyValueIndex = -1;
 
-            locateInitialTargetNode();
+            ensureRoot();
+            structureLock.readLock().lock();
+            try {
+                locateInitialTargetNode(sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize));
+            } finally {
+                structureLock.readLock().unlock();
+            }
         }
 
-        private void locateInitialTargetNode() throws
+        private void locateInitialTargetNode(Session<K> session) throws
                 StorageException, BTreeException, InterruptedTaskException,
                 FileChannelException {
+            LeafTreeNode<K, V> targetTreeNode;
             if (order == Order.ASC) {
                 if (operation == Symbol.LT || operation == Symbol.LT_EQ) {
                     targetTreeNode = getFarLeftLeaf(session, getRoot(session));
                     nodeKeyValueList = targetTreeNode.getKeyValueList(dbConfig.getBTreeDegree());
                 } else {
-                    targetTreeNode = BTreeUtils.getResponsibleNode(indexStorageManager, getRoot(session), key, indexId, dbConfig.getBTreeDegree(), nodeFactory, vBinaryObjectFactory);
+                    targetTreeNode = readLeaf(session, getResponsibleLeafPointer(session, key));
                     nodeKeyValueList = targetTreeNode.getKeyValueList(dbConfig.getBTreeDegree());
 
                     if (operation == Symbol.GT && nodeKeyValueList.getLast().key().compareTo(key) <= 0 && targetTreeNode.getNextSiblingPointer(dbConfig.getBTreeDegree()).isPresent()) {
-                        targetTreeNode = (LeafTreeNode<K, V>) session.read(targetTreeNode.getNextSiblingPointer(dbConfig.getBTreeDegree()).get());
+                        targetTreeNode = readLeaf(session, targetTreeNode.getNextSiblingPointer(dbConfig.getBTreeDegree()).get());
                         nodeKeyValueList = targetTreeNode.getKeyValueList(dbConfig.getBTreeDegree());
                     }
                 }
@@ -323,11 +652,11 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
                     targetTreeNode = getFarRightLeaf(session, getRoot(session));
                     nodeKeyValueList = targetTreeNode.getKeyValueList(dbConfig.getBTreeDegree());
                 } else {
-                    targetTreeNode = BTreeUtils.getResponsibleNode(indexStorageManager, getRoot(session), key, indexId, dbConfig.getBTreeDegree(), nodeFactory, vBinaryObjectFactory);
+                    targetTreeNode = readLeaf(session, getResponsibleLeafPointer(session, key));
                     nodeKeyValueList = targetTreeNode.getKeyValueList(dbConfig.getBTreeDegree());
 
                     if (operation == Symbol.LT && nodeKeyValueList.getFirst().key().compareTo(key) >= 0 && targetTreeNode.getPreviousSiblingPointer(dbConfig.getBTreeDegree()).isPresent()) {
-                        targetTreeNode = (LeafTreeNode<K, V>) session.read(targetTreeNode.getPreviousSiblingPointer(dbConfig.getBTreeDegree()).get());
+                        targetTreeNode = readLeaf(session, targetTreeNode.getPreviousSiblingPointer(dbConfig.getBTreeDegree()).get());
                         nodeKeyValueList = targetTreeNode.getKeyValueList(dbConfig.getBTreeDegree());
                     }
                 }
@@ -339,6 +668,7 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
                     }
                 }
             }
+            leafCursor = new LeafCursor(targetTreeNode, order);
         }
 
         @Override
@@ -349,32 +679,16 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
                 }
 
                 if (keyValueIndex == nodeKeyValueList.size()) {
-                    Optional<Pointer> nextSiblingPointer = targetTreeNode.getNextSiblingPointer(dbConfig.getBTreeDegree());
-                    if (nextSiblingPointer.isEmpty()) {
-                        return false;
-                    }
-
-                    try {
-                        targetTreeNode = (LeafTreeNode<K, V>) session.read(nextSiblingPointer.get());
-                    } catch (StorageException | InterruptedTaskException | FileChannelException exception) {
+                    if (!moveToNextLeaf()) {
                         return false;
                     }
-                    nodeKeyValueList = targetTreeNode.getKeyValueList(dbConfig.getBTreeDegree());
                     keyValueIndex = 0;
                 }
             } else {
                 if (keyValueIndex == -1) {
-                    Optional<Pointer> previousSiblingPointer = targetTreeNode.getPreviousSiblingPointer(dbConfig.getBTreeDegree());
-                    if (previousSiblingPointer.isEmpty()) {
-                        return false;
-                    }
-
-                    try {
-                        targetTreeNode = (LeafTreeNode<K, V>) session.read(previousSiblingPointer.get());
-                    } catch (StorageException | InterruptedTaskException | FileChannelException exception) {
+                    if (!moveToNextLeaf()) {
                         return false;
                     }
-                    nodeKeyValueList = targetTreeNode.getKeyValueList(dbConfig.getBTreeDegree());
                     keyValueIndex = nodeKeyValueList.size() - 1;
                 }
             }
@@ -382,6 +696,15 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
             return comparisonFunction.apply(nodeKeyValueList.get(keyValueIndex).key());
         }
 
+        private boolean moveToNextLeaf() {
+            try {
+                nodeKeyValueList = leafCursor.move();
+            } catch (StorageException | BTreeException | InterruptedTaskException | FileChannelException exception) {
+                return false;
+            }
+            return !nodeKeyValueList.isEmpty();
+        }
+
         @Override
         public V next() {
             V nextKey = nodeKeyValueList.get(keyValueIndex).value();
@@ -393,4 +716,137 @@ public class TreeIndexManager<K extends Comparable<K>, V> extends AbstractTreeIn
             return nextKey;
         }
     }
+
+    /**
+     * Walks the leaves of the tree for an iterator, which keeps a leaf between calls without holding any lock.
+     * <p>
+     * The sibling pointers of the leaf are only followed if the structure of the tree did not change since the leaf
+     * was read. Otherwise the sibling may have been merged away and its node reused, so the leaf holding the keys that
+     * follow the current leaf is found from the root, and only the keys that follow the current leaf are returned.
+     * <p>
+     * The leaves that follow the current leaf are read in the background while its keys are consumed, so the reads of
+     * a long scan overlap instead of waiting on each other. These reads only bring the leaves into the node cache, each
+     * leaf is still read under its latch when the cursor reaches it, so changes made in the meantime are not missed.
+     */
+    private class LeafCursor {
+        private final Order order;
+        // Each future completes once the next leaf ahead of the current leaf was read, with the pointer of the leaf after it.
+        private final Deque<CompletableFuture<Optional<Pointer>>> readAheadLeaves;
+        private LeafTreeNode<K, V> leaf;
+        private long version;
+
+        /**
+         * Must be created while holding the read lock of the structure, in which the leaf was read.
+         */
+        private LeafCursor(LeafTreeNode<K, V> leaf, Order order) {
+            this.order = order;
+            this.readAheadLeaves = new ArrayDeque<>();
+            this.leaf = leaf;
+            this.version = structureVersion;
+            readAhead();
+        }
+
+        private List<LeafTreeNode.KeyValue<K, V>> getKeyValueList() {
+            return leaf.getKeyValueList(dbConfig.getBTreeDegree());
+        }
+
+        /**
+         * Moves to the next leaf in the order of the iteration.
+         *
+         * @return The keys of the leaf that follow the keys of the previous leaf, which are empty at the end of the
+         * tree.
+         */
+        private List<LeafTreeNode.KeyValue<K, V>> move() throws StorageException, BTreeException,
+                InterruptedTaskException, FileChannelException {
+            List<LeafTreeNode.KeyValue<K, V>> keyValueList = getKeyValueList();
+            if (keyValueList.isEmpty()) {
+                // Only an empty root has no keys, so there are no more leaves.
+                return List.of();
+            }
+            K boundary = order == Order.ASC ? keyValueList.getLast().key() : keyValueList.getFirst().key();
+
+            ensureRoot();
+            structureLock.readLock().lock();
+            try {
+                Session<K> session = sessionFactory.create(indexStorageManager, indexId, nodeFactory, keyValueSize);
+                Optional<Pointer> nextLeafPointer;
+                if (version == structureVersion) {
+                    nextLeafPointer = getSiblingPointer(leaf);
+                } else {
+                    readAheadLeaves.clear();
+                    nextLeafPointer = Optional.of(getResponsibleLeafPointer(session, boundary));
+                    version = structureVersion;
+                }
+
+                try {
+                    while (nextLeafPointer.isPresent()) {
+                        awaitReadAhead();
+                        leaf = readLeaf(session, nextLeafPointer.get());
+                        List<LeafTreeNode.KeyValue<K, V>> followingKeyValues = getKeyValueList().stream()
+                                .filter(keyValue -> order == Order.ASC ? keyValue.key().compareTo(boundary) > 0 : keyValue.key().compareTo(boundary) < 0)
+                                .toList();
+                        if (!followingKeyValues.isEmpty()) {
+                            return followingKeyValues;
+                        }
+                        nextLeafPointer = getSiblingPointer(leaf);
+                    }
+                    return List.of();
+                } finally {
+                    readAhead();
+                }
+            } finally {
+                structureLock.readLock().unlock();
+            }
+        }
+
+        private Optional<Pointer> getSiblingPointer(LeafTreeNode<K, V> leafTreeNode) {
+            return order == Order.ASC ? leafTreeNode.getNextSiblingPointer(dbConfig.getBTreeDegree()) : leafTreeNode.getPreviousSiblingPointer(dbConfig.getBTreeDegree());
+        }
+
+        /**
+         * Waits for the read of the leaf the cursor moves to, if it was read ahead, so it is not read twice.
+         */
+        private void awaitReadAhead() {
+            CompletableFuture<Optional<Pointer>> readAheadLeaf = readAheadLeaves.pollFirst();
+            if (Objects.nonNull(readAheadLeaf)) {
+                readAheadLeaf.exceptionally(_ -> Optional.empty()).join();
+            }
+        }
+
+        /**
+         * Requests the reads of the leaves that follow the current leaf, up to the configured number of leaves ahead.
+         * Must be called while holding the read lock of the structure, so the sibling pointers lead to leaves.
+         * Without a node cache the leaves read ahead would be read again, so nothing is read ahead.
+         */
+        private void readAhead() {
+            if (Objects.isNull(readAheadExecutor)) {
+                return;
+            }
+            while (readAheadLeaves.size() < dbConfig.getBTreeReadAheadLeaves()) {
+                CompletableFuture<Optional<Pointer>> previousLeaf = readAheadLeaves.isEmpty()
+                        ? CompletableFuture.completedFuture(getSiblingPointer(leaf))
+                        : readAheadLeaves.getLast();
+                readAheadLeaves.addLast(previousLeaf.thenComposeAsync(this::readAheadLeaf, readAheadExecutor));
+            }
+        }
+
+        private CompletableFuture<Optional<Pointer>> readAheadLeaf(Optional<Pointer> pointer) {
+            if (pointer.isEmpty()) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            try {
+                // The structure may change while the leaves are read ahead, and then a failed read only ends the read-ahead.
+                return indexStorageManager.readNode(indexId, pointer.get(), keyValueSize)
+                        .thenApply(nodeData -> nodeFactory.fromNodeData(nodeData) instanceof LeafTreeNode<K, ?> leafTreeNode
+                                ? getSiblingPointer((LeafTreeNode<K, V>) leafTreeNode)
+                                : Optional.<Pointer>empty())
+                        .exceptionally(_ -> Optional.empty());
+            } catch (StorageException | FileChannelException _) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+        }
+    }
+
+    private record RightmostLeaf<K>(Pointer pointer, long version, K lastKey) {
+    }
 }
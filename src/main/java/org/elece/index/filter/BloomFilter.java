@@ -4,6 +4,7 @@ import org.elece.exception.BTreeException;
 import org.elece.exception.SerializationException;
 import org.elece.memory.data.BinaryObjectFactory;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.LongBinaryOperator;
 
@@ -23,7 +24,9 @@ import java.util.function.LongBinaryOperator;
  *
  * @param <K> the key type stored in the filter.
  */
-public class BloomFilter<K extends Comparable<K>> {
+public class BloomFilter<K extends Comparable<K>> implements MembershipFilter<K> {
+    public static final byte TYPE = 1;
+
     private static final int SEED = 0x9747b28c;
     private static final double LN2 = Math.log(2);
     private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
@@ -54,6 +57,7 @@ public class BloomFilter<K extends Comparable<K>> {
      * Records a key in the filter. Propagates the serialization failures the backing factory would raise, so a key that
      * cannot be stored in the index cannot silently be dropped from the filter either.
      */
+    @Override
     public void add(K key) throws BTreeException, SerializationException {
         long[] hash = Murmur3.hash128(toBytes(key), SEED);
         for (int index = 0; index < hashCount; index++) {
@@ -66,6 +70,7 @@ public class BloomFilter<K extends Comparable<K>> {
      * the key it conservatively returns {@code true}, deferring to the authoritative index so a hashing problem can
      * never turn into a false negative.
      */
+    @Override
     public boolean mightContain(K key) {
         byte[] bytes;
         try {
@@ -83,16 +88,64 @@ public class BloomFilter<K extends Comparable<K>> {
         return true;
     }
 
+    /**
+     * Bits are shared between keys, so removed keys are kept as false positives until the filter is cleared.
+     */
+    @Override
+    public boolean supportsRemoval() {
+        return false;
+    }
+
+    @Override
+    public void remove(K key) {
+        // Clearing the bits of a key could clear the bits of other keys, so removals are ignored.
+    }
+
     /**
      * Resets every bit. Only safe to call when the backing index is known to be empty, otherwise the filter would start
      * reporting existing keys as absent.
      */
+    @Override
     public void clear() {
         for (int index = 0; index < words.length(); index++) {
             words.set(index, 0L);
         }
     }
 
+    @Override
+    public byte getType() {
+        return TYPE;
+    }
+
+    /**
+     * Copies the bit size, the hash count and the bit array.
+     */
+    @Override
+    public byte[] getState() {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Integer.BYTES + words.length() * Long.BYTES);
+        buffer.putInt(bitSize).putInt(hashCount);
+        for (int index = 0; index < words.length(); index++) {
+            buffer.putLong(words.get(index));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Sets the bits of a previously persisted bit array, on top of the bits already set, so no key already added is
+     * lost. The state is only loaded if it comes from a filter with the same bit size and hash count.
+     */
+    @Override
+    public boolean loadState(ByteBuffer state) {
+        if (state.remaining() != Integer.BYTES + Integer.BYTES + words.length() * Long.BYTES ||
+                state.getInt() != bitSize || state.getInt() != hashCount) {
+            return false;
+        }
+        for (int index = 0; index < words.length(); index++) {
+            words.accumulateAndGet(index, state.getLong(), BITWISE_OR);
+        }
+        return true;
+    }
+
     public int getBitSize() {
         return bitSize;
     }
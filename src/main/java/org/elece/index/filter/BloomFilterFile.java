@@ -0,0 +1,123 @@
+package org.elece.index.filter;
+
+import org.elece.config.DbConfig;
+import org.elece.exception.DbError;
+import org.elece.exception.StorageException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Stores the state of a {@link MembershipFilter} next to the index files, so a filter does not have to be rebuilt from a
+ * full scan of its index after a restart.
+ * <p>
+ * The file holds a header with the format version, a status, the type of the filter and the size of its state, followed
+ * by the state. A file is only trusted while its status is clean, which means it holds every key of the index. The
+ * status is set to dirty, and forced to disk, before the first key that is not part of the file is added, so a file
+ * left behind by a crash, an older format or another kind of filter is never loaded, and the filter is rebuilt instead.
+ */
+public class BloomFilterFile {
+    private static final String FILE_NAME = "bloom";
+    private static final int MAGIC = 0x424c4f4d;
+    private static final byte FORMAT_VERSION = 2;
+    private static final byte DIRTY = 0;
+    private static final byte CLEAN = 1;
+    private static final int STATUS_OFFSET = Integer.BYTES + Byte.BYTES;
+    private static final int HEADER_BYTES = Integer.BYTES + Byte.BYTES + Byte.BYTES + Byte.BYTES + Integer.BYTES;
+
+    private final Path path;
+
+    public BloomFilterFile(Path path) {
+        this.path = path;
+    }
+
+    public static BloomFilterFile of(DbConfig dbConfig, int indexId) {
+        return new BloomFilterFile(Path.of(dbConfig.getBaseDbPath(), String.format("%s.%d.bin", FILE_NAME, indexId)));
+    }
+
+    /**
+     * Reads the state of the filter, if the file holds a clean filter of the given type.
+     *
+     * @param type The type of the filter, as returned by {@link MembershipFilter#getType()}.
+     * @return The state of the filter, empty if there's no file or it can't be trusted.
+     * @throws StorageException If the file can't be read.
+     */
+    public Optional<ByteBuffer> read(byte type) throws StorageException {
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                return Optional.empty();
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Reads until the buffer is full.
+            }
+            buffer.flip();
+            if (buffer.getInt() != MAGIC || buffer.get() != FORMAT_VERSION || buffer.get() != CLEAN ||
+                    buffer.get() != type || buffer.getInt() != buffer.remaining()) {
+                return Optional.empty();
+            }
+            return Optional.of(buffer.slice());
+        } catch (IOException exception) {
+            throw new StorageException(DbError.FILE_READ_ERROR, String.format("Failed to read bloom filter: %s", exception.getMessage()));
+        }
+    }
+
+    /**
+     * Marks the file as not holding every key of the index anymore, if it exists.
+     *
+     * @throws StorageException If the file can't be written.
+     */
+    public void markDirty() throws StorageException {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{DIRTY}), STATUS_OFFSET);
+            channel.force(false);
+        } catch (IOException exception) {
+            throw new StorageException(DbError.FILE_WRITE_ERROR, String.format("Failed to write bloom filter: %s", exception.getMessage()));
+        }
+    }
+
+    /**
+     * Replaces the file with a clean copy of the given state. The state is written to a temporary file that is moved
+     * over the previous one, so a crash leaves either file complete.
+     *
+     * @param type  The type of the filter, as returned by {@link MembershipFilter#getType()}.
+     * @param state The state of the filter, as returned by {@link MembershipFilter#getState()}.
+     * @throws StorageException If the file can't be written.
+     */
+    public void write(byte type, byte[] state) throws StorageException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + state.length);
+        buffer.putInt(MAGIC).put(FORMAT_VERSION).put(CLEAN).put(type).putInt(state.length).put(state);
+        buffer.flip();
+
+        Path temporaryPath = Path.of(path.toString() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException exception) {
+            throw new StorageException(DbError.FILE_WRITE_ERROR, String.format("Failed to write bloom filter: %s", exception.getMessage()));
+        }
+
+        try {
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            throw new StorageException(DbError.FILE_WRITE_ERROR, String.format("Failed to replace bloom filter: %s", exception.getMessage()));
+        }
+    }
+}
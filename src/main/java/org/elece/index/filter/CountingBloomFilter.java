@@ -0,0 +1,261 @@
+package org.elece.index.filter;
+
+import org.elece.exception.BTreeException;
+import org.elece.exception.SerializationException;
+import org.elece.memory.data.BinaryObjectFactory;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link BloomFilter} variant whose bits are replaced by 4-bit counters, so keys can be removed by decrementing the
+ * counters their hashes map to, instead of lingering as false positives until the filter is cleared.
+ * <p>
+ * Counters are packed sixteen to a word of an {@link AtomicLongArray} and changed with compare-and-set loops, so adds,
+ * removals and membership checks don't lock. A counter that reaches its maximum is never changed again, since its real
+ * count is unknown from then on, which only keeps the keys that share it as false positives. A key must only be
+ * removed if it was added and not removed since, otherwise the counters of other keys would be decremented and those
+ * keys reported as absent.
+ * <p>
+ * The filter is sized like a {@link BloomFilter} and also tracks how many keys it holds against the number it was
+ * sized for, so a {@link ScalableBloomFilter} can tell when to add another layer.
+ *
+ * @param <K> the key type stored in the filter.
+ */
+public class CountingBloomFilter<K extends Comparable<K>> implements MembershipFilter<K> {
+    public static final byte TYPE = 2;
+
+    private static final int SEED = 0x9747b28c;
+    private static final double LN2 = Math.log(2);
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    private static final int MAX_COUNTERS = 1 << 28;
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long MAX_COUNT = (1L << COUNTER_BITS) - 1;
+
+    private final BinaryObjectFactory<K> keyFactory;
+    private final AtomicLongArray words;
+    private final int counterCount;
+    private final int hashCount;
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public CountingBloomFilter(int expectedInsertions, double falsePositiveRate, BinaryObjectFactory<K> keyFactory) {
+        this.keyFactory = keyFactory;
+        this.capacity = Math.max(1, expectedInsertions);
+
+        double rate = falsePositiveRate;
+        if (Double.isNaN(rate) || rate <= 0.0 || rate >= 1.0) {
+            rate = DEFAULT_FALSE_POSITIVE_RATE;
+        }
+
+        long optimalCounters = (long) Math.ceil(-capacity * Math.log(rate) / (LN2 * LN2));
+        this.counterCount = (int) Math.min(MAX_COUNTERS, Math.max(COUNTERS_PER_WORD, optimalCounters));
+        this.hashCount = Math.max(1, (int) Math.round((double) counterCount / capacity * LN2));
+        this.words = new AtomicLongArray((counterCount + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+    }
+
+    @Override
+    public void add(K key) throws BTreeException, SerializationException {
+        add(hash(toBytes(key)));
+        size.incrementAndGet();
+    }
+
+    /**
+     * Returns {@code false} only when the key is guaranteed to be absent; otherwise {@code true}. On any failure to hash
+     * the key it conservatively returns {@code true}.
+     */
+    @Override
+    public boolean mightContain(K key) {
+        try {
+            return mightContain(hash(toBytes(key)));
+        } catch (BTreeException | SerializationException exception) {
+            return true;
+        }
+    }
+
+    @Override
+    public boolean supportsRemoval() {
+        return true;
+    }
+
+    @Override
+    public void remove(K key) throws BTreeException, SerializationException {
+        remove(hash(toBytes(key)));
+        size.decrementAndGet();
+    }
+
+    @Override
+    public void clear() {
+        for (int index = 0; index < words.length(); index++) {
+            words.set(index, 0L);
+        }
+        size.set(0);
+    }
+
+    @Override
+    public byte getType() {
+        return TYPE;
+    }
+
+    /**
+     * Copies the counter count, the hash count, the number of keys and the counters.
+     */
+    @Override
+    public byte[] getState() {
+        ByteBuffer buffer = ByteBuffer.allocate(getStateSize());
+        buffer.putInt(counterCount).putInt(hashCount).putInt(size.get());
+        for (int index = 0; index < words.length(); index++) {
+            buffer.putLong(words.get(index));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Adds the counters of a previously persisted state to the counters of the filter, so no key already added is
+     * lost. The state is only loaded if it comes from a filter with the same counter count and hash count.
+     */
+    @Override
+    public boolean loadState(ByteBuffer state) {
+        if (state.remaining() != getStateSize() || state.getInt() != counterCount || state.getInt() != hashCount) {
+            return false;
+        }
+        size.addAndGet(state.getInt());
+        for (int index = 0; index < words.length(); index++) {
+            long persistedWord = state.getLong();
+            for (int counter = 0; counter < COUNTERS_PER_WORD; counter++) {
+                long persistedCount = (persistedWord >>> (counter * COUNTER_BITS)) & MAX_COUNT;
+                if (persistedCount != 0) {
+                    increment(index * COUNTERS_PER_WORD + counter, persistedCount);
+                }
+            }
+        }
+        return true;
+    }
+
+    public int getCounterCount() {
+        return counterCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * The number of keys the filter was sized for.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The number of keys added and not removed since.
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    static long[] hash(byte[] bytes) {
+        return Murmur3.hash128(bytes, SEED);
+    }
+
+    void add(long[] hash) {
+        for (int index = 0; index < hashCount; index++) {
+            increment(counterIndex(hash[0], hash[1], index), 1);
+        }
+    }
+
+    boolean mightContain(long[] hash) {
+        for (int index = 0; index < hashCount; index++) {
+            if (getCount(counterIndex(hash[0], hash[1], index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void remove(long[] hash) {
+        for (int index = 0; index < hashCount; index++) {
+            decrement(counterIndex(hash[0], hash[1], index));
+        }
+    }
+
+    /**
+     * Counts a key that is about to be added, if the filter holds fewer keys than it was sized for.
+     *
+     * @return False if the filter is full, in which case nothing is counted.
+     */
+    boolean reserve() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Counts a key that is about to be added, even if the filter is full.
+     */
+    void forceReserve() {
+        size.incrementAndGet();
+    }
+
+    void release() {
+        size.decrementAndGet();
+    }
+
+    int getStateSize() {
+        return Integer.BYTES + Integer.BYTES + Integer.BYTES + words.length() * Long.BYTES;
+    }
+
+    private int counterIndex(long hash1, long hash2, int hashFunction) {
+        long combined = hash1 + (long) hashFunction * hash2;
+        return (int) Long.remainderUnsigned(combined, counterCount);
+    }
+
+    private long getCount(int counter) {
+        return (words.get(counter / COUNTERS_PER_WORD) >>> shift(counter)) & MAX_COUNT;
+    }
+
+    private void increment(int counter, long amount) {
+        int wordIndex = counter / COUNTERS_PER_WORD;
+        int shift = shift(counter);
+        long word;
+        long updatedWord;
+        do {
+            word = words.get(wordIndex);
+            long count = (word >>> shift) & MAX_COUNT;
+            if (count == MAX_COUNT) {
+                return;
+            }
+            long updatedCount = Math.min(MAX_COUNT, count + amount);
+            updatedWord = (word & ~(MAX_COUNT << shift)) | (updatedCount << shift);
+        } while (!words.compareAndSet(wordIndex, word, updatedWord));
+    }
+
+    private void decrement(int counter) {
+        int wordIndex = counter / COUNTERS_PER_WORD;
+        int shift = shift(counter);
+        long word;
+        do {
+            word = words.get(wordIndex);
+            long count = (word >>> shift) & MAX_COUNT;
+            // A saturated counter has lost its real count, and an empty one has nothing left to remove.
+            if (count == MAX_COUNT || count == 0) {
+                return;
+            }
+        } while (!words.compareAndSet(wordIndex, word, word - (1L << shift)));
+    }
+
+    private static int shift(int counter) {
+        return (counter % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+
+    private byte[] toBytes(K key) throws BTreeException, SerializationException {
+        return keyFactory.create(key).getBytes();
+    }
+}
@@ -0,0 +1,53 @@
+package org.elece.index.filter;
+
+import org.elece.exception.BTreeException;
+import org.elece.exception.SerializationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Probabilistic set of the keys of an index, which answers whether a key is definitely absent or possibly present.
+ * Implementations never report an added key as absent, unless it was removed since.
+ *
+ * @param <K> the key type stored in the filter.
+ */
+public interface MembershipFilter<K extends Comparable<K>> {
+    void add(K key) throws BTreeException, SerializationException;
+
+    boolean mightContain(K key);
+
+    /**
+     * Whether {@link #remove(Comparable)} takes keys out of the filter, otherwise removed keys are kept as false
+     * positives.
+     */
+    boolean supportsRemoval();
+
+    /**
+     * Takes a key out of the filter. Must only be called for a key that was added and not removed since, otherwise
+     * other keys could be reported as absent.
+     */
+    void remove(K key) throws BTreeException, SerializationException;
+
+    /**
+     * Resets the filter. Only safe to call when the backing index is known to be empty.
+     */
+    void clear();
+
+    /**
+     * Identifies the kind of filter in its persisted state, so a state is only loaded by the same kind of filter.
+     */
+    byte getType();
+
+    /**
+     * Copies the state of the filter, to persist it. Keys changed while copying may or may not be part of the copy.
+     */
+    byte[] getState();
+
+    /**
+     * Adds a previously persisted state to the filter.
+     *
+     * @param state The state, as returned by {@link #getState()} of a filter of the same type.
+     * @return False if the state doesn't fit the configuration of the filter, in which case the filter is unchanged.
+     */
+    boolean loadState(ByteBuffer state);
+}
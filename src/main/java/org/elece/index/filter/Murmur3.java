@@ -2,10 +2,11 @@ package org.elece.index.filter;
 
 /**
  * Minimal implementation of the 128-bit Murmur3 hash (x64 variant), used to derive the pair of independent hash values
- * that the {@link BloomFilter} feeds into its double hashing scheme. Hashing the serialized bytes of a key (rather than
- * relying on {@link Object#hashCode()}) yields a stable, well distributed digest across restarts and across key types.
+ * that the {@link BloomFilter} feeds into its double hashing scheme, and the bucket of a key in a hash index. Hashing the
+ * serialized bytes of a key (rather than relying on {@link Object#hashCode()}) yields a stable, well distributed digest
+ * across restarts and across key types.
  */
-final class Murmur3 {
+public final class Murmur3 {
     private static final long C1 = 0x87c37b91114253d5L;
     private static final long C2 = 0x4cf5ad432745937fL;
 
@@ -13,7 +14,7 @@ final class Murmur3 {
         // private constructor
     }
 
-    static long[] hash128(byte[] data, int seed) {
+    public static long[] hash128(byte[] data, int seed) {
         int length = data.length;
         long h1 = seed & 0xFFFFFFFFL;
         long h2 = seed & 0xFFFFFFFFL;
@@ -0,0 +1,230 @@
+package org.elece.index.filter;
+
+import org.elece.exception.BTreeException;
+import org.elece.exception.SerializationException;
+import org.elece.memory.data.BinaryObjectFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A membership filter that supports removals and grows with the index, by chaining {@link CountingBloomFilter} layers.
+ * <p>
+ * A key is added to the first layer that holds fewer keys than it was sized for. When every layer is full, a new layer
+ * is chained with twice the capacity of the last one and half its false positive rate, so the combined false positive
+ * rate stays below the configured one however many layers are added. Since removed keys free room in their layer, a
+ * table with a lot of churn but a stable size keeps reusing its layers instead of growing.
+ * <p>
+ * A key is reported as possibly present if any layer reports it. A removed key is only taken out of its layer when
+ * exactly one layer reports it, which must then be the layer it was added to. If more layers report it, one of them is a
+ * false positive and decrementing the wrong one could make other keys absent, so the key is kept as a false positive.
+ *
+ * @param <K> the key type stored in the filter.
+ */
+public class ScalableBloomFilter<K extends Comparable<K>> implements MembershipFilter<K> {
+    public static final byte TYPE = 3;
+
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    private static final int MAX_LAYERS = 32;
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final BinaryObjectFactory<K> keyFactory;
+    private final int initialCapacity;
+    private final double falsePositiveRate;
+    // Replaced, never changed, so readers iterate a consistent list without locking. Only replaced while synchronized.
+    private volatile List<CountingBloomFilter<K>> layers;
+
+    public ScalableBloomFilter(int initialCapacity, double falsePositiveRate, BinaryObjectFactory<K> keyFactory) {
+        this.keyFactory = keyFactory;
+        this.initialCapacity = Math.max(1, initialCapacity);
+        this.falsePositiveRate = Double.isNaN(falsePositiveRate) || falsePositiveRate <= 0.0 || falsePositiveRate >= 1.0 ?
+                DEFAULT_FALSE_POSITIVE_RATE : falsePositiveRate;
+        this.layers = List.of(createLayer(0));
+    }
+
+    @Override
+    public void add(K key) throws BTreeException, SerializationException {
+        long[] hash = CountingBloomFilter.hash(toBytes(key));
+        List<CountingBloomFilter<K>> currentLayers = layers;
+        for (CountingBloomFilter<K> layer : currentLayers) {
+            if (layer.reserve()) {
+                layer.add(hash);
+                return;
+            }
+        }
+        grow(currentLayers).add(hash);
+    }
+
+    /**
+     * Returns {@code false} only when the key is guaranteed to be absent; otherwise {@code true}. On any failure to hash
+     * the key it conservatively returns {@code true}.
+     */
+    @Override
+    public boolean mightContain(K key) {
+        long[] hash;
+        try {
+            hash = CountingBloomFilter.hash(toBytes(key));
+        } catch (BTreeException | SerializationException exception) {
+            return true;
+        }
+
+        for (CountingBloomFilter<K> layer : layers) {
+            if (layer.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean supportsRemoval() {
+        return true;
+    }
+
+    @Override
+    public void remove(K key) throws BTreeException, SerializationException {
+        long[] hash = CountingBloomFilter.hash(toBytes(key));
+        CountingBloomFilter<K> holder = null;
+        for (CountingBloomFilter<K> layer : layers) {
+            if (layer.mightContain(hash)) {
+                if (holder != null) {
+                    return;
+                }
+                holder = layer;
+            }
+        }
+
+        if (holder != null) {
+            holder.remove(hash);
+            holder.release();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        layers = List.of(createLayer(0));
+    }
+
+    @Override
+    public byte getType() {
+        return TYPE;
+    }
+
+    /**
+     * Copies the number of layers, followed by the size and the state of every layer.
+     */
+    @Override
+    public byte[] getState() {
+        List<byte[]> layerStates = new ArrayList<>();
+        int stateSize = Integer.BYTES;
+        for (CountingBloomFilter<K> layer : layers) {
+            byte[] layerState = layer.getState();
+            layerStates.add(layerState);
+            stateSize += Integer.BYTES + layerState.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(stateSize);
+        buffer.putInt(layerStates.size());
+        for (byte[] layerState : layerStates) {
+            buffer.putInt(layerState.length).put(layerState);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Adds the layers of a previously persisted state to the layers of the filter, creating the missing ones. The state
+     * is only loaded if every layer has the size this filter would give it.
+     */
+    @Override
+    public synchronized boolean loadState(ByteBuffer state) {
+        if (state.remaining() < Integer.BYTES) {
+            return false;
+        }
+        int layerCount = state.getInt();
+        if (layerCount < 1 || layerCount > MAX_LAYERS) {
+            return false;
+        }
+
+        List<CountingBloomFilter<K>> loadedLayers = new ArrayList<>();
+        for (int index = 0; index < layerCount; index++) {
+            if (state.remaining() < Integer.BYTES) {
+                return false;
+            }
+            int layerStateSize = state.getInt();
+            if (layerStateSize < 0 || layerStateSize > state.remaining()) {
+                return false;
+            }
+
+            CountingBloomFilter<K> layer = createLayer(index);
+            ByteBuffer layerState = state.slice(state.position(), layerStateSize);
+            state.position(state.position() + layerStateSize);
+            if (!layer.loadState(layerState)) {
+                return false;
+            }
+            loadedLayers.add(layer);
+        }
+        if (state.hasRemaining()) {
+            return false;
+        }
+
+        List<CountingBloomFilter<K>> currentLayers = layers;
+        for (int index = 0; index < currentLayers.size(); index++) {
+            if (index < loadedLayers.size()) {
+                loadedLayers.get(index).loadState(ByteBuffer.wrap(currentLayers.get(index).getState()));
+            } else {
+                loadedLayers.add(currentLayers.get(index));
+            }
+        }
+        layers = List.copyOf(loadedLayers);
+        return true;
+    }
+
+    public int getLayerCount() {
+        return layers.size();
+    }
+
+    /**
+     * Chains a new layer with room for the key being added, unless a layer got room meanwhile, because another thread
+     * chained one or keys were removed.
+     *
+     * @param fullLayers The layers that were found full.
+     * @return The layer in which the key was counted.
+     */
+    private synchronized CountingBloomFilter<K> grow(List<CountingBloomFilter<K>> fullLayers) {
+        List<CountingBloomFilter<K>> currentLayers = layers;
+        if (currentLayers != fullLayers) {
+            for (CountingBloomFilter<K> layer : currentLayers) {
+                if (layer.reserve()) {
+                    return layer;
+                }
+            }
+        }
+
+        if (currentLayers.size() == MAX_LAYERS) {
+            // Keys past the capacity of the last layer only raise its false positive rate.
+            CountingBloomFilter<K> lastLayer = currentLayers.getLast();
+            lastLayer.forceReserve();
+            return lastLayer;
+        }
+
+        CountingBloomFilter<K> layer = createLayer(currentLayers.size());
+        layer.reserve();
+        List<CountingBloomFilter<K>> grownLayers = new ArrayList<>(currentLayers);
+        grownLayers.add(layer);
+        layers = List.copyOf(grownLayers);
+        return layer;
+    }
+
+    private CountingBloomFilter<K> createLayer(int index) {
+        long capacity = initialCapacity * (long) Math.pow(GROWTH_FACTOR, index);
+        // The rates of the layers add up to at most the configured rate.
+        double rate = falsePositiveRate * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, index);
+        return new CountingBloomFilter<>((int) Math.min(Integer.MAX_VALUE, capacity), rate, keyFactory);
+    }
+
+    private byte[] toBytes(K key) throws BTreeException, SerializationException {
+        return keyFactory.create(key).getBytes();
+    }
+}
@@ -13,4 +13,27 @@ public interface BinaryObjectFactory<E> {
     }
 
     int size();
+
+    /**
+     * Converts a value to the exact form it has once stored, for example strings padded to the column width, so it
+     * can be compared with stored values.
+     */
+    default E normalize(E value) throws BTreeException, SerializationException {
+        return create(value).asObject();
+    }
+
+    /**
+     * Compares the object serialized in the given bytes with a value, following the natural order of the objects.
+     * Factories whose serialized form can be compared without being deserialized should override this.
+     *
+     * @param bytes     The bytes holding the serialized object.
+     * @param beginning The position where the serialized object begins.
+     * @param value     The value to compare against.
+     * @return A negative integer, zero, or a positive integer as the serialized object is less than, equal to, or
+     * greater than the value.
+     */
+    @SuppressWarnings("unchecked")
+    default int compare(byte[] bytes, int beginning, E value) {
+        return ((Comparable<E>) create(bytes, beginning).asObject()).compareTo(value);
+    }
 }
@@ -0,0 +1,125 @@
+package org.elece.memory.data;
+
+import org.elece.exception.BTreeException;
+import org.elece.exception.DbError;
+import org.elece.exception.SerializationException;
+import org.elece.index.CompositeKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializes a {@link CompositeKey} as the concatenation of its values, each one taking the fixed size of its own
+ * factory. Only complete keys can be serialized, prefixes are only used to compare against stored keys.
+ */
+public class CompositeKeyBinaryObject extends AbstractBinaryObject<CompositeKey> {
+    private final List<BinaryObjectFactory<?>> factories;
+
+    private CompositeKeyBinaryObject(byte[] bytes, List<BinaryObjectFactory<?>> factories) {
+        super(bytes);
+        this.factories = factories;
+    }
+
+    @Override
+    public CompositeKey asObject() {
+        List<Comparable<?>> values = new ArrayList<>(factories.size());
+        int position = 0;
+        for (BinaryObjectFactory<?> factory : factories) {
+            values.add((Comparable<?>) factory.create(bytes, position).asObject());
+            position += factory.size();
+        }
+        return CompositeKey.of(values);
+    }
+
+    @Override
+    public boolean hasValue() {
+        return factories.getFirst().create(bytes, 0).hasValue();
+    }
+
+    @Override
+    public int size() {
+        return bytes.length;
+    }
+
+    public static class Factory implements BinaryObjectFactory<CompositeKey> {
+        private final List<BinaryObjectFactory<?>> factories;
+        private final int size;
+
+        public Factory(List<BinaryObjectFactory<?>> factories) {
+            this.factories = List.copyOf(factories);
+            this.size = factories.stream().mapToInt(BinaryObjectFactory::size).sum();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompositeKeyBinaryObject create(CompositeKey key) throws BTreeException, SerializationException {
+            if (key.size() != factories.size()) {
+                throw new SerializationException(DbError.INCOMPLETE_COMPOSITE_KEY_ERROR, String.format("Composite key has %d values but the index expects %d", key.size(), factories.size()));
+            }
+
+            byte[] result = new byte[size];
+            int position = 0;
+            for (int index = 0; index < factories.size(); index++) {
+                BinaryObjectFactory<Object> factory = (BinaryObjectFactory<Object>) factories.get(index);
+                byte[] value = factory.create(key.getValue(index)).getBytes();
+                System.arraycopy(value, 0, result, position, Math.min(value.length, factory.size()));
+                position += factory.size();
+            }
+            return new CompositeKeyBinaryObject(result, factories);
+        }
+
+        @Override
+        public CompositeKeyBinaryObject create(byte[] bytes, int beginning) {
+            byte[] value = new byte[size];
+            System.arraycopy(bytes, beginning, value, 0, size);
+            return new CompositeKeyBinaryObject(value, factories);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Normalizes every value of the key with its own factory, so prefixes, which can't be stored, are normalized
+         * too and keep their bound.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompositeKey normalize(CompositeKey key) throws BTreeException, SerializationException {
+            if (key.size() > factories.size()) {
+                throw new SerializationException(DbError.INCOMPLETE_COMPOSITE_KEY_ERROR, String.format("Composite key has %d values but the index expects %d", key.size(), factories.size()));
+            }
+
+            Comparable<?>[] values = new Comparable<?>[key.size()];
+            for (int index = 0; index < key.size(); index++) {
+                BinaryObjectFactory<Object> factory = (BinaryObjectFactory<Object>) factories.get(index);
+                values[index] = (Comparable<?>) factory.normalize(key.getValue(index));
+            }
+            return key.getBound() == CompositeKey.Bound.LOWEST ? CompositeKey.lowest(values) : CompositeKey.highest(values);
+        }
+
+        /**
+         * Compares value by value, so only the values needed to tell the keys apart are read from the bytes.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public int compare(byte[] bytes, int beginning, CompositeKey key) {
+            int position = beginning;
+            int commonSize = Math.min(factories.size(), key.size());
+            for (int index = 0; index < commonSize; index++) {
+                BinaryObjectFactory<Object> factory = (BinaryObjectFactory<Object>) factories.get(index);
+                int comparison = factory.compare(bytes, position, key.getValue(index));
+                if (comparison != 0) {
+                    return comparison;
+                }
+                position += factory.size();
+            }
+            // The stored key is complete, so when every value of the other key matches, only its bound is left to compare.
+            if (key.size() < factories.size()) {
+                return -key.getBound().getOrder();
+            }
+            return key.getBound() == CompositeKey.Bound.LOWEST ? 0 : -1;
+        }
+    }
+}
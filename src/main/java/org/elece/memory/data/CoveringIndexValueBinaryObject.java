@@ -0,0 +1,67 @@
+package org.elece.memory.data;
+
+import org.elece.exception.BTreeException;
+import org.elece.exception.SerializationException;
+import org.elece.index.CoveringIndexValue;
+
+public class CoveringIndexValueBinaryObject extends AbstractBinaryObject<CoveringIndexValue> {
+    private final BinaryObjectFactory<Object> rowReferenceFactory;
+
+    public CoveringIndexValueBinaryObject(byte[] bytes, BinaryObjectFactory<Object> rowReferenceFactory) {
+        super(bytes);
+        this.rowReferenceFactory = rowReferenceFactory;
+    }
+
+    @Override
+    public CoveringIndexValue asObject() {
+        Object rowReference = rowReferenceFactory.create(bytes, 0).asObject();
+        byte[] coveredData = new byte[bytes.length - rowReferenceFactory.size()];
+        System.arraycopy(bytes, rowReferenceFactory.size(), coveredData, 0, coveredData.length);
+        return new CoveringIndexValue(rowReference, coveredData);
+    }
+
+    @Override
+    public boolean hasValue() {
+        return rowReferenceFactory.create(bytes, 0).hasValue();
+    }
+
+    @Override
+    public int size() {
+        return bytes.length;
+    }
+
+    /**
+     * Stores the row reference first, so a slot holds a value exactly when the row reference would.
+     */
+    public static class Factory implements BinaryObjectFactory<CoveringIndexValue> {
+        private final BinaryObjectFactory<Object> rowReferenceFactory;
+        private final int size;
+
+        public Factory(BinaryObjectFactory<Object> rowReferenceFactory, int coveredSize) {
+            this.rowReferenceFactory = rowReferenceFactory;
+            this.size = rowReferenceFactory.size() + coveredSize;
+        }
+
+        @Override
+        public CoveringIndexValueBinaryObject create(CoveringIndexValue value) throws BTreeException,
+                                                                                      SerializationException {
+            byte[] bytes = new byte[size];
+            byte[] rowReference = rowReferenceFactory.create(value.rowReference()).getBytes();
+            System.arraycopy(rowReference, 0, bytes, 0, rowReference.length);
+            System.arraycopy(value.coveredData(), 0, bytes, rowReferenceFactory.size(), size - rowReferenceFactory.size());
+            return new CoveringIndexValueBinaryObject(bytes, rowReferenceFactory);
+        }
+
+        @Override
+        public CoveringIndexValueBinaryObject create(byte[] bytes, int beginning) {
+            byte[] value = new byte[size];
+            System.arraycopy(bytes, beginning, value, 0, size);
+            return new CoveringIndexValueBinaryObject(value, rowReferenceFactory);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.elece.memory.data;
+
+import org.elece.index.RowPointer;
+import org.elece.memory.Pointer;
+import org.elece.utils.BinaryUtils;
+
+public class RowPointerBinaryObject extends AbstractBinaryObject<RowPointer> {
+    public static final int BYTES = Integer.BYTES + Pointer.BYTES;
+
+    public RowPointerBinaryObject(byte[] bytes) {
+        super(bytes);
+    }
+
+    @Override
+    public RowPointer asObject() {
+        return new RowPointer(BinaryUtils.bytesToInteger(bytes, 0), Pointer.fromBytes(bytes, Integer.BYTES));
+    }
+
+    @Override
+    public boolean hasValue() {
+        return bytes[Integer.BYTES] != 0x00;
+    }
+
+    @Override
+    public int size() {
+        return BYTES;
+    }
+
+    public static class Factory implements BinaryObjectFactory<RowPointer> {
+        @Override
+        public RowPointerBinaryObject create(RowPointer rowPointer) {
+            byte[] bytes = new byte[BYTES];
+            System.arraycopy(BinaryUtils.integerToBytes(rowPointer.clusterId()), 0, bytes, 0, Integer.BYTES);
+            System.arraycopy(rowPointer.pointer().toBytes(), 0, bytes, Integer.BYTES, Pointer.BYTES);
+            return new RowPointerBinaryObject(bytes);
+        }
+
+        @Override
+        public RowPointerBinaryObject create(byte[] bytes, int beginning) {
+            byte[] value = new byte[BYTES];
+            System.arraycopy(bytes, beginning, value, 0, BYTES);
+            return new RowPointerBinaryObject(value);
+        }
+
+        @Override
+        public int size() {
+            return BYTES;
+        }
+    }
+}
@@ -125,6 +125,19 @@ public abstract class AbstractTreeNode<K extends Comparable<K>> {
         return new TreeNodeKeysIterator<K>(this, degree, valueSize);
     }
 
+    /**
+     * Binary searches the keys of the node over its serialized data, without deserializing them.
+     *
+     * @param key       The key to look for.
+     * @param degree    The degree of the B+ tree.
+     * @param valueSize The size of the value stored next to each key.
+     * @return The index of the key if it is present; otherwise, {@code -(insertion point) - 1}.
+     */
+    protected int binarySearchKey(K key, int degree, int valueSize) {
+        int keyCount = TreeNodeUtils.getKeyCount(this, degree, kBinaryObjectFactory, valueSize);
+        return TreeNodeUtils.binarySearchKey(this, key, keyCount, kBinaryObjectFactory, valueSize);
+    }
+
     /**
      * Sets the key at the specified index in the node.
      *
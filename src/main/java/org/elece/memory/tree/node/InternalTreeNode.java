@@ -177,7 +177,7 @@ public class InternalTreeNode<K extends Comparable<K>> extends AbstractTreeNode<
         // Update the node's data array with the new keys starting from the insertion index.
         // Essentially shifts the keys starting from the newly inserted key index by one.
         for (int tempIndex = index; tempIndex < childrenList.size(); tempIndex++) {
-            TreeNodeUtils.setPointerToChild(this, tempIndex, pointer, kBinaryObjectFactory.size());
+            TreeNodeUtils.setPointerToChild(this, tempIndex, childrenList.get(tempIndex), kBinaryObjectFactory.size());
         }
     }
 
@@ -193,8 +193,24 @@ public class InternalTreeNode<K extends Comparable<K>> extends AbstractTreeNode<
      * @throws BTreeException If an error occurs during the operation.
      */
     public List<ChildPointers<K>> addAndSplit(K key, Pointer pointer, int degree) throws BTreeException, SerializationException {
+        return addAndSplit(key, pointer, degree, (degree - 1) / 2 + 1);
+    }
+
+    /**
+     * Adds a key and its associated child pointer to the internal node, and splits the node keeping the given number
+     * of keys in it.
+     * Returns the child pointers that should be used to create a new node after the split, where the first one holds
+     * the key to pass up to the parent.
+     *
+     * @param key      The key to be added.
+     * @param pointer  The child pointer associated with the key.
+     * @param degree   The degree (order) of the B+ tree.
+     * @param keptKeys The number of keys that stay in the node, which leaves at least one key for the new node.
+     * @return A list of ChildPointers<K> that should be moved to the new node.
+     * @throws BTreeException If an error occurs during the operation.
+     */
+    public List<ChildPointers<K>> addAndSplit(K key, Pointer pointer, int degree, int keptKeys) throws BTreeException, SerializationException {
         setModified();
-        int mid = (degree - 1) / 2;
 
         List<K> keyList = new ArrayList<>(getKeyList(degree));
         int index = CollectionUtils.findIndex(keyList, key);
@@ -203,8 +219,10 @@ public class InternalTreeNode<K extends Comparable<K>> extends AbstractTreeNode<
         List<ChildPointers<K>> childPointersList = new ArrayList<>(getChildPointersList(degree));
 
         // Create a new ChildPointers object for the new key and insert it into the list.
-        ChildPointers<K> kChildPointers = childPointersList.get(index == 0 ? 0 : index - 1);
-        childPointersList.add(index, new ChildPointers<>(0, key, kChildPointers.getRight(), pointer));
+        // The left pointer of the new key is the child to the left of it, which is the first child of the node when
+        // the key is the smallest one.
+        Pointer left = index == 0 ? childPointersList.getFirst().getLeft() : childPointersList.get(index - 1).getRight();
+        childPointersList.add(index, new ChildPointers<>(0, key, left, pointer));
 
         // If there is a child pointer following the inserted one, update its left pointer.
         if (index + 1 < childPointersList.size()) {
@@ -213,12 +231,12 @@ public class InternalTreeNode<K extends Comparable<K>> extends AbstractTreeNode<
         }
 
         // Split the childPointersList into two parts: the ones to keep in the current node and the ones to move to a new node.
-        List<ChildPointers<K>> toKeep = childPointersList.subList(0, mid + 1);
+        List<ChildPointers<K>> toKeep = childPointersList.subList(0, keptKeys);
         // Update the current node's child pointers with the first part.
         this.setChildPointers(toKeep, degree, true);
 
         // Return the second part of the child pointers, which will be used to create a new node.
-        return childPointersList.subList(mid + 1, keyList.size());
+        return childPointersList.subList(keptKeys, keyList.size());
     }
 
     /**
@@ -252,6 +270,21 @@ public class InternalTreeNode<K extends Comparable<K>> extends AbstractTreeNode<
         return TreeNodeUtils.getChildPointerAtIndex(this, index, kBinaryObjectFactory.size());
     }
 
+    /**
+     * Retrieves the pointer to the child responsible for the given key, which is the child to the left of the first
+     * key greater than it, found with a binary search over the node's data.
+     *
+     * @param key    The key being searched in the tree.
+     * @param degree The degree of the B+ tree.
+     * @return The pointer to the child whose subtree may contain the key.
+     */
+    public Pointer getChildPointerFor(K key, int degree) {
+        int index = binarySearchKey(key, degree, PointerBinaryObject.BYTES);
+        // Keys equal to a separator are stored in the subtree to its right.
+        int childIndex = index >= 0 ? index + 1 : -(index + 1);
+        return getChildAtIndex(childIndex);
+    }
+
     /**
      * Sets the child pointers in the internal node.
      *
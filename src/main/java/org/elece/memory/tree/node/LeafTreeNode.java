@@ -163,6 +163,32 @@ public class LeafTreeNode<K extends Comparable<K>, V> extends AbstractTreeNode<K
         return removed;
     }
 
+    /**
+     * Finds the index of a key in the leaf node with a binary search over the node's data.
+     *
+     * @param key    The key to look for.
+     * @param degree The degree of the B+ tree.
+     * @return The index of the key if it is present; otherwise, {@code -(insertion point) - 1}.
+     */
+    public int indexOfKey(K key, int degree) {
+        return binarySearchKey(key, degree, vBinaryObjectFactory.size());
+    }
+
+    /**
+     * Retrieves the value associated with a key, deserializing only that value.
+     *
+     * @param key    The key to look for.
+     * @param degree The degree of the B+ tree.
+     * @return An Optional containing the value if the key is present; otherwise, Optional.empty().
+     */
+    public Optional<V> getValue(K key, int degree) {
+        int index = indexOfKey(key, degree);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(TreeNodeUtils.getValueAtIndex(this, index, kBinaryObjectFactory.size(), vBinaryObjectFactory));
+    }
+
     /**
      * Retrieves the list of keys stored in the leaf node.
      *
@@ -0,0 +1,185 @@
+package org.elece.memory.tree.operation;
+
+import org.elece.config.DbConfig;
+import org.elece.exception.*;
+import org.elece.memory.KeyValueSize;
+import org.elece.memory.Pointer;
+import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.memory.tree.node.AbstractTreeNode;
+import org.elece.memory.tree.node.InternalTreeNode;
+import org.elece.memory.tree.node.LeafTreeNode;
+import org.elece.storage.index.session.Session;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Builds a tree bottom-up from key-value pairs that are already sorted by key, instead of inserting them one at a
+ * time.
+ * <p>
+ * Leaves are filled completely and written in key order, so they are allocated sequentially and no node is ever
+ * split. Every internal level is then built from the first key and pointer of the nodes in the level below it, until
+ * a level has a single node, which becomes the root. The last two nodes of a level are balanced when the last one
+ * would hold fewer keys than the minimum a node can have after a deletion.
+ *
+ * @param <K> The type of keys.
+ * @param <V> The type of values associated with the keys.
+ */
+public class BulkLoadIndexOperation<K extends Comparable<K>, V> {
+    private final DbConfig dbConfig;
+    private final Session<K> session;
+    private final BinaryObjectFactory<K> binaryObjectKeyFactory;
+    private final BinaryObjectFactory<V> binaryObjectValueFactory;
+    private final KeyValueSize keyValueSize;
+    private final int minKeys;
+
+    public BulkLoadIndexOperation(DbConfig dbConfig, Session<K> session,
+                                  BinaryObjectFactory<K> binaryObjectKeyFactory,
+                                  BinaryObjectFactory<V> binaryObjectValueFactory, KeyValueSize keyValueSize) {
+        this.dbConfig = dbConfig;
+        this.session = session;
+        this.binaryObjectKeyFactory = binaryObjectKeyFactory;
+        this.binaryObjectValueFactory = binaryObjectValueFactory;
+        this.keyValueSize = keyValueSize;
+        this.minKeys = (dbConfig.getBTreeDegree() - 1) / 2;
+    }
+
+    /**
+     * Builds the tree from the given key-value pairs, which must be sorted by key.
+     *
+     * @param sortedKeyValues The key-value pairs to store, in ascending key order.
+     * @return The root of the new tree.
+     * @throws BTreeException If a key is repeated.
+     */
+    public AbstractTreeNode<K> bulkLoad(Iterator<LeafTreeNode.KeyValue<K, V>> sortedKeyValues) throws BTreeException,
+                                                                                                 StorageException,
+                                                                                                 SerializationException,
+                                                                                                 InterruptedTaskException,
+                                                                                                 FileChannelException {
+        int bTreeDegree = dbConfig.getBTreeDegree();
+        List<NodeEntry<K>> level = new ArrayList<>();
+
+        LeafTreeNode<K, V> previousLeaf = null;
+        List<LeafTreeNode.KeyValue<K, V>> previousKeyValues = null;
+        List<LeafTreeNode.KeyValue<K, V>> keyValues = new ArrayList<>(bTreeDegree - 1);
+        K lastKey = null;
+
+        while (sortedKeyValues.hasNext()) {
+            LeafTreeNode.KeyValue<K, V> keyValue = sortedKeyValues.next();
+            if (lastKey != null && lastKey.compareTo(keyValue.key()) >= 0) {
+                throw new BTreeException(DbError.DUPLICATE_INDEX_INSERTION_ERROR, String.format("Indexed key '%s' already exists", keyValue.key()));
+            }
+            lastKey = keyValue.key();
+
+            if (keyValues.size() == bTreeDegree - 1) {
+                LeafTreeNode<K, V> leaf = writeLeaf(keyValues, previousLeaf, false);
+                level.add(new NodeEntry<>(keyValues.getFirst().key(), leaf.getPointer()));
+                previousLeaf = leaf;
+                previousKeyValues = keyValues;
+                keyValues = new ArrayList<>(bTreeDegree - 1);
+            }
+            keyValues.add(keyValue);
+        }
+
+        if (previousLeaf != null && keyValues.size() < minKeys) {
+            // Moves keys from the full previous leaf so the last leaf does not start below the minimum.
+            List<LeafTreeNode.KeyValue<K, V>> combined = new ArrayList<>(previousKeyValues);
+            combined.addAll(keyValues);
+            int half = combined.size() / 2;
+            previousLeaf.setKeyValues(combined.subList(0, half), bTreeDegree);
+            keyValues = new ArrayList<>(combined.subList(half, combined.size()));
+        }
+
+        LeafTreeNode<K, V> lastLeaf = writeLeaf(keyValues, previousLeaf, previousLeaf == null);
+        if (lastLeaf.isRoot()) {
+            session.commit();
+            return lastLeaf;
+        }
+        level.add(new NodeEntry<>(keyValues.getFirst().key(), lastLeaf.getPointer()));
+
+        AbstractTreeNode<K> root;
+        do {
+            List<List<NodeEntry<K>>> groups = group(level, bTreeDegree, minKeys + 1);
+            List<NodeEntry<K>> nextLevel = new ArrayList<>(groups.size());
+            root = null;
+            for (List<NodeEntry<K>> children : groups) {
+                InternalTreeNode<K> internalTreeNode = writeInternalNode(children, groups.size() == 1);
+                nextLevel.add(new NodeEntry<>(children.getFirst().firstKey(), internalTreeNode.getPointer()));
+                root = internalTreeNode;
+            }
+            level = nextLevel;
+        } while (level.size() > 1);
+
+        session.commit();
+        return root;
+    }
+
+    private LeafTreeNode<K, V> writeLeaf(List<LeafTreeNode.KeyValue<K, V>> keyValues, LeafTreeNode<K, V> previousLeaf,
+                                         boolean isRoot) throws BTreeException, SerializationException,
+                                                                StorageException, InterruptedTaskException,
+                                                                FileChannelException {
+        int bTreeDegree = dbConfig.getBTreeDegree();
+        LeafTreeNode<K, V> leaf = new LeafTreeNode<>(session.getIndexStorageManager().getEmptyNode(this.keyValueSize), binaryObjectKeyFactory, binaryObjectValueFactory);
+        leaf.setKeyValues(keyValues, bTreeDegree);
+        if (isRoot) {
+            leaf.setAsRoot();
+        }
+        if (previousLeaf != null) {
+            leaf.setPreviousSiblingPointer(previousLeaf.getPointer(), bTreeDegree);
+        }
+        session.write(leaf);
+
+        // The pointer of a leaf is only known once it is written, so the previous leaf is linked to it afterward.
+        if (previousLeaf != null) {
+            previousLeaf.setNextSiblingPointer(leaf.getPointer(), bTreeDegree);
+            session.write(previousLeaf);
+        }
+        return leaf;
+    }
+
+    private InternalTreeNode<K> writeInternalNode(List<NodeEntry<K>> children, boolean isRoot) throws
+                                                                                              BTreeException,
+                                                                                              SerializationException,
+                                                                                              StorageException,
+                                                                                              InterruptedTaskException,
+                                                                                              FileChannelException {
+        InternalTreeNode<K> internalTreeNode = new InternalTreeNode<>(session.getIndexStorageManager().getEmptyNode(this.keyValueSize), binaryObjectKeyFactory);
+        if (isRoot) {
+            internalTreeNode.setAsRoot();
+        }
+
+        // The key separating two children is the smallest key of the one on the right.
+        List<InternalTreeNode.ChildPointers<K>> childPointers = new ArrayList<>(children.size() - 1);
+        for (int index = 1; index < children.size(); index++) {
+            childPointers.add(new InternalTreeNode.ChildPointers<>(index - 1, children.get(index).firstKey(), children.get(index - 1).pointer(), children.get(index).pointer()));
+        }
+        internalTreeNode.setChildPointers(childPointers, dbConfig.getBTreeDegree(), false);
+        session.write(internalTreeNode);
+        return internalTreeNode;
+    }
+
+    /**
+     * Splits the entries of a level into groups of at most {@code maxSize}, balancing the last two groups when the
+     * last one would be smaller than {@code minSize}.
+     */
+    private static <E> List<List<E>> group(List<E> entries, int maxSize, int minSize) {
+        List<List<E>> groups = new ArrayList<>();
+        for (int begin = 0; begin < entries.size(); begin += maxSize) {
+            groups.add(entries.subList(begin, Math.min(entries.size(), begin + maxSize)));
+        }
+
+        if (groups.size() > 1 && groups.getLast().size() < minSize) {
+            int begin = (groups.size() - 2) * maxSize;
+            int half = (entries.size() - begin) / 2;
+            groups.removeLast();
+            groups.removeLast();
+            groups.add(entries.subList(begin, begin + half));
+            groups.add(entries.subList(begin + half, entries.size()));
+        }
+        return groups;
+    }
+
+    private record NodeEntry<K>(K firstKey, Pointer pointer) {
+    }
+}
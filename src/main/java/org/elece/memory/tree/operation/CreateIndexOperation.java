@@ -54,6 +54,8 @@ public class CreateIndexOperation<K extends Comparable<K>, V> {
         AbstractTreeNode<K> newChildForParent = null;
         // The node where the key-value pair will be stored.
         AbstractTreeNode<K> newNode = null;
+        // Whether the key goes after every key of the tree, which only changes the last node of each level.
+        boolean appending = false;
 
         for (int index = 0; index < path.size(); index++) {
             AbstractTreeNode<K> currentNode = path.get(index);
@@ -81,16 +83,23 @@ public class CreateIndexOperation<K extends Comparable<K>, V> {
                 LeafTreeNode<K, V> newSiblingLeafNode = new LeafTreeNode<>(session.getIndexStorageManager().getEmptyNode(this.keyValueSize), binaryObjectKeyFactory, binaryObjectValueFactory);
 
                 // Add the key-value pair and split the node, obtaining the key-values to pass to the new node.
-                List<LeafTreeNode.KeyValue<K, V>> passingKeyValues = ((LeafTreeNode<K, V>) currentNode).addAndSplit(identifier, value, bTreeDegree);
-
-                // Set the key-values in the new sibling node, and persist this change.
+                // Increasing keys, such as cluster ids, always go after the last key of the last leaf, which would never
+                // receive another key once split in half, so the full leaf is kept as it is and the key starts a new leaf.
+                appending = ((LeafTreeNode<K, V>) currentNode).getNextSiblingPointer(bTreeDegree).isEmpty() && identifier.compareTo(currentNodeKeyList.getLast()) > 0;
+                List<LeafTreeNode.KeyValue<K, V>> passingKeyValues = appending
+                        ? List.of(new LeafTreeNode.KeyValue<>(identifier, value))
+                        : ((LeafTreeNode<K, V>) currentNode).addAndSplit(identifier, value, bTreeDegree);
+
+                // Set the key-values in the new sibling node, and link it between the current node and its next
+                // sibling, so the new sibling is persisted once and already complete.
                 newSiblingLeafNode.setKeyValues(passingKeyValues, bTreeDegree);
+                Optional<Pointer> currentNodeNextSiblingPointer = ((LeafTreeNode<K, V>) currentNode).getNextSiblingPointer(bTreeDegree);
+                newSiblingLeafNode.setPreviousSiblingPointer(currentNode.getPointer(), bTreeDegree);
+                currentNodeNextSiblingPointer.ifPresent(pointer -> newSiblingLeafNode.setNextSiblingPointer(pointer, bTreeDegree));
                 session.write(newSiblingLeafNode);
 
-                // Fix the sibling pointers between the current node and the new sibling.
-                fixSiblingPointers((LeafTreeNode<K, V>) currentNode, newSiblingLeafNode, bTreeDegree);
-                session.write(newSiblingLeafNode);
-                session.write(currentNode);
+                // Point the current node and its previous next sibling to the new sibling.
+                fixSiblingPointers((LeafTreeNode<K, V>) currentNode, newSiblingLeafNode, currentNodeNextSiblingPointer, bTreeDegree);
 
                 // Determine which node now contains the key-value pair.
                 newNode = currentNodeKeyList.contains(identifier) ? currentNode : newSiblingLeafNode;
@@ -108,6 +117,7 @@ public class CreateIndexOperation<K extends Comparable<K>, V> {
                     session.commit();
                     return newNode;
                 }
+                session.write(currentNode);
 
                 // Prepare to pass the new child and key up to the parent node.
                 newChildForParent = newSiblingLeafNode;
@@ -121,14 +131,8 @@ public class CreateIndexOperation<K extends Comparable<K>, V> {
                     // Add the key to the internal node.
                     int indexOfAddedKey = currentInternalTreeNode.addKey(idForParentToStore, bTreeDegree);
 
-                    // Determine where to insert the new child pointer.
-                    if (newChildForParent.getKeyList(bTreeDegree, binaryObjectValueFactory.size()).getFirst().compareTo(idForParentToStore) < 0) {
-                        // Insert the child pointer at the index of the added key.
-                        currentInternalTreeNode.addChildAtIndex(indexOfAddedKey, newChildForParent.getPointer());
-                    } else {
-                        // Insert the child pointer after the index of the added key.
-                        currentInternalTreeNode.addChildAtIndex(indexOfAddedKey + 1, newChildForParent.getPointer());
-                    }
+                    // The new child always holds the keys greater than or equal to the added key, so it goes after it.
+                    currentInternalTreeNode.addChildAtIndex(indexOfAddedKey + 1, newChildForParent.getPointer());
                     session.write(currentInternalTreeNode);
                     session.commit();
                     return newNode;
@@ -136,7 +140,11 @@ public class CreateIndexOperation<K extends Comparable<K>, V> {
 
                 // If the internal node is full, split the node.
                 // Split the internal node and obtain the child pointers to pass up.
-                List<InternalTreeNode.ChildPointers<K>> passingChildPointers = currentInternalTreeNode.addAndSplit(idForParentToStore, newChildForParent.getPointer(), bTreeDegree);
+                // An appended key is the last key of every node in the path, so the node keeps all its keys but the
+                // last one, and stays as full as the leaves below it.
+                List<InternalTreeNode.ChildPointers<K>> passingChildPointers = appending
+                        ? currentInternalTreeNode.addAndSplit(idForParentToStore, newChildForParent.getPointer(), bTreeDegree, bTreeDegree - 2)
+                        : currentInternalTreeNode.addAndSplit(idForParentToStore, newChildForParent.getPointer(), bTreeDegree);
 
                 // Get the first child pointer to pass up to the parent.
                 InternalTreeNode.ChildPointers<K> firstPassingChildPointers = passingChildPointers.getFirst();
@@ -164,6 +172,8 @@ public class CreateIndexOperation<K extends Comparable<K>, V> {
                     return newNode;
                 } else {
                     session.write(currentInternalTreeNode);
+                    // The new sibling is the child the parent has to reference next.
+                    newChildForParent = newInternalSibling;
                 }
             }
         }
@@ -172,22 +182,15 @@ public class CreateIndexOperation<K extends Comparable<K>, V> {
     }
 
     private void fixSiblingPointers(LeafTreeNode<K, V> currentNode, LeafTreeNode<K, V> newLeafTreeNode,
-                                    int bTreeDegree) throws StorageException, InterruptedTaskException,
-                                                            FileChannelException {
-        // Get the pointer to the next sibling of the current node.
-        Optional<Pointer> currentNodeNextSiblingPointer = currentNode.getNextSiblingPointer(bTreeDegree);
-
+                                    Optional<Pointer> currentNodeNextSiblingPointer, int bTreeDegree) throws
+                                                                                                      StorageException,
+                                                                                                      InterruptedTaskException,
+                                                                                                      FileChannelException {
         // Update the current node's next sibling pointer to point to the new sibling.
         currentNode.setNextSiblingPointer(newLeafTreeNode.getPointer(), bTreeDegree);
 
-        // Set the new sibling's previous sibling pointer to the current node.
-        newLeafTreeNode.setPreviousSiblingPointer(currentNode.getPointer(), bTreeDegree);
-
-        // If the current node had a next sibling, update pointers accordingly.
+        // If the current node had a next sibling, update its previous sibling pointer accordingly.
         if (currentNodeNextSiblingPointer.isPresent()) {
-            // Set the new sibling's next sibling pointer to the current node's next sibling.
-            newLeafTreeNode.setNextSiblingPointer(currentNodeNextSiblingPointer.get(), bTreeDegree);
-
             LeafTreeNode<K, V> currentNextSibling = (LeafTreeNode<K, V>) session.read(currentNodeNextSiblingPointer.get());
 
             // Update the next sibling's previous sibling pointer to point to the new sibling.
@@ -15,6 +15,10 @@ import java.util.*;
 
 /**
  * Handles the deletion of a key-value pair (index) from a tree.
+ * <p>
+ * With the {@link DbConfig.BTreeDeleteStrategy#LAZY} strategy, a leaf is only rebalanced when a deletion leaves it with
+ * fewer keys than {@link #getLeafMinKeys(DbConfig)}, which is below the minimum of the tree, so most deletions only
+ * write the leaf of the key. The leaves left under filled are rebalanced later by {@link #rebalanceLeaf}.
  *
  * @param <K> The type of keys.
  * @param <V> The type of values associated with the keys.
@@ -26,6 +30,7 @@ public class DeleteIndexOperation<K extends Comparable<K>, V> {
     private final NodeFactory<K> nodeFactory;
     private final int indexId;
     private final int minKeys;
+    private final int leafMinKeys;
 
     /**
      * Constructor for DeleteIndexOperation.
@@ -42,17 +47,39 @@ public class DeleteIndexOperation<K extends Comparable<K>, V> {
         this.indexId = indexId;
         this.session = session;
         this.minKeys = (dbConfig.getBTreeDegree() - 1) / 2;
+        this.leafMinKeys = getLeafMinKeys(dbConfig);
         this.vBinaryObjectFactory = vBinaryObjectFactory;
         this.nodeFactory = nodeFactory;
     }
 
+    /**
+     * Calculates the number of keys below which a leaf is rebalanced when a key is removed from it. Internal nodes
+     * always keep the minimum of the tree, and leaves never end up empty, since empty leaves would be read by scans for
+     * nothing.
+     *
+     * @param dbConfig The database configuration.
+     * @return The minimum number of keys of a leaf after a deletion.
+     */
+    public static int getLeafMinKeys(DbConfig dbConfig) {
+        int minKeys = (dbConfig.getBTreeDegree() - 1) / 2;
+        if (dbConfig.getBTreeDeleteStrategy() != DbConfig.BTreeDeleteStrategy.LAZY) {
+            return minKeys;
+        }
+        int lazyMinKeys = (int) (dbConfig.getBTreeLazyDeleteFillFactor() * (dbConfig.getBTreeDegree() - 1));
+        return Math.clamp(lazyMinKeys, 1, Math.max(minKeys, 1));
+    }
+
     /**
      * Removes a key-value pair from the tree.
      * In a tree each node (except the root) must have at least a minimum number of keys to maintain the balance.
-     * So when a key is deleted, a node can end up as having fewer keys than {@link #minKeys}.
+     * So when a key is deleted, a node can end up as having fewer keys than {@link #minKeys}, or a leaf as having fewer
+     * keys than {@link #leafMinKeys}.
      * In this situation there are two ways to balance the tree again:
      * - borrow a key from a sibling node.
      * - merge the under filled node with a sibling node.
+     * A merge removes a key from the parent, which can leave the parent under filled as well, so the same process is
+     * repeated going up the path until a node is balanced or the root is reached. Separators left in internal nodes by
+     * removed keys are not replaced, since they still route every search to the correct child.
      *
      * @param root       The root node of the tree.
      * @param identifier The key to be deleted.
@@ -71,200 +98,92 @@ public class DeleteIndexOperation<K extends Comparable<K>, V> {
         // Find the path to the node responsible for the key.
         BTreeUtils.getPathToResponsibleNode(session, path, root, identifier, bTreeDegree);
 
-        boolean removalResult = false;
-
-        // Traverse the path from the leaf to the root.
-        for (int index = 0; index < path.size(); index++) {
-            AbstractTreeNode<K> currentNode = path.get(index);
-
-            // The first node is a leaf node.
-            if (index == 0) {
-                LeafTreeNode<K, ?> leafNode = (LeafTreeNode<K, ?>) currentNode;
-
-                // Attempt to remove the key-value pair.
-                removalResult = leafNode.removeKeyValue(identifier, bTreeDegree);
-
-                session.update(leafNode);
-
-                // Check if under filled and balance the tree if necessary.
-                if (removalResult && !leafNode.isRoot() && leafNode.getKeyList(bTreeDegree).size() < minKeys) {
-                    InternalTreeNode<K> parentNode = (InternalTreeNode<K>) path.get(index + 1);
-
-                    // Balance the tree.
-                    this.fillNode(leafNode, parentNode, parentNode.getIndexOfChild(currentNode.getPointer()), bTreeDegree);
-                }
-            } else {
-                // Handle the internal nodes.
-                this.checkInternalNode((InternalTreeNode<K>) path.get(index), path, index, identifier, bTreeDegree);
-            }
+        LeafTreeNode<K, V> leafNode = (LeafTreeNode<K, V>) path.getFirst();
+        if (!leafNode.removeKeyValue(identifier, bTreeDegree)) {
+            session.commit();
+            return false;
         }
+        session.update(leafNode);
+
+        this.rebalance(path, leafMinKeys, bTreeDegree);
         session.commit();
 
-        return removalResult;
+        return true;
     }
 
     /**
-     * Deletes a key from an internal node and ensures the tree remains balanced.
+     * Rebalances the leaf responsible for a key if it has fewer keys than the minimum of the tree, which happens to the
+     * leaves that lost keys with the {@link DbConfig.BTreeDeleteStrategy#LAZY} strategy. The leaf borrows a key from a
+     * sibling or is merged with one, like when a key is removed with the eager strategy, so a leaf with very few keys
+     * may need several calls to reach the minimum.
      *
-     * @param parent      The parent node.
-     * @param node        The internal node from which the key is deleted.
-     * @param index       The index of the key to delete.
-     * @param bTreeDegree The degree of the tree.
-     * @throws BTreeException   If an error occurs during deletion.
-     * @throws StorageException If an error occurs during storage operations.
-     */
-    private void deleteInternalNode(InternalTreeNode<K> parent, InternalTreeNode<K> node, int index,
-                                    int bTreeDegree) throws
-                                                     BTreeException,
-                                                     StorageException,
-                                                     SerializationException,
-                                                     InterruptedTaskException,
-                                                     FileChannelException {
-        List<Pointer> childrenList = node.getChildrenList();
-        if (index != 0) {
-            // Try to replace the key with its predecessor.
-            AbstractTreeNode<K> leftIndexNode = session.read(childrenList.get(index - 1));
-            if (leftIndexNode.getKeyList(bTreeDegree, vBinaryObjectFactory.size()).size() >= minKeys) {
-                K predecessor = this.getPredecessor(node, index, bTreeDegree);
-                node.setKey(index, predecessor);
-                session.update(node);
-            }
-        } else {
-            // Try to replace the key with its successor.
-            AbstractTreeNode<K> rightIDXChild = session.read(childrenList.get(index + 1));
-            if (rightIDXChild.getKeyList(bTreeDegree, vBinaryObjectFactory.size()).size() >= minKeys) {
-                K successor = getSuccessor(node, index, bTreeDegree);
-                node.setKey(index, successor);
-                session.update(node);
-            } else {
-                // Merge nodes if replacement isn't possible.
-                merge(parent, node, index, bTreeDegree);
-            }
-        }
-    }
-
-    /**
-     * Retrieves the predecessor of a key in the tree.
-     *
-     * @param node        The internal node.
-     * @param index       The index of the key.
-     * @param bTreeDegree The degree of the tree.
-     * @return The predecessor key.
+     * @param root       The root node of the tree.
+     * @param identifier A key held by the leaf.
+     * @return True if the leaf was rebalanced; false if it already had enough keys.
+     * @throws BTreeException   If an error occurs during balancing.
      * @throws StorageException If an error occurs during storage operations.
      */
-    private K getPredecessor(InternalTreeNode<K> node, int index, int bTreeDegree) throws StorageException,
-                                                                                          InterruptedTaskException,
-                                                                                          FileChannelException {
-        // Obtain the current children node.
-        AbstractTreeNode<K> current = session.read(node.getChildrenList().get(index));
-
-        // Traverse to the rightmost leaf node.
-        while (!current.isLeaf()) {
-            current = session.read(node.getChildrenList().get(current.getKeyList(bTreeDegree, vBinaryObjectFactory.size()).size()));
-        }
+    public boolean rebalanceLeaf(AbstractTreeNode<K> root, K identifier) throws BTreeException, StorageException,
+                                                                                SerializationException,
+                                                                                InterruptedTaskException,
+                                                                                FileChannelException {
+        int bTreeDegree = dbConfig.getBTreeDegree();
 
-        // Return the last key in the leaf node.
-        return current.getKeyList(bTreeDegree, vBinaryObjectFactory.size()).getLast();
-    }
+        List<AbstractTreeNode<K>> path = new LinkedList<>();
+        BTreeUtils.getPathToResponsibleNode(session, path, root, identifier, bTreeDegree);
 
-    /**
-     * Retrieves the successor of a key in the tree.
-     *
-     * @param node        The internal node.
-     * @param index       The index of the key.
-     * @param bTreeDegree The degree of the tree.
-     * @return The successor key.
-     * @throws StorageException If an error occurs during storage operations.
-     */
-    private K getSuccessor(InternalTreeNode<K> node, int index, int bTreeDegree) throws StorageException,
-                                                                                        InterruptedTaskException,
-                                                                                        FileChannelException {
-        // Obtain the next children node.
-        AbstractTreeNode<K> current = session.read(node.getChildrenList().get(index + 1));
-
-        // Traverse to the leftmost leaf node.
-        while (!current.isLeaf()) {
-            current = session.read(((InternalTreeNode<K>) current).getChildrenList().getFirst());
+        AbstractTreeNode<K> leafNode = path.getFirst();
+        if (leafNode.isRoot() || getKeyCount(leafNode, bTreeDegree) >= minKeys) {
+            session.commit();
+            return false;
         }
 
-        // Return the first key in the leaf node.
-        return current.getKeyList(bTreeDegree, vBinaryObjectFactory.size()).getFirst();
+        this.rebalance(path, minKeys, bTreeDegree);
+        session.commit();
+
+        return true;
     }
 
     /**
-     * Checks and handles deletion in an internal node.
+     * Traverses the path from the leaf to the root, balancing each node left under filled, until a node has enough
+     * keys or the root is reached.
      *
-     * @param internalTreeNode The internal node being checked.
-     * @param path             The path from root to the current node.
-     * @param index            The index of the current node in the path.
-     * @param identifier       The key being deleted.
-     * @param bTreeDegree      The degree of the tree.
-     * @throws BTreeException   If an error occurs during deletion.
-     * @throws StorageException If an error occurs during storage operations.
+     * @param path        The path from the leaf to the root.
+     * @param leafMinKeys The number of keys below which the leaf is balanced.
+     * @param bTreeDegree The degree of the tree.
      */
-    private void checkInternalNode(InternalTreeNode<K> internalTreeNode, List<AbstractTreeNode<K>> path, int index,
-                                   K identifier, int bTreeDegree) throws
-                                                                  BTreeException,
-                                                                  StorageException,
-                                                                  SerializationException,
-                                                                  InterruptedTaskException,
-                                                                  FileChannelException {
-        List<K> keyList = internalTreeNode.getKeyList(bTreeDegree);
+    private void rebalance(List<AbstractTreeNode<K>> path, int leafMinKeys, int bTreeDegree) throws BTreeException,
+                                                                                                   StorageException,
+                                                                                                   SerializationException,
+                                                                                                   InterruptedTaskException,
+                                                                                                   FileChannelException {
+        for (int index = 0; index < path.size(); index++) {
+            AbstractTreeNode<K> currentNode = path.get(index);
 
-        // If it's the root and has no keys, return.
-        if (index == path.size() - 1 && keyList.isEmpty()) {
-            return;
-        }
+            if (currentNode.isRoot()) {
+                // A root left without keys by a merge has a single child, which becomes the new root.
+                if (!currentNode.isLeaf() && getKeyCount(currentNode, bTreeDegree) == 0) {
+                    AbstractTreeNode<K> child = session.read(((InternalTreeNode<K>) currentNode).getChildAtIndex(0));
+                    child.setAsRoot();
+                    currentNode.unsetAsRoot();
+                    session.update(child);
+                    session.remove(currentNode);
+                }
+                break;
+            }
 
-        // Find the index of the key to delete.
-        int indexOfKey = keyList.indexOf(identifier);
-        if (indexOfKey != -1) {
-            if (internalTreeNode.isRoot()) {
-                // Handle deletion in root.
-                this.fillRootAtIndex(internalTreeNode, indexOfKey, identifier, bTreeDegree);
-            } else {
-                // Delete the key from the internal node.
-                this.deleteInternalNode((InternalTreeNode<K>) path.get(index + 1), internalTreeNode, indexOfKey, bTreeDegree);
+            if (getKeyCount(currentNode, bTreeDegree) >= (currentNode.isLeaf() ? leafMinKeys : minKeys)) {
+                break;
             }
-        }
 
-        int nodeKeySize = internalTreeNode.getKeyList(bTreeDegree).size();
-        // Check if under filled and balance the tree if necessary.
-        if (nodeKeySize < minKeys && !internalTreeNode.isRoot()) {
-            InternalTreeNode<K> parent = (InternalTreeNode<K>) path.get(index + 1);
-            this.fillNode(internalTreeNode, parent, parent.getIndexOfChild(internalTreeNode.getPointer()), bTreeDegree);
+            InternalTreeNode<K> parentNode = (InternalTreeNode<K>) path.get(index + 1);
+            this.fillNode(currentNode, parentNode, parentNode.getIndexOfChild(currentNode.getPointer()), bTreeDegree);
         }
     }
 
-    /**
-     * Handles deletion in the root node by replacing the key with an appropriate key from its subtree.
-     *
-     * @param internalTreeNode The root node.
-     * @param indexOfKey       The index of the key to delete.
-     * @param identifier       The key being deleted.
-     * @param bTreeDegree      The degree of the tree.
-     * @throws StorageException If an error occurs during storage operations.
-     * @throws BTreeException   If an error occurs during deletion.
-     */
-    private void fillRootAtIndex(InternalTreeNode<K> internalTreeNode, int indexOfKey, K identifier,
-                                 int bTreeDegree) throws
-                                                  StorageException,
-                                                  BTreeException,
-                                                  SerializationException,
-                                                  InterruptedTaskException,
-                                                  FileChannelException {
-        // Get the child node where the replacement key can be found.
-        LeafTreeNode<K, ?> leafTreeNode = BTreeUtils.getResponsibleNode(session.getIndexStorageManager(), session.read(internalTreeNode.getChildAtIndex(indexOfKey + 1)), identifier, indexId, bTreeDegree, nodeFactory, vBinaryObjectFactory);
-
-        // Replace the key in the root node.
-        internalTreeNode.setKey(indexOfKey, leafTreeNode.getKeyList(bTreeDegree).getLast());
-        session.update(internalTreeNode);
-    }
-
     /**
      * Balances an under filled node by borrowing keys from siblings or merging nodes.
-     * This method is called when a node has fewer keys than the minimum required after a deletion.
-     * It attempts to balance the tree by borrowing from siblings or merging nodes if necessary.
+     * The left sibling is preferred for both operations, and merging only happens when no sibling can lend a key.
      *
      * @param currentNode The under filled node.
      * @param parentNode  The parent node.
@@ -280,146 +199,74 @@ public class DeleteIndexOperation<K extends Comparable<K>, V> {
                                            SerializationException,
                                            InterruptedTaskException,
                                            FileChannelException {
-        boolean borrowed;
-
-        // The first node is a leaf node.
-        if (index == 0) {
-            // If it is the first child, we can only try to borrow from the right sibling.
-            borrowed = tryBorrowRight(parentNode, index, currentNode, bTreeDegree);
-        } else {
-            // If it's not the first child, first try to borrow from the left sibling.
-            borrowed = tryBorrowLeft(parentNode, index, currentNode, bTreeDegree);
+        List<Pointer> childrenList = parentNode.getChildrenList();
 
-            // If borrowing from the left sibling wasn't possible and the node is not the last child, we can try to borrow from the right sibling.
-            if (!borrowed && index < parentNode.getKeyList(bTreeDegree).size() - 1) {
-                borrowed = tryBorrowRight(parentNode, index, currentNode, bTreeDegree);
-            }
-        }
-
-        // If borrowing isn't possible, merge the node with a sibling.
-        if (!borrowed) {
-            merge(parentNode, currentNode, index, bTreeDegree);
+        AbstractTreeNode<K> leftSibling = index > 0 ? session.read(childrenList.get(index - 1)) : null;
+        if (leftSibling != null && getKeyCount(leftSibling, bTreeDegree) > minKeys) {
+            this.borrowFromPrev(parentNode, index, leftSibling, currentNode, bTreeDegree);
+            return;
         }
-    }
 
-    /**
-     * Attempts to borrow a key from the right sibling of a node.
-     *
-     * @param parentNode  The parent node.
-     * @param idx         The index of the current node in the parent's child list.
-     * @param child       The under filled node.
-     * @param bTreeDegree The degree of the tree.
-     * @return True if borrowing was successful; false otherwise.
-     * @throws StorageException If an error occurs during storage operations.
-     * @throws BTreeException   If an error occurs during balancing.
-     */
-    private boolean tryBorrowRight(InternalTreeNode<K> parentNode, int idx, AbstractTreeNode<K> child,
-                                   int bTreeDegree) throws
-                                                    StorageException,
-                                                    BTreeException,
-                                                    SerializationException,
-                                                    InterruptedTaskException,
-                                                    FileChannelException {
-        // Get the right sibling.
-        AbstractTreeNode<K> sibling = session.read(parentNode.getChildrenList().get(idx + 1));
-
-        // Check if the sibling has enough keys to lend.
-        if (sibling.getKeyList(bTreeDegree, vBinaryObjectFactory.size()).size() > minKeys) {
-            this.borrowFromNext(parentNode, idx, child, bTreeDegree);
-            return true;
+        AbstractTreeNode<K> rightSibling = index < childrenList.size() - 1 ? session.read(childrenList.get(index + 1)) : null;
+        if (rightSibling != null && getKeyCount(rightSibling, bTreeDegree) > minKeys) {
+            this.borrowFromNext(parentNode, index, currentNode, rightSibling, bTreeDegree);
+            return;
         }
-        return false;
-    }
 
-    /**
-     * Attempts to borrow a key from the left sibling of a node.
-     *
-     * @param parentNode  The parent node.
-     * @param idx         The index of the current node in the parent's child list.
-     * @param child       The under filled node.
-     * @param bTreeDegree The degree of the tree.
-     * @return True if borrowing was successful; false otherwise.
-     * @throws StorageException If an error occurs during storage operations.
-     * @throws BTreeException   If an error occurs during balancing.
-     */
-    private boolean tryBorrowLeft(InternalTreeNode<K> parentNode, int idx, AbstractTreeNode<K> child,
-                                  int bTreeDegree) throws
-                                                   StorageException,
-                                                   BTreeException,
-                                                   SerializationException,
-                                                   InterruptedTaskException,
-                                                   FileChannelException {
-        // Get the left sibling.
-        AbstractTreeNode<K> sibling = session.read(parentNode.getChildrenList().get(idx - 1));
-
-        // Check if the sibling has enough keys to lend.
-        if (sibling.getKeyList(bTreeDegree, vBinaryObjectFactory.size()).size() > minKeys) {
-            this.borrowFromPrev(parentNode, idx, child, bTreeDegree);
-            return true;
+        // The node on the right is always merged into the one on the left.
+        if (leftSibling != null) {
+            this.merge(parentNode, index - 1, leftSibling, currentNode, bTreeDegree);
+        } else {
+            this.merge(parentNode, index, currentNode, rightSibling, bTreeDegree);
         }
-        return false;
     }
 
     /**
-     * Borrows a key from the left sibling and adjusts pointers accordingly.
-     * This is to maintain balance, because it ensures that the node has enough keys to meet the minimum number of keys required.
+     * Moves the last entry of the left sibling into the under filled node.
+     * For leaves, the moved key becomes the separator in the parent. For internal nodes, the separator goes down into
+     * the node together with the last child of the sibling, and the last key of the sibling goes up to replace it.
      *
-     * @param parent        The parent node.
-     * @param index         The index of the current node in the parent's child list.
-     * @param optionalChild The under filled node.
+     * @param parent  The parent node.
+     * @param index   The index of the under filled node in the parent's child list.
+     * @param sibling The left sibling.
+     * @param child   The under filled node.
      * @throws StorageException If an error occurs during storage operations.
      * @throws BTreeException   If an error occurs during balancing.
      */
-    private void borrowFromPrev(InternalTreeNode<K> parent, int index, AbstractTreeNode<K> optionalChild,
-                                int bTreeDegree) throws
-                                                 StorageException,
-                                                 BTreeException,
-                                                 SerializationException,
-                                                 InterruptedTaskException,
-                                                 FileChannelException {
-        AbstractTreeNode<K> child = optionalChild != null ? optionalChild : session.read(parent.getChildrenList().get(index));
-        AbstractTreeNode<K> sibling = session.read(parent.getChildrenList().get(index - 1));
-
-        // If the child is an internal node, we remove the last pointer of its sibling, this is to maintain order because that pointer has the largest keys in the sibling node.
-        if (!child.isLeaf()) {
-            InternalTreeNode<K> siblingInternalNode = (InternalTreeNode<K>) sibling;
-            List<InternalTreeNode.ChildPointers<K>> childPointersList = new ArrayList<>(siblingInternalNode.getChildPointersList(bTreeDegree));
-            InternalTreeNode.ChildPointers<K> siblingLastChildPointer = childPointersList.removeLast();
-
-            siblingInternalNode.setChildPointers(childPointersList, bTreeDegree, true);
-
-            // This corresponds to the key that is currently the separator between child nodes.
-            // Since we're moving a key from the sibling to the child, we need to adjust the parent key to reflect the new separation.
-            K currKey = parent.getKeyList(bTreeDegree).get(index - 1);
-            parent.setKey(index - 1, siblingLastChildPointer.getKey());
-
-
-            // If the child still has keys, then we adjust the sibling's borrowed child pointer to fit into the child node.
-            // The removed sibling's child pointer is set to be on the left side of the newly added key.
-            // If the child has no keys, it's possible that previous operations (like merges or deletions) have left the node without keys.
-            InternalTreeNode<K> childInternalNode = (InternalTreeNode<K>) child;
-            if (!childInternalNode.getKeyList(bTreeDegree).isEmpty()) {
-                ArrayList<InternalTreeNode.ChildPointers<K>> childPointersList2 = new ArrayList<>(childInternalNode.getChildPointersList(bTreeDegree));
-                siblingLastChildPointer.setRight(childPointersList2.getFirst().getLeft());
-                siblingLastChildPointer.setKey(currKey);
-                siblingLastChildPointer.setLeft(siblingLastChildPointer.getRight());
-                childPointersList2.add(siblingLastChildPointer);
-                childInternalNode.setChildPointers(childPointersList2, bTreeDegree, false);
-            } else {
-                Pointer first = childInternalNode.getChildrenList().getFirst();
-                childInternalNode.addChildPointers(currKey, siblingLastChildPointer.getRight(), first, bTreeDegree, true);
-            }
-        } else {
-            // Borrowing from leaf nodes is done by simply removing the value from the sibling and adding it to the child, there are no pointers to adjust.
+    private void borrowFromPrev(InternalTreeNode<K> parent, int index, AbstractTreeNode<K> sibling,
+                                AbstractTreeNode<K> child, int bTreeDegree) throws
+                                                                            StorageException,
+                                                                            BTreeException,
+                                                                            SerializationException,
+                                                                            InterruptedTaskException,
+                                                                            FileChannelException {
+        if (child.isLeaf()) {
             LeafTreeNode<K, V> siblingLeafNode = (LeafTreeNode<K, V>) sibling;
             LeafTreeNode<K, V> childLeafNode = (LeafTreeNode<K, V>) child;
 
-            List<LeafTreeNode.KeyValue<K, V>> keyValueList = new ArrayList<>(siblingLeafNode.getKeyValueList(bTreeDegree));
-            LeafTreeNode.KeyValue<K, V> keyValue = keyValueList.removeLast();
-            siblingLeafNode.setKeyValues(keyValueList, bTreeDegree);
+            List<LeafTreeNode.KeyValue<K, V>> siblingKeyValues = new ArrayList<>(siblingLeafNode.getKeyValueList(bTreeDegree));
+            LeafTreeNode.KeyValue<K, V> keyValue = siblingKeyValues.removeLast();
+            List<LeafTreeNode.KeyValue<K, V>> childKeyValues = new ArrayList<>(childLeafNode.getKeyValueList(bTreeDegree));
+            childKeyValues.addFirst(keyValue);
 
+            siblingLeafNode.setKeyValues(siblingKeyValues, bTreeDegree);
+            childLeafNode.setKeyValues(childKeyValues, bTreeDegree);
             parent.setKey(index - 1, keyValue.key());
-            childLeafNode.addKeyValue(keyValue, bTreeDegree);
+        } else {
+            InternalTreeNode<K> siblingInternalNode = (InternalTreeNode<K>) sibling;
+            InternalTreeNode<K> childInternalNode = (InternalTreeNode<K>) child;
+
+            List<K> siblingKeys = new ArrayList<>(siblingInternalNode.getKeyList(bTreeDegree));
+            List<Pointer> siblingChildren = new ArrayList<>(siblingInternalNode.getChildrenList());
+            List<K> childKeys = new ArrayList<>(childInternalNode.getKeyList(bTreeDegree));
+            List<Pointer> childChildren = new ArrayList<>(childInternalNode.getChildrenList());
+
+            childKeys.addFirst(parent.getKeyList(bTreeDegree).get(index - 1));
+            childChildren.addFirst(siblingChildren.removeLast());
+            parent.setKey(index - 1, siblingKeys.removeLast());
+
+            this.setInternalNode(siblingInternalNode, siblingKeys, siblingChildren, bTreeDegree);
+            this.setInternalNode(childInternalNode, childKeys, childChildren, bTreeDegree);
         }
         session.update(parent);
         session.update(child);
@@ -427,207 +274,156 @@ public class DeleteIndexOperation<K extends Comparable<K>, V> {
     }
 
     /**
-     * Borrows a key from the right sibling and adjusts pointers accordingly.
-     * This is to maintain balance, because it ensures that the node has enough keys to meet the minimum number of keys required.
+     * Moves the first entry of the right sibling into the under filled node.
+     * For leaves, the new first key of the sibling becomes the separator in the parent. For internal nodes, the
+     * separator goes down into the node together with the first child of the sibling, and the first key of the
+     * sibling goes up to replace it.
      *
-     * @param parent        The parent node.
-     * @param index         The index of the current node in the parent's child list.
-     * @param optionalChild The under filled node.
+     * @param parent  The parent node.
+     * @param index   The index of the under filled node in the parent's child list.
+     * @param child   The under filled node.
+     * @param sibling The right sibling.
      * @throws StorageException If an error occurs during storage operations.
      * @throws BTreeException   If an error occurs during balancing.
      */
-    private void borrowFromNext(InternalTreeNode<K> parent, int index, AbstractTreeNode<K> optionalChild,
-                                int bTreeDegree) throws
-                                                 StorageException,
-                                                 BTreeException,
-                                                 SerializationException,
-                                                 InterruptedTaskException,
-                                                 FileChannelException {
-        AbstractTreeNode<K> child = optionalChild != null ? optionalChild : session.read(parent.getChildrenList().get(index));
-        AbstractTreeNode<K> sibling = session.read(parent.getChildrenList().get(index + 1));
-
-        // If the child is an internal node, we remove the first pointer of its sibling, this is to maintain order because that pointer has the smallest keys in the sibling node.
-        if (!child.isLeaf()) {
-            InternalTreeNode<K> siblingInternalNode = (InternalTreeNode<K>) sibling;
-            List<InternalTreeNode.ChildPointers<K>> siblingPointersList = new ArrayList<>(siblingInternalNode.getChildPointersList(bTreeDegree));
-            InternalTreeNode.ChildPointers<K> siblingFirstChildPointer = siblingPointersList.removeFirst();
-
-            siblingInternalNode.setChildPointers(siblingPointersList, bTreeDegree, true);
+    private void borrowFromNext(InternalTreeNode<K> parent, int index, AbstractTreeNode<K> child,
+                                AbstractTreeNode<K> sibling, int bTreeDegree) throws
+                                                                              StorageException,
+                                                                              BTreeException,
+                                                                              SerializationException,
+                                                                              InterruptedTaskException,
+                                                                              FileChannelException {
+        if (child.isLeaf()) {
+            LeafTreeNode<K, V> siblingLeafNode = (LeafTreeNode<K, V>) sibling;
+            LeafTreeNode<K, V> childLeafNode = (LeafTreeNode<K, V>) child;
 
-            // This corresponds to the key that is currently the separator between child nodes.
-            // Since we're moving a key from the sibling to the child, we need to adjust the parent key to reflect the new separation.
-            K currKey = parent.getKeyList(bTreeDegree).get(index);
-            parent.setKey(index, siblingFirstChildPointer.getKey());
+            List<LeafTreeNode.KeyValue<K, V>> siblingKeyValues = new ArrayList<>(siblingLeafNode.getKeyValueList(bTreeDegree));
+            LeafTreeNode.KeyValue<K, V> keyValue = siblingKeyValues.removeFirst();
+            List<LeafTreeNode.KeyValue<K, V>> childKeyValues = new ArrayList<>(childLeafNode.getKeyValueList(bTreeDegree));
+            childKeyValues.addLast(keyValue);
 
+            siblingLeafNode.setKeyValues(siblingKeyValues, bTreeDegree);
+            childLeafNode.setKeyValues(childKeyValues, bTreeDegree);
+            parent.setKey(index, siblingKeyValues.getFirst().key());
+        } else {
+            InternalTreeNode<K> siblingInternalNode = (InternalTreeNode<K>) sibling;
             InternalTreeNode<K> childInternalNode = (InternalTreeNode<K>) child;
 
-            // If the child still has keys, then we adjust the sibling's borrowed child pointer to fit into the child node.
-            // The removed sibling's child pointer is set to be on the right side of the newly added key.
-            // If the child has no keys, it's possible that previous operations (like merges or deletions) have left the node without keys.
-            if (!childInternalNode.getKeyList(bTreeDegree).isEmpty()) {
-                ArrayList<InternalTreeNode.ChildPointers<K>> childPointersList2 = new ArrayList<>(childInternalNode.getChildPointersList(bTreeDegree));
-                siblingFirstChildPointer.setRight(siblingFirstChildPointer.getLeft());
-                siblingFirstChildPointer.setKey(currKey);
-                siblingFirstChildPointer.setLeft(childPointersList2.getLast().getRight());
-                childPointersList2.add(siblingFirstChildPointer);
-                childInternalNode.setChildPointers(childPointersList2, bTreeDegree, false);
-            } else {
-                Pointer first = childInternalNode.getChildrenList().getFirst();
-                childInternalNode.addChildPointers(currKey, first, siblingFirstChildPointer.getLeft(), bTreeDegree, true);
-            }
-        } else {
-            // Borrowing from leaf nodes is done by simply removing the value from the sibling and adding it to the child, there are no pointers to adjust.
-            LeafTreeNode<K, V> siblingLeafNode = (LeafTreeNode<K, V>) sibling;
-            LeafTreeNode<K, V> childLeafNode = (LeafTreeNode<K, V>) child;
+            List<K> siblingKeys = new ArrayList<>(siblingInternalNode.getKeyList(bTreeDegree));
+            List<Pointer> siblingChildren = new ArrayList<>(siblingInternalNode.getChildrenList());
+            List<K> childKeys = new ArrayList<>(childInternalNode.getKeyList(bTreeDegree));
+            List<Pointer> childChildren = new ArrayList<>(childInternalNode.getChildrenList());
 
-            List<LeafTreeNode.KeyValue<K, V>> keyValueList = new ArrayList<>(siblingLeafNode.getKeyValueList(bTreeDegree));
-            LeafTreeNode.KeyValue<K, V> keyValue = keyValueList.removeFirst();
-            siblingLeafNode.setKeyValues(keyValueList, bTreeDegree);
+            childKeys.addLast(parent.getKeyList(bTreeDegree).get(index));
+            childChildren.addLast(siblingChildren.removeFirst());
+            parent.setKey(index, siblingKeys.removeFirst());
 
-            parent.setKey(index, keyValueList.getFirst().key());
-            childLeafNode.addKeyValue(keyValue, bTreeDegree);
+            this.setInternalNode(siblingInternalNode, siblingKeys, siblingChildren, bTreeDegree);
+            this.setInternalNode(childInternalNode, childKeys, childChildren, bTreeDegree);
         }
-
         session.update(parent);
         session.update(child);
         session.update(sibling);
     }
 
     /**
-     * Merges the under filled node with a sibling node.
+     * Merges two adjacent children of a node, moving the entries of the right one into the left one and removing the
+     * right one from the tree.
+     * The parent loses the key that separated both nodes, which for internal nodes goes down into the merged node.
      *
      * @param parent      The parent node.
-     * @param child       The under filled node.
-     * @param index       The index of the current node in the parent's child list.
+     * @param leftIndex   The index of the left node in the parent's child list.
+     * @param left        The node that is kept.
+     * @param right       The node that is removed.
      * @param bTreeDegree The degree of the tree.
      * @throws StorageException If an error occurs during storage operations.
      * @throws BTreeException   If an error occurs during merging.
      */
-    private void merge(InternalTreeNode<K> parent, AbstractTreeNode<K> child, int index, int bTreeDegree) throws
-                                                                                                          StorageException,
-                                                                                                          BTreeException,
-                                                                                                          SerializationException,
-                                                                                                          InterruptedTaskException,
-                                                                                                          FileChannelException {
-        // We need to decide which sibling is to be merged with under filled node.
-        // By default, we first try the right sibling, if it's not possible we try with the left sibling.
-        int siblingIndex = index + 1;
-        if (index == parent.getChildrenList().size() - 1) {
-            siblingIndex = index - 1;
-        }
+    private void merge(InternalTreeNode<K> parent, int leftIndex, AbstractTreeNode<K> left,
+                       AbstractTreeNode<K> right, int bTreeDegree) throws
+                                                                  StorageException,
+                                                                  BTreeException,
+                                                                  SerializationException,
+                                                                  InterruptedTaskException,
+                                                                  FileChannelException {
+        if (left.isLeaf()) {
+            LeafTreeNode<K, V> leftLeafNode = (LeafTreeNode<K, V>) left;
+            LeafTreeNode<K, V> rightLeafNode = (LeafTreeNode<K, V>) right;
 
-        AbstractTreeNode<K> sibling = session.read(parent.getChildrenList().get(siblingIndex));
-        // Hold a reference to the node that needs to be deleted after merging.
-        AbstractTreeNode<K> toRemove = sibling;
-
-        if (sibling.getKeyList(bTreeDegree, vBinaryObjectFactory.size()).size() > child.getKeyList(bTreeDegree, vBinaryObjectFactory.size()).size()) {
-            // The merge always happens into the sibling that has more keys. This means that the node that will be deleted after merging is the child.
-            AbstractTreeNode<K> temp = child;
-            child = sibling;
-            sibling = temp;
-            toRemove = sibling;
-            int tempSib = siblingIndex;
-            siblingIndex = index;
-            index = tempSib;
-        }
+            List<LeafTreeNode.KeyValue<K, V>> keyValues = new ArrayList<>(leftLeafNode.getKeyValueList(bTreeDegree));
+            keyValues.addAll(rightLeafNode.getKeyValueList(bTreeDegree));
+            leftLeafNode.setKeyValues(keyValues, bTreeDegree);
 
-        // When dealing with internal nodes, we add the sibling keys into the child.
-        // Then we merge the child pointers, the sibling child pointer can be either prepended or appended, depending on if the
-        // sibling is before or after the child.
-        // If we're dealing with a leaf node, the same process applies, but only for the keys.
-        ArrayList<LeafTreeNode.KeyValue<K, V>> keyValueListToMove = new ArrayList<>();
-        ArrayList<Pointer> childPointersToMove = new ArrayList<>();
-
-        if (!child.isLeaf()) {
-            InternalTreeNode<K> childInternalTreeNode = (InternalTreeNode<K>) child;
-            List<K> childKeyList = new ArrayList<>(childInternalTreeNode.getKeyList(bTreeDegree));
-            childKeyList.addAll(sibling.getKeyList(bTreeDegree, vBinaryObjectFactory.size()));
-            childKeyList.sort(K::compareTo);
-            childInternalTreeNode.setKeys(childKeyList);
-
-            childPointersToMove = new ArrayList<>(childInternalTreeNode.getChildrenList());
-            if (index > siblingIndex) {
-                childPointersToMove.addAll(0, ((InternalTreeNode<K>) sibling).getChildrenList());
-            } else {
-                childPointersToMove.addAll(((InternalTreeNode<K>) sibling).getChildrenList());
-            }
+            // If the node being removed is a leaf node, we need to maintain consistency by fixing the sibling pointers, so that the siblings don't point
+            // to a node that no longer exists.
+            this.fixSiblingPointers(rightLeafNode, leftLeafNode, bTreeDegree);
         } else {
-            LeafTreeNode<K, V> childLeafTreeNode = (LeafTreeNode<K, V>) child;
-            keyValueListToMove = new ArrayList<>(childLeafTreeNode.getKeyValueList(bTreeDegree));
-            keyValueListToMove.addAll(((LeafTreeNode<K, V>) sibling).getKeyValueList(bTreeDegree));
-            Collections.sort(keyValueListToMove);
-        }
-
-        int keyToRemoveIndex = siblingIndex == 0 ? siblingIndex : siblingIndex - 1;
-        K parentKeyAtIndex = parent.getKeyList(bTreeDegree).get(keyToRemoveIndex);
+            InternalTreeNode<K> leftInternalNode = (InternalTreeNode<K>) left;
+            InternalTreeNode<K> rightInternalNode = (InternalTreeNode<K>) right;
 
-        // After merging child and sibling, the parent node needs to remove the key that separated them and remove the pointer to the now redundant node (sibling).
-        // This is because the merged node now contains all keys that were previously split between child and sibling.
-        parent.removeKey(keyToRemoveIndex, bTreeDegree);
-        parent.removeChild(siblingIndex, bTreeDegree);
+            List<K> keys = new ArrayList<>(leftInternalNode.getKeyList(bTreeDegree));
+            keys.add(parent.getKeyList(bTreeDegree).get(leftIndex));
+            keys.addAll(rightInternalNode.getKeyList(bTreeDegree));
+            List<Pointer> children = new ArrayList<>(leftInternalNode.getChildrenList());
+            children.addAll(rightInternalNode.getChildrenList());
 
-        // After removing the key, we need to check if the parent node is now under filled or empty after removal.
-        if (parent.getKeyList(bTreeDegree).isEmpty()) {
-            if (!child.isLeaf()) {
-                if (!(child instanceof InternalTreeNode)) {
-                    throw new BTreeException(DbError.NODE_MISMATCH_ERROR, "Node marked as leaf is not a leaf node");
-                }
-                // Move the separating key down to the child.
-                ((InternalTreeNode<K>) child).addKey(parentKeyAtIndex, bTreeDegree);
-            }
-            // If the parent node was the root, we need to pivot to the child, because the parent now has no keys left.
-            if (parent.isRoot()) {
-                child.setAsRoot();
-                parent.unsetAsRoot();
-            }
-            session.remove(parent);
-        } else {
-            session.update(parent);
+            this.setInternalNode(leftInternalNode, keys, children, bTreeDegree);
         }
 
-        if (child.isLeaf()) {
-            ((LeafTreeNode<K, V>) child).setKeyValues(keyValueListToMove, bTreeDegree);
-        } else {
-            ((InternalTreeNode<K>) child).setChildren(childPointersToMove);
+        // After merging both nodes, the parent node needs to remove the key that separated them and the pointer to the now redundant node.
+        parent.removeKey(leftIndex, bTreeDegree);
+        parent.removeChild(leftIndex + 1, bTreeDegree);
+
+        session.update(parent);
+        session.update(left);
+        session.remove(right);
+    }
+
+    /**
+     * Rewrites the keys and children of an internal node.
+     *
+     * @param node        The internal node.
+     * @param keys        The keys of the node, in order.
+     * @param children    The children of the node, one more than the keys.
+     * @param bTreeDegree The degree of the tree.
+     * @throws BTreeException If an error occurs while setting child pointers.
+     */
+    private void setInternalNode(InternalTreeNode<K> node, List<K> keys, List<Pointer> children,
+                                 int bTreeDegree) throws BTreeException, SerializationException {
+        List<InternalTreeNode.ChildPointers<K>> childPointers = new ArrayList<>(keys.size());
+        for (int index = 0; index < keys.size(); index++) {
+            childPointers.add(new InternalTreeNode.ChildPointers<>(index, keys.get(index), children.get(index), children.get(index + 1)));
         }
-        session.update(child);
+        node.setChildPointers(childPointers, bTreeDegree, true);
+    }
 
-        // If the node being removed is a leaf node, we need to maintain consistency by fixing the sibling pointers, so that the siblings don't point
-        // to a node that no longer exists.
-        if (toRemove.isLeaf()) {
-            if (!(toRemove instanceof LeafTreeNode<?, ?>)) {
-                throw new BTreeException(DbError.NODE_MISMATCH_ERROR, "Node marked as leaf is not a leaf node");
-            }
-            this.fixSiblingPointers((LeafTreeNode<K, V>) toRemove, bTreeDegree);
+    private int getKeyCount(AbstractTreeNode<K> node, int bTreeDegree) {
+        if (node.isLeaf()) {
+            return ((LeafTreeNode<K, V>) node).getKeyList(bTreeDegree).size();
         }
-        session.remove(toRemove);
+        return ((InternalTreeNode<K>) node).getKeyList(bTreeDegree).size();
     }
 
     /**
-     * Updates sibling pointers of leaf nodes after a node has been removed.
+     * Updates sibling pointers of leaf nodes after a node has been merged into its previous sibling.
      * This ensures node links remain intact. Otherwise, the traversal of the tree would not work correctly.
      *
-     * @param node The leaf node that was removed.
+     * @param node     The leaf node that was removed.
+     * @param previous The previous sibling, which the node was merged into.
      * @throws StorageException If an error occurs during storage operations.
      */
-    private void fixSiblingPointers(LeafTreeNode<K, V> node, int bTreeDegree) throws StorageException,
-                                                                                     InterruptedTaskException,
-                                                                                     FileChannelException {
-        // Get the next and previous sibling pointers.
+    private void fixSiblingPointers(LeafTreeNode<K, V> node, LeafTreeNode<K, V> previous,
+                                    int bTreeDegree) throws StorageException, InterruptedTaskException,
+                                                            FileChannelException {
         Optional<Pointer> optionalNextSiblingPointer = node.getNextSiblingPointer(bTreeDegree);
-        Optional<Pointer> optionalPreviousSiblingPointer = node.getPreviousSiblingPointer(bTreeDegree);
         if (optionalNextSiblingPointer.isPresent()) {
             // Update the previous pointer of the next sibling.
             LeafTreeNode<K, V> nextNode = (LeafTreeNode<K, V>) session.read(optionalNextSiblingPointer.get());
-            nextNode.setPreviousSiblingPointer(optionalPreviousSiblingPointer.orElseGet(Pointer::empty), bTreeDegree);
+            nextNode.setPreviousSiblingPointer(previous.getPointer(), bTreeDegree);
             session.update(nextNode);
         }
 
-        if (optionalPreviousSiblingPointer.isPresent()) {
-            // Update the next pointer of the previous sibling.
-            LeafTreeNode<K, ?> previousNode = (LeafTreeNode<K, ?>) session.read(optionalPreviousSiblingPointer.get());
-            previousNode.setNextSiblingPointer(optionalNextSiblingPointer.orElseGet(Pointer::empty), bTreeDegree);
-            session.update(previousNode);
-        }
+        // Update the next pointer of the previous sibling.
+        previous.setNextSiblingPointer(optionalNextSiblingPointer.orElseGet(Pointer::empty), bTreeDegree);
     }
-}
\ No newline at end of file
+}
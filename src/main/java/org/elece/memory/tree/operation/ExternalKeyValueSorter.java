@@ -0,0 +1,262 @@
+package org.elece.memory.tree.operation;
+
+import org.elece.config.DbConfig;
+import org.elece.exception.*;
+import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.memory.tree.node.LeafTreeNode;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Sorts an arbitrarily large stream of key-value pairs by key without holding it in memory.
+ * <p>
+ * The input is cut into runs of {@link DbConfig#getBTreeBulkLoadRunSize()} entries. Each run is sorted and written
+ * to a temporary file on one of {@link DbConfig#getBTreeBulkLoadThreads()} threads while the next run is read, and
+ * the sorted files are then merged with a k-way merge. Entries are written using the fixed width encoding of the
+ * key and value factories, the same one used in the tree nodes. An input that fits in a single run never touches
+ * the disk.
+ *
+ * @param <K> The type of keys.
+ * @param <V> The type of values associated with the keys.
+ */
+public class ExternalKeyValueSorter<K extends Comparable<K>, V> {
+    private final DbConfig dbConfig;
+    private final BinaryObjectFactory<K> kBinaryObjectFactory;
+    private final BinaryObjectFactory<V> vBinaryObjectFactory;
+
+    public ExternalKeyValueSorter(DbConfig dbConfig, BinaryObjectFactory<K> kBinaryObjectFactory,
+                                  BinaryObjectFactory<V> vBinaryObjectFactory) {
+        this.dbConfig = dbConfig;
+        this.kBinaryObjectFactory = kBinaryObjectFactory;
+        this.vBinaryObjectFactory = vBinaryObjectFactory;
+    }
+
+    public SortedKeyValues sort(Iterator<LeafTreeNode.KeyValue<K, V>> keyValues) throws StorageException,
+                                                                                      BTreeException,
+                                                                                      SerializationException,
+                                                                                      InterruptedTaskException {
+        int runSize = Math.max(1, dbConfig.getBTreeBulkLoadRunSize());
+        int threads = Math.max(1, dbConfig.getBTreeBulkLoadThreads());
+
+        List<LeafTreeNode.KeyValue<K, V>> run = readRun(keyValues, runSize);
+        if (!keyValues.hasNext()) {
+            run.sort(Comparator.naturalOrder());
+            return new SortedKeyValues(run.iterator(), List.of());
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "index-bulk-sort");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Bounds the runs held in memory to the ones being sorted plus the one being read.
+        Semaphore inFlight = new Semaphore(threads);
+        List<Future<Path>> sortedRuns = new ArrayList<>();
+        try {
+            while (!run.isEmpty()) {
+                acquire(inFlight);
+                List<LeafTreeNode.KeyValue<K, V>> currentRun = run;
+                sortedRuns.add(executorService.submit(() -> {
+                    try {
+                        currentRun.sort(Comparator.naturalOrder());
+                        return writeRun(currentRun);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+                run = readRun(keyValues, runSize);
+            }
+
+            List<Path> paths = new ArrayList<>();
+            for (Future<Path> sortedRun : sortedRuns) {
+                paths.add(await(sortedRun));
+            }
+            return new SortedKeyValues(new MergeIterator(paths), paths);
+        } catch (StorageException | BTreeException | SerializationException | InterruptedTaskException |
+                 RuntimeDbException exception) {
+            executorService.shutdown();
+            for (Future<Path> sortedRun : sortedRuns) {
+                deleteQuietly(sortedRun);
+            }
+            throw exception;
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private List<LeafTreeNode.KeyValue<K, V>> readRun(Iterator<LeafTreeNode.KeyValue<K, V>> keyValues, int runSize) {
+        List<LeafTreeNode.KeyValue<K, V>> run = new ArrayList<>();
+        while (run.size() < runSize && keyValues.hasNext()) {
+            run.add(keyValues.next());
+        }
+        return run;
+    }
+
+    private Path writeRun(List<LeafTreeNode.KeyValue<K, V>> run) throws IOException, BTreeException,
+                                                                       SerializationException {
+        Path path = Files.createTempFile(Path.of(dbConfig.getBaseDbPath()), "elece_sort_", ".run");
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path))) {
+            for (LeafTreeNode.KeyValue<K, V> keyValue : run) {
+                outputStream.write(kBinaryObjectFactory.create(keyValue.key()).getBytes());
+                outputStream.write(vBinaryObjectFactory.create(keyValue.value()).getBytes());
+            }
+        } catch (IOException | BTreeException | SerializationException exception) {
+            Files.deleteIfExists(path);
+            throw exception;
+        }
+        return path;
+    }
+
+    private void acquire(Semaphore semaphore) throws InterruptedTaskException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedTaskException(DbError.TASK_INTERRUPTED_ERROR, "Bulk load sort interrupted");
+        }
+    }
+
+    private Path await(Future<Path> future) throws StorageException, BTreeException, SerializationException,
+                                                   InterruptedTaskException {
+        try {
+            return future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedTaskException(DbError.TASK_INTERRUPTED_ERROR, "Bulk load sort interrupted");
+        } catch (ExecutionException exception) {
+            switch (exception.getCause()) {
+                case BTreeException bTreeException -> throw bTreeException;
+                case SerializationException serializationException -> throw serializationException;
+                case IOException ioException ->
+                        throw new StorageException(DbError.FILE_WRITE_ERROR, String.format("Failed to write sorted run: %s", ioException.getMessage()));
+                default -> throw new InterruptedTaskException(DbError.TASK_ENDED_IN_FAILURE_ERROR, "Bulk load sort failed");
+            }
+        }
+    }
+
+    private static void deleteQuietly(Future<Path> future) {
+        try {
+            Files.deleteIfExists(future.get());
+        } catch (IOException | ExecutionException exception) {
+            // The run was never written or is already gone.
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sorted view of the input, which must be closed to remove the temporary files of the sorted runs.
+     */
+    public class SortedKeyValues implements Iterator<LeafTreeNode.KeyValue<K, V>>, AutoCloseable {
+        private final Iterator<LeafTreeNode.KeyValue<K, V>> iterator;
+        private final List<Path> paths;
+
+        private SortedKeyValues(Iterator<LeafTreeNode.KeyValue<K, V>> iterator, List<Path> paths) {
+            this.iterator = iterator;
+            this.paths = paths;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public LeafTreeNode.KeyValue<K, V> next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() throws StorageException {
+            if (iterator instanceof MergeIterator mergeIterator) {
+                mergeIterator.close();
+            }
+            for (Path path : paths) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException exception) {
+                    throw new StorageException(DbError.FAILED_TO_REMOVE_TEMPORARY_FILE_ERROR, exception.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges the sorted run files, always returning the smallest head among them.
+     */
+    private class MergeIterator implements Iterator<LeafTreeNode.KeyValue<K, V>> {
+        private final PriorityQueue<RunCursor> cursors = new PriorityQueue<>(Comparator.comparing(cursor -> cursor.head));
+        private final List<RunCursor> openCursors = new ArrayList<>();
+
+        private MergeIterator(List<Path> paths) throws StorageException {
+            try {
+                for (Path path : paths) {
+                    RunCursor cursor = new RunCursor(path);
+                    openCursors.add(cursor);
+                    if (cursor.advance()) {
+                        cursors.add(cursor);
+                    }
+                }
+            } catch (IOException exception) {
+                close();
+                throw new StorageException(DbError.FILE_READ_ERROR, String.format("Failed to read sorted run: %s", exception.getMessage()));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cursors.isEmpty();
+        }
+
+        @Override
+        public LeafTreeNode.KeyValue<K, V> next() {
+            RunCursor cursor = cursors.poll();
+            if (Objects.isNull(cursor)) {
+                throw new NoSuchElementException();
+            }
+
+            LeafTreeNode.KeyValue<K, V> output = cursor.head;
+            try {
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            } catch (IOException exception) {
+                throw new RuntimeDbException(DbError.FILE_READ_ERROR, String.format("Failed to read sorted run: %s", exception.getMessage()));
+            }
+            return output;
+        }
+
+        private void close() {
+            for (RunCursor cursor : openCursors) {
+                try {
+                    cursor.inputStream.close();
+                } catch (IOException exception) {
+                    // Nothing left to read from it.
+                }
+            }
+        }
+    }
+
+    private class RunCursor {
+        private final InputStream inputStream;
+        private final byte[] entry = new byte[kBinaryObjectFactory.size() + vBinaryObjectFactory.size()];
+        private LeafTreeNode.KeyValue<K, V> head;
+
+        private RunCursor(Path path) throws IOException {
+            this.inputStream = new BufferedInputStream(Files.newInputStream(path));
+        }
+
+        private boolean advance() throws IOException {
+            if (inputStream.readNBytes(entry, 0, entry.length) < entry.length) {
+                head = null;
+                return false;
+            }
+            head = new LeafTreeNode.KeyValue<>(kBinaryObjectFactory.create(entry, 0).asObject(), vBinaryObjectFactory.create(entry, kBinaryObjectFactory.size()).asObject());
+            return true;
+        }
+    }
+}
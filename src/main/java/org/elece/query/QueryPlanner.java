@@ -38,6 +38,7 @@ import org.elece.query.plan.step.validator.InsertValidatorStep;
 import org.elece.query.plan.step.value.InsertValueStep;
 import org.elece.query.result.GenericQueryResultInfo;
 import org.elece.serializer.SerializerRegistry;
+import org.elece.sql.ExpressionUtils;
 import org.elece.sql.parser.expression.Expression;
 import org.elece.sql.parser.expression.IdentifierExpression;
 import org.elece.sql.parser.expression.OrderIdentifierExpression;
@@ -125,7 +126,8 @@ public class QueryPlanner {
 
         NodeCollection nodeCollection = buildNodeCollection(table, statement.getWhere());
         QueryContext queryContext = new QueryContext();
-        findScanPaths(queryContext, table, nodeCollection, Order.DEFAULT_ORDER);
+        // Deleted and updated rows are needed as a whole, so they are always read from disk.
+        findScanPaths(queryContext, table, nodeCollection, Order.DEFAULT_ORDER, table.getColumns());
 
         DeleteQueryPlanBuilder builder = DeleteQueryPlanBuilder.builder();
         for (ScanStep scanStep : queryContext.getScanSteps()) {
@@ -154,7 +156,8 @@ public class QueryPlanner {
 
         NodeCollection nodeCollection = buildNodeCollection(table, statement.getWhere());
         QueryContext queryContext = new QueryContext();
-        findScanPaths(queryContext, table, nodeCollection, Order.DEFAULT_ORDER);
+        // Deleted and updated rows are needed as a whole, so they are always read from disk.
+        findScanPaths(queryContext, table, nodeCollection, Order.DEFAULT_ORDER, table.getColumns());
 
         UpdateQueryPlanBuilder builder = UpdateQueryPlanBuilder.builder();
         for (ScanStep scanStep : queryContext.getScanSteps()) {
@@ -208,7 +211,7 @@ public class QueryPlanner {
 
         NodeCollection nodeCollection = buildNodeCollection(table, statement.getWhere());
         QueryContext queryContext = new QueryContext();
-        findScanPaths(queryContext, table, nodeCollection, order);
+        findScanPaths(queryContext, table, nodeCollection, order, findReadColumns(table, statement, selectedColumns));
 
         SelectQueryPlanBuilder builder = SelectQueryPlanBuilder.builder();
         for (ScanStep scanStep : queryContext.getScanSteps()) {
@@ -232,8 +235,36 @@ public class QueryPlanner {
         return Optional.of(builder.build());
     }
 
+    /**
+     * Finds the columns a select query reads from each row, which are the selected columns, the columns used in the
+     * where clause and the column used to order the rows.
+     */
+    private Set<Column> findReadColumns(Table table, SelectStatement statement, List<Column> selectedColumns) {
+        Set<Column> readColumns = new HashSet<>(selectedColumns);
+        if (!Objects.isNull(statement.getWhere())) {
+            for (IdentifierExpression identifierExpression : ExpressionUtils.getIdentifierExpressions(statement.getWhere())) {
+                SchemaSearcher.findColumn(table, identifierExpression.getName()).ifPresent(readColumns::add);
+            }
+        }
+        if (!Objects.isNull(statement.getOrderBy()) && !statement.getOrderBy().isEmpty()) {
+            OrderIdentifierExpression orderBy = (OrderIdentifierExpression) statement.getOrderBy().getFirst();
+            SchemaSearcher.findColumn(table, orderBy.getName()).ifPresent(readColumns::add);
+        }
+        return readColumns;
+    }
+
+    /**
+     * Whether a scan over the index of a column can rebuild the rows from the index alone, which is the case if the
+     * index is covering and holds every column the query reads.
+     */
+    private static boolean isIndexOnly(Table table, Column column, Collection<Column> readColumns) {
+        List<Column> coveredColumns = SchemaSearcher.findCoveredColumns(table, column);
+        return !coveredColumns.isEmpty() && coveredColumns.containsAll(readColumns);
+    }
+
     private <V extends Comparable<V>> void findScanPaths(QueryContext queryContext, Table table,
-                                                         NodeCollection nodeCollection, Order order) throws
+                                                         NodeCollection nodeCollection, Order order,
+                                                         Collection<Column> readColumns) throws
                                                                                                      SchemaException,
                                                                                                      InterruptedTaskException,
                                                                                                      StorageException,
@@ -248,6 +279,7 @@ public class QueryPlanner {
         }
         for (IndexPath indexPath : nodeCollection.getIndexPaths()) {
             Optional<DefaultPathNode> possibleMainPath = findMainPath(indexPath);
+            List<DefaultPathNode> scannedPaths = new ArrayList<>();
             ScanStep scanStep;
             if (possibleMainPath.isEmpty()) {
                 logger.debug("Resorting to a sequential scan due to no other paths available: {}", queryContext.getScanInfo());
@@ -260,34 +292,124 @@ public class QueryPlanner {
                     continue;
                 }
 
-                if (mainPath.getValueComparator() instanceof EqualityComparator<?> equalityComparator) {
+                boolean indexOnly = isIndexOnly(table, column.get(), readColumns);
+                if (indexOnly) {
+                    logger.debug("Scanning the covering index of column {} without reading the rows", column.get().getName());
+                }
+
+                List<DefaultPathNode> compositePaths = column.get().isUnique() ? List.of() : findCompositePaths(table, column.get(), indexPath);
+                if (compositePaths.size() > 1) {
+                    scanStep = createCompositeScanStep(table, column.get(), compositePaths, order, indexOnly);
+                    scannedPaths.addAll(compositePaths);
+                } else if (!column.get().isUnique()) {
+                    scanStep = createNonUniqueScanStep(table, column.get(), mainPath, order, indexOnly);
+                } else if (mainPath.getValueComparator() instanceof EqualityComparator<?> equalityComparator) {
                     if (equalityComparator.shouldBeEqual()) {
                         logger.debug("Creating equality scanner for node {}", mainPath);
-                        scanStep = new EqualityRowScanStep<>(table, column.get(), (EqualityComparator<V>) equalityComparator, columnIndexManagerProvider, databaseStorageManager);
+                        scanStep = new EqualityRowScanStep<>(table, column.get(), (EqualityComparator<V>) equalityComparator, indexOnly, columnIndexManagerProvider, databaseStorageManager);
                     } else {
                         logger.debug("Creating inequality scanner for node {}", mainPath);
-                        scanStep = new InequalityRowScanStep<>(table, column.get(), (EqualityComparator<V>) equalityComparator, columnIndexManagerProvider, databaseStorageManager);
+                        scanStep = new InequalityRowScanStep<>(table, column.get(), (EqualityComparator<V>) equalityComparator, indexOnly, columnIndexManagerProvider, databaseStorageManager);
                     }
                 } else {
                     logger.debug("Creating range scanner for node {}", mainPath);
-                    scanStep = new RangeRowScanStep(table, column.get(), (NumberRangeComparator) mainPath.getValueComparator(), order, columnIndexManagerProvider, databaseStorageManager);
+                    scanStep = new RangeRowScanStep(table, column.get(), (NumberRangeComparator) mainPath.getValueComparator(), order, indexOnly, columnIndexManagerProvider, databaseStorageManager);
+                }
+                if (scannedPaths.isEmpty()) {
+                    scannedPaths.add(mainPath);
                 }
                 queryContext.getScanInfo().addMainScan(column.get());
             }
             queryContext.addScanStep(scanStep);
 
-            findSecondaryScanPaths(queryContext, table, indexPath, possibleMainPath, scanStep);
+            findSecondaryScanPaths(queryContext, table, indexPath, scannedPaths, scanStep);
         }
         logger.debug("Query scan info discovered: {}", queryContext.getScanInfo());
     }
 
+    /**
+     * Finds the conditions the composite index led by a column can match while scanning: equalities on its leading key
+     * columns, in the order of the columns, followed by at most one range on the key column after them.
+     *
+     * @return The matched conditions, in the order of the key columns, which is at most one if the column doesn't lead
+     * a composite index.
+     */
+    private static List<DefaultPathNode> findCompositePaths(Table table, Column column, IndexPath indexPath) {
+        List<DefaultPathNode> compositePaths = new ArrayList<>();
+        for (Column indexColumn : SchemaSearcher.findIndexColumns(table, column)) {
+            Optional<DefaultPathNode> equalityPath = indexPath.getPathNodes().stream()
+                    .filter(pathNode -> pathNode.getColumnName().equals(indexColumn.getName()))
+                    .filter(pathNode -> pathNode.getValueComparator() instanceof EqualityComparator<?> equalityComparator && equalityComparator.shouldBeEqual())
+                    .findFirst();
+            if (equalityPath.isPresent()) {
+                compositePaths.add(equalityPath.get());
+                continue;
+            }
+
+            indexPath.getPathNodes().stream()
+                    .filter(pathNode -> pathNode.getColumnName().equals(indexColumn.getName()))
+                    .filter(pathNode -> pathNode.getValueComparator() instanceof NumberRangeComparator)
+                    .findFirst()
+                    .ifPresent(compositePaths::add);
+            break;
+        }
+        return compositePaths;
+    }
+
+    private ScanStep createCompositeScanStep(Table table, Column column, List<DefaultPathNode> compositePaths,
+                                             Order order, boolean indexOnly) throws SchemaException, StorageException,
+                                                                                    BTreeException,
+                                                                                    InterruptedTaskException,
+                                                                                    FileChannelException {
+        List<Column> indexColumns = SchemaSearcher.findIndexColumns(table, column);
+        List<Comparable<?>> prefix = new ArrayList<>();
+        Column rangeColumn = null;
+        NumberRangeComparator rangeComparator = null;
+        for (int index = 0; index < compositePaths.size(); index++) {
+            ValueComparator<?> valueComparator = compositePaths.get(index).getValueComparator();
+            if (valueComparator instanceof EqualityComparator<?> equalityComparator) {
+                prefix.add((Comparable<?>) equalityComparator.getBoundary().getValue());
+            } else {
+                rangeColumn = indexColumns.get(index);
+                rangeComparator = (NumberRangeComparator) valueComparator;
+            }
+        }
+
+        logger.debug("Creating composite scanner for nodes {}", compositePaths);
+        return new NonUniqueRowScanStep(table, column, prefix, rangeColumn, rangeComparator, order, indexOnly, columnIndexManagerProvider, databaseStorageManager);
+    }
+
+    /**
+     * Creates the scan over an index whose values may repeat. Inequalities match almost every row of such an index, so
+     * they are scanned over the whole index, like they are for unique indexes.
+     */
+    private <V extends Comparable<V>> ScanStep createNonUniqueScanStep(Table table, Column column,
+                                                                       DefaultPathNode mainPath, Order order,
+                                                                       boolean indexOnly) throws
+                                                                                                              SchemaException,
+                                                                                                              StorageException,
+                                                                                                              BTreeException,
+                                                                                                              InterruptedTaskException,
+                                                                                                              FileChannelException {
+        if (mainPath.getValueComparator() instanceof EqualityComparator<?> equalityComparator) {
+            if (equalityComparator.shouldBeEqual()) {
+                logger.debug("Creating non-unique equality scanner for node {}", mainPath);
+                return new NonUniqueRowScanStep(table, column, (EqualityComparator<V>) equalityComparator, order, indexOnly, columnIndexManagerProvider, databaseStorageManager);
+            }
+            logger.debug("Creating inequality scanner for node {}", mainPath);
+            return new InequalityRowScanStep<>(table, column, (EqualityComparator<V>) equalityComparator, indexOnly, columnIndexManagerProvider, databaseStorageManager);
+        }
+        logger.debug("Creating non-unique range scanner for node {}", mainPath);
+        return new NonUniqueRowScanStep(table, column, (NumberRangeComparator) mainPath.getValueComparator(), order, indexOnly, columnIndexManagerProvider, databaseStorageManager);
+    }
+
     private <V extends Comparable<V>> void findSecondaryScanPaths(QueryContext queryContext, Table table,
                                                                   IndexPath indexPath,
-                                                                  Optional<DefaultPathNode> possibleMainPath,
+                                                                  List<DefaultPathNode> scannedPaths,
                                                                   ScanStep scanStep) {
-        Set<DefaultPathNode> secondaryPaths = possibleMainPath
-                .map(defaultPathNode -> indexPath.getPathNodes().stream().filter(pathNode -> !Objects.equals(pathNode, defaultPathNode)).collect(Collectors.toSet()))
-                .orElseGet(indexPath::getPathNodes);
+        Set<DefaultPathNode> secondaryPaths = indexPath.getPathNodes().stream()
+                .filter(pathNode -> !scannedPaths.contains(pathNode))
+                .collect(Collectors.toSet());
 
         Set<ComplexPathNode> secondaryComplexPaths = indexPath.getComplexPathNodes();
 
@@ -8,16 +8,24 @@ import org.elece.query.result.GenericQueryResultInfo;
 import org.elece.query.result.builder.GenericQueryResultInfoBuilder;
 import org.elece.sql.parser.statement.CreateIndexStatement;
 
+import java.util.List;
+
 public class CreateIndexQueryExecutor implements QueryExecutor {
     private final String name;
     private final String table;
-    private final String column;
+    private final List<String> columns;
+    private final boolean unique;
+    private final List<String> includedColumns;
+    private final Index.Type type;
     private final StreamStep streamStep;
 
     public CreateIndexQueryExecutor(CreateIndexStatement statement, StreamStep streamStep) {
         this.name = statement.getName();
         this.table = statement.getTable();
-        this.column = statement.getColumn();
+        this.columns = statement.getColumns();
+        this.unique = statement.getUnique();
+        this.includedColumns = statement.getIncludedColumns();
+        this.type = statement.getType();
         this.streamStep = streamStep;
     }
 
@@ -26,7 +34,7 @@ public class CreateIndexQueryExecutor implements QueryExecutor {
                                                             SerializationException, StorageException,
                                                             DeserializationException, DbException, ProtoException,
                                                             InterruptedTaskException, FileChannelException {
-        int rowCount = schemaManager.createIndex(table, new Index(name, column));
+        int rowCount = schemaManager.createIndex(table, new Index(name, columns.getFirst(), List.copyOf(columns.subList(1, columns.size())), includedColumns, type), unique);
         streamStep.stream(GenericQueryResultInfoBuilder.builder()
                 .setQueryType(GenericQueryResultInfo.QueryType.CREATE_INDEX)
                 .setAffectedRowCount(rowCount)
@@ -1,6 +1,7 @@
 package org.elece.query.path;
 
 import org.elece.db.schema.SchemaSearcher;
+import org.elece.db.schema.model.Index;
 import org.elece.db.schema.model.Table;
 import org.elece.exception.QueryException;
 import org.elece.query.comparator.*;
@@ -40,7 +41,7 @@ public class IndexPathFinder implements QueryPlanVisitor {
 
                 ValueComparator<?> valueComparator = determineBounds((Symbol) binaryExpression.getOperator(), valueExpression, valueIsLeftSide);
 
-                DefaultPathNode defaultPathNode = new DefaultPathNode(identifierExpression.getName(), valueComparator, DefaultPathNode.IndexType.fromBoolean(SchemaSearcher.columnIsIndexed(table, identifierExpression.getName())));
+                DefaultPathNode defaultPathNode = new DefaultPathNode(identifierExpression.getName(), valueComparator, DefaultPathNode.IndexType.fromBoolean(isIndexed(identifierExpression.getName(), valueComparator)));
                 IndexPath indexPath = new IndexPath();
                 indexPath.addPath(defaultPathNode);
 
@@ -167,10 +168,23 @@ public class IndexPathFinder implements QueryPlanVisitor {
             initialComparator = mergedComparator.get();
         }
 
-        DefaultPathNode newNode = new DefaultPathNode(nodes.getFirst().getColumnName(), initialComparator, DefaultPathNode.IndexType.fromBoolean(SchemaSearcher.columnIsIndexed(table, nodes.getFirst().getColumnName())));
+        DefaultPathNode newNode = new DefaultPathNode(nodes.getFirst().getColumnName(), initialComparator, DefaultPathNode.IndexType.fromBoolean(isIndexed(nodes.getFirst().getColumnName(), initialComparator)));
         return Optional.of(newNode);
     }
 
+    /**
+     * Whether the column has an index that can find the rows matching the comparator. Hash indexes only find rows by
+     * equality, so the other conditions on their column are filtered on the rows.
+     */
+    private boolean isIndexed(String columnName, ValueComparator<?> valueComparator) {
+        Optional<Index> index = SchemaSearcher.findIndex(table, columnName);
+        if (index.isEmpty()) {
+            return false;
+        }
+        return index.get().getType() != Index.Type.HASH ||
+                (valueComparator instanceof EqualityComparator<?> equalityComparator && equalityComparator.shouldBeEqual());
+    }
+
     private static boolean isValueComparison(BinaryExpression binaryExpression) {
         return (binaryExpression.getLeft() instanceof IdentifierExpression && binaryExpression.getRight() instanceof ValueExpression<?>) ||
                 (binaryExpression.getRight() instanceof IdentifierExpression && binaryExpression.getLeft() instanceof ValueExpression<?>);
@@ -61,13 +61,13 @@ public class DeleteOperationStep extends OperationStep<DbObject> {
 
                     switch (column.getSqlType().getType()) {
                         case INT -> {
-                            IndexManager<Integer, Number> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+                            IndexManager<Integer, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
 
                             int indexValue = BinaryUtils.bytesToInteger(indexValueAsBytes, 0);
                             indexManager.removeIndex(indexValue);
                         }
                         case VARCHAR -> {
-                            IndexManager<String, Number> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+                            IndexManager<String, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
 
                             String indexValue = BinaryUtils.bytesToString(indexValueAsBytes, 0);
                             indexManager.removeIndex(indexValue);
@@ -76,12 +76,17 @@ public class DeleteOperationStep extends OperationStep<DbObject> {
                             return false;
                         }
                     }
+                } else if (isNonUniqueIndexed(table, column)) {
+                    if (!updateNonUniqueIndex(columnIndexManagerProvider, table, column, value.getData(), rowClusterId, null, false)) {
+                        return false;
+                    }
                 }
             }
         } catch (SchemaException | BTreeException | SerializationException | InterruptedTaskException |
                  StorageException | FileChannelException exception) {
-            databaseStorageManager.store(value.getTableId(), value.getData());
-            rollbackIndexes(columnIndexManagerProvider, table, rowClusterId, pointer.get(), value.getData(), true);
+            // The row is stored again, likely somewhere else, so the indexes are restored with its new location.
+            Pointer restoredPointer = databaseStorageManager.store(value.getTableId(), value.getData());
+            rollbackIndexes(columnIndexManagerProvider, table, rowClusterId, restoredPointer, value.getData(), true);
             throw exception;
         }
 
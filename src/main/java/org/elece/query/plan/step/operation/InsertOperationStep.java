@@ -48,24 +48,30 @@ public class InsertOperationStep extends OperationStep<byte[]> {
 
                 if (column.isUnique()) {
                     byte[] indexValueAsBytes = SerializationUtils.getValueOfField(table, column, value);
+                    Object secondaryIndexValue = columnIndexManagerProvider.getSecondaryIndexValue(table, column, rowClusterId, rowPointer, value);
 
                     switch (column.getSqlType().getType()) {
                         case INT -> {
-                            IndexManager<Integer, Number> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+                            IndexManager<Integer, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
 
                             int indexValue = BinaryUtils.bytesToInteger(indexValueAsBytes, 0);
-                            indexManager.addIndex(indexValue, rowClusterId);
+                            indexManager.addIndex(indexValue, secondaryIndexValue);
                         }
                         case VARCHAR -> {
-                            IndexManager<String, Number> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+                            IndexManager<String, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
 
                             String indexValue = BinaryUtils.bytesToString(indexValueAsBytes, 0);
-                            indexManager.addIndex(indexValue, rowClusterId);
+                            indexManager.addIndex(indexValue, secondaryIndexValue);
                         }
                         default -> {
                             return false;
                         }
                     }
+                } else if (isNonUniqueIndexed(table, column)) {
+                    Object secondaryIndexValue = columnIndexManagerProvider.getSecondaryIndexValue(table, column, rowClusterId, rowPointer, value);
+                    if (!updateNonUniqueIndex(columnIndexManagerProvider, table, column, value, rowClusterId, secondaryIndexValue, true)) {
+                        return false;
+                    }
                 }
             }
 
@@ -6,12 +6,15 @@ import org.elece.db.schema.model.Column;
 import org.elece.db.schema.model.Table;
 import org.elece.exception.*;
 import org.elece.index.ColumnIndexManagerProvider;
+import org.elece.index.CompositeKey;
 import org.elece.index.IndexManager;
 import org.elece.memory.Pointer;
 import org.elece.sql.parser.expression.internal.SqlType;
 import org.elece.utils.BinaryUtils;
 import org.elece.utils.SerializationUtils;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.elece.db.schema.model.Column.CLUSTER_ID;
@@ -54,16 +57,17 @@ public abstract class OperationStep<V> {
                 continue;
             }
 
+            Object secondaryIndexValue = columnIndexManagerProvider.getSecondaryIndexValue(table, column, rowClusterId, pointer, value);
             if (column.isUnique()) {
                 byte[] indexValueAsBytes = SerializationUtils.getValueOfField(table, column, value);
 
                 if (column.getSqlType().getType() == SqlType.Type.INT) {
-                    IndexManager<Integer, Number> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+                    IndexManager<Integer, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
 
                     int indexValue = BinaryUtils.bytesToInteger(indexValueAsBytes, 0);
                     if (revertIsDelete) {
                         if (indexManager.getIndex(indexValue).isEmpty()) {
-                            indexManager.addIndex(indexValue, rowClusterId);
+                            indexManager.addIndex(indexValue, secondaryIndexValue);
                         }
                     } else {
                         if (indexManager.getIndex(indexValue).isPresent()) {
@@ -72,12 +76,12 @@ public abstract class OperationStep<V> {
                     }
 
                 } else if (column.getSqlType().getType() == SqlType.Type.VARCHAR) {
-                    IndexManager<String, Number> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+                    IndexManager<String, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
 
                     String indexValue = BinaryUtils.bytesToString(indexValueAsBytes, 0);
                     if (revertIsDelete) {
                         if (indexManager.getIndex(indexValue).isEmpty()) {
-                            indexManager.addIndex(indexValue, rowClusterId);
+                            indexManager.addIndex(indexValue, secondaryIndexValue);
                         }
                     } else {
                         if (indexManager.getIndex(indexValue).isPresent()) {
@@ -85,7 +89,79 @@ public abstract class OperationStep<V> {
                         }
                     }
                 }
+            } else if (isNonUniqueIndexed(table, column)) {
+                updateNonUniqueIndex(columnIndexManagerProvider, table, column, value, rowClusterId, secondaryIndexValue, revertIsDelete);
             }
         }
     }
+
+    /**
+     * Whether the column has an index whose values may repeat, whose keys are built with
+     * {@link #getNonUniqueIndexKey(Table, Column, byte[], int)}.
+     */
+    protected static boolean isNonUniqueIndexed(Table table, Column column) {
+        return !column.isUnique() && SchemaSearcher.columnIsIndexed(table, column.getName());
+    }
+
+    /**
+     * Adds the entry of a row to the non-unique index of the column, or removes it. An entry that is already in the
+     * index is not added again, and removing an entry that is not in the index does nothing, so a rollback can apply
+     * it to every index whether or not the change it reverts reached that index.
+     *
+     * @param rowData             The serialized row the key is built from.
+     * @param secondaryIndexValue The value of the entry, only used when adding it.
+     * @param add                 Whether the entry is added or removed.
+     * @return False if the type of a key column can't be indexed, in which case the index is left unchanged.
+     */
+    protected static boolean updateNonUniqueIndex(ColumnIndexManagerProvider columnIndexManagerProvider, Table table,
+                                                  Column column, byte[] rowData, int rowClusterId,
+                                                  Object secondaryIndexValue, boolean add) throws SchemaException,
+                                                                                                  StorageException,
+                                                                                                  BTreeException,
+                                                                                                  SerializationException,
+                                                                                                  InterruptedTaskException,
+                                                                                                  FileChannelException {
+        Optional<CompositeKey> indexKey = getNonUniqueIndexKey(table, column, rowData, rowClusterId);
+        if (indexKey.isEmpty()) {
+            return false;
+        }
+
+        IndexManager<CompositeKey, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+        if (!add) {
+            indexManager.removeIndex(indexKey.get());
+            return true;
+        }
+        try {
+            indexManager.addIndex(indexKey.get(), secondaryIndexValue);
+        } catch (BTreeException exception) {
+            if (exception.getDbError() != DbError.DUPLICATE_INDEX_INSERTION_ERROR) {
+                throw exception;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the key under which a row is stored in the non-unique index of a column, which pairs the values of the key
+     * columns of the index, more than one if the index is composite, with the cluster id of the row.
+     *
+     * @param rowData The serialized row.
+     * @return The key, or empty if the type of a key column can't be indexed.
+     */
+    protected static Optional<CompositeKey> getNonUniqueIndexKey(Table table, Column column, byte[] rowData,
+                                                                 int rowClusterId) {
+        List<Comparable<?>> keyValues = new ArrayList<>();
+        for (Column indexColumn : SchemaSearcher.findIndexColumns(table, column)) {
+            byte[] indexValueAsBytes = SerializationUtils.getValueOfField(table, indexColumn, rowData);
+            if (indexColumn.getSqlType().getType() == SqlType.Type.INT) {
+                keyValues.add(BinaryUtils.bytesToInteger(indexValueAsBytes, 0));
+            } else if (indexColumn.getSqlType().getType() == SqlType.Type.VARCHAR) {
+                keyValues.add(BinaryUtils.bytesToString(indexValueAsBytes, 0));
+            } else {
+                return Optional.empty();
+            }
+        }
+        keyValues.add(rowClusterId);
+        return Optional.of(CompositeKey.of(keyValues));
+    }
 }
@@ -4,6 +4,7 @@ import org.elece.db.DatabaseStorageManager;
 import org.elece.db.DbObject;
 import org.elece.db.schema.SchemaSearcher;
 import org.elece.db.schema.model.Column;
+import org.elece.db.schema.model.Index;
 import org.elece.db.schema.model.Table;
 import org.elece.exception.*;
 import org.elece.index.ColumnIndexManagerProvider;
@@ -54,12 +55,11 @@ public class UpdateOperationStep extends OperationStep<DbObject> {
             return false;
         }
 
+        byte[] oldData = value.getData();
         byte[] newData = new byte[value.getDataSize()];
-        BinaryUtils.copyBytes(value.getData(), newData, 0, 0, value.getDataSize());
+        BinaryUtils.copyBytes(oldData, newData, 0, 0, value.getDataSize());
 
         Set<Column> updatedIndexedColumns = new HashSet<>();
-        Map<Column, byte[]> oldValues = new HashMap<>();
-        Map<Column, byte[]> newValues = new HashMap<>();
         for (Assignment assignment : assignments) {
             String columnName = assignment.getId();
             Optional<Column> possibleColumn = SchemaSearcher.findColumn(table, columnName);
@@ -75,62 +75,85 @@ public class UpdateOperationStep extends OperationStep<DbObject> {
             }
 
             if (!column.getName().equals(CLUSTER_ID) && column.isUnique() && column.getSqlType().getType() == SqlType.Type.INT) {
-                IndexManager<Integer, Integer> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+                IndexManager<Integer, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
                 Integer newValue = (Integer) serializerRegistry.getSerializer(column.getSqlType().getType()).deserialize(newValueBytes.get(), column);
-                byte[] oldValue = SerializationUtils.getValueOfField(table, column, value);
 
-                Optional<Integer> possibleExistingValue = indexManager.getIndex(newValue);
+                Optional<Object> possibleExistingValue = indexManager.getIndex(newValue);
                 if (possibleExistingValue.isPresent()) {
                     return false;
                 }
 
                 updatedIndexedColumns.add(column);
-                oldValues.put(column, oldValue);
-                newValues.put(column, newValueBytes.get());
+            } else if (isNonUniqueIndexed(table, column)) {
+                // Values may repeat, so the new value never conflicts with the ones already indexed.
+                updatedIndexedColumns.add(column);
             }
 
             SerializationUtils.setValueOfField(table, column, newValueBytes.get(), newData);
         }
 
+        // Composite and covering indexes store the values of their other key columns and of their included columns, so
+        // their entries change with these columns too.
+        for (Index index : table.getIndexes()) {
+            if (index.getAdditionalColumns().stream().noneMatch(this::isAssigned) &&
+                    index.getIncludedColumns().stream().noneMatch(this::isAssigned)) {
+                continue;
+            }
+            SchemaSearcher.findColumn(table, index.getColumnName()).ifPresent(updatedIndexedColumns::add);
+        }
+
+        int rowClusterId = getRowClusterId(table, value);
         try {
-            updateIndexes(updatedIndexedColumns, newData, oldValues, getRowClusterId(table, value));
+            updateIndexes(updatedIndexedColumns, oldData, newData, rowClusterId, pointer.get());
 
             databaseStorageManager.update(pointer.get(), newData);
         } catch (SchemaException | StorageException | DeserializationException | BTreeException |
                  SerializationException | InterruptedTaskException | FileChannelException exception) {
-            databaseStorageManager.update(pointer.get(), value.getData());
-            updateIndexes(updatedIndexedColumns, value.getData(), newValues, getRowClusterId(table, value));
+            databaseStorageManager.update(pointer.get(), oldData);
+            updateIndexes(updatedIndexedColumns, newData, oldData, rowClusterId, pointer.get());
             throw exception;
         }
 
         return true;
     }
 
-    private void updateIndexes(Set<Column> updatedIndexedColumns, byte[] newData, Map<Column, byte[]> oldValues,
-                               int rowClusterId) throws SchemaException, StorageException, DeserializationException,
+    /**
+     * Replaces the index entries of a row built from its old data with the ones built from its new data.
+     */
+    private void updateIndexes(Set<Column> updatedIndexedColumns, byte[] oldData, byte[] newData,
+                               int rowClusterId, Pointer rowPointer) throws SchemaException, StorageException, DeserializationException,
                                                         BTreeException, SerializationException,
                                                         InterruptedTaskException, FileChannelException {
         for (Column column : updatedIndexedColumns) {
-            if (column.getSqlType().getType() == SqlType.Type.INT) {
-                IndexManager<Integer, Integer> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+            Object secondaryIndexValue = columnIndexManagerProvider.getSecondaryIndexValue(table, column, rowClusterId, rowPointer, newData);
+            if (isNonUniqueIndexed(table, column)) {
+                if (updateNonUniqueIndex(columnIndexManagerProvider, table, column, oldData, rowClusterId, null, false)) {
+                    updateNonUniqueIndex(columnIndexManagerProvider, table, column, newData, rowClusterId, secondaryIndexValue, true);
+                }
+            } else if (column.getSqlType().getType() == SqlType.Type.INT) {
+                IndexManager<Integer, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
                 byte[] newValueBytes = SerializationUtils.getValueOfField(table, column, newData);
                 Integer newValue = (Integer) serializerRegistry.getSerializer(column.getSqlType().getType()).deserialize(newValueBytes, column);
-                Integer oldValue = (Integer) serializerRegistry.getSerializer(column.getSqlType().getType()).deserialize(oldValues.get(column), column);
+                Integer oldValue = (Integer) serializerRegistry.getSerializer(column.getSqlType().getType()).deserialize(SerializationUtils.getValueOfField(table, column, oldData), column);
 
                 indexManager.removeIndex(oldValue);
-                indexManager.addIndex(newValue, rowClusterId);
+                indexManager.addIndex(newValue, secondaryIndexValue);
             } else if (column.getSqlType().getType() == SqlType.Type.VARCHAR) {
-                IndexManager<String, Integer> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+                IndexManager<String, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
                 byte[] newValueBytes = SerializationUtils.getValueOfField(table, column, newData);
                 String newValue = (String) serializerRegistry.getSerializer(column.getSqlType().getType()).deserialize(newValueBytes, column);
-                String oldValue = (String) serializerRegistry.getSerializer(column.getSqlType().getType()).deserialize(oldValues.get(column), column);
+                String oldValue = (String) serializerRegistry.getSerializer(column.getSqlType().getType()).deserialize(SerializationUtils.getValueOfField(table, column, oldData), column);
 
                 indexManager.removeIndex(oldValue);
-                indexManager.addIndex(newValue, rowClusterId);
+                indexManager.addIndex(newValue, secondaryIndexValue);
             }
         }
     }
 
+    private boolean isAssigned(String columnName) {
+        return assignments.stream().anyMatch(assignment -> assignment.getId().equals(columnName));
+    }
+
     private Optional<byte[]> getNewValueBytes(Expression expression, Column column) throws SerializationException {
         if (!(expression instanceof ValueExpression<?> valueExpression)) {
             return Optional.empty();
@@ -7,11 +7,9 @@ import org.elece.db.schema.model.Table;
 import org.elece.exception.*;
 import org.elece.index.ColumnIndexManagerProvider;
 import org.elece.index.IndexManager;
-import org.elece.memory.Pointer;
 import org.elece.query.comparator.EqualityComparator;
 
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Represents an index scan operation based on an equality condition. This means that at most 1 row will be obtained.
@@ -19,19 +17,15 @@ import java.util.concurrent.atomic.AtomicReference;
  * @param <V> The type of column value being compared.
  */
 public class EqualityRowScanStep<V extends Comparable<V>> extends ScanStep {
-    private final DatabaseStorageManager databaseStorageManager;
-
-    private final IndexManager<Integer, Pointer> clusterIndexManager;
-    private final IndexManager<V, Integer> indexManager;
+    private final IndexedRowReader indexedRowReader;
+    private final IndexManager<V, Object> indexManager;
 
     private final EqualityComparator<V> equalityComparator;
 
     public EqualityRowScanStep(Table table, Column column, EqualityComparator<V> equalityComparator,
-                               ColumnIndexManagerProvider columnIndexManagerProvider,
+                               boolean indexOnly, ColumnIndexManagerProvider columnIndexManagerProvider,
                                DatabaseStorageManager databaseStorageManager) throws SchemaException, StorageException {
-        this.databaseStorageManager = databaseStorageManager;
-
-        this.clusterIndexManager = columnIndexManagerProvider.getClusterIndexManager(table);
+        this.indexedRowReader = new IndexedRowReader(table, column, indexOnly, columnIndexManagerProvider, databaseStorageManager);
         this.indexManager = columnIndexManagerProvider.getIndexManager(table, column);
         this.equalityComparator = equalityComparator;
     }
@@ -43,20 +37,9 @@ public class EqualityRowScanStep<V extends Comparable<V>> extends ScanStep {
         }
 
         try {
-            Optional<Integer> indexValue = indexManager.getIndex(equalityComparator.getBoundary().getValue());
+            Optional<Object> indexValue = indexManager.getIndex(equalityComparator.getBoundary().getValue());
             if (indexValue.isPresent()) {
-                Optional<Pointer> rowPointer = clusterIndexManager.getIndex(indexValue.get());
-                if (rowPointer.isEmpty()) {
-                    return Optional.empty();
-                }
-                AtomicReference<Optional<DbObject>> dbObjectResult = new AtomicReference<>(Optional.empty());
-                databaseStorageManager.select(rowPointer.get()).ifPresent(dbObject -> {
-                    if (dbObject.isAlive()) {
-                        dbObjectResult.set(Optional.of(dbObject));
-                    }
-                });
-
-                return dbObjectResult.get();
+                return indexedRowReader.read(indexValue.get());
             }
             return Optional.empty();
         } catch (BTreeException | StorageException | DbException | InterruptedTaskException |
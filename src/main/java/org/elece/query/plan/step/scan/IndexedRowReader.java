@@ -0,0 +1,97 @@
+package org.elece.query.plan.step.scan;
+
+import org.elece.db.DatabaseStorageManager;
+import org.elece.db.DbObject;
+import org.elece.db.schema.SchemaSearcher;
+import org.elece.db.schema.model.Column;
+import org.elece.db.schema.model.Table;
+import org.elece.exception.*;
+import org.elece.index.ColumnIndexManagerProvider;
+import org.elece.index.CoveringIndexValue;
+import org.elece.index.IndexManager;
+import org.elece.index.RowPointer;
+import org.elece.memory.Pointer;
+import org.elece.utils.BinaryUtils;
+import org.elece.utils.SerializationUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the row a secondary index value refers to. Depending on the secondary index strategy, the value is either the
+ * cluster id of the row, which is resolved through the cluster index, or a {@link RowPointer}, in which case the row is
+ * read directly from its location.
+ * <p>
+ * A row pointer is only trusted if the row found at its location is alive, belongs to the same table and has the same
+ * cluster id, otherwise the row was moved, and it is looked up through the cluster index instead.
+ * <p>
+ * When reading index-only, the values come from a covering index and the row is rebuilt from the covered values they
+ * hold, without reading it from disk. The other columns of the rebuilt row are left empty, so the query must not need
+ * them.
+ */
+public class IndexedRowReader {
+    private final DatabaseStorageManager databaseStorageManager;
+    private final IndexManager<Integer, Pointer> clusterIndexManager;
+    private final Table table;
+    private final Column clusterColumn;
+    private final List<Column> coveredColumns;
+
+    public IndexedRowReader(Table table, Column column, boolean indexOnly,
+                            ColumnIndexManagerProvider columnIndexManagerProvider,
+                            DatabaseStorageManager databaseStorageManager) throws SchemaException, StorageException {
+        this.databaseStorageManager = databaseStorageManager;
+        this.clusterIndexManager = columnIndexManagerProvider.getClusterIndexManager(table);
+        this.table = table;
+        this.clusterColumn = SchemaSearcher.findClusterColumn(table);
+        this.coveredColumns = indexOnly ? SchemaSearcher.findCoveredColumns(table, column) : List.of();
+    }
+
+    /**
+     * @param indexValue The value stored in a secondary index for a row.
+     * @return The row, if it is still alive.
+     */
+    public Optional<DbObject> read(Object indexValue) throws BTreeException, StorageException, DbException,
+                                                             InterruptedTaskException, FileChannelException {
+        if (indexValue instanceof CoveringIndexValue coveringIndexValue) {
+            if (!coveredColumns.isEmpty()) {
+                return Optional.of(rebuildRow(coveringIndexValue.coveredData()));
+            }
+            indexValue = coveringIndexValue.rowReference();
+        }
+
+        int clusterId;
+        if (indexValue instanceof RowPointer rowPointer) {
+            Optional<DbObject> dbObject = databaseStorageManager.select(rowPointer.pointer());
+            if (dbObject.isPresent() && dbObject.get().isAlive() && dbObject.get().getTableId() == table.getId() &&
+                    getClusterId(dbObject.get()) == rowPointer.clusterId()) {
+                return dbObject;
+            }
+            clusterId = rowPointer.clusterId();
+        } else {
+            clusterId = (Integer) indexValue;
+        }
+
+        Optional<Pointer> pointer = clusterIndexManager.getIndex(clusterId);
+        if (pointer.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<DbObject> dbObject = databaseStorageManager.select(pointer.get());
+        if (dbObject.isPresent() && dbObject.get().isAlive()) {
+            return dbObject;
+        }
+        return Optional.empty();
+    }
+
+    private DbObject rebuildRow(byte[] coveredData) throws DbException {
+        byte[] rowData = new byte[table.getRowSize()];
+        for (Column coveredColumn : coveredColumns) {
+            byte[] value = SerializationUtils.getValueOfField(coveredColumns, coveredColumn, coveredData);
+            SerializationUtils.setValueOfField(table, coveredColumn, value, rowData);
+        }
+        return DbObject.detached(table.getId(), rowData);
+    }
+
+    private int getClusterId(DbObject dbObject) {
+        return BinaryUtils.bytesToInteger(SerializationUtils.getValueOfField(table, clusterColumn, dbObject), 0);
+    }
+}
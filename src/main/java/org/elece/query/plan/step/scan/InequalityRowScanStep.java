@@ -6,9 +6,9 @@ import org.elece.db.schema.model.Column;
 import org.elece.db.schema.model.Table;
 import org.elece.exception.*;
 import org.elece.index.ColumnIndexManagerProvider;
+import org.elece.index.CompositeKey;
 import org.elece.index.IndexManager;
 import org.elece.index.LockableIterator;
-import org.elece.memory.Pointer;
 import org.elece.memory.tree.node.LeafTreeNode;
 import org.elece.query.comparator.EqualityComparator;
 import org.elece.sql.parser.expression.internal.SqlNumberValue;
@@ -17,7 +17,6 @@ import org.elece.sql.parser.expression.internal.SqlValue;
 
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Represents an index scan operation based on an inequality condition. This means that it's essentially a sequential table scan, but at most 1 row will be excluded.
@@ -25,27 +24,23 @@ import java.util.concurrent.atomic.AtomicReference;
  * @param <V> The type of column value being compared.
  */
 public class InequalityRowScanStep<V extends Comparable<V>> extends ScanStep {
-    private final DatabaseStorageManager databaseStorageManager;
-
-    private final IndexManager<Integer, Pointer> clusterIndexManager;
+    private final IndexedRowReader indexedRowReader;
 
     private final EqualityComparator<V> equalityComparator;
-    private final LockableIterator<LeafTreeNode.KeyValue<V, Integer>> sortedIterator;
+    private final LockableIterator<LeafTreeNode.KeyValue<V, Object>> sortedIterator;
     private final Column column;
 
     public InequalityRowScanStep(Table table, Column column, EqualityComparator<V> equalityComparator,
-                                 ColumnIndexManagerProvider columnIndexManagerProvider,
+                                 boolean indexOnly, ColumnIndexManagerProvider columnIndexManagerProvider,
                                  DatabaseStorageManager databaseStorageManager) throws SchemaException,
                                                                                        StorageException,
                                                                                        InterruptedTaskException,
                                                                                        FileChannelException {
-        this.databaseStorageManager = databaseStorageManager;
-
-        this.clusterIndexManager = columnIndexManagerProvider.getClusterIndexManager(table);
+        this.indexedRowReader = new IndexedRowReader(table, column, indexOnly, columnIndexManagerProvider, databaseStorageManager);
         this.equalityComparator = equalityComparator;
         this.column = column;
 
-        IndexManager<V, Integer> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+        IndexManager<V, Object> indexManager = columnIndexManagerProvider.getIndexManager(table, column);
         sortedIterator = indexManager.getSortedIterator();
     }
 
@@ -57,33 +52,22 @@ public class InequalityRowScanStep<V extends Comparable<V>> extends ScanStep {
 
         try {
             sortedIterator.lock();
-            if (!sortedIterator.hasNext()) {
-                finish();
-                return Optional.empty();
-            }
-            LeafTreeNode.KeyValue<V, Integer> keyValue;
-            while (Objects.nonNull(keyValue = sortedIterator.next())) {
-                SqlValue<V> keySqlValue = transformToSqlValue(keyValue.key());
+            LeafTreeNode.KeyValue<V, Object> keyValue = null;
+            while (sortedIterator.hasNext()) {
+                LeafTreeNode.KeyValue<V, Object> nextKeyValue = sortedIterator.next();
+                SqlValue<V> keySqlValue = transformToSqlValue(nextKeyValue.key());
 
                 if (Objects.isNull(keySqlValue) || equalityComparator.compare(keySqlValue)) {
+                    keyValue = nextKeyValue;
                     break;
                 }
             }
             if (Objects.isNull(keyValue)) {
+                // Every remaining key, if any, holds the excluded value.
+                finish();
                 return Optional.empty();
             }
-            Optional<Pointer> clusterPointer = clusterIndexManager.getIndex(keyValue.value());
-            if (clusterPointer.isEmpty()) {
-                return Optional.empty();
-            }
-            AtomicReference<Optional<DbObject>> dbObjectResult = new AtomicReference<>(Optional.empty());
-            databaseStorageManager.select(clusterPointer.get()).ifPresent(dbObject -> {
-                if (dbObject.isAlive()) {
-                    dbObjectResult.set(Optional.of(dbObject));
-                }
-            });
-
-            return dbObjectResult.get();
+            return indexedRowReader.read(keyValue.value());
         } catch (DbException | InterruptedTaskException | StorageException | FileChannelException | BTreeException e) {
             finish();
             return Optional.empty();
@@ -92,7 +76,9 @@ public class InequalityRowScanStep<V extends Comparable<V>> extends ScanStep {
         }
     }
 
-    private SqlValue<V> transformToSqlValue(V value) {
+    private SqlValue<V> transformToSqlValue(Object key) {
+        // Non-unique indexes pair the value with the cluster id of the row.
+        Object value = key instanceof CompositeKey compositeKey ? compositeKey.getValue(0) : key;
         return switch (column.getSqlType().getType()) {
             case INT -> (SqlValue<V>) new SqlNumberValue((Integer) value);
             case VARCHAR -> (SqlValue<V>) new SqlStringValue((String) value);
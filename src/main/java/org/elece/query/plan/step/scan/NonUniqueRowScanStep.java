@@ -0,0 +1,159 @@
+package org.elece.query.plan.step.scan;
+
+import org.elece.db.DatabaseStorageManager;
+import org.elece.db.DbObject;
+import org.elece.db.schema.model.Column;
+import org.elece.db.schema.model.Table;
+import org.elece.exception.*;
+import org.elece.index.ColumnIndexManagerProvider;
+import org.elece.index.CompositeKey;
+import org.elece.index.IndexManager;
+import org.elece.query.comparator.EqualityComparator;
+import org.elece.query.comparator.NumberRangeComparator;
+import org.elece.sql.parser.expression.internal.Order;
+import org.elece.sql.parser.expression.internal.SqlNumberValue;
+import org.elece.utils.BinaryUtils;
+import org.elece.utils.SerializationUtils;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Represents an index scan operation over an index whose values may repeat. Such an index stores every row under the
+ * pair of its value and its cluster id, so both equality and range conditions are scans between the lowest and the
+ * highest keys that start with the boundaries of the condition, and any number of rows can be obtained.
+ * <p>
+ * Over a composite index, the scan can also match the leading key columns to a prefix of values, and the key column
+ * that follows them to a range, since the rows with equal leading values are ordered by the next column.
+ */
+public class NonUniqueRowScanStep extends ScanStep {
+    private final IndexedRowReader indexedRowReader;
+    private final IndexManager<CompositeKey, Object> indexManager;
+
+    private final Table table;
+    private final Column rangeColumn;
+    private final Set<Integer> exclusions;
+    private final Iterator<Object> rowIterator;
+
+    public <V extends Comparable<V>> NonUniqueRowScanStep(Table table, Column column,
+                                                          EqualityComparator<V> equalityComparator, Order order,
+                                                          boolean indexOnly, ColumnIndexManagerProvider columnIndexManagerProvider,
+                                                          DatabaseStorageManager databaseStorageManager) throws
+                                                                                                         SchemaException,
+                                                                                                         StorageException,
+                                                                                                         BTreeException,
+                                                                                                         InterruptedTaskException,
+                                                                                                         FileChannelException {
+        this(table, column, List.of(equalityComparator.getBoundary().getValue()), null, null, order, indexOnly,
+                columnIndexManagerProvider, databaseStorageManager);
+    }
+
+    public NonUniqueRowScanStep(Table table, Column column, NumberRangeComparator rangeComparator, Order order,
+                                boolean indexOnly, ColumnIndexManagerProvider columnIndexManagerProvider,
+                                DatabaseStorageManager databaseStorageManager) throws SchemaException, StorageException,
+                                                                                      BTreeException,
+                                                                                      InterruptedTaskException,
+                                                                                      FileChannelException {
+        this(table, column, List.of(), column, rangeComparator, order, indexOnly, columnIndexManagerProvider,
+                databaseStorageManager);
+    }
+
+    /**
+     * @param column          The leading column of the index.
+     * @param prefix          The values the leading key columns must be equal to, in the order of the columns.
+     * @param rangeColumn     The key column that follows the prefix, or null if there is no range condition.
+     * @param rangeComparator The range of the key column that follows the prefix, or null if there is none.
+     */
+    public NonUniqueRowScanStep(Table table, Column column, List<Comparable<?>> prefix, Column rangeColumn,
+                                NumberRangeComparator rangeComparator, Order order, boolean indexOnly,
+                                ColumnIndexManagerProvider columnIndexManagerProvider,
+                                DatabaseStorageManager databaseStorageManager) throws SchemaException, StorageException,
+                                                                                      BTreeException,
+                                                                                      InterruptedTaskException,
+                                                                                      FileChannelException {
+        this.indexedRowReader = new IndexedRowReader(table, column, indexOnly, columnIndexManagerProvider, databaseStorageManager);
+        this.indexManager = columnIndexManagerProvider.getIndexManager(table, column);
+        this.table = table;
+        this.rangeColumn = rangeColumn;
+        this.exclusions = Objects.isNull(rangeComparator) ? Set.of() : rangeComparator.getExclusions();
+        this.rowIterator = createIterator(prefix, rangeComparator, order);
+    }
+
+    /**
+     * No stored key is equal to a prefix, so an excluded boundary is skipped by bounding the scan with the key that
+     * sorts after every key of the boundary, and an included one by bounding it with the key that sorts before them.
+     */
+    private Iterator<Object> createIterator(List<Comparable<?>> prefix, NumberRangeComparator rangeComparator,
+                                            Order order) throws StorageException, BTreeException,
+                                                                InterruptedTaskException, FileChannelException {
+        CompositeKey lowestKey = CompositeKey.lowest(prefix.toArray(Comparable<?>[]::new));
+        CompositeKey highestKey = CompositeKey.highest(prefix.toArray(Comparable<?>[]::new));
+        if (Objects.isNull(rangeComparator)) {
+            return indexManager.getBetweenRange(lowestKey, highestKey, Set.of(), order);
+        }
+
+        SqlNumberValue leftBoundary = rangeComparator.getLeftBoundary();
+        SqlNumberValue rightBoundary = rangeComparator.getRightBoundary();
+
+        boolean leftIsUnbounded = leftBoundary.compare(NumberRangeComparator.MIN_VALUE) == 0;
+        boolean rightIsUnbounded = rightBoundary.compare(NumberRangeComparator.MAX_VALUE) == 0;
+
+        Comparable<?>[] leftValues = append(prefix, leftBoundary.getValue());
+        Comparable<?>[] rightValues = append(prefix, rightBoundary.getValue());
+        CompositeKey leftKey = rangeComparator.getLeftInclusion() == NumberRangeComparator.InclusionType.INCLUDED ?
+                CompositeKey.lowest(leftValues) : CompositeKey.highest(leftValues);
+        CompositeKey rightKey = rangeComparator.getRightInclusion() == NumberRangeComparator.InclusionType.INCLUDED ?
+                CompositeKey.highest(rightValues) : CompositeKey.lowest(rightValues);
+
+        if (prefix.isEmpty() && leftIsUnbounded) {
+            return indexManager.getLessThan(rightKey, Set.of(), order);
+        } else if (prefix.isEmpty() && rightIsUnbounded) {
+            return indexManager.getGreaterThan(leftKey, Set.of(), order);
+        } else {
+            return indexManager.getBetweenRange(leftIsUnbounded ? lowestKey : leftKey,
+                    rightIsUnbounded ? highestKey : rightKey, Set.of(), order);
+        }
+    }
+
+    private static Comparable<?>[] append(List<Comparable<?>> prefix, Comparable<?> value) {
+        Comparable<?>[] values = prefix.toArray(new Comparable<?>[prefix.size() + 1]);
+        values[prefix.size()] = value;
+        return values;
+    }
+
+    @Override
+    public Optional<DbObject> next() {
+        if (isFinished()) {
+            return Optional.empty();
+        }
+
+        try {
+            while (rowIterator.hasNext()) {
+                Optional<DbObject> dbObject = indexedRowReader.read(rowIterator.next());
+                if (dbObject.isPresent() && !isExcluded(dbObject.get())) {
+                    return dbObject;
+                }
+            }
+            finish();
+            return Optional.empty();
+        } catch (BTreeException | StorageException | DbException | InterruptedTaskException |
+                 FileChannelException exception) {
+            finish();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The keys of the index are compared as a whole, so the values excluded from a range are checked on the rows.
+     */
+    private boolean isExcluded(DbObject dbObject) {
+        if (exclusions.isEmpty()) {
+            return false;
+        }
+        byte[] value = SerializationUtils.getValueOfField(table, rangeColumn, dbObject);
+        return exclusions.contains(BinaryUtils.bytesToInteger(value, 0));
+    }
+}
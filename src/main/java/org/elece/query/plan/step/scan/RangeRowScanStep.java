@@ -7,42 +7,36 @@ import org.elece.db.schema.model.Table;
 import org.elece.exception.*;
 import org.elece.index.ColumnIndexManagerProvider;
 import org.elece.index.IndexManager;
-import org.elece.memory.Pointer;
 import org.elece.query.comparator.NumberRangeComparator;
 import org.elece.sql.parser.expression.internal.Order;
 import org.elece.sql.parser.expression.internal.SqlNumberValue;
 
 import java.util.Iterator;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Represents an index scan operation based on a range condition. We can use the index tree to obtain an iterator consisting of elements within the range.
  */
 public class RangeRowScanStep extends ScanStep {
-    private final DatabaseStorageManager databaseStorageManager;
-
-    private final IndexManager<Integer, Pointer> clusterIndexManager;
-    private final IndexManager<Integer, Integer> indexManager;
+    private final IndexedRowReader indexedRowReader;
+    private final IndexManager<Integer, Object> indexManager;
 
     private final Order order;
-    private final Iterator<Integer> rangeIterator;
+    private final Iterator<Object> rangeIterator;
 
     public RangeRowScanStep(Table table, Column column, NumberRangeComparator rangeComparator, Order order,
-                            ColumnIndexManagerProvider columnIndexManagerProvider,
+                            boolean indexOnly, ColumnIndexManagerProvider columnIndexManagerProvider,
                             DatabaseStorageManager databaseStorageManager) throws SchemaException, StorageException,
                                                                                   BTreeException,
                                                                                   InterruptedTaskException,
                                                                                   FileChannelException {
-        this.databaseStorageManager = databaseStorageManager;
-
-        this.clusterIndexManager = columnIndexManagerProvider.getClusterIndexManager(table);
+        this.indexedRowReader = new IndexedRowReader(table, column, indexOnly, columnIndexManagerProvider, databaseStorageManager);
         this.indexManager = columnIndexManagerProvider.getIndexManager(table, column);
         this.order = order;
         this.rangeIterator = createIterator(rangeComparator);
     }
 
-    private Iterator<Integer> createIterator(NumberRangeComparator rangeComparator) throws StorageException,
+    private Iterator<Object> createIterator(NumberRangeComparator rangeComparator) throws StorageException,
                                                                                            BTreeException,
                                                                                            InterruptedTaskException,
                                                                                            FileChannelException {
@@ -83,20 +77,7 @@ public class RangeRowScanStep extends ScanStep {
                 finish();
                 return Optional.empty();
             }
-            Integer next = rangeIterator.next();
-            Optional<Pointer> index = clusterIndexManager.getIndex(next);
-            if (index.isEmpty()) {
-                return Optional.empty();
-            }
-
-            AtomicReference<Optional<DbObject>> dbObjectResult = new AtomicReference<>(Optional.empty());
-            databaseStorageManager.select(index.get()).ifPresent(dbObject -> {
-                if (dbObject.isAlive()) {
-                    dbObjectResult.set(Optional.of(dbObject));
-                }
-            });
-
-            return dbObjectResult.get();
+            return indexedRowReader.read(rangeIterator.next());
         } catch (BTreeException | StorageException | DbException | InterruptedTaskException |
                  FileChannelException exception) {
             finish();
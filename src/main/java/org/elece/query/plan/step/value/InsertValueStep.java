@@ -4,8 +4,6 @@ import org.elece.db.schema.model.Column;
 import org.elece.db.schema.model.Table;
 import org.elece.exception.*;
 import org.elece.index.ColumnIndexManagerProvider;
-import org.elece.index.IndexManager;
-import org.elece.memory.Pointer;
 import org.elece.serializer.SerializerRegistry;
 import org.elece.sql.ExpressionUtils;
 import org.elece.sql.parser.expression.Expression;
@@ -20,7 +18,7 @@ import java.util.Optional;
 
 /**
  * Represents the preparation of a row to be stored in disk. It consists in the serialization of all values into a single byte array.
- * We also need to obtain the current cluster index id for the row being processed.
+ * We also need to obtain the cluster index id for the row being processed, which is taken from the table's cluster id sequence.
  */
 public class InsertValueStep extends ValueStep {
     private final Table table;
@@ -52,9 +50,8 @@ public class InsertValueStep extends ValueStep {
             literalValues.add(ExpressionUtils.resolveLiteralExpression(expression));
         }
 
-        IndexManager<Integer, Pointer> clusterIndexManager = columnIndexManagerProvider.getClusterIndexManager(table);
-        Optional<Integer> clusterId = clusterIndexManager.getLastIndex();
-        literalValues.addFirst(new SqlNumberValue(clusterId.orElse(0) + 1));
+        int clusterId = columnIndexManagerProvider.getClusterIdSequence(table).next();
+        literalValues.addFirst(new SqlNumberValue(clusterId));
 
         List<Column> columns = table.getColumns();
         for (int columnId = 0; columnId < columns.size(); columnId++) {
@@ -21,6 +21,11 @@ public class IntegerSerializer implements Serializer<Integer> {
         return BinaryUtils.bytesToInteger(bytes, 0);
     }
 
+    @Override
+    public int compare(byte[] bytes, int beginning, Integer value, Column column) {
+        return Integer.compare(BinaryUtils.bytesToInteger(bytes, beginning), value);
+    }
+
     @Override
     public int size(Column column) {
         return SqlType.intType.getSize();
@@ -15,6 +15,14 @@ public interface Serializer<T extends Comparable<T>> {
         return column.getSqlType().getSize();
     }
 
+    /**
+     * Compares the value serialized in the given bytes with another value. Serializers whose binary form can be
+     * compared without building the object should override this.
+     */
+    default int compare(byte[] bytes, int beginning, T value, Column column) {
+        return new BinaryObjectSerializer<>(bytes, beginning, this, column).asObject().compareTo(value);
+    }
+
     default BinaryObjectFactory<T> getBinaryObjectFactory(Column column) {
         Serializer<T> serializer = this;
         return new BinaryObjectFactory<T>() {
@@ -33,6 +41,11 @@ public interface Serializer<T extends Comparable<T>> {
             public int size() {
                 return serializer.size(column);
             }
+
+            @Override
+            public int compare(byte[] bytes, int beginning, T value) {
+                return serializer.compare(bytes, beginning, value, column);
+            }
         };
     }
 }
@@ -10,16 +10,16 @@ import org.elece.exception.DbError;
 import org.elece.sql.parser.expression.internal.SqlConstraint;
 import org.elece.sql.parser.statement.CreateIndexStatement;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
+import static org.elece.db.schema.model.Column.CLUSTER_ID;
 
 public class CreateIndexAnalyzerCommand implements AnalyzerCommand<CreateIndexStatement> {
     @Override
     public void analyze(SchemaManager schemaManager, CreateIndexStatement statement) throws AnalyzerException {
-        if (!statement.getUnique()) {
-            throw new AnalyzerException(DbError.INDEX_NOT_UNIQUE_ERROR, String.format("Index %s is not unique", statement.getName()));
-        }
-
         Optional<Table> optionalTable = SchemaSearcher.findTable(schemaManager.getSchema(), statement.getTable());
         if (optionalTable.isEmpty()) {
             throw new AnalyzerException(DbError.TABLE_NOT_FOUND_ERROR, String.format("Table %s is not present in the database schema", statement.getTable()));
@@ -42,9 +42,47 @@ public class CreateIndexAnalyzerCommand implements AnalyzerCommand<CreateIndexSt
             throw new AnalyzerException(DbError.COLUMN_NOT_FOUND_ERROR, String.format("Column %s is not present in the table %s", statement.getColumn(), statement.getTable()));
         }
 
+        // Only the types that can be unique have an order usable by an index, whether the index is unique or not.
         Column column = optionalColumn.get();
         if (!column.getSqlType().getConstraints().contains(SqlConstraint.UNIQUE)) {
-            throw new AnalyzerException(DbError.COLUMN_NOT_UNIQUE_ERROR, String.format("Column %s of the table %s is not unique", column.getName(), table.getName()));
+            if (statement.getUnique()) {
+                throw new AnalyzerException(DbError.COLUMN_NOT_UNIQUE_ERROR, String.format("Column %s of the table %s is not unique", column.getName(), table.getName()));
+            }
+            throw new AnalyzerException(DbError.INCOMPATIBLE_TYPE_FOR_INDEX_ERROR, String.format("Type %s used for column %s is not usable for index", column.getSqlType().getType(), column.getName()));
+        }
+
+        // Hash indexes only answer equality lookups of a single key, so they can only hold unique keys of a single column.
+        if (statement.getType() == Index.Type.HASH && (!statement.getUnique() || statement.getColumns().size() > 1)) {
+            throw new AnalyzerException(DbError.INVALID_HASH_INDEX_ERROR, String.format("Hash index %s must be unique and have a single column", statement.getName()));
+        }
+
+        // Composite indexes are keyed by the cluster id after their columns, so like non-unique indexes, they can't be unique.
+        Set<String> indexColumns = new HashSet<>();
+        indexColumns.add(column.getName());
+        for (String additionalColumnName : statement.getColumns().subList(1, statement.getColumns().size())) {
+            if (statement.getUnique() || column.isUnique()) {
+                throw new AnalyzerException(DbError.INVALID_COMPOSITE_INDEX_ERROR, String.format("Composite index %s can't be unique", statement.getName()));
+            }
+            Optional<Column> additionalColumn = SchemaSearcher.findColumn(table, additionalColumnName);
+            if (additionalColumn.isEmpty()) {
+                throw new AnalyzerException(DbError.COLUMN_NOT_FOUND_ERROR, String.format("Column %s is not present in the table %s", additionalColumnName, statement.getTable()));
+            }
+            if (CLUSTER_ID.equals(additionalColumnName) || !indexColumns.add(additionalColumnName)) {
+                throw new AnalyzerException(DbError.INVALID_COMPOSITE_INDEX_ERROR, String.format("Column %s can't be part of the index %s", additionalColumnName, statement.getName()));
+            }
+            if (!additionalColumn.get().getSqlType().getConstraints().contains(SqlConstraint.UNIQUE)) {
+                throw new AnalyzerException(DbError.INCOMPATIBLE_TYPE_FOR_INDEX_ERROR, String.format("Type %s used for column %s is not usable for index", additionalColumn.get().getSqlType().getType(), additionalColumnName));
+            }
+        }
+
+        Set<String> includedColumns = new HashSet<>();
+        for (String includedColumn : statement.getIncludedColumns()) {
+            if (SchemaSearcher.findColumn(table, includedColumn).isEmpty()) {
+                throw new AnalyzerException(DbError.COLUMN_NOT_FOUND_ERROR, String.format("Column %s is not present in the table %s", includedColumn, statement.getTable()));
+            }
+            if (CLUSTER_ID.equals(includedColumn) || indexColumns.contains(includedColumn) || !includedColumns.add(includedColumn)) {
+                throw new AnalyzerException(DbError.INVALID_INCLUDED_COLUMN_ERROR, String.format("Column %s can't be included in the index %s", includedColumn, statement.getName()));
+            }
         }
     }
 }
@@ -1,5 +1,6 @@
 package org.elece.sql.parser.command;
 
+import org.elece.db.schema.model.Index;
 import org.elece.exception.DbError;
 import org.elece.exception.ParserException;
 import org.elece.exception.TokenizerException;
@@ -12,8 +13,8 @@ import org.elece.sql.token.TokenWrapper;
 import org.elece.sql.token.model.KeywordToken;
 import org.elece.sql.token.model.Token;
 import org.elece.sql.token.model.type.Keyword;
-import org.elece.sql.token.model.type.Symbol;
 
+import java.util.List;
 import java.util.Set;
 
 public class CreateKeywordCommand extends AbstractKeywordCommand {
@@ -41,11 +42,20 @@ public class CreateKeywordCommand extends AbstractKeywordCommand {
                 expectKeywordToken(Keyword.ON);
                 String table = parseIdentifier();
 
-                expectSymbolToken(Symbol.LEFT_PARENTHESIS);
-                String column = parseIdentifier();
-                expectSymbolToken(Symbol.RIGHT_PARENTHESIS);
+                List<String> columns = parseIdentifierList();
 
-                yield new CreateIndexStatement(name, table, column, isUnique);
+                Index.Type type = Index.Type.BTREE;
+                if (expectOptionalKeywordToken(Keyword.USING)) {
+                    expectKeywordToken(Keyword.HASH);
+                    type = Index.Type.HASH;
+                }
+
+                List<String> includedColumns = List.of();
+                if (expectOptionalKeywordToken(Keyword.INCLUDE)) {
+                    includedColumns = parseIdentifierList();
+                }
+
+                yield new CreateIndexStatement(name, table, columns, isUnique, includedColumns, type);
             }
             default -> throw new ParserException(DbError.UNSPECIFIED_ERROR, "Unknown create query");
         };
@@ -1,17 +1,26 @@
 package org.elece.sql.parser.statement;
 
+import org.elece.db.schema.model.Index;
+
+import java.util.List;
+
 public class CreateIndexStatement extends CreateStatement {
     private final String name;
     private final String table;
-    private final String column;
+    private final List<String> columns;
     private final boolean unique;
+    private final List<String> includedColumns;
+    private final Index.Type type;
 
-    public CreateIndexStatement(String name, String table, String column, boolean unique) {
+    public CreateIndexStatement(String name, String table, List<String> columns, boolean unique,
+                                List<String> includedColumns, Index.Type type) {
         super(StatementType.CREATE_INDEX);
         this.name = name;
         this.table = table;
-        this.column = column;
+        this.columns = columns;
         this.unique = unique;
+        this.includedColumns = includedColumns;
+        this.type = type;
     }
 
     public String getName() {
@@ -22,11 +31,29 @@ public class CreateIndexStatement extends CreateStatement {
         return table;
     }
 
+    /**
+     * @return The leading column of the index.
+     */
     public String getColumn() {
-        return column;
+        return columns.getFirst();
+    }
+
+    /**
+     * @return The columns of the key of the index, more than one if the index is composite.
+     */
+    public List<String> getColumns() {
+        return columns;
     }
 
     public boolean getUnique() {
         return unique;
     }
+
+    public List<String> getIncludedColumns() {
+        return includedColumns;
+    }
+
+    public Index.Type getType() {
+        return type;
+    }
 }
@@ -30,6 +30,9 @@ public enum Keyword implements IOperator {
     ON(false, false),
     DESC(false, false),
     ASC(false, false),
+    INCLUDE(false, false),
+    USING(false, false),
+    HASH(false, false),
     NONE(false, false);
 
     private static final Keyword[] KEYWORDS = values();
@@ -1,16 +1,27 @@
 package org.elece.storage.file;
 
 import org.elece.config.DbConfig;
+import org.elece.storage.wal.WalFileHandlerFactory;
+import org.elece.storage.wal.WriteAheadLog;
 
 import java.util.Objects;
 
 public class DefaultFileHandlerPoolFactory implements FileHandlerPoolFactory {
     private final DbConfig dbConfig;
+    private final WriteAheadLog writeAheadLog;
 
     private FileHandlerPool fileHandlerPool;
 
     public DefaultFileHandlerPoolFactory(DbConfig dbConfig) {
+        this(dbConfig, null);
+    }
+
+    /**
+     * @param writeAheadLog when not null, every channel handed out by the pool logs its changes to it.
+     */
+    public DefaultFileHandlerPoolFactory(DbConfig dbConfig, WriteAheadLog writeAheadLog) {
         this.dbConfig = dbConfig;
+        this.writeAheadLog = writeAheadLog;
     }
 
     @Override
@@ -19,10 +30,20 @@ public class DefaultFileHandlerPoolFactory implements FileHandlerPoolFactory {
             return fileHandlerPool;
         }
 
+        FileHandlerFactory fileHandlerFactory;
+        if (dbConfig.getFileChannelStrategy() == DbConfig.FileChannelStrategy.MAPPED) {
+            fileHandlerFactory = MappedFileHandlerFactory.getInstance();
+        } else {
+            fileHandlerFactory = DefaultFileHandlerFactory.getInstance(this.dbConfig.getFileHandlerPoolThreads());
+        }
+        if (Objects.nonNull(writeAheadLog)) {
+            fileHandlerFactory = new WalFileHandlerFactory(fileHandlerFactory, writeAheadLog);
+        }
+
         if (dbConfig.getFileHandlerStrategy() == DbConfig.FileHandlerStrategy.UNLIMITED) {
-            fileHandlerPool = new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(this.dbConfig.getFileHandlerPoolThreads()), dbConfig);
+            fileHandlerPool = new UnrestrictedFileHandlerPool(fileHandlerFactory, dbConfig);
         } else {
-            fileHandlerPool = new RestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(this.dbConfig.getFileHandlerPoolThreads()), this.dbConfig);
+            fileHandlerPool = new RestrictedFileHandlerPool(fileHandlerFactory, this.dbConfig);
         }
 
         return fileHandlerPool;
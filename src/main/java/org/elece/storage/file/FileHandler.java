@@ -27,6 +27,10 @@ public class FileHandler {
 
     }
 
+    public FileHandler(FileChannel fileChannel) {
+        this.fileChannel = fileChannel;
+    }
+
     public synchronized void incrementUsage() {
         if (this.isClosed) {
             throw new IllegalStateException("File channel has been closed or is closing.");
@@ -0,0 +1,314 @@
+package org.elece.storage.file;
+
+import org.elece.exception.DbError;
+import org.elece.exception.FileChannelException;
+import org.elece.exception.StorageException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * File channel implementation that serves reads and writes from memory mapped regions of the file.
+ * <p>
+ * The file is split into regions of {@link #REGION_SIZE} bytes, each one backed by its own {@link MappedByteBuffer},
+ * since a single mapping cannot address more than {@link Integer#MAX_VALUE} bytes. The last region is mapped with
+ * spare capacity that doubles every time a write or an allocation goes past it, up to a whole region, so growing the
+ * file one page at a time only creates a logarithmic number of mappings. Replaced mappings are released once they are
+ * garbage collected. Mapping past the end of the file extends it on disk, so the channel tracks the size of the file
+ * itself, reported by {@link #size()} the same way as with {@link AsyncFileChannel}, and truncates the spare capacity
+ * on {@link #close()}. While the channel is open, that size is also kept in a file next to it with the
+ * {@link #SIZE_FILE_SUFFIX} suffix, so a file that was not closed is trimmed back to its size when it is opened again,
+ * once the trimmed tail is checked to only hold zeroes.
+ * <p>
+ * Reads and writes are plain memory copies and complete synchronously; the async variants return already completed
+ * futures so callers relying on the {@link FileChannel} contract keep working. Regular accesses only take the read
+ * side of a read-write lock, the write side is reserved for remapping.
+ */
+public class MappedFileChannel implements FileChannel {
+    static final long REGION_SIZE = 1L << 30;
+    static final long MIN_REGION_CAPACITY = 1L << 16;
+    static final String SIZE_FILE_SUFFIX = ".size";
+
+    private final java.nio.channels.FileChannel fileChannel;
+    private final Path sizePath;
+    private final java.nio.channels.FileChannel sizeChannel;
+    private final ReadWriteLock lock;
+    private MappedByteBuffer[] regions;
+    private long size;
+
+    public MappedFileChannel(Path path) throws StorageException {
+        try {
+            this.fileChannel = java.nio.channels.FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            this.sizePath = path.resolveSibling(path.getFileName() + SIZE_FILE_SUFFIX);
+            this.sizeChannel = java.nio.channels.FileChannel.open(sizePath, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            this.lock = new ReentrantReadWriteLock();
+            this.regions = new MappedByteBuffer[0];
+            this.size = 0;
+            remap(trimSpareCapacity());
+        } catch (IOException exception) {
+            throw new StorageException(DbError.CHANNEL_OPENING_ERROR, exception.getMessage());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> writeAsync(long position, byte[] bytes) throws FileChannelException,
+                                                                                     StorageException {
+        return CompletableFuture.completedFuture(write(position, bytes));
+    }
+
+    @Override
+    public Integer write(long position, byte[] bytes) throws FileChannelException, StorageException {
+        validateChannelState();
+        ensureSize(position + bytes.length, DbError.FILE_WRITE_ERROR);
+
+        lock.readLock().lock();
+        try {
+            int written = 0;
+            while (written < bytes.length) {
+                long current = position + written;
+                MappedByteBuffer region = regions[regionIndex(current)];
+                int offset = regionOffset(current);
+                int length = Math.min(bytes.length - written, region.capacity() - offset);
+                region.put(offset, bytes, written, length);
+                written += length;
+            }
+            return written;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<byte[]> readAsync(long position, int size) throws FileChannelException {
+        return CompletableFuture.completedFuture(read(position, size));
+    }
+
+    @Override
+    public byte[] read(long position, int size) throws FileChannelException {
+        validateChannelState();
+
+        lock.readLock().lock();
+        try {
+            if (position >= this.size) {
+                return new byte[0];
+            }
+
+            byte[] bytes = new byte[(int) Math.min(size, this.size - position)];
+            int read = 0;
+            while (read < bytes.length) {
+                long current = position + read;
+                MappedByteBuffer region = regions[regionIndex(current)];
+                int offset = regionOffset(current);
+                int length = Math.min(bytes.length - read, region.capacity() - offset);
+                region.get(offset, bytes, read, length);
+                read += length;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Long> allocateAsync(long position, int size) throws FileChannelException,
+                                                                                 StorageException {
+        return CompletableFuture.completedFuture(allocate(position, size));
+    }
+
+    @Override
+    public CompletableFuture<Long> allocateAsync(int size) throws FileChannelException, StorageException {
+        return CompletableFuture.completedFuture(allocate(size));
+    }
+
+    @Override
+    public Long allocate(long position, int size) throws FileChannelException, StorageException {
+        validateChannelState();
+
+        lock.writeLock().lock();
+        try {
+            long previousSize = this.size;
+            byte[] tail = read(position, (int) (previousSize - position));
+            remap(previousSize + size);
+            write(position + size, tail);
+            write(position, new byte[size]);
+            return position;
+        } catch (IOException exception) {
+            throw new StorageException(DbError.FAILED_TO_ALLOCATE_BYTES_ERROR, "Failed to allocate bytes in file");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Long allocate(int size) throws FileChannelException, StorageException {
+        validateChannelState();
+
+        lock.writeLock().lock();
+        try {
+            long previousSize = this.size;
+            remap(previousSize + size);
+            return previousSize;
+        } catch (IOException exception) {
+            throw new StorageException(DbError.FAILED_TO_ALLOCATE_BYTES_ERROR, "Failed to allocate bytes in file");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Long size() throws FileChannelException {
+        validateChannelState();
+
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws FileChannelException {
+        validateChannelState();
+
+        lock.writeLock().lock();
+        try {
+            for (MappedByteBuffer region : regions) {
+                region.force();
+            }
+            regions = new MappedByteBuffer[0];
+            fileChannel.truncate(size);
+            fileChannel.close();
+            sizeChannel.close();
+            Files.deleteIfExists(sizePath);
+        } catch (IOException exception) {
+            throw new FileChannelException(DbError.FAIL_TO_CLOSE_CHANNEL_ERROR, exception.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean supportsAsync() {
+        return false;
+    }
+
+    private void ensureSize(long requiredSize, DbError dbError) throws StorageException {
+        lock.readLock().lock();
+        try {
+            if (requiredSize <= size) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (requiredSize > size) {
+                remap(requiredSize);
+            }
+        } catch (IOException exception) {
+            throw new StorageException(dbError, "Failed to grow memory mapped file");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the size of a file that was not closed, which is the size kept in the size file, and truncates the zeroed
+     * spare capacity that was mapped past it. If the size file is missing, or anything but zeroes follows the size it
+     * holds, the whole file is kept.
+     *
+     * @return The size of the file.
+     */
+    private long trimSpareCapacity() throws IOException {
+        long fileSize = fileChannel.size();
+        if (sizeChannel.size() < Long.BYTES) {
+            return fileSize;
+        }
+
+        ByteBuffer sizeBuffer = ByteBuffer.allocate(Long.BYTES);
+        sizeChannel.read(sizeBuffer, 0);
+        long loggedSize = sizeBuffer.getLong(0);
+        if (loggedSize < 0 || loggedSize >= fileSize || !isZeroed(loggedSize, fileSize)) {
+            return fileSize;
+        }
+        fileChannel.truncate(loggedSize);
+        return loggedSize;
+    }
+
+    private boolean isZeroed(long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(MIN_REGION_CAPACITY, to - from));
+        long position = from;
+        while (position < to) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+            int read = fileChannel.read(buffer, position);
+            if (read <= 0) {
+                return false;
+            }
+            for (int index = 0; index < read; index++) {
+                if (buffer.get(index) != 0) {
+                    return false;
+                }
+            }
+            position += read;
+        }
+        return true;
+    }
+
+    /**
+     * Maps the file up to the new size. Regions whose mapping already covers the new size are kept. Every other region
+     * but the last is mapped whole, and the last one is mapped with at least twice its previous capacity. Mapping in
+     * read-write mode past the end of the file grows the file to the mapped capacity.
+     */
+    private void remap(long newSize) throws IOException {
+        int regionCount = (int) ((newSize + REGION_SIZE - 1) / REGION_SIZE);
+        MappedByteBuffer[] newRegions = Arrays.copyOf(regions, Math.max(regionCount, regions.length));
+        for (int index = 0; index < regionCount; index++) {
+            long regionStart = index * REGION_SIZE;
+            long regionLength = Math.min(REGION_SIZE, newSize - regionStart);
+            MappedByteBuffer region = newRegions[index];
+            if (Objects.isNull(region) || region.capacity() < regionLength) {
+                long capacity = index < regionCount - 1 ? REGION_SIZE : regionCapacity(region, regionLength);
+                newRegions[index] = fileChannel.map(java.nio.channels.FileChannel.MapMode.READ_WRITE, regionStart, capacity);
+            }
+        }
+        regions = newRegions;
+        if (newSize > size) {
+            size = newSize;
+            sizeChannel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, size), 0);
+        }
+    }
+
+    private static long regionCapacity(MappedByteBuffer region, long regionLength) {
+        long capacity = Objects.isNull(region) ? MIN_REGION_CAPACITY : 2L * region.capacity();
+        while (capacity < regionLength) {
+            capacity *= 2;
+        }
+        return Math.min(REGION_SIZE, capacity);
+    }
+
+    private static int regionIndex(long position) {
+        return (int) (position / REGION_SIZE);
+    }
+
+    private static int regionOffset(long position) {
+        return (int) (position % REGION_SIZE);
+    }
+
+    private void validateChannelState() throws FileChannelException {
+        if (!fileChannel.isOpen()) {
+            throw new FileChannelException(DbError.CHANNEL_CLOSED_ERROR, "File channel is closed");
+        }
+    }
+}
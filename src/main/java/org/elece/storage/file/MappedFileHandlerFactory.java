@@ -0,0 +1,26 @@
+package org.elece.storage.file;
+
+import org.elece.exception.StorageException;
+
+import java.nio.file.Path;
+
+/**
+ * Creates file handlers backed by a {@link MappedFileChannel}. Since memory mapped channels do not rely on an
+ * executor for their operations, a single stateless instance is shared.
+ */
+public class MappedFileHandlerFactory implements FileHandlerFactory {
+    private static final MappedFileHandlerFactory factoryInstance = new MappedFileHandlerFactory();
+
+    private MappedFileHandlerFactory() {
+        // private constructor
+    }
+
+    public static MappedFileHandlerFactory getInstance() {
+        return factoryInstance;
+    }
+
+    @Override
+    public FileHandler getFileHandler(Path path) throws StorageException {
+        return new FileHandler(new MappedFileChannel(path));
+    }
+}
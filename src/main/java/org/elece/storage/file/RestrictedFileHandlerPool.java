@@ -21,10 +21,10 @@ import java.util.concurrent.Semaphore;
 public class RestrictedFileHandlerPool implements FileHandlerPool {
     private final Map<String, FileHandler> fileHandlers;
     private final Semaphore semaphore;
-    private final DefaultFileHandlerFactory fileHandlerFactory;
+    private final FileHandlerFactory fileHandlerFactory;
     private final DbConfig dbConfig;
 
-    public RestrictedFileHandlerPool(DefaultFileHandlerFactory fileHandlerFactory, DbConfig dbConfig) {
+    public RestrictedFileHandlerPool(FileHandlerFactory fileHandlerFactory, DbConfig dbConfig) {
         this.fileHandlerFactory = fileHandlerFactory;
         fileHandlers = new ConcurrentHashMap<>(dbConfig.getFileDescriptorAcquisitionSize());
         semaphore = new Semaphore(dbConfig.getFileDescriptorAcquisitionSize());
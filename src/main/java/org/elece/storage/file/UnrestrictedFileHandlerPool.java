@@ -18,10 +18,10 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class UnrestrictedFileHandlerPool implements FileHandlerPool {
     private final Map<String, FileHandler> fileHandlers;
-    private final DefaultFileHandlerFactory fileHandlerFactory;
+    private final FileHandlerFactory fileHandlerFactory;
     private final DbConfig dbConfig;
 
-    public UnrestrictedFileHandlerPool(DefaultFileHandlerFactory fileHandlerFactory, DbConfig dbConfig) {
+    public UnrestrictedFileHandlerPool(FileHandlerFactory fileHandlerFactory, DbConfig dbConfig) {
         this.fileHandlerFactory = fileHandlerFactory;
         this.fileHandlers = new ConcurrentHashMap<>();
         this.dbConfig = dbConfig;
@@ -15,9 +15,6 @@ import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
-import static org.elece.memory.tree.node.AbstractTreeNode.TYPE_INTERNAL_NODE_BIT;
-import static org.elece.memory.tree.node.AbstractTreeNode.TYPE_LEAF_NODE_BIT;
-
 public abstract class AbstractIndexStorageManager implements IndexStorageManager {
     public static final String INDEX_FILE_NAME = "index";
 
@@ -77,6 +74,34 @@ public abstract class AbstractIndexStorageManager implements IndexStorageManager
     protected abstract IndexHeaderManager.Location getIndexBeginningInChunk(int indexId, int chunk) throws
                                                                                                     StorageException;
 
+    /**
+     * Retrieves the identifier of the free node list that the nodes of an index are taken from and returned to. Indexes
+     * can only share a list if a node of one of them can be used by the others.
+     *
+     * @param indexId The identifier of the index.
+     * @return The identifier of the free node list in the index header.
+     */
+    protected int getFreeNodeListId(int indexId) {
+        return indexId;
+    }
+
+    /**
+     * Adds every node of a newly allocated region but the first one, which is being handed out, to the free node list
+     * of the index, so the following allocations take them without reading the region.
+     *
+     * @param indexId      The identifier of the index.
+     * @param chunk        The chunk of the region.
+     * @param regionOffset The position of the region in the chunk file.
+     * @param keyValueSize The size of the keys and values of the index.
+     */
+    protected void addFreeNodesOfRegion(int indexId, int chunk, long regionOffset,
+                                        KeyValueSize keyValueSize) throws StorageException {
+        int binarySpace = this.getBinarySpace(keyValueSize);
+        for (int node = 1; node < dbConfig.getBTreeGrowthNodeAllocationCount(); node++) {
+            this.indexHeaderManager.addFreeNode(this.getFreeNodeListId(indexId), new IndexHeaderManager.Location(chunk, regionOffset + (long) node * binarySpace));
+        }
+    }
+
     @Override
     public CompletableFuture<Optional<NodeData>> getRoot(int indexId, KeyValueSize keyValueSize) throws
                                                                                                  StorageException,
@@ -152,7 +177,15 @@ public abstract class AbstractIndexStorageManager implements IndexStorageManager
                                                                                       FileChannelException,
                                                                                       InterruptedTaskException {
         CompletableFuture<NodeData> output = new CompletableFuture<>();
-        Pointer pointer = this.getAllocatedSpaceForNewNode(indexId, 0, keyValueSize);
+        Pointer pointer;
+        // The header is shared by every storage manager of the database, so it also keeps managers that store nodes in
+        // the same file from handing out the same space.
+        synchronized (this.indexHeaderManager) {
+            Optional<IndexHeaderManager.Location> freeNode = this.indexHeaderManager.takeFreeNode(this.getFreeNodeListId(indexId));
+            pointer = freeNode.isPresent()
+                    ? new Pointer(Pointer.TYPE_NODE, freeNode.get().offset(), freeNode.get().chunk())
+                    : this.getAllocatedSpaceForNewNode(indexId, 0, keyValueSize);
+        }
         int binarySpace = this.getBinarySpace(keyValueSize);
         if (data.length < binarySpace) {
             byte[] finalData = new byte[binarySpace];
@@ -191,17 +224,6 @@ public abstract class AbstractIndexStorageManager implements IndexStorageManager
         return output;
     }
 
-
-    protected Optional<Integer> getPossibleAllocationLocation(byte[] bytes, KeyValueSize keyValueSize) {
-        for (int bTreeGrowthCount = 0; bTreeGrowthCount < dbConfig.getBTreeGrowthNodeAllocationCount(); bTreeGrowthCount++) {
-            int position = bTreeGrowthCount * getBinarySpace(keyValueSize);
-            if ((bytes[position] & TYPE_LEAF_NODE_BIT) != TYPE_LEAF_NODE_BIT && (bytes[position] & TYPE_INTERNAL_NODE_BIT) != TYPE_INTERNAL_NODE_BIT) {
-                return Optional.of(position);
-            }
-        }
-        return Optional.empty();
-    }
-
     @Override
     public CompletableFuture<Integer> updateNode(int indexId, byte[] data, Pointer pointer, boolean isRoot) throws
                                                                                                             StorageException,
@@ -240,14 +262,21 @@ public abstract class AbstractIndexStorageManager implements IndexStorageManager
     @Override
     public CompletableFuture<Integer> removeNode(int indexId, Pointer pointer, KeyValueSize keyValueSize) throws
                                                                                                           StorageException,
+                                                                                                          InterruptedTaskException,
                                                                                                           FileChannelException {
-        Optional<IndexHeaderManager.Location> indexBeginningInChunk = indexHeaderManager.getIndexBeginningInChunk(indexId, pointer.getChunk());
-        assert indexBeginningInChunk.isPresent();
-
-        long offset = indexBeginningInChunk.get().offset() + pointer.getPosition();
+        long offset = getIndexBeginningInChunk(indexId, pointer.getChunk()).offset() + pointer.getPosition();
         FileChannel fileChannel = acquireFileChannel(indexId, pointer.getChunk());
-        return fileChannel.writeAsync(offset, new byte[this.getBinarySpace(keyValueSize)])
-                .whenComplete((_, _) -> releaseFileChannel(indexId, pointer.getChunk()));
+        try {
+            // The node is only offered to new nodes once it is empty on disk, otherwise a new node written in its place
+            // could be overwritten by the removal.
+            synchronized (this.indexHeaderManager) {
+                Integer removedBytes = fileChannel.write(offset, new byte[this.getBinarySpace(keyValueSize)]);
+                this.indexHeaderManager.addFreeNode(this.getFreeNodeListId(indexId), new IndexHeaderManager.Location(pointer.getChunk(), offset));
+                return CompletableFuture.completedFuture(removedBytes);
+            }
+        } finally {
+            releaseFileChannel(indexId, pointer.getChunk());
+        }
     }
 
     @Override
@@ -12,9 +12,11 @@ import org.elece.storage.index.header.IndexHeaderManager;
 import org.elece.storage.index.header.IndexHeaderManagerFactory;
 
 import java.nio.file.Path;
-import java.util.Optional;
 
 public class CompactIndexStorageManager extends AbstractIndexStorageManager {
+    // Every index is stored in the same file, with positions relative to its start, so any index can use any free node.
+    private static final int SHARED_FREE_NODE_LIST_ID = 0;
+
     public CompactIndexStorageManager(String customName, IndexHeaderManagerFactory indexHeaderManagerFactory,
                                       DbConfig dbConfig, FileHandlerPool fileHandlerPool) throws StorageException {
         super(customName, indexHeaderManagerFactory, dbConfig, fileHandlerPool);
@@ -33,26 +35,21 @@ public class CompactIndexStorageManager extends AbstractIndexStorageManager {
         Path indexFilePath = getIndexFilePath(indexId, 0);
         FileChannel fileChannel = this.fileHandlerPool.acquireFileHandler(indexFilePath);
 
-        synchronized (this) {
-            long fileSize = fileChannel.size();
-            if (fileSize >= this.getIndexGrowthAllocationSize(keyValueSize)) {
-                long positionToCheck = fileSize - this.getIndexGrowthAllocationSize(keyValueSize);
-
-                byte[] bytes = fileChannel.read(positionToCheck, this.getIndexGrowthAllocationSize(keyValueSize));
-                Optional<Integer> optionalAdditionalPosition = getPossibleAllocationLocation(bytes, keyValueSize);
-                if (optionalAdditionalPosition.isPresent()) {
-                    long finalPosition = positionToCheck + optionalAdditionalPosition.get();
-                    fileHandlerPool.releaseFileHandler(indexFilePath);
-                    return new Pointer(Pointer.TYPE_NODE, finalPosition, chunk);
-                }
-            }
-
+        // Only called when the free node list is empty, so every allocated node is in use and the file has to grow.
+        try {
             Long position = fileChannel.allocate(this.getIndexGrowthAllocationSize(keyValueSize));
-            fileHandlerPool.releaseFileHandler(indexFilePath);
+            this.addFreeNodesOfRegion(indexId, chunk, position, keyValueSize);
             return new Pointer(Pointer.TYPE_NODE, position, chunk);
+        } finally {
+            fileHandlerPool.releaseFileHandler(indexFilePath);
         }
     }
 
+    @Override
+    protected int getFreeNodeListId(int indexId) {
+        return SHARED_FREE_NODE_LIST_ID;
+    }
+
     @Override
     protected IndexHeaderManager.Location getIndexBeginningInChunk(int indexId, int chunk) {
         return new IndexHeaderManager.Location(0, 0);
@@ -5,15 +5,22 @@ import org.elece.exception.DbError;
 import org.elece.exception.StorageException;
 import org.elece.index.IndexId;
 import org.elece.storage.file.FileHandlerPoolFactory;
+import org.elece.storage.index.cache.CachedIndexStorageManager;
+import org.elece.storage.index.cache.NodeCache;
 import org.elece.storage.index.header.IndexHeaderManagerFactory;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultIndexStorageManagerFactory extends IndexStorageManagerFactory {
+    private static final String HASH_INDEX_FILE_NAME = "hash";
+
     private final FileHandlerPoolFactory fileHandlerPoolFactory;
     private final Map<String, IndexStorageManager> storageManagers;
+    private final NodeCache nodeCache;
 
     public DefaultIndexStorageManagerFactory(DbConfig dbConfig, FileHandlerPoolFactory fileHandlerPoolFactory,
                                              IndexHeaderManagerFactory indexHeaderManagerFactory) {
@@ -21,6 +28,7 @@ public class DefaultIndexStorageManagerFactory extends IndexStorageManagerFactor
 
         this.storageManagers = new ConcurrentHashMap<>();
         this.fileHandlerPoolFactory = fileHandlerPoolFactory;
+        this.nodeCache = dbConfig.getBTreeNodeCacheSize() > 0 ? new NodeCache(dbConfig.getBTreeNodeCacheSize()) : null;
     }
 
     @Override
@@ -37,6 +45,9 @@ public class DefaultIndexStorageManagerFactory extends IndexStorageManagerFactor
                 } else {
                     indexStorageManager = new CompactIndexStorageManager(managerId, indexHeaderManagerFactory, dbConfig, fileHandlerPoolFactory.getFileHandlerPool());
                 }
+                if (Objects.nonNull(nodeCache)) {
+                    indexStorageManager = new CachedIndexStorageManager(indexStorageManager, nodeCache);
+                }
                 this.storageManagers.put(managerId, indexStorageManager);
                 return indexStorageManager;
             } catch (IOException exception) {
@@ -44,4 +55,10 @@ public class DefaultIndexStorageManagerFactory extends IndexStorageManagerFactor
             }
         }
     }
+
+    @Override
+    public HashIndexStorageManager createHashIndexStorageManager(IndexId indexId) {
+        Path path = Path.of(dbConfig.getBaseDbPath(), String.format("%s.%s.bin", HASH_INDEX_FILE_NAME, indexId.asString()));
+        return new HashIndexStorageManager(path, fileHandlerPoolFactory.getFileHandlerPool());
+    }
 }
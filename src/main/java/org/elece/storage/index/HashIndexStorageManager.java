@@ -0,0 +1,54 @@
+package org.elece.storage.index;
+
+import org.elece.exception.FileChannelException;
+import org.elece.exception.InterruptedTaskException;
+import org.elece.exception.StorageException;
+import org.elece.storage.file.FileChannel;
+import org.elece.storage.file.FileHandlerPool;
+
+import java.nio.file.Path;
+
+/**
+ * Stores the bytes of a hash index in a file of its own. The file is read and written through the file handler pool,
+ * like the files of the tree indexes, so its writes also go through the write ahead log when it is enabled.
+ */
+public class HashIndexStorageManager {
+    private final Path path;
+    private final FileHandlerPool fileHandlerPool;
+
+    public HashIndexStorageManager(Path path, FileHandlerPool fileHandlerPool) {
+        this.path = path;
+        this.fileHandlerPool = fileHandlerPool;
+    }
+
+    /**
+     * Reads a region of the file. The part of the region past the end of the file reads as zeros.
+     */
+    public byte[] read(long position, int size) throws StorageException, InterruptedTaskException,
+                                                       FileChannelException {
+        FileChannel fileChannel = fileHandlerPool.acquireFileHandler(path);
+        try {
+            byte[] bytes = new byte[size];
+            if (position < fileChannel.size()) {
+                byte[] read = fileChannel.read(position, size);
+                System.arraycopy(read, 0, bytes, 0, Math.min(read.length, size));
+            }
+            return bytes;
+        } finally {
+            fileHandlerPool.releaseFileHandler(path);
+        }
+    }
+
+    /**
+     * Writes a region of the file, growing the file if the region ends past it.
+     */
+    public void write(long position, byte[] bytes) throws StorageException, InterruptedTaskException,
+                                                          FileChannelException {
+        FileChannel fileChannel = fileHandlerPool.acquireFileHandler(path);
+        try {
+            fileChannel.write(position, bytes);
+        } finally {
+            fileHandlerPool.releaseFileHandler(path);
+        }
+    }
+}
@@ -38,6 +38,7 @@ public interface IndexStorageManager {
 
     CompletableFuture<Integer> removeNode(int indexId, Pointer pointer, KeyValueSize keyValueSize) throws
                                                                                                    StorageException,
+                                                                                                   InterruptedTaskException,
                                                                                                    FileChannelException;
 
     boolean exists(int indexId);
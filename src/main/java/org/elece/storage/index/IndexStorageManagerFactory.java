@@ -15,4 +15,6 @@ public abstract class IndexStorageManagerFactory {
     }
 
     public abstract IndexStorageManager create(IndexId indexId) throws StorageException;
+
+    public abstract HashIndexStorageManager createHashIndexStorageManager(IndexId indexId);
 }
\ No newline at end of file
@@ -14,10 +14,22 @@ import org.elece.storage.index.header.IndexHeaderManagerFactory;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.List;
-import java.util.Optional;
-
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index storage manager that keeps the nodes of each index in extents, which are regions that fit
+ * {@link DbConfig#getBTreeGrowthNodeAllocationCount()} nodes. An index grows by appending a new extent to the end of
+ * the chunk file and recording it in the index header, so growing an index never moves the data of other indexes
+ * stored in the same chunk.
+ * <p>
+ * The pointers of the nodes are relative to the beginning of their index in the chunk, which is its first extent. Each
+ * index has its own free node list, since a node of an extent can only be addressed by the index that owns it.
+ */
 public class OrganizedIndexStorageManager extends AbstractIndexStorageManager {
+    // Chunks whose indexes are all known to have their extents recorded in the header.
+    private final Set<Integer> extentChunks = ConcurrentHashMap.newKeySet();
+
     public OrganizedIndexStorageManager(String customName, IndexHeaderManagerFactory indexHeaderManagerFactory,
                                         DbConfig dbConfig, FileHandlerPool fileHandlerPool) throws IOException,
                                                                                                    StorageException {
@@ -32,91 +44,72 @@ public class OrganizedIndexStorageManager extends AbstractIndexStorageManager {
     @Override
     protected IndexHeaderManager.Location getIndexBeginningInChunk(int indexId, int chunk) throws StorageException {
         Optional<IndexHeaderManager.Location> optional = this.indexHeaderManager.getIndexBeginningInChunk(indexId, chunk);
-        if (optional.isPresent()) {
-            return optional.get();
-        }
-
-        List<Integer> indexesInChunk = this.indexHeaderManager.getIndexesInChunk(chunk);
-        IndexHeaderManager.Location location;
-        if (indexesInChunk.isEmpty()) {
-            location = new IndexHeaderManager.Location(chunk, 0);
-        } else {
-            try {
-                FileChannel fileChannel = this.acquireFileChannel(indexId, chunk);
-                location = new IndexHeaderManager.Location(chunk, fileChannel.size());
-            } catch (FileChannelException exception) {
-                throw new StorageException(exception.getDbError(), exception.getMessage());
-            } finally {
-                this.releaseFileChannel(indexId, chunk);
-            }
+        if (optional.isEmpty()) {
+            throw new StorageException(DbError.INDEX_NOT_FOUND_IN_CHUNK_ERROR, String.format("Index %d has no nodes in chunk %d", indexId, chunk));
         }
-
-        this.indexHeaderManager.setIndexBeginningInChunk(indexId, location);
-        return location;
+        return optional.get();
     }
 
-
     @Override
-    protected Pointer getAllocatedSpaceForNewNode(int indexId, int chunk, KeyValueSize keyValueSize) throws
-                                                                                                     StorageException,
-                                                                                                     InterruptedTaskException,
-                                                                                                     FileChannelException {
-        Optional<IndexHeaderManager.Location> optionalIndexBeginningLocation = this.indexHeaderManager.getIndexBeginningInChunk(indexId, chunk);
-
+    protected Pointer getAllocatedSpaceForNewNode(int indexId, int chunk,
+                                                  KeyValueSize keyValueSize) throws StorageException,
+                                                                                    InterruptedTaskException,
+                                                                                    FileChannelException {
         FileChannel fileChannel = this.acquireFileChannel(indexId, chunk);
-        Long channelSize = fileChannel.size();
-
-        // If we have a maximum file size, and that size is surpassed, we need to move to the next chunk and create a new file.
-        if (this.dbConfig.getBTreeMaxFileSize() != -1 && channelSize >= this.dbConfig.getBTreeMaxFileSize()) {
-            this.releaseFileChannel(indexId, chunk);
-            return this.getAllocatedSpaceForNewNode(indexId, chunk + 1, keyValueSize);
-        }
-
-        // If it's a new chunk for this index, allocate at the end of the file!
-        if (optionalIndexBeginningLocation.isEmpty()) {
-            this.indexHeaderManager.setIndexBeginningInChunk(indexId, new IndexHeaderManager.Location(chunk, channelSize));
-            Long position = fileChannel.allocate(this.getIndexGrowthAllocationSize(keyValueSize));
-            this.releaseFileChannel(indexId, chunk);
-            return new Pointer(Pointer.TYPE_NODE, position, chunk);
-        }
+        try {
+            // If we have a maximum file size, and that size is surpassed, we need to move to the next chunk and create a new file.
+            if (this.dbConfig.getBTreeMaxFileSize() != -1 && fileChannel.size() >= this.dbConfig.getBTreeMaxFileSize()) {
+                return this.getAllocatedSpaceForNewNode(indexId, chunk + 1, keyValueSize);
+            }
 
+            int extentSize = this.getIndexGrowthAllocationSize(keyValueSize);
+            this.recordLegacyExtents(chunk, fileChannel, extentSize);
 
-        // If it's not a new chunk for this index, see if other indexes exist or not
-        Optional<IndexHeaderManager.Location> nextIndexBeginningInChunk = this.indexHeaderManager.getNextIndexBeginningInChunk(indexId, chunk);
-        long positionToCheck;
-        // Another index exists, so lets check if we have a space left before the next index
-        // Another index doesn't exist, so lets check if we have a space left in the end of the file
-        positionToCheck = nextIndexBeginningInChunk
-                .map(location -> location.offset() - this.getIndexGrowthAllocationSize(keyValueSize))
-                .orElseGet(() -> channelSize - this.getIndexGrowthAllocationSize(keyValueSize));
-
-        if (positionToCheck >= 0) {
-            // Check if we have an empty space
-            byte[] bytes = fileChannel.read(positionToCheck, this.getIndexGrowthAllocationSize(keyValueSize));
-            Optional<Integer> optionalAdditionalPosition = getPossibleAllocationLocation(bytes, keyValueSize);
-            if (optionalAdditionalPosition.isPresent()) {
-                long finalPosition = positionToCheck + optionalAdditionalPosition.get();
-                this.releaseFileChannel(indexId, chunk);
-                return new Pointer(Pointer.TYPE_NODE, finalPosition, chunk);
+            // Only called when the free node list of the index is empty, so every node of its extents is in use. A new
+            // extent always goes to the end of the file, so the data of other indexes is never moved.
+            long extentOffset = fileChannel.allocate(extentSize);
+            if (this.indexHeaderManager.getIndexBeginningInChunk(indexId, chunk).isEmpty()) {
+                this.indexHeaderManager.setIndexBeginningInChunk(indexId, new IndexHeaderManager.Location(chunk, extentOffset));
             }
+            this.indexHeaderManager.addExtentOfIndex(indexId, new IndexHeaderManager.Location(chunk, extentOffset));
+            this.addFreeNodesOfRegion(indexId, chunk, extentOffset, keyValueSize);
+            return new Pointer(Pointer.TYPE_NODE, extentOffset, chunk);
+        } finally {
+            this.releaseFileChannel(indexId, chunk);
         }
+    }
 
-        // Empty space not found, allocate in the end or before next index
-        long allocatedOffset;
-        if (nextIndexBeginningInChunk.isPresent()) {
-            allocatedOffset = fileChannel.allocate(nextIndexBeginningInChunk.get().offset(), this.getIndexGrowthAllocationSize(keyValueSize));
-            Optional<Integer> nextIndex = this.indexHeaderManager.getNextIndexIdInChunk(indexId, chunk);
-            if (nextIndex.isEmpty()) {
-                throw new StorageException(DbError.INDEX_NOT_FOUND_IN_CHUNK_ERROR, "Failed to find next index in chunk");
+    /**
+     * Chunks written before extents were recorded store each index in a single region, from its beginning to the
+     * beginning of the next index or the end of the file, which grew by one extent at a time. The first time such a
+     * chunk is used, the region of every index in it is recorded as extents, before any new extent is appended to the
+     * file and makes these regions ambiguous.
+     *
+     * @param chunk       The chunk of the index file.
+     * @param fileChannel The channel of the chunk file.
+     * @param extentSize  The size of an extent, which is the same for every index of the storage manager.
+     */
+    private void recordLegacyExtents(int chunk, FileChannel fileChannel, int extentSize) throws StorageException,
+                                                                                               FileChannelException {
+        if (!this.extentChunks.contains(chunk)) {
+            for (Integer chunkIndexId : this.indexHeaderManager.getIndexesInChunk(chunk)) {
+                if (!this.indexHeaderManager.getExtentsOfIndexInChunk(chunkIndexId, chunk).isEmpty()) {
+                    continue;
+                }
+
+                Optional<IndexHeaderManager.Location> beginning = this.indexHeaderManager.getIndexBeginningInChunk(chunkIndexId, chunk);
+                if (beginning.isEmpty()) {
+                    continue;
+                }
+                long end = this.indexHeaderManager.getNextIndexBeginningInChunk(chunkIndexId, chunk)
+                        .map(IndexHeaderManager.Location::offset)
+                        .orElse(fileChannel.size());
+                for (long offset = beginning.get().offset(); offset < end; offset += extentSize) {
+                    this.indexHeaderManager.addExtentOfIndex(chunkIndexId, new IndexHeaderManager.Location(chunk, offset));
+                }
             }
-            this.indexHeaderManager.setIndexBeginningInChunk(nextIndex.get(), new IndexHeaderManager.Location(chunk, nextIndexBeginningInChunk.get().offset() + this.getIndexGrowthAllocationSize(keyValueSize)));
-        } else {
-            allocatedOffset = fileChannel.allocate(this.getIndexGrowthAllocationSize(keyValueSize));
+            this.extentChunks.add(chunk);
         }
-
-        this.releaseFileChannel(indexId, chunk);
-
-        return new Pointer(Pointer.TYPE_NODE, allocatedOffset, chunk);
     }
 
     @Override
@@ -126,28 +119,38 @@ public class OrganizedIndexStorageManager extends AbstractIndexStorageManager {
 
     @Override
     public void purgeIndex(int indexId) throws StorageException, InterruptedTaskException, FileChannelException {
-        List<Integer> chunksOfIndex = this.indexHeaderManager.getChunksOfIndex(indexId);
-        for (Integer chunk : chunksOfIndex) {
-            Optional<IndexHeaderManager.Location> optionalLocation = this.indexHeaderManager.getIndexBeginningInChunk(indexId, chunk);
-            if (optionalLocation.isEmpty()) {
-                continue;
-            }
+        // Other indexes can append extents to the chunks while the regions are being found, which would change where they end.
+        synchronized (this.indexHeaderManager) {
+            // The root and the free nodes of the index point into the regions being zeroed, and an index created again
+            // with the same identifier must start empty instead of taking them over.
+            this.indexHeaderManager.clearIndex(indexId);
+
+            List<Integer> chunksOfIndex = this.indexHeaderManager.getChunksOfIndex(indexId);
+            for (Integer chunk : chunksOfIndex) {
+                // Each region of the index ends where the next region of any index in the chunk begins, or at the end of the file.
+                NavigableSet<Long> regionBeginnings = new TreeSet<>();
+                for (Integer chunkIndexId : this.indexHeaderManager.getIndexesInChunk(chunk)) {
+                    this.indexHeaderManager.getIndexBeginningInChunk(chunkIndexId, chunk).ifPresent(location -> regionBeginnings.add(location.offset()));
+                    this.indexHeaderManager.getExtentsOfIndexInChunk(chunkIndexId, chunk).forEach(location -> regionBeginnings.add(location.offset()));
+                }
+
+                List<IndexHeaderManager.Location> regions = this.indexHeaderManager.getExtentsOfIndexInChunk(indexId, chunk);
+                if (regions.isEmpty()) {
+                    // The chunk was written before extents were recorded, so the index is a single region.
+                    regions = this.indexHeaderManager.getIndexBeginningInChunk(indexId, chunk).stream().toList();
+                }
 
-            Path indexFilePath = getIndexFilePath(indexId, 0);
-            FileChannel fileChannel = this.fileHandlerPool.acquireFileHandler(indexFilePath);
-
-            IndexHeaderManager.Location location = optionalLocation.get();
-            Optional<IndexHeaderManager.Location> nextIndexBeginningInChunk = this.indexHeaderManager.getNextIndexBeginningInChunk(indexId, chunk);
-            long size;
-            if (nextIndexBeginningInChunk.isPresent()) {
-                size = nextIndexBeginningInChunk.get().offset() - location.offset();
-            } else {
-                size = fileChannel.size() - location.offset();
+                FileChannel fileChannel = this.acquireFileChannel(indexId, chunk);
+                try {
+                    for (IndexHeaderManager.Location region : regions) {
+                        Long nextRegionBeginning = regionBeginnings.higher(region.offset());
+                        long end = Objects.isNull(nextRegionBeginning) ? fileChannel.size() : nextRegionBeginning;
+                        fileChannel.write(region.offset(), new byte[Math.toIntExact(end - region.offset())]);
+                    }
+                } finally {
+                    this.releaseFileChannel(indexId, chunk);
+                }
             }
-            byte[] bytes = new byte[Math.toIntExact(size)];
-            fileChannel.write(location.offset(), bytes);
-
-            fileHandlerPool.releaseFileHandler(indexFilePath);
         }
     }
 }
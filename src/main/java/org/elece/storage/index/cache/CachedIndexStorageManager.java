@@ -0,0 +1,175 @@
+package org.elece.storage.index.cache;
+
+import org.elece.exception.FileChannelException;
+import org.elece.exception.InterruptedTaskException;
+import org.elece.exception.StorageException;
+import org.elece.memory.KeyValueSize;
+import org.elece.memory.Pointer;
+import org.elece.storage.index.IndexStorageManager;
+import org.elece.storage.index.NodeData;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decorator that serves node reads from a shared {@link NodeCache} before falling back to the underlying storage
+ * manager. Because both session strategies and the tree traversal utilities only talk to the
+ * {@link IndexStorageManager}, placing the cache here makes every read path benefit from it.
+ * <p>
+ * Writes are write-through: the underlying manager still persists every node, and the cached copy is replaced as
+ * soon as the write is issued so subsequent reads observe the new content. Nodes read from disk are only cached if
+ * their location did not change during the read, see {@link NodeCache#putIfUnchanged}. Removed nodes and purged
+ * indexes are invalidated. The current root of every index is remembered and pinned, so it is never evicted and
+ * {@link #getRoot(int, KeyValueSize)} does not need to touch the disk once the root has been seen.
+ */
+public class CachedIndexStorageManager implements IndexStorageManager {
+    private final IndexStorageManager indexStorageManager;
+    private final NodeCache nodeCache;
+    private final Map<Integer, Pointer> roots;
+
+    public CachedIndexStorageManager(IndexStorageManager indexStorageManager, NodeCache nodeCache) {
+        this.indexStorageManager = indexStorageManager;
+        this.nodeCache = nodeCache;
+        this.roots = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public CompletableFuture<Optional<NodeData>> getRoot(int indexId, KeyValueSize keyValueSize) throws
+                                                                                                 StorageException,
+                                                                                                 FileChannelException {
+        Pointer rootPointer = roots.get(indexId);
+        if (Objects.nonNull(rootPointer)) {
+            Optional<byte[]> cachedRoot = nodeCache.get(indexId, rootPointer);
+            if (cachedRoot.isPresent()) {
+                return CompletableFuture.completedFuture(Optional.of(new NodeData(copyOf(rootPointer), cachedRoot.get())));
+            }
+        }
+
+        // A root read from disk is only cached if it is still at the remembered location, and that location did not
+        // change during the read.
+        long rootVersion = Objects.nonNull(rootPointer) ? nodeCache.version(indexId, rootPointer) : -1;
+        return indexStorageManager.getRoot(indexId, keyValueSize).thenApply(optionalNodeData -> {
+            optionalNodeData.ifPresent(nodeData -> {
+                if (nodeData.pointer().equals(rootPointer)) {
+                    nodeCache.putIfUnchanged(indexId, nodeData.pointer(), nodeData.bytes(), rootVersion);
+                }
+                trackRoot(indexId, nodeData.pointer());
+            });
+            return optionalNodeData;
+        });
+    }
+
+    @Override
+    public byte[] getEmptyNode(KeyValueSize keyValueSize) {
+        return indexStorageManager.getEmptyNode(keyValueSize);
+    }
+
+    @Override
+    public CompletableFuture<NodeData> readNode(int indexId, long position, int chunk, KeyValueSize keyValueSize) throws
+                                                                                                                  StorageException,
+                                                                                                                  FileChannelException {
+        Pointer pointer = new Pointer(Pointer.TYPE_NODE, position, chunk);
+        Optional<byte[]> cachedNode = nodeCache.get(indexId, pointer);
+        if (cachedNode.isPresent()) {
+            return CompletableFuture.completedFuture(new NodeData(pointer, cachedNode.get()));
+        }
+
+        long version = nodeCache.version(indexId, pointer);
+        return indexStorageManager.readNode(indexId, position, chunk, keyValueSize).thenApply(nodeData -> {
+            nodeCache.putIfUnchanged(indexId, nodeData.pointer(), nodeData.bytes(), version);
+            return nodeData;
+        });
+    }
+
+    @Override
+    public CompletableFuture<NodeData> writeNewNode(int indexId, byte[] data, boolean isRoot,
+                                                    KeyValueSize keyValueSize) throws StorageException,
+                                                                                      InterruptedTaskException,
+                                                                                      FileChannelException {
+        return indexStorageManager.writeNewNode(indexId, data, isRoot, keyValueSize).thenApply(nodeData -> {
+            nodeCache.put(indexId, nodeData.pointer(), nodeData.bytes());
+            if (isRoot) {
+                trackRoot(indexId, nodeData.pointer());
+            }
+            return nodeData;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> updateNode(int indexId, byte[] data, Pointer pointer, boolean root) throws
+                                                                                                       StorageException,
+                                                                                                       FileChannelException {
+        Pointer cachedPointer = copyOf(pointer);
+        nodeCache.put(indexId, cachedPointer, data);
+        if (root) {
+            trackRoot(indexId, cachedPointer);
+        }
+
+        // Reads from disk that started before the write completed may return the previous content, so the location is
+        // marked as changed again once the write is done, and those reads do not cache it.
+        return indexStorageManager.updateNode(indexId, data, pointer, root).whenComplete((_, throwable) -> {
+            if (Objects.nonNull(throwable)) {
+                nodeCache.invalidate(indexId, cachedPointer);
+            } else {
+                nodeCache.markChanged(indexId, cachedPointer);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws StorageException, InterruptedTaskException, FileChannelException {
+        indexStorageManager.close();
+    }
+
+    @Override
+    public CompletableFuture<Integer> removeNode(int indexId, Pointer pointer, KeyValueSize keyValueSize) throws
+                                                                                                       StorageException,
+                                                                                                       InterruptedTaskException,
+                                                                                                       FileChannelException {
+        Pointer removedPointer = copyOf(pointer);
+        nodeCache.unpin(indexId, removedPointer);
+        nodeCache.invalidate(indexId, removedPointer);
+        roots.remove(indexId, removedPointer);
+
+        return indexStorageManager.removeNode(indexId, pointer, keyValueSize);
+    }
+
+    @Override
+    public boolean exists(int indexId) {
+        return indexStorageManager.exists(indexId);
+    }
+
+    @Override
+    public boolean supportsPurge() {
+        return indexStorageManager.supportsPurge();
+    }
+
+    @Override
+    public void purgeIndex(int indexId) throws InterruptedTaskException, StorageException, FileChannelException {
+        indexStorageManager.purgeIndex(indexId);
+        roots.remove(indexId);
+        nodeCache.invalidateIndex(indexId);
+    }
+
+    /**
+     * Remembers the new root of the index and moves the pin from the previous root to it.
+     */
+    private void trackRoot(int indexId, Pointer pointer) {
+        Pointer rootPointer = copyOf(pointer);
+        Pointer previousRoot = roots.put(indexId, rootPointer);
+        if (rootPointer.equals(previousRoot)) {
+            return;
+        }
+        if (Objects.nonNull(previousRoot)) {
+            nodeCache.unpin(indexId, previousRoot);
+        }
+        nodeCache.pin(indexId, rootPointer);
+    }
+
+    private static Pointer copyOf(Pointer pointer) {
+        return new Pointer(Pointer.TYPE_NODE, pointer.getPosition(), pointer.getChunk());
+    }
+}
@@ -0,0 +1,215 @@
+package org.elece.storage.index.cache;
+
+import org.elece.memory.Pointer;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, in-memory cache of serialized b+ tree nodes shared by every index storage manager.
+ * <p>
+ * Nodes are keyed by the index id and the location of the node (chunk and position relative to the beginning of
+ * the index in that chunk), which stays stable even when the organized storage strategy shifts an index inside its
+ * chunk file. Eviction follows the CLOCK algorithm: each slot has a reference bit that is set on every hit and
+ * cleared as the hand sweeps past, so frequently traversed nodes, such as the root and the upper internal levels,
+ * survive while nodes touched only once are recycled first.
+ * <p>
+ * Hits only go through the concurrent map and flip the reference bit, so lookups never contend on the clock lock.
+ * Insertions, invalidations and pinning are synchronized since they may need to move the clock hand. A pinned node
+ * is never evicted until it has been unpinned as many times as it was pinned; when every slot is pinned new nodes
+ * are simply not cached.
+ * <p>
+ * Nodes are mutated in place by the tree, so the cache always stores and hands out copies of the node bytes.
+ * <p>
+ * Every location has a version, shared with the other locations of its stripe, that changes whenever the location is
+ * changed or invalidated. A disk read takes the version before reading, and only fills the cache if the version is
+ * still the same, so a read that raced with an update never caches the content the update replaced, even if the
+ * updated entry was evicted in the meantime.
+ */
+public class NodeCache {
+    private static final int VERSION_STRIPES = 1024;
+
+    private final Map<Key, Entry> entries;
+    private final AtomicLongArray versions;
+    private final Entry[] slots;
+    private int hand;
+
+    public NodeCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Node cache capacity must be positive");
+        }
+        this.entries = new ConcurrentHashMap<>();
+        this.slots = new Entry[capacity];
+        this.versions = new AtomicLongArray(VERSION_STRIPES);
+        this.hand = 0;
+    }
+
+    public Optional<byte[]> get(int indexId, Pointer pointer) {
+        Entry entry = entries.get(Key.of(indexId, pointer));
+        if (Objects.isNull(entry)) {
+            return Optional.empty();
+        }
+        entry.referenced = true;
+        return Optional.of(entry.data.clone());
+    }
+
+    /**
+     * Returns the version of the location, to be passed to {@link #putIfUnchanged} once the node is read from disk.
+     */
+    public long version(int indexId, Pointer pointer) {
+        return versions.get(Key.of(indexId, pointer).stripe());
+    }
+
+    /**
+     * Changes the version of the location without changing the cached content, so reads from disk that started
+     * before are not cached. Used once a write of the node reaches the disk.
+     */
+    public synchronized void markChanged(int indexId, Pointer pointer) {
+        versions.incrementAndGet(Key.of(indexId, pointer).stripe());
+    }
+
+    /**
+     * Stores the node bytes, replacing whatever was cached for the same location. Used when the caller is the one
+     * changing the node, so the cached copy must reflect the new content.
+     */
+    public synchronized void put(int indexId, Pointer pointer, byte[] data) {
+        Key key = Key.of(indexId, pointer);
+        versions.incrementAndGet(key.stripe());
+        Entry entry = entries.get(key);
+        if (Objects.nonNull(entry)) {
+            entry.data = data.clone();
+            entry.referenced = true;
+            return;
+        }
+        insert(key, data);
+    }
+
+    /**
+     * Stores the node bytes only if the location is not cached yet and was not changed since its version was taken.
+     * Used when populating the cache from a disk read that may have raced with a concurrent update, so neither the
+     * newer cached content is overwritten, nor the content the update replaced is cached.
+     */
+    public synchronized void putIfUnchanged(int indexId, Pointer pointer, byte[] data, long version) {
+        Key key = Key.of(indexId, pointer);
+        if (versions.get(key.stripe()) == version && !entries.containsKey(key)) {
+            insert(key, data);
+        }
+    }
+
+    public synchronized void invalidate(int indexId, Pointer pointer) {
+        Key key = Key.of(indexId, pointer);
+        versions.incrementAndGet(key.stripe());
+        Entry entry = entries.remove(key);
+        if (Objects.nonNull(entry)) {
+            slots[entry.slot] = null;
+        }
+    }
+
+    public synchronized void invalidateIndex(int indexId) {
+        for (int stripe = 0; stripe < VERSION_STRIPES; stripe++) {
+            versions.incrementAndGet(stripe);
+        }
+        for (int slot = 0; slot < slots.length; slot++) {
+            Entry entry = slots[slot];
+            if (Objects.nonNull(entry) && entry.key.indexId() == indexId) {
+                entries.remove(entry.key);
+                slots[slot] = null;
+            }
+        }
+    }
+
+    /**
+     * Prevents the node from being evicted.
+     *
+     * @return true if the node was cached and is now pinned, false otherwise.
+     */
+    public synchronized boolean pin(int indexId, Pointer pointer) {
+        Entry entry = entries.get(Key.of(indexId, pointer));
+        if (Objects.isNull(entry)) {
+            return false;
+        }
+        entry.pins++;
+        return true;
+    }
+
+    public synchronized void unpin(int indexId, Pointer pointer) {
+        Entry entry = entries.get(Key.of(indexId, pointer));
+        if (Objects.nonNull(entry) && entry.pins > 0) {
+            entry.pins--;
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    private void insert(Key key, byte[] data) {
+        int slot = findFreeSlot();
+        if (slot < 0) {
+            return;
+        }
+        Entry entry = new Entry(key, data.clone(), slot);
+        slots[slot] = entry;
+        entries.put(key, entry);
+    }
+
+    /**
+     * Advances the clock hand until an empty slot or an unpinned, unreferenced entry is found. Two full sweeps are
+     * enough to clear every reference bit, so if nothing was found by then all slots are pinned.
+     */
+    private int findFreeSlot() {
+        for (int step = 0; step < slots.length * 2; step++) {
+            int slot = hand;
+            hand = (hand + 1) % slots.length;
+
+            Entry entry = slots[slot];
+            if (Objects.isNull(entry)) {
+                return slot;
+            }
+            if (entry.pins > 0) {
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                continue;
+            }
+
+            entries.remove(entry.key);
+            slots[slot] = null;
+            return slot;
+        }
+        return -1;
+    }
+
+    private record Key(int indexId, long position, int chunk) {
+        private static Key of(int indexId, Pointer pointer) {
+            return new Key(indexId, pointer.getPosition(), pointer.getChunk());
+        }
+
+        private int stripe() {
+            return Math.floorMod(hashCode(), VERSION_STRIPES);
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final int slot;
+        private volatile byte[] data;
+        private volatile boolean referenced;
+        private int pins;
+
+        private Entry(Key key, byte[] data, int slot) {
+            this.key = key;
+            this.data = data;
+            this.slot = slot;
+            this.referenced = true;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package org.elece.storage.index.header;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.elece.exception.DbError;
+import org.elece.exception.StorageException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@link IndexHeaderManager} that keeps the header in hash maps, so the root of an index and the beginning of an index
+ * in a chunk are found with constant time lookups, and that logs every change to the header file instead of rewriting
+ * it.
+ * <p>
+ * The file is a sequence of fixed size entries, each one either setting the root of an index or the beginning of an
+ * index in a chunk, where later entries override earlier ones, adding an extent to an index, adding or taking a free
+ * node of an index, or clearing the root and the free nodes of a purged index. It is replayed when the manager is created and rewritten with only the current values once most of
+ * its entries are obsolete, which happens regularly since every root split appends a new root entry. A header file
+ * still in the JSON format of {@link JsonIndexHeaderManager} is converted when it is opened.
+ */
+public class BinaryIndexHeaderManager implements IndexHeaderManager {
+    private static final byte ROOT_ENTRY = 0x01;
+    private static final byte INDEX_BEGINNING_ENTRY = 0x02;
+    private static final byte EXTENT_ENTRY = 0x03;
+    private static final byte FREE_NODE_ENTRY = 0x04;
+    private static final byte TAKEN_NODE_ENTRY = 0x05;
+    private static final byte CLEARED_INDEX_ENTRY = 0x06;
+    private static final byte JSON_HEADER_START = '{';
+    private static final int ENTRY_BYTES = Byte.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int MIN_COMPACTION_ENTRIES = 1024;
+
+    private final Path path;
+    private final Map<Integer, Location> roots;
+    private final Map<Integer, ChunkIndexes> chunkIndexes;
+    private final Map<Integer, NavigableSet<Integer>> chunksOfIndex;
+    // Guarded by this manager, like every other change to the header.
+    private final Map<Integer, SequencedSet<Location>> freeNodes;
+    private FileChannel channel;
+    private long entries;
+
+    public BinaryIndexHeaderManager(Path path) throws StorageException {
+        this.path = path;
+        this.roots = new ConcurrentHashMap<>();
+        this.chunkIndexes = new ConcurrentHashMap<>();
+        this.chunksOfIndex = new ConcurrentHashMap<>();
+        this.freeNodes = new HashMap<>();
+        try {
+            Files.createDirectories(path.getParent());
+            this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        } catch (IOException exception) {
+            throw new StorageException(DbError.INTERNAL_STORAGE_ERROR, "Couldn't create index header file(s)");
+        }
+        this.load();
+    }
+
+    @Override
+    public Optional<Location> getRootOfIndex(int indexId) {
+        return Optional.ofNullable(roots.get(indexId));
+    }
+
+    @Override
+    public synchronized void setRootOfIndex(int indexId, Location location) throws StorageException {
+        if (location.equals(roots.get(indexId))) {
+            return;
+        }
+        this.append(ROOT_ENTRY, indexId, location);
+        this.putRoot(indexId, location);
+        this.compactIfNeeded();
+    }
+
+    @Override
+    public synchronized void setIndexBeginningInChunk(int indexId, Location location) throws StorageException {
+        this.append(INDEX_BEGINNING_ENTRY, indexId, location);
+        this.putIndexBeginning(indexId, location);
+        this.compactIfNeeded();
+    }
+
+    @Override
+    public synchronized void addExtentOfIndex(int indexId, Location location) throws StorageException {
+        this.append(EXTENT_ENTRY, indexId, location);
+        this.putExtent(indexId, location);
+    }
+
+    @Override
+    public synchronized void addFreeNode(int indexId, Location location) throws StorageException {
+        if (this.freeNodes.computeIfAbsent(indexId, _ -> new LinkedHashSet<>()).contains(location)) {
+            return;
+        }
+        this.append(FREE_NODE_ENTRY, indexId, location);
+        this.putFreeNode(indexId, location);
+        this.compactIfNeeded();
+    }
+
+    @Override
+    public synchronized Optional<Location> takeFreeNode(int indexId) throws StorageException {
+        SequencedSet<Location> locations = this.freeNodes.get(indexId);
+        if (Objects.isNull(locations) || locations.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Location location = locations.getFirst();
+        this.append(TAKEN_NODE_ENTRY, indexId, location);
+        this.removeFreeNode(indexId, location);
+        this.compactIfNeeded();
+        return Optional.of(location);
+    }
+
+    @Override
+    public synchronized void clearIndex(int indexId) throws StorageException {
+        // The location of the entry is unused, a single entry clears both the root and the free nodes of the index.
+        this.append(CLEARED_INDEX_ENTRY, indexId, new Location(0, 0));
+        this.removeIndex(indexId);
+        this.compactIfNeeded();
+    }
+
+    @Override
+    public List<Location> getExtentsOfIndexInChunk(int indexId, int chunk) {
+        ChunkIndexes indexes = chunkIndexes.get(chunk);
+        if (Objects.isNull(indexes)) {
+            return List.of();
+        }
+
+        List<Long> offsets = indexes.extentsByIndex.getOrDefault(indexId, List.of());
+        List<Location> extents = new ArrayList<>(offsets.size());
+        for (Long offset : offsets) {
+            extents.add(new Location(chunk, offset));
+        }
+        return extents;
+    }
+
+    @Override
+    public Optional<Location> getIndexBeginningInChunk(int indexId, int chunk) {
+        ChunkIndexes indexes = chunkIndexes.get(chunk);
+        if (Objects.isNull(indexes)) {
+            return Optional.empty();
+        }
+
+        Long offset = indexes.offsetsByIndex.get(indexId);
+        return Objects.isNull(offset) ? Optional.empty() : Optional.of(new Location(chunk, offset));
+    }
+
+    @Override
+    public Optional<Location> getNextIndexBeginningInChunk(int indexId, int chunk) {
+        return this.getNextIndexEntry(indexId, chunk).map(entry -> new Location(chunk, entry.getKey()));
+    }
+
+    @Override
+    public List<Integer> getIndexesInChunk(int chunk) {
+        ChunkIndexes indexes = chunkIndexes.get(chunk);
+        if (Objects.isNull(indexes)) {
+            return List.of();
+        }
+
+        List<Integer> indexIds = new ArrayList<>(indexes.offsetsByIndex.keySet());
+        indexIds.sort(Comparator.naturalOrder());
+        return indexIds;
+    }
+
+    @Override
+    public Optional<Integer> getNextIndexIdInChunk(int indexId, int chunk) {
+        return this.getNextIndexEntry(indexId, chunk).map(Map.Entry::getValue);
+    }
+
+    @Override
+    public List<Integer> getChunksOfIndex(int indexId) {
+        NavigableSet<Integer> chunks = chunksOfIndex.get(indexId);
+        return Objects.isNull(chunks) ? new ArrayList<>() : new ArrayList<>(chunks);
+    }
+
+    private Optional<Map.Entry<Long, Integer>> getNextIndexEntry(int indexId, int chunk) {
+        ChunkIndexes indexes = chunkIndexes.get(chunk);
+        if (Objects.isNull(indexes)) {
+            return Optional.empty();
+        }
+
+        Long offset = indexes.offsetsByIndex.get(indexId);
+        if (Objects.isNull(offset)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(indexes.indexesByOffset.higherEntry(offset));
+    }
+
+    private void putRoot(int indexId, Location location) {
+        roots.put(indexId, location);
+    }
+
+    private void putIndexBeginning(int indexId, Location location) {
+        ChunkIndexes indexes = chunkIndexes.computeIfAbsent(location.chunk(), _ -> new ChunkIndexes());
+        Long previousOffset = indexes.offsetsByIndex.put(indexId, location.offset());
+        if (Objects.nonNull(previousOffset)) {
+            indexes.indexesByOffset.remove(previousOffset, indexId);
+        }
+        indexes.indexesByOffset.put(location.offset(), indexId);
+        chunksOfIndex.computeIfAbsent(indexId, _ -> new ConcurrentSkipListSet<>()).add(location.chunk());
+    }
+
+    private void putExtent(int indexId, Location location) {
+        ChunkIndexes indexes = chunkIndexes.computeIfAbsent(location.chunk(), _ -> new ChunkIndexes());
+        indexes.extentsByIndex.computeIfAbsent(indexId, _ -> new CopyOnWriteArrayList<>()).add(location.offset());
+    }
+
+    private void putFreeNode(int indexId, Location location) {
+        freeNodes.computeIfAbsent(indexId, _ -> new LinkedHashSet<>()).add(location);
+    }
+
+    private void removeFreeNode(int indexId, Location location) {
+        SequencedSet<Location> locations = freeNodes.get(indexId);
+        if (Objects.nonNull(locations)) {
+            locations.remove(location);
+        }
+    }
+
+    private void removeIndex(int indexId) {
+        roots.remove(indexId);
+        freeNodes.remove(indexId);
+    }
+
+    private int liveEntries() {
+        int liveEntries = roots.size();
+        for (SequencedSet<Location> locations : freeNodes.values()) {
+            liveEntries += locations.size();
+        }
+        for (ChunkIndexes indexes : chunkIndexes.values()) {
+            liveEntries += indexes.offsetsByIndex.size();
+            for (List<Long> extents : indexes.extentsByIndex.values()) {
+                liveEntries += extents.size();
+            }
+        }
+        return liveEntries;
+    }
+
+    private void load() throws StorageException {
+        try {
+            if (channel.size() > 0 && isJsonHeader()) {
+                this.loadJsonHeader();
+                return;
+            }
+
+            // A trailing partial entry is a write torn by a crash and is dropped.
+            long size = channel.size() - (channel.size() % ENTRY_BYTES);
+            ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES);
+            for (long position = 0; position < size; position += ENTRY_BYTES) {
+                buffer.clear();
+                channel.read(buffer, position);
+                buffer.flip();
+                byte type = buffer.get();
+                int indexId = buffer.getInt();
+                Location location = new Location(buffer.getInt(), buffer.getLong());
+                switch (type) {
+                    case ROOT_ENTRY -> this.putRoot(indexId, location);
+                    case INDEX_BEGINNING_ENTRY -> this.putIndexBeginning(indexId, location);
+                    case EXTENT_ENTRY -> this.putExtent(indexId, location);
+                    case FREE_NODE_ENTRY -> this.putFreeNode(indexId, location);
+                    case TAKEN_NODE_ENTRY -> this.removeFreeNode(indexId, location);
+                    case CLEARED_INDEX_ENTRY -> this.removeIndex(indexId);
+                    default ->
+                            throw new StorageException(DbError.INTERNAL_STORAGE_ERROR, "Corrupted index header file(s)");
+                }
+            }
+            this.entries = size / ENTRY_BYTES;
+            channel.truncate(size);
+        } catch (IOException exception) {
+            throw new StorageException(DbError.INTERNAL_STORAGE_ERROR, "Couldn't read index header file(s)");
+        }
+        this.compactIfNeeded();
+    }
+
+    private boolean isJsonHeader() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        channel.read(buffer, 0);
+        return buffer.get(0) == JSON_HEADER_START;
+    }
+
+    /**
+     * Reads a header written by {@link JsonIndexHeaderManager} and replaces it with its binary form.
+     */
+    private void loadJsonHeader() throws StorageException {
+        IndexHeader indexHeader;
+        try (Reader reader = Files.newBufferedReader(path)) {
+            indexHeader = new Gson().fromJson(reader, IndexHeader.class);
+        } catch (IOException | JsonParseException exception) {
+            throw new StorageException(DbError.INTERNAL_STORAGE_ERROR, "Couldn't read index header file(s)");
+        }
+
+        if (Objects.nonNull(indexHeader)) {
+            indexHeader.getRoots().forEach(this::putRoot);
+            indexHeader.getChunkIndexOffsets().forEach((chunk, indexOffsets) -> {
+                for (IndexHeader.IndexOffset indexOffset : indexOffsets) {
+                    this.putIndexBeginning(indexOffset.getIndexId(), new Location(chunk, indexOffset.getOffset()));
+                }
+            });
+            indexHeader.getChunkIndexExtents().forEach((chunk, indexExtents) -> indexExtents.forEach((indexId, offsets) -> {
+                for (Long offset : offsets) {
+                    this.putExtent(indexId, new Location(chunk, offset));
+                }
+            }));
+            indexHeader.getFreeNodes().forEach((indexId, locations) -> {
+                for (Location location : locations) {
+                    this.putFreeNode(indexId, location);
+                }
+            });
+        }
+        this.compact();
+    }
+
+    private void append(byte type, int indexId, Location location) throws StorageException {
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES);
+        buffer.put(type).putInt(indexId).putInt(location.chunk()).putLong(location.offset());
+        buffer.flip();
+        try {
+            long position = entries * ENTRY_BYTES;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            entries++;
+        } catch (IOException exception) {
+            throw new StorageException(DbError.INTERNAL_STORAGE_ERROR, "Couldn't persist index header file(s)");
+        }
+    }
+
+    /**
+     * Rewrites the file once obsolete entries outnumber the live ones, so the file stays proportional to the number
+     * of indexes it describes.
+     */
+    private void compactIfNeeded() throws StorageException {
+        if (entries < MIN_COMPACTION_ENTRIES || entries < 2L * liveEntries()) {
+            return;
+        }
+        this.compact();
+    }
+
+    private void compact() throws StorageException {
+        Path compactedPath = Path.of(path.toString() + ".tmp");
+        int liveEntries = liveEntries();
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES * Math.max(1, liveEntries));
+        roots.forEach((indexId, location) -> buffer.put(ROOT_ENTRY).putInt(indexId).putInt(location.chunk()).putLong(location.offset()));
+        chunkIndexes.forEach((chunk, indexes) -> {
+            indexes.offsetsByIndex.forEach((indexId, offset) -> buffer.put(INDEX_BEGINNING_ENTRY).putInt(indexId).putInt(chunk).putLong(offset));
+            indexes.extentsByIndex.forEach((indexId, offsets) -> {
+                for (Long offset : offsets) {
+                    buffer.put(EXTENT_ENTRY).putInt(indexId).putInt(chunk).putLong(offset);
+                }
+            });
+        });
+        freeNodes.forEach((indexId, locations) -> {
+            for (Location location : locations) {
+                buffer.put(FREE_NODE_ENTRY).putInt(indexId).putInt(location.chunk()).putLong(location.offset());
+            }
+        });
+        buffer.flip();
+
+        try (FileChannel compactedChannel = FileChannel.open(compactedPath, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                compactedChannel.write(buffer);
+            }
+            compactedChannel.force(true);
+        } catch (IOException exception) {
+            throw new StorageException(DbError.INTERNAL_STORAGE_ERROR, "Couldn't persist index header file(s)");
+        }
+
+        try {
+            channel.close();
+            Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.entries = liveEntries;
+        } catch (IOException exception) {
+            throw new StorageException(DbError.INTERNAL_STORAGE_ERROR, "Couldn't persist index header file(s)");
+        }
+    }
+
+    /**
+     * The beginnings of the indexes stored in a chunk, both by index, for lookups, and by offset, to find the index
+     * that follows another one in the chunk, and the extents each index owns in the chunk, in allocation order.
+     */
+    private static class ChunkIndexes {
+        private final Map<Integer, Long> offsetsByIndex = new ConcurrentHashMap<>();
+        private final NavigableMap<Long, Integer> indexesByOffset = new ConcurrentSkipListMap<>();
+        private final Map<Integer, List<Long>> extentsByIndex = new ConcurrentHashMap<>();
+    }
+}
@@ -3,10 +3,23 @@ package org.elece.storage.index.header;
 import org.elece.exception.StorageException;
 
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
 public class DefaultIndexHeaderManagerFactory implements IndexHeaderManagerFactory {
+    // Every index storage manager of a database uses the same header file, which must have a single writer. Guarded by
+    // this factory, since creating a manager reads its file and can fail.
+    private final Map<Path, IndexHeaderManager> indexHeaderManagers = new HashMap<>();
+
     @Override
-    public IndexHeaderManager getInstance(Path path) throws StorageException {
-        return new JsonIndexHeaderManager(path);
+    public synchronized IndexHeaderManager getInstance(Path path) throws StorageException {
+        Path normalizedPath = path.toAbsolutePath().normalize();
+        IndexHeaderManager indexHeaderManager = indexHeaderManagers.get(normalizedPath);
+        if (Objects.isNull(indexHeaderManager)) {
+            indexHeaderManager = new BinaryIndexHeaderManager(normalizedPath);
+            indexHeaderManagers.put(normalizedPath, indexHeaderManager);
+        }
+        return indexHeaderManager;
     }
 }
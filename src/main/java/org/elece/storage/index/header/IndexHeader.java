@@ -6,6 +6,8 @@ import java.util.concurrent.ConcurrentHashMap;
 public class IndexHeader {
     private Map<Integer, IndexHeaderManager.Location> roots = new ConcurrentHashMap<>();
     private Map<Integer, TreeSet<IndexOffset>> chunkIndexOffsets = new ConcurrentHashMap<>();
+    private Map<Integer, Map<Integer, List<Long>>> chunkIndexExtents = new ConcurrentHashMap<>();
+    private Map<Integer, List<IndexHeaderManager.Location>> freeNodes = new ConcurrentHashMap<>();
 
     public IndexHeader() {
     }
@@ -32,6 +34,43 @@ public class IndexHeader {
         return this.chunkIndexOffsets.computeIfAbsent(chunk, _ -> new TreeSet<>(Comparator.comparingLong(IndexOffset::getOffset)));
     }
 
+    public Map<Integer, Map<Integer, List<Long>>> getChunkIndexExtents() {
+        return Collections.unmodifiableMap(chunkIndexExtents);
+    }
+
+    public void addIndexExtent(int chunk, int indexId, long offset) {
+        chunkIndexExtents.computeIfAbsent(chunk, _ -> new ConcurrentHashMap<>()).computeIfAbsent(indexId, _ -> new ArrayList<>()).add(offset);
+    }
+
+    public List<Long> getIndexExtents(int chunk, int indexId) {
+        Map<Integer, List<Long>> indexExtents = chunkIndexExtents.get(chunk);
+        if (Objects.isNull(indexExtents)) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(indexExtents.getOrDefault(indexId, List.of()));
+    }
+
+    public Map<Integer, List<IndexHeaderManager.Location>> getFreeNodes() {
+        return Collections.unmodifiableMap(freeNodes);
+    }
+
+    public void addFreeNode(int indexId, IndexHeaderManager.Location location) {
+        freeNodes.computeIfAbsent(indexId, _ -> new ArrayList<>()).add(location);
+    }
+
+    public Optional<IndexHeaderManager.Location> takeFreeNode(int indexId) {
+        List<IndexHeaderManager.Location> locations = freeNodes.get(indexId);
+        if (Objects.isNull(locations) || locations.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(locations.removeLast());
+    }
+
+    public void clearIndex(int indexId) {
+        roots.remove(indexId);
+        freeNodes.remove(indexId);
+    }
+
     public Optional<IndexOffset> getNextIndexOffset(int chunk, int indexId) {
         SortedSet<IndexOffset> indexOffsets = this.getIndexOffsets(chunk);
 
@@ -24,6 +24,16 @@ public interface IndexHeaderManager {
 
     List<Integer> getChunksOfIndex(int indexId);
 
+    void addExtentOfIndex(int indexId, Location location) throws StorageException;
+
+    List<Location> getExtentsOfIndexInChunk(int indexId, int chunk);
+
+    void addFreeNode(int indexId, Location location) throws StorageException;
+
+    Optional<Location> takeFreeNode(int indexId) throws StorageException;
+
+    void clearIndex(int indexId) throws StorageException;
+
     record Location(int chunk, long offset) {
         public static Location fromPointer(Pointer pointer) {
             return new Location(pointer.getChunk(), pointer.getPosition());
@@ -132,6 +132,42 @@ public class JsonIndexHeaderManager implements IndexHeaderManager {
         return chunks;
     }
 
+    @Override
+    public synchronized void addExtentOfIndex(int indexId, Location location) throws StorageException {
+        this.header.addIndexExtent(location.chunk(), indexId, location.offset());
+        persistIndexHeader();
+    }
+
+    @Override
+    public synchronized void addFreeNode(int indexId, Location location) throws StorageException {
+        this.header.addFreeNode(indexId, location);
+        persistIndexHeader();
+    }
+
+    @Override
+    public synchronized Optional<Location> takeFreeNode(int indexId) throws StorageException {
+        Optional<Location> location = this.header.takeFreeNode(indexId);
+        if (location.isPresent()) {
+            persistIndexHeader();
+        }
+        return location;
+    }
+
+    @Override
+    public synchronized void clearIndex(int indexId) throws StorageException {
+        this.header.clearIndex(indexId);
+        persistIndexHeader();
+    }
+
+    @Override
+    public List<Location> getExtentsOfIndexInChunk(int indexId, int chunk) {
+        List<Location> extents = new ArrayList<>();
+        for (Long offset : this.header.getIndexExtents(chunk, indexId)) {
+            extents.add(new Location(chunk, offset));
+        }
+        return extents;
+    }
+
     @Override
     public Optional<Location> getIndexBeginningInChunk(int indexId, int chunk) {
         TreeSet<IndexHeader.IndexOffset> indexOffsets = this.header.getIndexOffsets(chunk);
@@ -12,6 +12,7 @@ import org.elece.storage.index.IndexStorageManager;
 import org.elece.storage.index.NodeData;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This implementation follows an in-memory snapshot approach, where the writes are done immediately on disk, but the updates and removals are stored in-memory,
@@ -20,11 +21,16 @@ import java.util.*;
  * This allows to have flexibility in terms of reversibility, since in the context of a transaction we may roll back the changes previously done.
  * In terms of read operations, first we check the snapshot to see if pointer is stored in-memory, if so we deal we can use that stored value to
  * determine the return value, otherwise, the pointer needs to be read from disk.
+ * <p>
+ * Only new nodes are written when they are created, since they need a position on disk before other nodes can point to
+ * them. Every later change, to new or existing nodes, is kept once per pointer no matter how often the node is written,
+ * and all of them are persisted at commit as concurrent updates, so a node changed several times in one operation, as
+ * in a split, is only written once. Removed nodes are only freed after these updates complete.
  */
 public class CommittableSession<K extends Comparable<K>> extends AbstractSession<K> {
     private final Set<Pointer> updated;
-    private final List<Pointer> created;
-    private final List<Pointer> deleted;
+    private final Set<Pointer> created;
+    private final Set<Pointer> deleted;
     private final Map<Pointer, AbstractTreeNode<K>> snapshot;
     private final Map<Pointer, AbstractTreeNode<K>> original;
     private AbstractTreeNode<K> root;
@@ -32,9 +38,9 @@ public class CommittableSession<K extends Comparable<K>> extends AbstractSession
     public CommittableSession(IndexStorageManager indexStorageManager, NodeFactory<K> nodeFactory, int indexId,
                               KeyValueSize keyValueSize) {
         super(indexStorageManager, nodeFactory, indexId, keyValueSize);
-        updated = new HashSet<>();
-        created = new LinkedList<>();
-        deleted = new LinkedList<>();
+        updated = new LinkedHashSet<>();
+        created = new LinkedHashSet<>();
+        deleted = new LinkedHashSet<>();
         snapshot = new HashMap<>();
         original = new HashMap<>();
     }
@@ -60,6 +66,12 @@ public class CommittableSession<K extends Comparable<K>> extends AbstractSession
     @Override
     public NodeData write(AbstractTreeNode<K> node) throws StorageException, InterruptedTaskException,
                                                            FileChannelException {
+        if (node.getPointer() != null) {
+            // The node already has its place on disk, so the write is kept until the commit like any other update.
+            update(node);
+            return new NodeData(node.getPointer(), node.getData());
+        }
+
         NodeData nodeData = writeNode(node);
         this.created.add(nodeData.pointer());
         this.snapshot.put(nodeData.pointer(), node);
@@ -114,36 +126,51 @@ public class CommittableSession<K extends Comparable<K>> extends AbstractSession
 
     @Override
     public void commit() throws StorageException, FileChannelException, InterruptedTaskException {
+        try {
+            List<CompletableFuture<Integer>> updates = new ArrayList<>(updated.size());
+            for (Pointer pointer : updated) {
+                if (deleted.contains(pointer)) {
+                    continue;
+                }
+                AbstractTreeNode<K> node = snapshot.get(pointer);
+                updates.add(indexStorageManager.updateNode(indexId, node.getData(), pointer, node.isRoot()));
+            }
+            handleFuture(CompletableFuture.allOf(updates.toArray(CompletableFuture[]::new)));
+        } catch (StorageException | FileChannelException | InterruptedTaskException exception) {
+            rollback();
+            return;
+        }
+
+        // Removed nodes go back to the free node list, so they are only removed once the nodes that pointed to them
+        // are persisted without those pointers, otherwise a new node could take their place while still linked.
         for (Pointer pointer : deleted) {
             try {
                 removeNode(pointer);
             } catch (StorageException | FileChannelException | InterruptedTaskException exception) {
                 try {
                     rollback();
+                    return;
                 } catch (StorageException | InterruptedTaskException | FileChannelException nestedException) {
                     throw new StorageException(DbError.ROLLBACK_FAILED, "Failed to rollback after exception");
                 }
             }
         }
-
-        try {
-            for (Pointer pointer : updated) {
-                updateNode(snapshot.get(pointer));
-            }
-        } catch (StorageException | FileChannelException | InterruptedTaskException exception) {
-            rollback();
-        }
     }
 
     @Override
     public void rollback() throws StorageException, InterruptedTaskException, FileChannelException {
         for (Pointer pointer : deleted) {
-            this.updateNode(original.get(pointer));
+            if (!created.contains(pointer)) {
+                this.updateNode(original.get(pointer));
+            }
         }
 
         for (Pointer pointer : updated) {
-            AbstractTreeNode<K> baseClusterTreeNode = original.get(pointer);
-            this.updateNode(baseClusterTreeNode);
+            // New nodes have no previous content, and are removed below.
+            if (!created.contains(pointer)) {
+                AbstractTreeNode<K> baseClusterTreeNode = original.get(pointer);
+                this.updateNode(baseClusterTreeNode);
+            }
         }
 
         for (Pointer pointer : created) {
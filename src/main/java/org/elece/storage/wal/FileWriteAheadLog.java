@@ -0,0 +1,365 @@
+package org.elece.storage.wal;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elece.config.DbConfig;
+import org.elece.exception.DbError;
+import org.elece.exception.InterruptedTaskException;
+import org.elece.exception.StorageException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link WriteAheadLog} stored in a single {@code wal.log} file inside the base db path.
+ * <p>
+ * Appends only serialize the entry and queue it. A dedicated flusher thread drains everything queued so far, writes
+ * it with one sequential write and forces the log once, which is what gives group commit: while one force is in
+ * progress, entries from other connections accumulate and are forced together by the next one. Futures are
+ * completed on a separate executor so that work chained on them never runs on, or blocks, the flusher.
+ * <p>
+ * Once the log grows past the configured checkpoint size, new appends are held back until every logged entry has
+ * been applied, the touched files are forced and the log is truncated.
+ */
+public class FileWriteAheadLog implements WriteAheadLog {
+    public static final String WAL_FILE_NAME = "wal.log";
+
+    private final Logger logger = LogManager.getLogger(FileWriteAheadLog.class);
+
+    private final Path path;
+    private final long checkpointSize;
+    private final FileChannel logChannel;
+    private final ExecutorService completionExecutor;
+    private final Thread flusher;
+
+    private final ReentrantLock appendLock;
+    private final Condition pendingCondition;
+    private final Condition checkpointCondition;
+    private final ReentrantLock flushLock;
+    private final Object appliedMonitor;
+
+    private final List<PendingEntry> queue;
+    private final Set<Path> touchedPaths;
+    private long nextSequenceNumber;
+    private long logSize;
+    private int inFlight;
+    private boolean checkpointing;
+    private volatile boolean running;
+
+    public FileWriteAheadLog(DbConfig dbConfig) throws StorageException {
+        this.path = Path.of(dbConfig.getBaseDbPath(), WAL_FILE_NAME);
+        this.checkpointSize = dbConfig.getWalCheckpointSize();
+        try {
+            Files.createDirectories(path.getParent());
+            this.logChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            this.logSize = logChannel.size();
+        } catch (IOException exception) {
+            throw new StorageException(DbError.CHANNEL_OPENING_ERROR, exception.getMessage());
+        }
+
+        this.completionExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "wal-completion");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.appendLock = new ReentrantLock();
+        this.pendingCondition = appendLock.newCondition();
+        this.checkpointCondition = appendLock.newCondition();
+        this.flushLock = new ReentrantLock();
+        this.appliedMonitor = new Object();
+        this.queue = new ArrayList<>();
+        this.touchedPaths = new HashSet<>();
+        this.nextSequenceNumber = 0;
+        this.inFlight = 0;
+        this.checkpointing = false;
+        this.running = true;
+
+        this.flusher = new Thread(this::runFlusher, "wal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public CompletableFuture<Long> append(List<LogRecord> records) throws StorageException {
+        byte[] frame = LogRecord.serialize(records);
+        CompletableFuture<Long> future = new CompletableFuture<>();
+
+        appendLock.lock();
+        try {
+            while (checkpointing) {
+                checkpointCondition.awaitUninterruptibly();
+            }
+            if (!running) {
+                throw new StorageException(DbError.CHANNEL_CLOSED_ERROR, "Write ahead log is closed");
+            }
+
+            queue.add(new PendingEntry(nextSequenceNumber++, frame, future));
+            for (LogRecord logRecord : records) {
+                touchedPaths.add(logRecord.path());
+            }
+            synchronized (appliedMonitor) {
+                inFlight++;
+            }
+            pendingCondition.signal();
+        } finally {
+            appendLock.unlock();
+        }
+
+        return future;
+    }
+
+    @Override
+    public void applied() {
+        synchronized (appliedMonitor) {
+            if (--inFlight == 0) {
+                appliedMonitor.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public int recover() throws StorageException {
+        flushLock.lock();
+        try {
+            Map<Path, FileChannel> channels = new HashMap<>();
+            int replayed = 0;
+            try {
+                long position = 0;
+                ByteBuffer header = ByteBuffer.allocate(LogRecord.FRAME_HEADER_BYTES);
+                while (position + LogRecord.FRAME_HEADER_BYTES <= logSize) {
+                    header.clear();
+                    logChannel.read(header, position);
+                    header.flip();
+                    int payloadSize = header.getInt();
+                    int checksum = header.getInt();
+                    if (payloadSize <= 0 || position + LogRecord.FRAME_HEADER_BYTES + payloadSize > logSize) {
+                        break;
+                    }
+
+                    ByteBuffer payload = ByteBuffer.allocate(payloadSize);
+                    logChannel.read(payload, position + LogRecord.FRAME_HEADER_BYTES);
+                    if (LogRecord.checksum(payload.array()) != checksum) {
+                        break;
+                    }
+
+                    for (LogRecord logRecord : LogRecord.deserialize(payload.array())) {
+                        FileChannel channel = channels.get(logRecord.path());
+                        if (Objects.isNull(channel)) {
+                            channel = FileChannel.open(logRecord.path(), StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+                            channels.put(logRecord.path(), channel);
+                        }
+                        channel.write(ByteBuffer.wrap(logRecord.bytes()), logRecord.position());
+                    }
+
+                    replayed++;
+                    position += LogRecord.FRAME_HEADER_BYTES + payloadSize;
+                }
+
+                for (FileChannel channel : channels.values()) {
+                    channel.force(true);
+                }
+            } finally {
+                for (FileChannel channel : channels.values()) {
+                    channel.close();
+                }
+            }
+
+            truncate();
+            if (replayed > 0) {
+                logger.info("Replayed {} entries from the write ahead log", replayed);
+            }
+            return replayed;
+        } catch (IOException exception) {
+            throw new StorageException(DbError.FILE_READ_ERROR, String.format("Failed to recover write ahead log: %s", exception.getMessage()));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void checkpoint() throws StorageException, InterruptedTaskException {
+        appendLock.lock();
+        try {
+            while (checkpointing) {
+                checkpointCondition.awaitUninterruptibly();
+            }
+            checkpointing = true;
+        } finally {
+            appendLock.unlock();
+        }
+
+        try {
+            flushQueued();
+            awaitApplied();
+
+            flushLock.lock();
+            try {
+                Set<Path> paths;
+                appendLock.lock();
+                try {
+                    paths = new HashSet<>(touchedPaths);
+                    touchedPaths.clear();
+                } finally {
+                    appendLock.unlock();
+                }
+
+                for (Path touchedPath : paths) {
+                    if (!Files.exists(touchedPath)) {
+                        continue;
+                    }
+                    try (FileChannel channel = FileChannel.open(touchedPath, StandardOpenOption.WRITE)) {
+                        channel.force(true);
+                    }
+                }
+                truncate();
+            } catch (IOException exception) {
+                throw new StorageException(DbError.FILE_WRITE_ERROR, String.format("Failed to checkpoint write ahead log: %s", exception.getMessage()));
+            } finally {
+                flushLock.unlock();
+            }
+        } finally {
+            appendLock.lock();
+            try {
+                checkpointing = false;
+                checkpointCondition.signalAll();
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws StorageException, InterruptedTaskException {
+        appendLock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            pendingCondition.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+
+        try {
+            flusher.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedTaskException(DbError.TASK_INTERRUPTED_ERROR, "Interrupted while stopping the write ahead log");
+        }
+
+        checkpoint();
+        completionExecutor.shutdown();
+        try {
+            logChannel.close();
+        } catch (IOException exception) {
+            throw new StorageException(DbError.FAIL_TO_CLOSE_CHANNEL_ERROR, exception.getMessage());
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            appendLock.lock();
+            try {
+                while (queue.isEmpty() && running) {
+                    pendingCondition.awaitUninterruptibly();
+                }
+                if (queue.isEmpty()) {
+                    return;
+                }
+            } finally {
+                appendLock.unlock();
+            }
+
+            try {
+                flushQueued();
+                if (logSize >= checkpointSize) {
+                    checkpoint();
+                }
+            } catch (StorageException | InterruptedTaskException exception) {
+                logger.error("Failed to flush write ahead log", exception);
+            }
+        }
+    }
+
+    /**
+     * Writes every queued entry with a single write and forces the log. Entries are drained while holding the
+     * flush lock, so the order in the file always matches the order of their sequence numbers.
+     */
+    private void flushQueued() {
+        flushLock.lock();
+        try {
+            List<PendingEntry> batch;
+            appendLock.lock();
+            try {
+                batch = new ArrayList<>(queue);
+                queue.clear();
+            } finally {
+                appendLock.unlock();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            int batchSize = 0;
+            for (PendingEntry entry : batch) {
+                batchSize += entry.frame().length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(batchSize);
+            for (PendingEntry entry : batch) {
+                buffer.put(entry.frame());
+            }
+            buffer.flip();
+
+            try {
+                while (buffer.hasRemaining()) {
+                    logSize += logChannel.write(buffer, logSize);
+                }
+                logChannel.force(false);
+            } catch (IOException exception) {
+                for (PendingEntry entry : batch) {
+                    completionExecutor.execute(() -> entry.future().completeExceptionally(new StorageException(DbError.FILE_WRITE_ERROR, "Failed to write to write ahead log")));
+                }
+                return;
+            }
+
+            for (PendingEntry entry : batch) {
+                completionExecutor.execute(() -> entry.future().complete(entry.sequenceNumber()));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void awaitApplied() throws InterruptedTaskException {
+        synchronized (appliedMonitor) {
+            while (inFlight > 0) {
+                try {
+                    appliedMonitor.wait();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedTaskException(DbError.TASK_INTERRUPTED_ERROR, "Interrupted while waiting for logged writes to be applied");
+                }
+            }
+        }
+    }
+
+    private void truncate() throws IOException {
+        logChannel.truncate(0);
+        logChannel.force(true);
+        logSize = 0;
+    }
+
+    private record PendingEntry(long sequenceNumber, byte[] frame, CompletableFuture<Long> future) {
+    }
+}
@@ -0,0 +1,72 @@
+package org.elece.storage.wal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Physical redo record: the bytes that are about to be written to a file at a given position.
+ * <p>
+ * Records only describe the final content of a file range, so replaying them is idempotent and the log does not
+ * need to know whether the write reached the data file before a crash. An entry can hold several records, which are
+ * either all replayed or not at all.
+ * <p>
+ * On disk each entry is framed as {@code length | crc32 | payload}, where the payload holds the record count
+ * followed by {@code pathLength | path | position | dataLength | data} for each record. A frame whose checksum
+ * does not match marks a torn tail and ends recovery.
+ */
+public record LogRecord(Path path, long position, byte[] bytes) {
+    static final int FRAME_HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+
+    static byte[] serialize(List<LogRecord> records) {
+        List<byte[]> paths = new ArrayList<>(records.size());
+        int payloadSize = Integer.BYTES;
+        for (LogRecord record : records) {
+            byte[] path = record.path().toString().getBytes(StandardCharsets.UTF_8);
+            paths.add(path);
+            payloadSize += Short.BYTES + path.length + Long.BYTES + Integer.BYTES + record.bytes().length;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(payloadSize);
+        payload.putInt(records.size());
+        for (int index = 0; index < records.size(); index++) {
+            LogRecord record = records.get(index);
+            byte[] path = paths.get(index);
+            payload.putShort((short) path.length);
+            payload.put(path);
+            payload.putLong(record.position());
+            payload.putInt(record.bytes().length);
+            payload.put(record.bytes());
+        }
+
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payloadSize);
+        frame.putInt(payloadSize);
+        frame.putInt(checksum(payload.array()));
+        frame.put(payload.array());
+        return frame.array();
+    }
+
+    static List<LogRecord> deserialize(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int count = buffer.getInt();
+        List<LogRecord> records = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            byte[] path = new byte[buffer.getShort()];
+            buffer.get(path);
+            long position = buffer.getLong();
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            records.add(new LogRecord(Path.of(new String(path, StandardCharsets.UTF_8)), position, bytes));
+        }
+        return records;
+    }
+
+    static int checksum(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+}
@@ -0,0 +1,169 @@
+package org.elece.storage.wal;
+
+import org.elece.exception.*;
+import org.elece.storage.file.FileChannel;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Decorator that logs every change to the underlying file in the {@link WriteAheadLog} before applying it.
+ * <p>
+ * Each write is only handed to the underlying channel once its log entry is durable, and the log is told once the
+ * write has been applied, successfully or not. Changes are appended to the log and chained after the previous change
+ * to the same file while holding the channel lock, so they are applied to the file in the same order they have in the
+ * log, even though log entries are completed on a thread pool. Allocations at the end of the file are logged as the
+ * zeroes they append, at the end of the file including the changes that are logged but not applied yet.
+ * Allocations in the middle of the file are rejected: they would have to log the whole tail of the file they move.
+ * Reads are served directly by the underlying channel.
+ */
+public class WalFileChannel implements FileChannel {
+    private final FileChannel fileChannel;
+    private final Path path;
+    private final WriteAheadLog writeAheadLog;
+    private final Object lock;
+    private CompletableFuture<Void> lastChange;
+    private long loggedSize;
+
+    public WalFileChannel(FileChannel fileChannel, Path path, WriteAheadLog writeAheadLog) {
+        this.fileChannel = fileChannel;
+        this.path = path;
+        this.writeAheadLog = writeAheadLog;
+        this.lock = new Object();
+        this.lastChange = CompletableFuture.completedFuture(null);
+        this.loggedSize = -1;
+    }
+
+    @Override
+    public CompletableFuture<Integer> writeAsync(long position, byte[] bytes) throws FileChannelException,
+                                                                                     StorageException {
+        synchronized (lock) {
+            long size = Math.max(getLoggedSize(), position + bytes.length);
+            CompletableFuture<Integer> future = logAndApply(List.of(new LogRecord(path, position, bytes)), () -> fileChannel.writeAsync(position, bytes));
+            loggedSize = size;
+            return future;
+        }
+    }
+
+    @Override
+    public Integer write(long position, byte[] bytes) throws FileChannelException, StorageException,
+                                                             InterruptedTaskException {
+        return handleFuture(writeAsync(position, bytes));
+    }
+
+    @Override
+    public CompletableFuture<byte[]> readAsync(long position, int size) throws FileChannelException,
+                                                                               StorageException {
+        return fileChannel.readAsync(position, size);
+    }
+
+    @Override
+    public byte[] read(long position, int size) throws FileChannelException, StorageException,
+                                                       InterruptedTaskException {
+        return fileChannel.read(position, size);
+    }
+
+    @Override
+    public CompletableFuture<Long> allocateAsync(long position, int size) throws StorageException {
+        throw new StorageException(DbError.FAILED_TO_ALLOCATE_BYTES_ERROR,
+                "Allocating in the middle of a file is not supported with the write ahead log");
+    }
+
+    @Override
+    public CompletableFuture<Long> allocateAsync(int size) throws FileChannelException, StorageException {
+        synchronized (lock) {
+            long position = getLoggedSize();
+            CompletableFuture<Integer> future = logAndApply(List.of(new LogRecord(path, position, new byte[size])), () -> fileChannel.writeAsync(position, new byte[size]));
+            loggedSize = position + size;
+            return future.thenApply(_ -> position);
+        }
+    }
+
+    @Override
+    public Long allocate(long position, int size) throws FileChannelException, StorageException,
+                                                         InterruptedTaskException {
+        return handleFuture(allocateAsync(position, size));
+    }
+
+    @Override
+    public Long allocate(int size) throws FileChannelException, StorageException, InterruptedTaskException {
+        return handleFuture(allocateAsync(size));
+    }
+
+    @Override
+    public Long size() throws FileChannelException, StorageException {
+        return fileChannel.size();
+    }
+
+    @Override
+    public void close() throws FileChannelException {
+        fileChannel.close();
+    }
+
+    @Override
+    public boolean supportsAsync() {
+        return fileChannel.supportsAsync();
+    }
+
+    /**
+     * Size of the file once every logged change is applied. Must be called while holding the channel lock.
+     */
+    private long getLoggedSize() throws FileChannelException, StorageException {
+        if (loggedSize < 0) {
+            loggedSize = fileChannel.size();
+        }
+        return loggedSize;
+    }
+
+    /**
+     * Appends the records to the log and applies the operation once they are durable and the previous change to the
+     * file has been applied. Must be called while holding the channel lock, so the order of the changes to the file
+     * is the same as the order of their log entries.
+     */
+    private <V> CompletableFuture<V> logAndApply(List<LogRecord> records, ChannelOperation<V> operation) throws
+                                                                                                         StorageException {
+        CompletableFuture<V> output = new CompletableFuture<>();
+        CompletableFuture<Long> logged = writeAheadLog.append(records);
+        lastChange.thenCompose(_ -> logged).whenComplete((_, logThrowable) -> {
+            if (logThrowable != null) {
+                writeAheadLog.applied();
+                output.completeExceptionally(logThrowable);
+                return;
+            }
+
+            try {
+                operation.apply().whenComplete((result, throwable) -> {
+                    writeAheadLog.applied();
+                    if (throwable != null) {
+                        output.completeExceptionally(throwable);
+                    } else {
+                        output.complete(result);
+                    }
+                });
+            } catch (FileChannelException | StorageException exception) {
+                writeAheadLog.applied();
+                output.completeExceptionally(exception);
+            }
+        });
+        lastChange = output.handle((_, _) -> null);
+        return output;
+    }
+
+    private <V> V handleFuture(CompletableFuture<V> future) throws InterruptedTaskException {
+        try {
+            return future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedTaskException(DbError.TASK_INTERRUPTED_ERROR, "File IO operation interrupted");
+        } catch (ExecutionException e) {
+            throw new InterruptedTaskException(DbError.TASK_ENDED_IN_FAILURE_ERROR, "File IO operation failed");
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChannelOperation<V> {
+        CompletableFuture<V> apply() throws FileChannelException, StorageException;
+    }
+}
@@ -0,0 +1,27 @@
+package org.elece.storage.wal;
+
+import org.elece.exception.StorageException;
+import org.elece.storage.file.FileHandler;
+import org.elece.storage.file.FileHandlerFactory;
+
+import java.nio.file.Path;
+
+/**
+ * Wraps the channels created by another factory in a {@link WalFileChannel}, so every file opened through the file
+ * handler pools is covered by the write ahead log.
+ */
+public class WalFileHandlerFactory implements FileHandlerFactory {
+    private final FileHandlerFactory fileHandlerFactory;
+    private final WriteAheadLog writeAheadLog;
+
+    public WalFileHandlerFactory(FileHandlerFactory fileHandlerFactory, WriteAheadLog writeAheadLog) {
+        this.fileHandlerFactory = fileHandlerFactory;
+        this.writeAheadLog = writeAheadLog;
+    }
+
+    @Override
+    public FileHandler getFileHandler(Path path) throws StorageException {
+        FileHandler fileHandler = fileHandlerFactory.getFileHandler(path);
+        return new FileHandler(new WalFileChannel(fileHandler.getChannel(), path, writeAheadLog));
+    }
+}
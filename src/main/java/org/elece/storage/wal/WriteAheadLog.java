@@ -0,0 +1,42 @@
+package org.elece.storage.wal;
+
+import org.elece.exception.InterruptedTaskException;
+import org.elece.exception.StorageException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sequential, append-only log of the changes done to data and index files.
+ * <p>
+ * Every file write is appended to the log before it is applied, and it is only applied once the log entry is
+ * durable. This allows the data files themselves to be written without forcing them to disk: after a crash,
+ * {@link #recover()} replays the log and brings every file back to its last logged state.
+ */
+public interface WriteAheadLog {
+    /**
+     * Appends the records as a single entry. The returned future completes with the log sequence number of the
+     * entry once it has been forced to disk. Entries appended concurrently are forced together (group commit).
+     * <p>
+     * The caller must invoke {@link #applied()} once the records have been written to their files, so that
+     * checkpoints know when the log can be safely truncated.
+     */
+    CompletableFuture<Long> append(List<LogRecord> records) throws StorageException;
+
+    void applied();
+
+    /**
+     * Replays every complete entry in the log onto the files it describes, forces them and truncates the log.
+     * Must run before any of those files is opened for regular use.
+     *
+     * @return the number of replayed entries.
+     */
+    int recover() throws StorageException;
+
+    /**
+     * Waits for every appended entry to be applied, forces the files they touched and truncates the log.
+     */
+    void checkpoint() throws StorageException, InterruptedTaskException;
+
+    void close() throws StorageException, InterruptedTaskException;
+}
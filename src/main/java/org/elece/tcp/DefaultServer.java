@@ -4,6 +4,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elece.config.DbConfig;
 import org.elece.exception.*;
+import org.elece.storage.wal.WriteAheadLog;
 import org.elece.thread.DefaultSocketWorker;
 import org.elece.thread.ManagedThreadPool;
 import org.elece.thread.SocketWorker;
@@ -13,6 +14,7 @@ import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.Objects;
+import java.util.Optional;
 
 public class DefaultServer implements Server {
     private final Logger logger = LogManager.getLogger(DefaultServer.class);
@@ -64,6 +66,12 @@ public class DefaultServer implements Server {
             logger.debug("Closing server socket gracefully");
             serverSocket.close();
         }
+        dependencyContainer.getColumnIndexManagerProvider().close();
+        dependencyContainer.getDatabaseStorageManager().close();
+        Optional<WriteAheadLog> writeAheadLog = dependencyContainer.getWriteAheadLog();
+        if (writeAheadLog.isPresent()) {
+            writeAheadLog.get().close();
+        }
         dependencyContainer.getFileHandlerPoolFactory().getFileHandlerPool().closeAll();
     }
 
@@ -4,10 +4,13 @@ import org.elece.config.DbConfig;
 import org.elece.db.DatabaseStorageManager;
 import org.elece.db.DiskPageDatabaseStorageManager;
 import org.elece.db.InMemoryReservedSlotTracer;
+import org.elece.db.PersistentReservedSlotTracer;
 import org.elece.db.ReservedSlotTracer;
 import org.elece.db.schema.JsonSchemaManager;
 import org.elece.db.schema.SchemaManager;
+import org.elece.exception.RuntimeDbException;
 import org.elece.exception.SchemaException;
+import org.elece.exception.StorageException;
 import org.elece.index.ColumnIndexManagerProvider;
 import org.elece.index.DefaultColumnIndexManagerProvider;
 import org.elece.query.QueryPlanner;
@@ -18,8 +21,11 @@ import org.elece.storage.index.DefaultIndexStorageManagerFactory;
 import org.elece.storage.index.IndexStorageManagerFactory;
 import org.elece.storage.index.header.DefaultIndexHeaderManagerFactory;
 import org.elece.storage.index.header.IndexHeaderManagerFactory;
+import org.elece.storage.wal.FileWriteAheadLog;
+import org.elece.storage.wal.WriteAheadLog;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Holds and lazily builds the shared, process-wide dependency graph.
@@ -38,6 +44,7 @@ public class DependencyContainer {
     private ReservedSlotTracer reservedSlotTracer;
     private IndexHeaderManagerFactory indexHeaderManagerFactory;
     private QueryPlanner queryPlanner;
+    private WriteAheadLog writeAheadLog;
 
     public DependencyContainer(DbConfig dbConfig) {
         this.dbConfig = dbConfig;
@@ -59,14 +66,41 @@ public class DependencyContainer {
 
     public synchronized FileHandlerPoolFactory getFileHandlerPoolFactory() {
         if (Objects.isNull(fileHandlerPoolFactory)) {
-            fileHandlerPoolFactory = new DefaultFileHandlerPoolFactory(dbConfig);
+            fileHandlerPoolFactory = new DefaultFileHandlerPoolFactory(dbConfig, getWriteAheadLog().orElse(null));
         }
         return fileHandlerPoolFactory;
     }
 
+    /**
+     * The write ahead log is recovered as soon as it is built, which happens before the file handler pool opens
+     * any data or index file, so replayed changes are always visible to the rest of the dependency graph.
+     */
+    public synchronized Optional<WriteAheadLog> getWriteAheadLog() {
+        if (!dbConfig.isWalEnabled()) {
+            return Optional.empty();
+        }
+        if (Objects.isNull(writeAheadLog)) {
+            try {
+                writeAheadLog = new FileWriteAheadLog(dbConfig);
+                writeAheadLog.recover();
+            } catch (StorageException exception) {
+                throw new RuntimeDbException(exception.getDbError(), exception.getMessage());
+            }
+        }
+        return Optional.of(writeAheadLog);
+    }
+
     public synchronized ReservedSlotTracer getReservedSlotTracer() {
         if (Objects.isNull(reservedSlotTracer)) {
-            reservedSlotTracer = new InMemoryReservedSlotTracer();
+            if (dbConfig.getReservedSlotTracerStrategy() == DbConfig.ReservedSlotTracerStrategy.IN_MEMORY) {
+                reservedSlotTracer = new InMemoryReservedSlotTracer();
+            } else {
+                try {
+                    reservedSlotTracer = new PersistentReservedSlotTracer(dbConfig);
+                } catch (StorageException exception) {
+                    throw new RuntimeDbException(exception.getDbError(), exception.getMessage());
+                }
+            }
         }
         return reservedSlotTracer;
     }
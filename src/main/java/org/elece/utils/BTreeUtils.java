@@ -50,25 +50,10 @@ public class BTreeUtils {
         }
 
         // We can guarantee from this point forward that the node is in internal node.
-        // So we obtain the node pointers to its children.
-        List<InternalTreeNode.ChildPointers<K>> childPointersList = ((InternalTreeNode<K>) node).getChildPointersList(degree);
-        for (int childrenIndex = 0; childrenIndex < childPointersList.size(); childrenIndex++) {
-            InternalTreeNode.ChildPointers<K> childPointers = childPointersList.get(childrenIndex);
-
-            // If the current key in the child pointers is greater than the identifier, traverse the left child
-            if (childPointers.getKey().compareTo(identifier) > 0 && childPointers.getLeft() != null) {
-                path.addFirst(node);
-                getPathToResponsibleNode(session, path, session.read(childPointers.getLeft()), identifier, degree);
-                return;
-            }
-
-            // If this is the last child pointer and no match is found, traverse the right child
-            if (childrenIndex == childPointersList.size() - 1 && childPointers.getRight() != null) {
-                path.addFirst(node);
-                getPathToResponsibleNode(session, path, session.read(childPointers.getRight()), identifier, degree);
-                return;
-            }
-        }
+        // The child to follow is found with a binary search over the node's keys, which are not deserialized.
+        path.addFirst(node);
+        Pointer childPointer = ((InternalTreeNode<K>) node).getChildPointerFor(identifier, degree);
+        getPathToResponsibleNode(session, path, session.read(childPointer), identifier, degree);
     }
 
     public static <K extends Comparable<K>, V> LeafTreeNode<K, V> getResponsibleNode(
@@ -82,26 +67,10 @@ public class BTreeUtils {
             return (LeafTreeNode<K, V>) node;
         }
 
-        List<Pointer> childrenList = ((InternalTreeNode<K>) node).getChildrenList();
-        List<K> keys = node.getKeyList(degree, vIndexBinaryObject.size());
-        int keyIndex;
-        K keyAtIndex;
-        boolean flag = false;
-        for (keyIndex = 0; keyIndex < keys.size(); keyIndex++) {
-            keyAtIndex = keys.get(keyIndex);
-            if (identifier.compareTo(keyAtIndex) < 0) {
-                flag = true;
-                break;
-            }
-        }
+        Pointer childPointer = ((InternalTreeNode<K>) node).getChildPointerFor(identifier, degree);
 
         try {
-            AbstractTreeNode<K> nextNode;
-            if (flag) {
-                nextNode = nodeFactory.fromNodeData(indexStorageManager.readNode(index, childrenList.get(keyIndex), node.getKeyValueSize()).get());
-            } else {
-                nextNode = nodeFactory.fromNodeData(indexStorageManager.readNode(index, childrenList.getLast(), node.getKeyValueSize()).get());
-            }
+            AbstractTreeNode<K> nextNode = nodeFactory.fromNodeData(indexStorageManager.readNode(index, childPointer, node.getKeyValueSize()).get());
             return getResponsibleNode(indexStorageManager, nextNode, identifier, index, degree, nodeFactory, vIndexBinaryObject);
         } catch (InterruptedException exception) {
             Thread.currentThread().interrupt();
@@ -14,7 +14,7 @@ public class BinaryUtils {
     }
 
     public static int bytesToInteger(final byte[] bytes, int originIndex) {
-        return ByteBuffer.wrap(Arrays.copyOfRange(bytes, originIndex, originIndex + Integer.BYTES)).getInt();
+        return ByteBuffer.wrap(bytes, originIndex, Integer.BYTES).getInt();
     }
 
     public static String bytesToString(final byte[] bytes, int originIndex) {
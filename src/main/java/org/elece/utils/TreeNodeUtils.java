@@ -36,6 +36,71 @@ public class TreeNodeUtils {
         return !BinaryUtils.isAllZeros(treeNode.getData(), keyStartIndex, kBinaryObjectFactory.size()) || !BinaryUtils.isAllZeros(treeNode.getData(), keyStartIndex + kBinaryObjectFactory.size(), valueSize);
     }
 
+    /**
+     * Counts the keys stored in a node, which always occupy its first slots, without deserializing any of them.
+     *
+     * @param treeNode             The node to inspect.
+     * @param degree               The degree of the B+ tree.
+     * @param kBinaryObjectFactory Factory of the keys, used for their fixed size.
+     * @param valueSize            The size of the value stored next to each key.
+     * @return The number of keys in the node.
+     */
+    public static <K> int getKeyCount(AbstractTreeNode<?> treeNode, int degree,
+                                      BinaryObjectFactory<K> kBinaryObjectFactory, int valueSize) {
+        int keyCount = 0;
+        while (hasKeyAtIndex(treeNode, keyCount, degree, kBinaryObjectFactory, valueSize)) {
+            keyCount++;
+        }
+        return keyCount;
+    }
+
+    /**
+     * Binary searches the keys of a node directly over its data, comparing each probed key in its serialized form
+     * through {@link BinaryObjectFactory#compare(byte[], int, Object)}, so no key is materialized.
+     *
+     * @param treeNode             The node to search.
+     * @param key                  The key to look for.
+     * @param keyCount             The number of keys in the node.
+     * @param kBinaryObjectFactory Factory of the keys.
+     * @param valueSize            The size of the value stored next to each key.
+     * @return The index of the key if it is present; otherwise, {@code -(insertion point) - 1}, where the insertion
+     * point is the index of the first key greater than the searched one, same as {@link java.util.Arrays#binarySearch}.
+     */
+    public static <K extends Comparable<K>> int binarySearchKey(AbstractTreeNode<?> treeNode, K key, int keyCount,
+                                                                BinaryObjectFactory<K> kBinaryObjectFactory,
+                                                                int valueSize) {
+        int low = 0;
+        int high = keyCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int keyStartIndex = getKeyStartOffset(treeNode, middle, kBinaryObjectFactory.size(), valueSize);
+            int comparison = kBinaryObjectFactory.compare(treeNode.getData(), keyStartIndex, key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Deserializes only the value stored next to the key at the given index of a leaf node.
+     *
+     * @param node                 The leaf node.
+     * @param index                The index of the key whose value is read.
+     * @param keySize              The size of the keys in bytes.
+     * @param vBinaryObjectFactory Factory of the values.
+     * @return The value at the given index.
+     */
+    public static <V> V getValueAtIndex(AbstractTreeNode<?> node, int index, int keySize,
+                                        BinaryObjectFactory<V> vBinaryObjectFactory) {
+        int keyStartIndex = getKeyStartOffset(node, index, keySize, vBinaryObjectFactory.size());
+        return vBinaryObjectFactory.create(node.getData(), keyStartIndex + keySize).asObject();
+    }
+
     private static int getKeyStartOffset(AbstractTreeNode<?> treeNode, int index, int keySize, int valueSize) {
         // Calculates the starting byte offset for a key at a given index within a node's data array.
         if (!treeNode.isLeaf()) {
@@ -101,35 +166,22 @@ public class TreeNodeUtils {
                                                                           BinaryObjectFactory<V> vBinaryObjectFactory,
                                                                           V value) throws BTreeException,
                                                                                           SerializationException {
-        int indexToFill = -1;
-        BinaryObject<K> keyAtIndex;
         int keySize = kBinaryObjectFactory.size();
         int valueSize = vBinaryObjectFactory.size();
 
         int maxNodeSize = degree - 1;
 
-        for (int nodeIndex = 0; nodeIndex < maxNodeSize; nodeIndex++) {
-            if (!hasKeyAtIndex(node, nodeIndex, degree, kBinaryObjectFactory, valueSize)) {
-                indexToFill = nodeIndex;
-                break;
-            }
-
-            // Retrieve the key at the current index in the node.
-            keyAtIndex = getKeyAtIndex(node, nodeIndex, kBinaryObjectFactory, valueSize);
-
-            // Deserialize the key.
-            K data = keyAtIndex.asObject();
-
-            // Check if the slot is empty or if the existing key is greater than the new key.
-            // Comparing the keys allows to maintain the keys in the node ordered.
-            if (data.compareTo(key) > 0) {
-                indexToFill = nodeIndex;
-                break;
-            }
+        int keyCount = getKeyCount(node, degree, kBinaryObjectFactory, valueSize);
+        if (keyCount == maxNodeSize) {
+            throw new BTreeException(DbError.FAILED_TO_FIND_INDEX_IN_NODE_ERROR, "Failed to find index in node to insert key");
         }
 
-        if (indexToFill == -1) {
-            throw new BTreeException(DbError.FAILED_TO_FIND_INDEX_IN_NODE_ERROR, "Failed to find index in node to insert key");
+        // The new key goes after every key that is not greater than it, which keeps the keys in the node ordered.
+        int indexToFill = binarySearchKey(node, key, keyCount, kBinaryObjectFactory, valueSize);
+        if (indexToFill < 0) {
+            indexToFill = -(indexToFill + 1);
+        } else {
+            indexToFill++;
         }
 
         int bufferSize = ((maxNodeSize - indexToFill - 1) * (keySize + valueSize));
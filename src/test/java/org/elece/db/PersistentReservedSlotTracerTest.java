@@ -0,0 +1,137 @@
+package org.elece.db;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.exception.StorageException;
+import org.elece.memory.Pointer;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+class PersistentReservedSlotTracerTest {
+    private static final int PAGE_SIZE = 1024;
+
+    private Path dbPath;
+    private DbConfig dbConfig;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dbPath = Files.createTempDirectory("Persistent_Reserved_Slot_Tracer_Test_Case");
+        dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setDbPageSize(PAGE_SIZE)
+                .build();
+    }
+
+    @AfterEach
+    void destroy() throws IOException {
+        FileTestUtils.deleteDirectory(dbPath.toString());
+    }
+
+    @Test
+    void test_bestFitSlotIsReturned() throws StorageException {
+        PersistentReservedSlotTracer reservedSlotTracer = new PersistentReservedSlotTracer(dbConfig);
+        reservedSlotTracer.add(slot(0, 100));
+        reservedSlotTracer.add(slot(200, 40));
+        reservedSlotTracer.add(slot(300, 60));
+
+        Optional<DbObjectSlotLocation> slot = reservedSlotTracer.getFreeDbObjectSlotLocation(50);
+        Assertions.assertTrue(slot.isPresent());
+        Assertions.assertEquals(300, slot.get().pointer().getPosition());
+        Assertions.assertEquals(60, slot.get().length());
+
+        Assertions.assertEquals(0, reservedSlotTracer.getFreeDbObjectSlotLocation(70).orElseThrow().pointer().getPosition());
+        Assertions.assertTrue(reservedSlotTracer.getFreeDbObjectSlotLocation(120).isEmpty());
+        reservedSlotTracer.close();
+    }
+
+    @Test
+    void test_freeSlotsSurviveRestart() throws StorageException {
+        PersistentReservedSlotTracer reservedSlotTracer = new PersistentReservedSlotTracer(dbConfig);
+        reservedSlotTracer.add(slot(0, 100));
+        reservedSlotTracer.add(slot(PAGE_SIZE + 10, 40));
+        reservedSlotTracer.add(slot(PAGE_SIZE + 60, 30));
+        Assertions.assertTrue(reservedSlotTracer.getFreeDbObjectSlotLocation(90).isPresent());
+        reservedSlotTracer.close();
+
+        PersistentReservedSlotTracer reopenedTracer = new PersistentReservedSlotTracer(dbConfig);
+        Assertions.assertTrue(reopenedTracer.getFreeDbObjectSlotLocation(50).isEmpty());
+
+        Optional<DbObjectSlotLocation> slot = reopenedTracer.getFreeDbObjectSlotLocation(35);
+        Assertions.assertTrue(slot.isPresent());
+        Assertions.assertEquals(PAGE_SIZE + 10, slot.get().pointer().getPosition());
+        Assertions.assertEquals(PAGE_SIZE + 60, reopenedTracer.getFreeDbObjectSlotLocation(1).orElseThrow().pointer().getPosition());
+        Assertions.assertTrue(reopenedTracer.getFreeDbObjectSlotLocation(1).isEmpty());
+        reopenedTracer.close();
+    }
+
+    @Test
+    void test_logIsCompacted() throws StorageException, IOException {
+        PersistentReservedSlotTracer reservedSlotTracer = new PersistentReservedSlotTracer(dbConfig);
+        reservedSlotTracer.add(slot(0, 10));
+        for (int index = 1; index <= 2000; index++) {
+            reservedSlotTracer.add(slot(index * 20L, 10));
+            Assertions.assertTrue(reservedSlotTracer.getFreeDbObjectSlotLocation(10).isPresent());
+        }
+        reservedSlotTracer.close();
+
+        Path path = Path.of(dbPath.toString(), PersistentReservedSlotTracer.FILE_NAME);
+        Assertions.assertTrue(Files.size(path) < 2000L * 18);
+
+        PersistentReservedSlotTracer reopenedTracer = new PersistentReservedSlotTracer(dbConfig);
+        Assertions.assertTrue(reopenedTracer.getFreeDbObjectSlotLocation(10).isPresent());
+        Assertions.assertTrue(reopenedTracer.getFreeDbObjectSlotLocation(10).isEmpty());
+        reopenedTracer.close();
+    }
+
+    @Test
+    void test_concurrentAddsAndTakesOfDifferentLengths() throws StorageException, InterruptedException,
+                                                                ExecutionException {
+        PersistentReservedSlotTracer reservedSlotTracer = new PersistentReservedSlotTracer(dbConfig);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        List<Future<Set<Pointer>>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            int length = 10 + thread;
+            futures.add(executorService.submit(() -> {
+                Set<Pointer> taken = new HashSet<>();
+                for (int index = 0; index < 500; index++) {
+                    reservedSlotTracer.add(slot((length * 1000L + index) * PAGE_SIZE, length));
+                    if (index % 2 == 1) {
+                        taken.add(reservedSlotTracer.getFreeDbObjectSlotLocation(length).orElseThrow().pointer());
+                    }
+                }
+                return taken;
+            }));
+        }
+
+        Set<Pointer> taken = new HashSet<>();
+        for (Future<Set<Pointer>> future : futures) {
+            taken.addAll(future.get());
+        }
+        executorService.shutdown();
+
+        // Takes of other lengths may pick a larger slot, but a slot is never handed out twice.
+        Assertions.assertEquals(1000, taken.size());
+        reservedSlotTracer.close();
+
+        PersistentReservedSlotTracer reopenedTracer = new PersistentReservedSlotTracer(dbConfig);
+        int free = 0;
+        while (reopenedTracer.getFreeDbObjectSlotLocation(1).isPresent()) {
+            free++;
+        }
+        Assertions.assertEquals(1000, free);
+        reopenedTracer.close();
+    }
+
+    private DbObjectSlotLocation slot(long position, int length) {
+        return new DbObjectSlotLocation(new Pointer(Pointer.TYPE_DATA, position, 0), length);
+    }
+}
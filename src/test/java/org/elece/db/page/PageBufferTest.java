@@ -0,0 +1,209 @@
+package org.elece.db.page;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.exception.DbException;
+import org.elece.exception.FileChannelException;
+import org.elece.exception.InterruptedTaskException;
+import org.elece.exception.StorageException;
+import org.elece.storage.file.DefaultFileHandlerFactory;
+import org.elece.storage.file.FileHandlerPool;
+import org.elece.storage.file.UnrestrictedFileHandlerPool;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+class PageBufferTest {
+    private static final int PAGE_SIZE = 128;
+
+    private Path dbPath;
+    private Function<Integer, Path> dbFileFunction;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dbPath = Files.createTempDirectory("Page_Buffer_Test_Case");
+        dbFileFunction = chunk -> Path.of(dbPath.toString(), String.format("elece_%d.db.bin", chunk));
+    }
+
+    @AfterEach
+    void destroy() throws IOException {
+        FileTestUtils.deleteDirectory(dbPath.toString());
+    }
+
+    private PageBuffer pageBuffer(long flushInterval, int bufferSize) {
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setDbPageSize(PAGE_SIZE)
+                .setDbPageBufferSize(bufferSize)
+                .setDbPageFlushInterval(flushInterval)
+                .setDbPageDirtyRatio(1.0)
+                .build();
+        FileHandlerPool fileHandlerPool = new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig);
+        return new PageBuffer(dbConfig, new DefaultPageFactory(dbConfig, fileHandlerPool, dbFileFunction), fileHandlerPool, dbFileFunction);
+    }
+
+    @Test
+    void test_commitIsDeferredUntilFlush() throws DbException, StorageException, InterruptedTaskException,
+                                                  FileChannelException, IOException {
+        PageBuffer pageBuffer = pageBuffer(60_000, 10);
+
+        Page page = pageBuffer.getBufferedNewPage();
+        for (int index = 0; index < 10; index++) {
+            page.getData()[PAGE_SIZE - 1] = (byte) index;
+            pageBuffer.commit(page);
+        }
+        pageBuffer.release(PageTitle.of(page));
+        Assertions.assertEquals(0, Files.readAllBytes(dbFileFunction.apply(0))[PAGE_SIZE - 1]);
+
+        pageBuffer.flush();
+        Assertions.assertEquals(9, Files.readAllBytes(dbFileFunction.apply(0))[PAGE_SIZE - 1]);
+        pageBuffer.close();
+    }
+
+    @Test
+    void test_evictedDirtyPageIsNotLost() throws DbException, StorageException, InterruptedTaskException,
+                                                 FileChannelException, IOException {
+        PageBuffer pageBuffer = pageBuffer(60_000, 1);
+
+        Page first = pageBuffer.getBufferedNewPage();
+        first.getData()[PAGE_SIZE - 1] = 7;
+        pageBuffer.commit(first);
+        pageBuffer.release(PageTitle.of(first));
+
+        // Loading other pages pushes the dirty page out of the cache.
+        for (int index = 0; index < 3; index++) {
+            Page other = pageBuffer.getBufferedNewPage();
+            pageBuffer.release(PageTitle.of(other));
+        }
+
+        Page reacquired = pageBuffer.acquire(PageTitle.of(first));
+        Assertions.assertEquals(7, reacquired.getData()[PAGE_SIZE - 1]);
+        pageBuffer.release(PageTitle.of(reacquired));
+
+        pageBuffer.close();
+        Assertions.assertEquals(7, Files.readAllBytes(dbFileFunction.apply(0))[PAGE_SIZE - 1]);
+    }
+
+    @Test
+    void test_writeThroughWithoutFlushInterval() throws DbException, StorageException, InterruptedTaskException,
+                                                        FileChannelException, IOException {
+        PageBuffer pageBuffer = pageBuffer(0, 10);
+
+        Page page = pageBuffer.getBufferedNewPage();
+        page.getData()[PAGE_SIZE - 1] = 3;
+        pageBuffer.commit(page);
+        pageBuffer.release(PageTitle.of(page));
+
+        Assertions.assertEquals(3, Files.readAllBytes(dbFileFunction.apply(0))[PAGE_SIZE - 1]);
+    }
+
+    @Test
+    void test_concurrentAcquireSharesOnePage() throws Exception {
+        PageBuffer pageBuffer = pageBuffer(0, 10);
+        Page page = pageBuffer.getBufferedNewPage();
+        PageTitle pageTitle = PageTitle.of(page);
+        pageBuffer.release(pageTitle);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<Page>> acquired = new ArrayList<>();
+        for (int index = 0; index < 64; index++) {
+            acquired.add(executorService.submit(() -> pageBuffer.acquire(pageTitle)));
+        }
+        for (Future<Page> future : acquired) {
+            Assertions.assertSame(page, future.get());
+        }
+        executorService.shutdown();
+
+        for (int index = 0; index < acquired.size(); index++) {
+            pageBuffer.release(pageTitle);
+        }
+        pageBuffer.close();
+    }
+
+    @Test
+    void test_concurrentAcquiresOfEvictedPagesShareOneCopy() throws Exception {
+        PageBuffer pageBuffer = pageBuffer(0, 1);
+        int pageCount = 4;
+        int threads = 8;
+        int incrementsPerThread = 1000;
+        List<PageTitle> pageTitles = new ArrayList<>();
+        for (int index = 0; index < pageCount; index++) {
+            Page page = pageBuffer.getBufferedNewPage();
+            pageTitles.add(PageTitle.of(page));
+            pageBuffer.release(PageTitle.of(page));
+        }
+        Object[] pageLocks = new Object[pageCount];
+        Arrays.setAll(pageLocks, _ -> new Object());
+
+        // With a single buffered page, pages are evicted and loaded again all the time. Two copies of a page would each
+        // miss the increments made to the other.
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Future<Void>> incremented = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            int firstPage = thread;
+            incremented.add(executorService.submit(() -> {
+                for (int increment = 0; increment < incrementsPerThread; increment++) {
+                    int pageIndex = (firstPage + increment) % pageCount;
+                    Page page = pageBuffer.acquire(pageTitles.get(pageIndex));
+                    synchronized (pageLocks[pageIndex]) {
+                        ByteBuffer data = ByteBuffer.wrap(page.getData());
+                        data.putInt(0, data.getInt(0) + 1);
+                        pageBuffer.commit(page);
+                    }
+                    pageBuffer.release(pageTitles.get(pageIndex));
+                }
+                return null;
+            }));
+        }
+        for (Future<Void> future : incremented) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        int total = 0;
+        for (PageTitle pageTitle : pageTitles) {
+            total += ByteBuffer.wrap(pageBuffer.acquire(pageTitle).getData()).getInt(0);
+            pageBuffer.release(pageTitle);
+        }
+        Assertions.assertEquals(threads * incrementsPerThread, total);
+        pageBuffer.close();
+    }
+
+    @Test
+    void test_concurrentNewPagesAreDistinct() throws Exception {
+        PageBuffer pageBuffer = pageBuffer(0, 100);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<PageTitle>> created = new ArrayList<>();
+        for (int index = 0; index < 32; index++) {
+            created.add(executorService.submit(() -> {
+                Page page = pageBuffer.getBufferedNewPage();
+                pageBuffer.release(PageTitle.of(page));
+                return PageTitle.of(page);
+            }));
+        }
+        List<PageTitle> pageTitles = new ArrayList<>();
+        for (Future<PageTitle> future : created) {
+            pageTitles.add(future.get());
+        }
+        executorService.shutdown();
+
+        Assertions.assertEquals(32, pageTitles.stream().distinct().count());
+        Assertions.assertEquals(32L * PAGE_SIZE, Files.size(dbFileFunction.apply(0)));
+        pageBuffer.close();
+    }
+}
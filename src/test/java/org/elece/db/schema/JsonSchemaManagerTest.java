@@ -109,7 +109,7 @@ class JsonSchemaManagerTest {
         schemaManager.createSchema("new_db");
         schemaManager.createTable(table);
 
-        int rowCount = schemaManager.createIndex(TABLE_NAME, index);
+        int rowCount = schemaManager.createIndex(TABLE_NAME, index, true);
         Assertions.assertEquals(0, rowCount);
 
         Optional<Table> fetchedTable = SchemaSearcher.findTable(schemaManager.getSchema(), TABLE_NAME);
@@ -158,7 +158,7 @@ class JsonSchemaManagerTest {
         Assertions.assertTrue(optionalDbObject.isPresent());
 
         Index newIndex = new Index("name_index", COLUMN_NAME_NORMAL);
-        int rowCount = schemaManager.createIndex(TABLE_NAME, newIndex);
+        int rowCount = schemaManager.createIndex(TABLE_NAME, newIndex, true);
         Assertions.assertEquals(1, rowCount);
 
         SchemaManager validationManager = new JsonSchemaManager(dbConfig, columnIndexManagerProvider, databaseStorageManager);
@@ -2,14 +2,19 @@ package org.elece.index;
 
 import org.elece.db.schema.model.builder.ColumnBuilder;
 import org.elece.index.filter.BloomFilter;
+import org.elece.index.filter.BloomFilterFile;
+import org.elece.index.filter.ScalableBloomFilter;
 import org.elece.memory.data.BinaryObjectFactory;
 import org.elece.memory.tree.node.LeafTreeNode;
 import org.elece.serializer.IntegerSerializer;
 import org.elece.sql.parser.expression.internal.Order;
 import org.elece.sql.parser.expression.internal.SqlType;
+import org.elece.utils.FileTestUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 class BloomFilteredIndexManagerTest {
@@ -77,6 +82,31 @@ class BloomFilteredIndexManagerTest {
         }
     }
 
+    @Test
+    void test_removedKeysAreShortCircuitedByScalableFilter() throws Exception {
+        CountingIndexManager delegate = new CountingIndexManager();
+        BloomFilteredIndexManager<Integer, Integer> manager = new BloomFilteredIndexManager<>(1, delegate, new ScalableBloomFilter<>(100, 0.01, integerFactory()));
+        // Populates the filter from the empty index, so every key added next is counted once.
+        Assertions.assertTrue(manager.getIndex(1).isEmpty());
+
+        for (int key = 1; key <= 1_000; key++) {
+            manager.addIndex(key, key);
+        }
+        for (int key = 1; key <= 900; key++) {
+            Assertions.assertTrue(manager.removeIndex(key));
+        }
+        delegate.getIndexCalls = 0;
+
+        for (int key = 1; key <= 900; key++) {
+            Assertions.assertTrue(manager.getIndex(key).isEmpty());
+        }
+        Assertions.assertTrue(delegate.getIndexCalls < 900 / 2,
+                "expected the filter to short circuit most removed keys, delegate calls: " + delegate.getIndexCalls);
+        for (int key = 901; key <= 1_000; key++) {
+            Assertions.assertTrue(manager.getIndex(key).isPresent(), "removal hid an unrelated key: " + key);
+        }
+    }
+
     @Test
     void test_lazilyPopulatesFromExistingIndex() throws Exception {
         CountingIndexManager delegate = new CountingIndexManager();
@@ -108,6 +138,44 @@ class BloomFilteredIndexManagerTest {
         }
     }
 
+    @Test
+    void test_loadsPersistedFilterWithoutScanningIndex() throws Exception {
+        Path dbPath = Files.createTempDirectory("Bloom_Filtered_Index_Manager_Test_Case");
+        try {
+            BloomFilterFile bloomFilterFile = new BloomFilterFile(dbPath.resolve("bloom.1.bin"));
+            CountingIndexManager delegate = new CountingIndexManager();
+            BloomFilteredIndexManager<Integer, Integer> manager = new BloomFilteredIndexManager<>(1, delegate, new BloomFilter<>(1_000, 0.01, integerFactory()), bloomFilterFile);
+            for (int key = 1; key <= 200; key++) {
+                manager.addIndex(key, key);
+            }
+            Assertions.assertTrue(manager.getIndex(1).isPresent());
+            manager.persist();
+
+            // Reopened over the same index, the filter comes from the file instead of a scan of the index.
+            delegate.sortedIteratorCalls = 0;
+            BloomFilteredIndexManager<Integer, Integer> reopenedManager = new BloomFilteredIndexManager<>(1, delegate, new BloomFilter<>(1_000, 0.01, integerFactory()), bloomFilterFile);
+            for (int key = 1; key <= 200; key++) {
+                Assertions.assertTrue(reopenedManager.getIndex(key).isPresent(), "persisted key not found: " + key);
+            }
+            Assertions.assertEquals(0, delegate.sortedIteratorCalls);
+
+            // A key added after the last write marks the file dirty, as if the process stopped before writing it again.
+            reopenedManager.addIndex(500, 500);
+            BloomFilteredIndexManager<Integer, Integer> recoveredManager = new BloomFilteredIndexManager<>(1, delegate, new BloomFilter<>(1_000, 0.01, integerFactory()), bloomFilterFile);
+            Assertions.assertTrue(recoveredManager.getIndex(500).isPresent());
+            Assertions.assertEquals(1, delegate.sortedIteratorCalls);
+
+            // A filter of another size can't use the file either.
+            delegate.sortedIteratorCalls = 0;
+            recoveredManager.persist();
+            BloomFilteredIndexManager<Integer, Integer> resizedManager = new BloomFilteredIndexManager<>(1, delegate, new BloomFilter<>(5_000, 0.01, integerFactory()), bloomFilterFile);
+            Assertions.assertTrue(resizedManager.getIndex(500).isPresent());
+            Assertions.assertEquals(1, delegate.sortedIteratorCalls);
+        } finally {
+            FileTestUtils.deleteDirectory(dbPath.toString());
+        }
+    }
+
     /**
      * Minimal in-memory {@link IndexManager} that records how many times {@link #getIndex(Integer)} is invoked, so tests
      * can assert whether the filter short circuited a lookup before it reached the backing store.
@@ -115,6 +183,7 @@ class BloomFilteredIndexManagerTest {
     private static final class CountingIndexManager extends AbstractTreeIndexManager<Integer, Integer> {
         private final TreeMap<Integer, Integer> store = new TreeMap<>();
         private int getIndexCalls = 0;
+        private int sortedIteratorCalls = 0;
 
         private CountingIndexManager() {
             super(1);
@@ -148,6 +217,7 @@ class BloomFilteredIndexManagerTest {
 
         @Override
         public LockableIterator<LeafTreeNode.KeyValue<Integer, Integer>> getSortedIterator() {
+            sortedIteratorCalls++;
             Iterator<Map.Entry<Integer, Integer>> entries = store.entrySet().iterator();
             return new LockableIterator<>() {
                 @Override
@@ -0,0 +1,86 @@
+package org.elece.index;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.db.schema.model.builder.ColumnBuilder;
+import org.elece.exception.*;
+import org.elece.memory.Pointer;
+import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.serializer.IntegerSerializer;
+import org.elece.sql.parser.expression.internal.SqlType;
+import org.elece.storage.file.DefaultFileHandlerFactory;
+import org.elece.storage.file.UnrestrictedFileHandlerPool;
+import org.elece.storage.index.header.DefaultIndexHeaderManagerFactory;
+import org.elece.storage.index.OrganizedIndexStorageManager;
+import org.elece.storage.index.session.factory.DefaultSessionFactory;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.*;
+
+class ClusterIdSequenceTest {
+    private Path dbPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dbPath = Files.createTempDirectory("Cluster_Id_Sequence_Test_Case");
+    }
+
+    @AfterEach
+    void destroy() throws IOException {
+        FileTestUtils.deleteDirectory(dbPath.toString());
+    }
+
+    @Test
+    void test_sequenceContinuesAfterLastClusterId() throws BTreeException, StorageException, SerializationException,
+                                                          InterruptedTaskException, FileChannelException, IOException {
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setBTreeDegree(4)
+                .setBTreeGrowthNodeAllocationCount(2)
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .build();
+        BinaryObjectFactory<Integer> kBinaryObjectFactory = new IntegerSerializer().getBinaryObjectFactory(ColumnBuilder.builder().setSqlType(SqlType.intType).build());
+        IndexManager<Integer, Pointer> clusterIndexManager = new ClusterTreeIndexManager<>(1,
+                new OrganizedIndexStorageManager("cluster", new DefaultIndexHeaderManagerFactory(), dbConfig, new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig)),
+                DefaultSessionFactory.getInstance(dbConfig), dbConfig, kBinaryObjectFactory);
+
+        Assertions.assertEquals(1, ClusterIdSequence.fromClusterIndex(clusterIndexManager).next());
+
+        for (int clusterId = 1; clusterId <= 10; clusterId++) {
+            clusterIndexManager.addIndex(clusterId, new Pointer(Pointer.TYPE_DATA, clusterId, 0));
+        }
+        Assertions.assertEquals(11, ClusterIdSequence.fromClusterIndex(clusterIndexManager).next());
+    }
+
+    @Test
+    void test_concurrentCallersGetDistinctIds() throws InterruptedException, ExecutionException {
+        ClusterIdSequence clusterIdSequence = new ClusterIdSequence(5);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<?> future : executorService.invokeAll(Collections.nCopies(8, (Callable<Void>) () -> {
+                for (int index = 0; index < 1000; index++) {
+                    ids.add(clusterIdSequence.next());
+                }
+                return null;
+            }))) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        Assertions.assertEquals(8000, ids.size());
+        Assertions.assertEquals(8006, clusterIdSequence.next());
+    }
+}
@@ -0,0 +1,55 @@
+package org.elece.index;
+
+import org.elece.db.schema.model.builder.ColumnBuilder;
+import org.elece.exception.BTreeException;
+import org.elece.exception.SerializationException;
+import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.memory.data.CompositeKeyBinaryObject;
+import org.elece.serializer.IntegerSerializer;
+import org.elece.serializer.StringSerializer;
+import org.elece.sql.parser.expression.internal.SqlType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class CompositeKeyTest {
+    private static BinaryObjectFactory<CompositeKey> stringIntegerFactory() {
+        return new CompositeKeyBinaryObject.Factory(List.of(
+                new StringSerializer().getBinaryObjectFactory(ColumnBuilder.builder().setSqlType(SqlType.varchar(8)).build()),
+                new IntegerSerializer().getBinaryObjectFactory(ColumnBuilder.builder().setSqlType(SqlType.intType).build())
+        ));
+    }
+
+    @Test
+    void test_prefixesBoundTheKeysStartingWithThem() {
+        CompositeKey key = CompositeKey.of(5, 10);
+
+        Assertions.assertTrue(CompositeKey.lowest(5).compareTo(key) < 0);
+        Assertions.assertTrue(CompositeKey.highest(5).compareTo(key) > 0);
+        Assertions.assertTrue(CompositeKey.highest(4).compareTo(key) < 0);
+        Assertions.assertTrue(CompositeKey.lowest(6).compareTo(key) > 0);
+        Assertions.assertTrue(key.compareTo(CompositeKey.highest(5)) < 0);
+        Assertions.assertTrue(CompositeKey.of(5, 9).compareTo(key) < 0);
+        Assertions.assertEquals(0, CompositeKey.of(5, 10).compareTo(key));
+    }
+
+    @Test
+    void test_serializedKeysCompareLikeKeys() throws BTreeException, SerializationException {
+        BinaryObjectFactory<CompositeKey> factory = stringIntegerFactory();
+        CompositeKey key = factory.normalize(CompositeKey.of("abc", 7));
+        byte[] bytes = factory.create(key).getBytes();
+
+        Assertions.assertEquals(key, factory.create(bytes).asObject());
+        Assertions.assertEquals(0, factory.compare(bytes, 0, key));
+        Assertions.assertTrue(factory.compare(bytes, 0, factory.normalize(CompositeKey.lowest("abc"))) > 0);
+        Assertions.assertTrue(factory.compare(bytes, 0, factory.normalize(CompositeKey.highest("abc"))) < 0);
+        Assertions.assertTrue(factory.compare(bytes, 0, factory.normalize(CompositeKey.of("abc", 8))) < 0);
+        Assertions.assertTrue(factory.compare(bytes, 0, factory.normalize(CompositeKey.lowest("abd"))) < 0);
+    }
+
+    @Test
+    void test_prefixesCantBeStored() {
+        Assertions.assertThrows(SerializationException.class, () -> stringIntegerFactory().create(CompositeKey.lowest("abc")));
+    }
+}
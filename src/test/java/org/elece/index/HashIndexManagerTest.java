@@ -0,0 +1,249 @@
+package org.elece.index;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.db.schema.model.builder.ColumnBuilder;
+import org.elece.exception.*;
+import org.elece.memory.Pointer;
+import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.memory.data.PointerBinaryObject;
+import org.elece.memory.tree.node.LeafTreeNode;
+import org.elece.serializer.IntegerSerializer;
+import org.elece.serializer.StringSerializer;
+import org.elece.sql.parser.expression.internal.Order;
+import org.elece.sql.parser.expression.internal.SqlType;
+import org.elece.storage.file.DefaultFileHandlerFactory;
+import org.elece.storage.file.FileHandlerPool;
+import org.elece.storage.file.UnrestrictedFileHandlerPool;
+import org.elece.storage.index.HashIndexStorageManager;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+class HashIndexManagerTest {
+    // Enough keys to split the first bucket several times.
+    private static final int KEY_COUNT = 3000;
+
+    private Path dbPath;
+    private FileHandlerPool fileHandlerPool;
+    private Path indexPath;
+
+    private BinaryObjectFactory<Integer> integerKBinaryObjectFactory;
+    private BinaryObjectFactory<String> stringKBinaryObjectFactory;
+    private PointerBinaryObject.Factory pointerVBinaryObjectFactory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dbPath = Files.createTempDirectory("Hash_Index_Manager_Test_Case");
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .build();
+        fileHandlerPool = new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig);
+        indexPath = Path.of(dbPath.toString(), "hash.test.bin");
+
+        integerKBinaryObjectFactory = new IntegerSerializer().getBinaryObjectFactory(ColumnBuilder.builder().setSqlType(SqlType.intType).build());
+        stringKBinaryObjectFactory = new StringSerializer().getBinaryObjectFactory(ColumnBuilder.builder().setSqlType(SqlType.varchar(255)).build());
+        pointerVBinaryObjectFactory = new PointerBinaryObject.Factory();
+    }
+
+    @AfterEach
+    void destroy() throws IOException, StorageException, InterruptedTaskException, FileChannelException {
+        fileHandlerPool.closeAll();
+        FileTestUtils.deleteDirectory(dbPath.toString());
+    }
+
+    @Test
+    void test_addGetAndRemoveIntegerKeys() throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        HashIndexManager<Integer, Pointer> indexManager = createIntegerIndexManager();
+        for (int key = 1; key <= KEY_COUNT; key++) {
+            indexManager.addIndex(key, pointer(key));
+        }
+
+        for (int key = 1; key <= KEY_COUNT; key++) {
+            Assertions.assertEquals(Optional.of(pointer(key)), indexManager.getIndex(key));
+        }
+        Assertions.assertTrue(indexManager.getIndex(KEY_COUNT + 1).isEmpty());
+
+        for (int key = 2; key <= KEY_COUNT; key += 2) {
+            Assertions.assertTrue(indexManager.removeIndex(key));
+        }
+        Assertions.assertFalse(indexManager.removeIndex(2));
+
+        for (int key = 1; key <= KEY_COUNT; key++) {
+            Assertions.assertEquals(key % 2 == 1, indexManager.getIndex(key).isPresent());
+        }
+    }
+
+    @Test
+    void test_addDuplicateKey() throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        HashIndexManager<Integer, Pointer> indexManager = createIntegerIndexManager();
+        indexManager.addIndex(1, pointer(1));
+
+        BTreeException exception = Assertions.assertThrows(BTreeException.class, () -> indexManager.addIndex(1, pointer(2)));
+        Assertions.assertEquals(DbError.DUPLICATE_INDEX_INSERTION_ERROR, exception.getDbError());
+        Assertions.assertEquals(Optional.of(pointer(1)), indexManager.getIndex(1));
+    }
+
+    @Test
+    void test_updateIndex() throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        HashIndexManager<Integer, Pointer> indexManager = createIntegerIndexManager();
+        indexManager.addIndex(1, pointer(1));
+
+        indexManager.updateIndex(1, pointer(5));
+        Assertions.assertEquals(Optional.of(pointer(5)), indexManager.getIndex(1));
+        Assertions.assertThrows(BTreeException.class, () -> indexManager.updateIndex(2, pointer(2)));
+    }
+
+    @Test
+    void test_addStringKeys() throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        HashIndexManager<String, Pointer> indexManager = new HashIndexManager<>(1, new HashIndexStorageManager(indexPath, fileHandlerPool),
+                stringKBinaryObjectFactory, pointerVBinaryObjectFactory);
+        for (int key = 1; key <= 500; key++) {
+            indexManager.addIndex("key-" + key, pointer(key));
+        }
+
+        for (int key = 1; key <= 500; key++) {
+            Assertions.assertEquals(Optional.of(pointer(key)), indexManager.getIndex("key-" + key));
+        }
+        Assertions.assertTrue(indexManager.getIndex("key-501").isEmpty());
+    }
+
+    @Test
+    void test_reopenIndex() throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        HashIndexManager<Integer, Pointer> indexManager = createIntegerIndexManager();
+        for (int key = 1; key <= KEY_COUNT; key++) {
+            indexManager.addIndex(key, pointer(key));
+        }
+
+        // The directory of the reopened index is rebuilt from the buckets in the file.
+        HashIndexManager<Integer, Pointer> reopenedIndexManager = createIntegerIndexManager();
+        for (int key = 1; key <= KEY_COUNT; key++) {
+            Assertions.assertEquals(Optional.of(pointer(key)), reopenedIndexManager.getIndex(key));
+        }
+
+        for (int key = KEY_COUNT + 1; key <= 2 * KEY_COUNT; key++) {
+            reopenedIndexManager.addIndex(key, pointer(key));
+        }
+        for (int key = 1; key <= 2 * KEY_COUNT; key++) {
+            Assertions.assertEquals(Optional.of(pointer(key)), reopenedIndexManager.getIndex(key));
+        }
+    }
+
+    @Test
+    void test_reopenAfterInterruptedSplit() throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        // Loses every write after the header counts the bucket appended by the first split, as a crash would.
+        CrashingHashIndexStorageManager storageManager = new CrashingHashIndexStorageManager(indexPath, fileHandlerPool, 2);
+        HashIndexManager<Integer, Pointer> indexManager = new HashIndexManager<>(1, storageManager,
+                integerKBinaryObjectFactory, pointerVBinaryObjectFactory);
+        int key = 0;
+        while (!storageManager.crashed) {
+            key++;
+            indexManager.addIndex(key, pointer(key));
+        }
+
+        // The key being added during the split was lost, every key before it must be found once.
+        HashIndexManager<Integer, Pointer> reopenedIndexManager = createIntegerIndexManager();
+        for (int storedKey = 1; storedKey < key; storedKey++) {
+            Assertions.assertEquals(Optional.of(pointer(storedKey)), reopenedIndexManager.getIndex(storedKey));
+        }
+        Iterator<LeafTreeNode.KeyValue<Integer, Pointer>> sortedIterator = reopenedIndexManager.getSortedIterator();
+        for (int storedKey = 1; storedKey < key; storedKey++) {
+            Assertions.assertEquals(storedKey, sortedIterator.next().key());
+        }
+        Assertions.assertFalse(sortedIterator.hasNext());
+    }
+
+    @Test
+    void test_purgeIndex() throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        HashIndexManager<Integer, Pointer> indexManager = createIntegerIndexManager();
+        for (int key = 1; key <= KEY_COUNT; key++) {
+            indexManager.addIndex(key, pointer(key));
+        }
+
+        indexManager.purgeIndex();
+        Assertions.assertTrue(indexManager.getIndex(1).isEmpty());
+        Assertions.assertTrue(createIntegerIndexManager().getIndex(1).isEmpty());
+
+        indexManager.addIndex(7, pointer(7));
+        Assertions.assertEquals(Optional.of(pointer(7)), indexManager.getIndex(7));
+        Assertions.assertTrue(indexManager.getIndex(1).isEmpty());
+    }
+
+    @Test
+    void test_sortedIteratorAndRangeQueries() throws BTreeException, StorageException, SerializationException,
+            InterruptedTaskException, FileChannelException {
+        HashIndexManager<Integer, Pointer> indexManager = createIntegerIndexManager();
+        for (int key = KEY_COUNT; key >= 1; key--) {
+            indexManager.addIndex(key, pointer(key));
+        }
+
+        Iterator<LeafTreeNode.KeyValue<Integer, Pointer>> sortedIterator = indexManager.getSortedIterator();
+        for (int key = 1; key <= KEY_COUNT; key++) {
+            Assertions.assertEquals(key, sortedIterator.next().key());
+        }
+        Assertions.assertFalse(sortedIterator.hasNext());
+        Assertions.assertEquals(Optional.of(KEY_COUNT), indexManager.getLastIndex());
+
+        Assertions.assertEquals(List.of(pointer(10), pointer(11), pointer(13)),
+                toList(indexManager.getBetweenRange(10, 13, Set.of(12), Order.ASC)));
+        Assertions.assertEquals(List.of(pointer(3), pointer(2), pointer(1)),
+                toList(indexManager.getLessThanEqual(3, Set.of(), Order.DESC)));
+        Assertions.assertEquals(List.of(pointer(KEY_COUNT)),
+                toList(indexManager.getGreaterThan(KEY_COUNT - 1, Set.of(), Order.ASC)));
+    }
+
+    private HashIndexManager<Integer, Pointer> createIntegerIndexManager() {
+        return new HashIndexManager<>(1, new HashIndexStorageManager(indexPath, fileHandlerPool),
+                integerKBinaryObjectFactory, pointerVBinaryObjectFactory);
+    }
+
+    private static class CrashingHashIndexStorageManager extends HashIndexStorageManager {
+        private int remainingHeaderWrites;
+        private boolean crashed;
+
+        private CrashingHashIndexStorageManager(Path path, FileHandlerPool fileHandlerPool, int headerWrites) {
+            super(path, fileHandlerPool);
+            this.remainingHeaderWrites = headerWrites;
+        }
+
+        @Override
+        public void write(long position, byte[] bytes) throws StorageException, InterruptedTaskException,
+                FileChannelException {
+            if (crashed) {
+                return;
+            }
+            super.write(position, bytes);
+            if (position == 0 && --remainingHeaderWrites == 0) {
+                crashed = true;
+            }
+        }
+    }
+
+    private static Pointer pointer(int key) {
+        return new Pointer(Pointer.TYPE_DATA, (long) Pointer.BYTES * key, 1);
+    }
+
+    private static List<Pointer> toList(Iterator<Pointer> iterator) {
+        List<Pointer> pointers = new ArrayList<>();
+        iterator.forEachRemaining(pointers::add);
+        return pointers;
+    }
+}
@@ -4,18 +4,27 @@ import org.elece.config.DbConfig;
 import org.elece.config.DefaultDbConfigBuilder;
 import org.elece.db.schema.model.builder.ColumnBuilder;
 import org.elece.exception.*;
+import org.elece.memory.KeyValueSize;
 import org.elece.memory.Pointer;
 import org.elece.memory.data.BinaryObjectFactory;
 import org.elece.memory.data.PointerBinaryObject;
+import org.elece.memory.tree.node.AbstractTreeNode;
 import org.elece.memory.tree.node.DefaultNodeFactory;
+import org.elece.memory.tree.node.InternalTreeNode;
+import org.elece.memory.tree.node.LeafTreeNode;
 import org.elece.serializer.IntegerSerializer;
 import org.elece.serializer.StringSerializer;
+import org.elece.sql.parser.expression.internal.Order;
 import org.elece.sql.parser.expression.internal.SqlType;
 import org.elece.storage.file.DefaultFileHandlerFactory;
 import org.elece.storage.file.UnrestrictedFileHandlerPool;
 import org.elece.storage.index.IndexStorageManager;
 import org.elece.storage.index.OrganizedIndexStorageManager;
+import org.elece.storage.index.cache.CachedIndexStorageManager;
+import org.elece.storage.index.cache.NodeCache;
 import org.elece.storage.index.header.DefaultIndexHeaderManagerFactory;
+import org.elece.storage.index.session.ImmediateSession;
+import org.elece.storage.index.session.Session;
 import org.elece.storage.index.session.factory.DefaultSessionFactory;
 import org.elece.utils.BTreeUtils;
 import org.elece.utils.BinaryUtils;
@@ -29,7 +38,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.elece.storage.index.AbstractIndexStorageManager.INDEX_FILE_NAME;
 
@@ -206,4 +219,451 @@ class TreeIndexManagerTest {
             Assertions.assertTrue(indexPointer.isEmpty());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void test_pointLookupsOnWideNodes() throws BTreeException, StorageException, SerializationException,
+                                               InterruptedTaskException, FileChannelException, IOException {
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setBTreeDegree(16)
+                .setBTreeGrowthNodeAllocationCount(2)
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .build();
+        IndexStorageManager wideIndexStorageManager = new OrganizedIndexStorageManager("wide", new DefaultIndexHeaderManagerFactory(), dbConfig, new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig));
+        IndexManager<Integer, Pointer> indexManager = new TreeIndexManager<>(1, wideIndexStorageManager, DefaultSessionFactory.getInstance(dbConfig), dbConfig,
+                integerKBinaryObjectFactory, pointerVBinaryObjectFactory, new DefaultNodeFactory<>(integerKBinaryObjectFactory, pointerVBinaryObjectFactory));
+
+        // Negative keys make sure the in-node search compares keys by value and not by their raw bytes.
+        List<Integer> keys = new ArrayList<>();
+        for (int key = -300; key <= 300; key += 3) {
+            if (key != 0) {
+                keys.add(key);
+            }
+        }
+        Collections.shuffle(keys, new Random(11));
+        for (Integer key : keys) {
+            indexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key + 1000L, 0));
+        }
+
+        for (Integer key : keys) {
+            Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, key + 1000L, 0)), indexManager.getIndex(key));
+            Assertions.assertTrue(indexManager.getIndex(key + 1).isEmpty());
+        }
+        Assertions.assertTrue(indexManager.getIndex(-301).isEmpty());
+        Assertions.assertTrue(indexManager.getIndex(301).isEmpty());
+
+        indexManager.updateIndex(-150, new Pointer(Pointer.TYPE_DATA, 1, 0));
+        Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, 1, 0)), indexManager.getIndex(-150));
+        BTreeException exception = Assertions.assertThrows(BTreeException.class, () -> indexManager.updateIndex(-149, new Pointer(Pointer.TYPE_DATA, 1, 0)));
+        Assertions.assertEquals(DbError.INDEX_NOT_FOUND_ERROR, exception.getDbError());
+
+        LockableIterator<LeafTreeNode.KeyValue<Integer, Pointer>> sortedIterator = indexManager.getSortedIterator();
+        Collections.sort(keys);
+        for (Integer key : keys) {
+            Assertions.assertEquals(key, sortedIterator.next().key());
+        }
+        Assertions.assertFalse(sortedIterator.hasNext());
+    }
+
+    @Test
+    void test_sequentialInsertsFillLeaves() throws BTreeException, StorageException, SerializationException,
+                                                   InterruptedTaskException, FileChannelException, IOException {
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setBTreeDegree(16)
+                .setBTreeGrowthNodeAllocationCount(2)
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .build();
+        IndexStorageManager sequentialIndexStorageManager = new OrganizedIndexStorageManager("sequential", new DefaultIndexHeaderManagerFactory(), dbConfig, new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig));
+        DefaultNodeFactory<Integer, Pointer> nodeFactory = new DefaultNodeFactory<>(integerKBinaryObjectFactory, pointerVBinaryObjectFactory);
+        IndexManager<Integer, Pointer> indexManager = new TreeIndexManager<>(1, sequentialIndexStorageManager, DefaultSessionFactory.getInstance(dbConfig), dbConfig,
+                integerKBinaryObjectFactory, pointerVBinaryObjectFactory, nodeFactory);
+
+        for (int key = 1; key < 3000; key += 2) {
+            indexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key, 0));
+        }
+
+        // Appended keys leave every leaf full, except the last one.
+        Session<Integer> session = new ImmediateSession<>(sequentialIndexStorageManager, nodeFactory, 1, new KeyValueSize(integerKBinaryObjectFactory.size(), PointerBinaryObject.BYTES));
+        AbstractTreeNode<Integer> node = session.getRoot().orElseThrow();
+        while (!node.isLeaf()) {
+            node = session.read(((InternalTreeNode<Integer>) node).getChildrenList().getFirst());
+        }
+        List<Integer> leafSizes = new ArrayList<>();
+        Optional<Pointer> nextLeafPointer = Optional.of(node.getPointer());
+        while (nextLeafPointer.isPresent()) {
+            LeafTreeNode<Integer, Pointer> leaf = (LeafTreeNode<Integer, Pointer>) session.read(nextLeafPointer.get());
+            leafSizes.add(leaf.getKeyList(16, PointerBinaryObject.BYTES).size());
+            nextLeafPointer = leaf.getNextSiblingPointer(16);
+        }
+        Assertions.assertEquals(100, leafSizes.size());
+        Assertions.assertTrue(leafSizes.stream().allMatch(size -> size == 15));
+
+        // Keys between the appended ones still split leaves in half.
+        List<Integer> evenKeys = new ArrayList<>();
+        for (int key = 2; key <= 3000; key += 2) {
+            evenKeys.add(key);
+        }
+        Collections.shuffle(evenKeys, new Random(5));
+        for (Integer key : evenKeys) {
+            indexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key, 0));
+        }
+
+        for (int key = 1; key <= 3000; key++) {
+            Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, key, 0)), indexManager.getIndex(key));
+        }
+        LockableIterator<LeafTreeNode.KeyValue<Integer, Pointer>> sortedIterator = indexManager.getSortedIterator();
+        for (int key = 1; key <= 3000; key++) {
+            Assertions.assertEquals(key, sortedIterator.next().key());
+        }
+        Assertions.assertFalse(sortedIterator.hasNext());
+        Assertions.assertEquals(Optional.of(3000), indexManager.getLastIndex());
+    }
+
+    @Test
+    void test_iteratorsReadLeavesAhead() throws BTreeException, StorageException, SerializationException,
+                                                InterruptedTaskException, FileChannelException, IOException, InterruptedException {
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setBTreeDegree(4)
+                .setBTreeGrowthNodeAllocationCount(2)
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .setBTreeReadAheadLeaves(3)
+                .build();
+        IndexStorageManager storedIndexStorageManager = new OrganizedIndexStorageManager("read_ahead", new DefaultIndexHeaderManagerFactory(), dbConfig, new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig));
+        DefaultNodeFactory<Integer, Pointer> nodeFactory = new DefaultNodeFactory<>(integerKBinaryObjectFactory, pointerVBinaryObjectFactory);
+        IndexManager<Integer, Pointer> storedIndexManager = new TreeIndexManager<>(1, storedIndexStorageManager, DefaultSessionFactory.getInstance(dbConfig), dbConfig,
+                integerKBinaryObjectFactory, pointerVBinaryObjectFactory, nodeFactory);
+        for (int key = 1; key <= 300; key++) {
+            storedIndexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key, 0));
+        }
+
+        // The first leaves of the tree, in order.
+        Session<Integer> session = new ImmediateSession<>(storedIndexStorageManager, nodeFactory, 1, new KeyValueSize(integerKBinaryObjectFactory.size(), PointerBinaryObject.BYTES));
+        AbstractTreeNode<Integer> node = session.getRoot().orElseThrow();
+        while (!node.isLeaf()) {
+            node = session.read(((InternalTreeNode<Integer>) node).getChildrenList().getFirst());
+        }
+        List<Pointer> leafPointers = new ArrayList<>();
+        Optional<Pointer> nextLeafPointer = Optional.of(node.getPointer());
+        while (nextLeafPointer.isPresent() && leafPointers.size() < 5) {
+            leafPointers.add(nextLeafPointer.get());
+            nextLeafPointer = ((LeafTreeNode<Integer, Pointer>) session.read(nextLeafPointer.get())).getNextSiblingPointer(4);
+        }
+
+        NodeCache nodeCache = new NodeCache(1000);
+        IndexManager<Integer, Pointer> indexManager = new TreeIndexManager<>(1, new CachedIndexStorageManager(storedIndexStorageManager, nodeCache), DefaultSessionFactory.getInstance(dbConfig), dbConfig,
+                integerKBinaryObjectFactory, pointerVBinaryObjectFactory, nodeFactory);
+
+        // Only the first leaf is read by the iterator, and the three leaves after it are read ahead.
+        LockableIterator<LeafTreeNode.KeyValue<Integer, Pointer>> sortedIterator = indexManager.getSortedIterator();
+        for (Pointer leafPointer : leafPointers.subList(1, 4)) {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (nodeCache.get(1, leafPointer).isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Assertions.assertTrue(nodeCache.get(1, leafPointer).isPresent());
+        }
+        Assertions.assertTrue(nodeCache.get(1, leafPointers.get(4)).isEmpty());
+
+        for (int key = 1; key <= 300; key++) {
+            Assertions.assertTrue(sortedIterator.hasNext());
+            Assertions.assertEquals(key, sortedIterator.next().key());
+        }
+        Assertions.assertFalse(sortedIterator.hasNext());
+
+        // Changing the structure in the middle of a scan drops the leaves read ahead, and the scan goes on from the root.
+        Iterator<Pointer> lessThan = indexManager.getLessThan(250, Set.of(), Order.DESC);
+        for (int key = 249; key > 200; key--) {
+            Assertions.assertTrue(lessThan.hasNext());
+            Assertions.assertEquals(key, lessThan.next().getPosition());
+        }
+        for (int key = 101; key <= 190; key++) {
+            indexManager.removeIndex(key);
+        }
+        for (int key = 200; key >= 1; key = key == 191 ? 100 : key - 1) {
+            Assertions.assertTrue(lessThan.hasNext());
+            Assertions.assertEquals(key, lessThan.next().getPosition());
+        }
+        Assertions.assertFalse(lessThan.hasNext());
+    }
+
+    @Test
+    void test_removeIndexesInRandomOrder() throws BTreeException, StorageException, SerializationException,
+                                                  InterruptedTaskException, FileChannelException, IOException {
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setBTreeDegree(5)
+                .setBTreeGrowthNodeAllocationCount(2)
+                .setSessionStrategy(DbConfig.SessionStrategy.COMMITTABLE)
+                .build();
+        IndexStorageManager removalIndexStorageManager = new OrganizedIndexStorageManager("removal", new DefaultIndexHeaderManagerFactory(), dbConfig, new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig));
+        IndexManager<Integer, Pointer> indexManager = new TreeIndexManager<>(1, removalIndexStorageManager, DefaultSessionFactory.getInstance(dbConfig), dbConfig,
+                integerKBinaryObjectFactory, pointerVBinaryObjectFactory, new DefaultNodeFactory<>(integerKBinaryObjectFactory, pointerVBinaryObjectFactory));
+
+        List<Integer> keys = new ArrayList<>();
+        for (int key = 1; key <= 1000; key++) {
+            keys.add(key);
+        }
+        Collections.shuffle(keys, new Random(3));
+        for (Integer key : keys) {
+            indexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key, 0));
+        }
+
+        // Removing in random order makes nodes borrow from and merge with siblings on both sides, at every level.
+        Collections.shuffle(keys, new Random(5));
+        List<Integer> removedKeys = keys.subList(0, keys.size() / 2);
+        List<Integer> remainingKeys = new ArrayList<>(keys.subList(keys.size() / 2, keys.size()));
+        for (Integer key : removedKeys) {
+            Assertions.assertTrue(indexManager.removeIndex(key));
+        }
+        Assertions.assertFalse(indexManager.removeIndex(removedKeys.getFirst()));
+
+        for (Integer key : removedKeys) {
+            Assertions.assertTrue(indexManager.getIndex(key).isEmpty());
+        }
+        for (Integer key : remainingKeys) {
+            Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, key, 0)), indexManager.getIndex(key));
+        }
+
+        LockableIterator<LeafTreeNode.KeyValue<Integer, Pointer>> sortedIterator = indexManager.getSortedIterator();
+        Collections.sort(remainingKeys);
+        for (Integer key : remainingKeys) {
+            Assertions.assertEquals(key, sortedIterator.next().key());
+        }
+        Assertions.assertFalse(sortedIterator.hasNext());
+
+        for (Integer key : remainingKeys) {
+            Assertions.assertTrue(indexManager.removeIndex(key));
+        }
+        Assertions.assertFalse(indexManager.getSortedIterator().hasNext());
+
+        indexManager.addIndex(7, new Pointer(Pointer.TYPE_DATA, 7, 0));
+        Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, 7, 0)), indexManager.getIndex(7));
+    }
+
+    @Test
+    void test_lazyDeletesLeaveSparseLeavesUntilMerged() throws BTreeException, StorageException, SerializationException,
+                                                              InterruptedTaskException, FileChannelException, IOException {
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setBTreeDegree(10)
+                .setBTreeGrowthNodeAllocationCount(2)
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .setBTreeDeleteStrategy(DbConfig.BTreeDeleteStrategy.LAZY)
+                .setBTreeLazyDeleteFillFactor(0.25)
+                .build();
+        IndexStorageManager lazyIndexStorageManager = new OrganizedIndexStorageManager("lazy", new DefaultIndexHeaderManagerFactory(), dbConfig, new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig));
+        DefaultNodeFactory<Integer, Pointer> nodeFactory = new DefaultNodeFactory<>(integerKBinaryObjectFactory, pointerVBinaryObjectFactory);
+        TreeIndexManager<Integer, Pointer> indexManager = new TreeIndexManager<>(1, lazyIndexStorageManager, DefaultSessionFactory.getInstance(dbConfig), dbConfig,
+                integerKBinaryObjectFactory, pointerVBinaryObjectFactory, nodeFactory);
+
+        for (int key = 1; key <= 1000; key++) {
+            indexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key, 0));
+        }
+        // No delete has left a leaf sparse yet.
+        Assertions.assertEquals(0, indexManager.mergeSparseLeaves());
+        List<Integer> remainingKeys = new ArrayList<>();
+        for (int key = 1; key <= 1000; key++) {
+            if (key % 5 == 0) {
+                remainingKeys.add(key);
+            } else {
+                Assertions.assertTrue(indexManager.removeIndex(key));
+            }
+        }
+
+        // Leaves are only rebalanced by a delete below a quarter of their capacity, and never left empty.
+        List<Integer> leafSizes = getLeafSizes(lazyIndexStorageManager, nodeFactory, 10);
+        Assertions.assertTrue(leafSizes.stream().allMatch(size -> size >= 1));
+        Assertions.assertTrue(leafSizes.stream().anyMatch(size -> size < 4));
+        for (Integer key : remainingKeys) {
+            Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, key, 0)), indexManager.getIndex(key));
+        }
+
+        Assertions.assertTrue(indexManager.mergeSparseLeaves() > 0);
+        Assertions.assertEquals(0, indexManager.mergeSparseLeaves());
+
+        // The last leaf was left with a single key by the appends, not by a delete, so it is not merged.
+        List<Integer> mergedLeafSizes = getLeafSizes(lazyIndexStorageManager, nodeFactory, 10);
+        Assertions.assertTrue(mergedLeafSizes.subList(0, mergedLeafSizes.size() - 1).stream().allMatch(size -> size >= 4));
+        Assertions.assertTrue(mergedLeafSizes.size() < leafSizes.size());
+        for (Integer key : remainingKeys) {
+            Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, key, 0)), indexManager.getIndex(key));
+        }
+        LockableIterator<LeafTreeNode.KeyValue<Integer, Pointer>> sortedIterator = indexManager.getSortedIterator();
+        for (Integer key : remainingKeys) {
+            Assertions.assertEquals(key, sortedIterator.next().key());
+        }
+        Assertions.assertFalse(sortedIterator.hasNext());
+        Iterator<Pointer> lessThan = indexManager.getLessThan(500, Set.of(), Order.DESC);
+        for (int key = 495; key >= 5; key -= 5) {
+            Assertions.assertTrue(lessThan.hasNext());
+            Assertions.assertEquals(key, lessThan.next().getPosition());
+        }
+        Assertions.assertFalse(lessThan.hasNext());
+    }
+
+    @Test
+    void test_concurrentWritersAndReaders() throws Exception {
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setBTreeDegree(5)
+                .setBTreeGrowthNodeAllocationCount(2)
+                .setSessionStrategy(DbConfig.SessionStrategy.COMMITTABLE)
+                .build();
+        IndexStorageManager concurrentIndexStorageManager = new OrganizedIndexStorageManager("concurrent", new DefaultIndexHeaderManagerFactory(), dbConfig, new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig));
+        IndexManager<Integer, Pointer> indexManager = new TreeIndexManager<>(1, concurrentIndexStorageManager, DefaultSessionFactory.getInstance(dbConfig), dbConfig,
+                integerKBinaryObjectFactory, pointerVBinaryObjectFactory, new DefaultNodeFactory<>(integerKBinaryObjectFactory, pointerVBinaryObjectFactory));
+
+        int writers = 4;
+        int keysPerWriter = 500;
+        ExecutorService executorService = Executors.newFixedThreadPool(writers + 1);
+        try {
+            // Writers interleave their keys, so they keep splitting the same leaves while a reader iterates over them.
+            AtomicBoolean writing = new AtomicBoolean(true);
+            Future<?> reader = executorService.submit(() -> {
+                while (writing.get()) {
+                    LockableIterator<LeafTreeNode.KeyValue<Integer, Pointer>> sortedIterator = indexManager.getSortedIterator();
+                    int previousKey = 0;
+                    while (sortedIterator.hasNext()) {
+                        int key = sortedIterator.next().key();
+                        Assertions.assertTrue(key > previousKey);
+                        previousKey = key;
+                    }
+                }
+                return null;
+            });
+
+            List<Future<?>> insertions = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                int firstKey = writer + 1;
+                insertions.add(executorService.submit(() -> {
+                    for (int key = firstKey; key <= writers * keysPerWriter; key += writers) {
+                        indexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key, 0));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> insertion : insertions) {
+                insertion.get();
+            }
+            writing.set(false);
+            reader.get();
+
+            List<Future<?>> removals = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                int firstKey = writer + 1;
+                removals.add(executorService.submit(() -> {
+                    for (int key = firstKey; key <= writers * keysPerWriter; key += 2 * writers) {
+                        Assertions.assertTrue(indexManager.removeIndex(key));
+                        Assertions.assertTrue(indexManager.getIndex(key).isEmpty());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> removal : removals) {
+                removal.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        LockableIterator<LeafTreeNode.KeyValue<Integer, Pointer>> sortedIterator = indexManager.getSortedIterator();
+        for (int key = 1; key <= writers * keysPerWriter; key++) {
+            boolean removed = (key - 1) % (2 * writers) < writers;
+            Assertions.assertEquals(removed ? Optional.empty() : Optional.of(new Pointer(Pointer.TYPE_DATA, key, 0)), indexManager.getIndex(key));
+            if (!removed) {
+                Assertions.assertEquals(key, sortedIterator.next().key());
+            }
+        }
+        Assertions.assertFalse(sortedIterator.hasNext());
+    }
+
+    @Test
+    void test_bulkLoadBuildsSearchableTree() throws BTreeException, StorageException, SerializationException,
+                                                   InterruptedTaskException, FileChannelException, IOException {
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setBTreeDegree(5)
+                .setBTreeGrowthNodeAllocationCount(2)
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .setBTreeBulkLoadRunSize(64)
+                .setBTreeBulkLoadThreads(3)
+                .build();
+        IndexStorageManager bulkIndexStorageManager = new OrganizedIndexStorageManager("bulk", new DefaultIndexHeaderManagerFactory(), dbConfig, new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig));
+        IndexManager<Integer, Pointer> indexManager = new TreeIndexManager<>(1, bulkIndexStorageManager, DefaultSessionFactory.getInstance(dbConfig), dbConfig,
+                integerKBinaryObjectFactory, pointerVBinaryObjectFactory, new DefaultNodeFactory<>(integerKBinaryObjectFactory, pointerVBinaryObjectFactory));
+
+        List<LeafTreeNode.KeyValue<Integer, Pointer>> keyValues = new ArrayList<>();
+        for (int key = 1; key <= 1000; key++) {
+            keyValues.add(new LeafTreeNode.KeyValue<>(key, new Pointer(Pointer.TYPE_DATA, key, 0)));
+        }
+        Collections.shuffle(keyValues, new Random(7));
+        indexManager.bulkLoad(keyValues.iterator());
+
+        LockableIterator<LeafTreeNode.KeyValue<Integer, Pointer>> sortedIterator = indexManager.getSortedIterator();
+        int expectedKey = 1;
+        while (sortedIterator.hasNext()) {
+            LeafTreeNode.KeyValue<Integer, Pointer> keyValue = sortedIterator.next();
+            Assertions.assertEquals(expectedKey, keyValue.key());
+            Assertions.assertEquals(expectedKey, keyValue.value().getPosition());
+            expectedKey++;
+        }
+        Assertions.assertEquals(1001, expectedKey);
+        Assertions.assertEquals(Optional.of(1000), indexManager.getLastIndex());
+
+        for (int key = 1; key <= 1000; key++) {
+            Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, key, 0)), indexManager.getIndex(key));
+        }
+
+        Iterator<Pointer> greaterThan = indexManager.getGreaterThan(990, Set.of(), Order.ASC);
+        for (int key = 991; key <= 1000; key++) {
+            Assertions.assertTrue(greaterThan.hasNext());
+            Assertions.assertEquals(key, greaterThan.next().getPosition());
+        }
+        Assertions.assertFalse(greaterThan.hasNext());
+
+        // The bulk loaded tree keeps growing through the regular insertion path.
+        for (int key = 1001; key <= 1100; key++) {
+            indexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key, 0));
+        }
+        for (int key = 1; key <= 1100; key++) {
+            Assertions.assertTrue(indexManager.getIndex(key).isPresent());
+        }
+
+        try (var files = Files.list(dbPath)) {
+            Assertions.assertTrue(files.noneMatch(path -> path.getFileName().toString().endsWith(".run")));
+        }
+    }
+
+    @Test
+    void test_bulkLoadRejectsDuplicateKeys() {
+        IndexManager<Integer, Pointer> indexManager = new TreeIndexManager<>(1, indexStorageManager, DefaultSessionFactory.getInstance(integerDbConfig), integerDbConfig,
+                integerKBinaryObjectFactory, pointerVBinaryObjectFactory, new DefaultNodeFactory<>(integerKBinaryObjectFactory, pointerVBinaryObjectFactory));
+
+        List<LeafTreeNode.KeyValue<Integer, Pointer>> keyValues = List.of(
+                new LeafTreeNode.KeyValue<>(3, new Pointer(Pointer.TYPE_DATA, 3, 0)),
+                new LeafTreeNode.KeyValue<>(1, new Pointer(Pointer.TYPE_DATA, 1, 0)),
+                new LeafTreeNode.KeyValue<>(3, new Pointer(Pointer.TYPE_DATA, 4, 0)));
+        BTreeException exception = Assertions.assertThrows(BTreeException.class, () -> indexManager.bulkLoad(keyValues.iterator()));
+        Assertions.assertEquals(DbError.DUPLICATE_INDEX_INSERTION_ERROR, exception.getDbError());
+    }
+
+    private List<Integer> getLeafSizes(IndexStorageManager indexStorageManager, DefaultNodeFactory<Integer, Pointer> nodeFactory,
+                                       int bTreeDegree) throws StorageException, InterruptedTaskException,
+                                                               FileChannelException {
+        Session<Integer> session = new ImmediateSession<>(indexStorageManager, nodeFactory, 1, new KeyValueSize(integerKBinaryObjectFactory.size(), PointerBinaryObject.BYTES));
+        AbstractTreeNode<Integer> node = session.getRoot().orElseThrow();
+        while (!node.isLeaf()) {
+            node = session.read(((InternalTreeNode<Integer>) node).getChildrenList().getFirst());
+        }
+        List<Integer> leafSizes = new ArrayList<>();
+        Optional<Pointer> nextLeafPointer = Optional.of(node.getPointer());
+        while (nextLeafPointer.isPresent()) {
+            LeafTreeNode<Integer, Pointer> leaf = (LeafTreeNode<Integer, Pointer>) session.read(nextLeafPointer.get());
+            leafSizes.add(leaf.getKeyList(bTreeDegree, PointerBinaryObject.BYTES).size());
+            nextLeafPointer = leaf.getNextSiblingPointer(bTreeDegree);
+        }
+        return leafSizes;
+    }
+}
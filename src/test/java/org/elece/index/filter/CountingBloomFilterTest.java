@@ -0,0 +1,80 @@
+package org.elece.index.filter;
+
+import org.elece.db.schema.model.builder.ColumnBuilder;
+import org.elece.exception.BTreeException;
+import org.elece.exception.SerializationException;
+import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.serializer.IntegerSerializer;
+import org.elece.sql.parser.expression.internal.SqlType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+class CountingBloomFilterTest {
+    private static BinaryObjectFactory<Integer> integerFactory() {
+        return new IntegerSerializer().getBinaryObjectFactory(ColumnBuilder.builder().setSqlType(SqlType.intType).build());
+    }
+
+    @Test
+    void test_removedKeysAreReportedAbsent() throws BTreeException, SerializationException {
+        CountingBloomFilter<Integer> filter = new CountingBloomFilter<>(10_000, 0.01, integerFactory());
+
+        for (int key = 1; key <= 10_000; key++) {
+            filter.add(key);
+        }
+        for (int key = 1; key <= 9_000; key++) {
+            filter.remove(key);
+        }
+
+        int positives = 0;
+        for (int key = 1; key <= 9_000; key++) {
+            if (filter.mightContain(key)) {
+                positives++;
+            }
+        }
+        // Allow generous headroom over the configured rate to absorb hashing variance without flaking.
+        Assertions.assertTrue(positives < 9_000 * 0.05, "removed keys still reported present: " + positives);
+        for (int key = 9_001; key <= 10_000; key++) {
+            Assertions.assertTrue(filter.mightContain(key), "removal hid an unrelated key: " + key);
+        }
+        Assertions.assertEquals(1_000, filter.getSize());
+    }
+
+    @Test
+    void test_saturatedCountersAreNeverDecremented() throws BTreeException, SerializationException {
+        CountingBloomFilter<Integer> filter = new CountingBloomFilter<>(1, 0.01, integerFactory());
+
+        // A single key added more times than a counter holds saturates every counter it maps to.
+        for (int count = 0; count < 20; count++) {
+            filter.add(7);
+        }
+        filter.add(8);
+        for (int count = 0; count < 20; count++) {
+            filter.remove(7);
+        }
+
+        Assertions.assertTrue(filter.mightContain(8));
+        Assertions.assertTrue(filter.mightContain(7), "saturated counters must keep the key as a false positive");
+    }
+
+    @Test
+    void test_stateIsAddedToLoadingFilter() throws BTreeException, SerializationException {
+        CountingBloomFilter<Integer> filter = new CountingBloomFilter<>(1_000, 0.01, integerFactory());
+        for (int key = 1; key <= 500; key++) {
+            filter.add(key);
+        }
+
+        CountingBloomFilter<Integer> loadedFilter = new CountingBloomFilter<>(1_000, 0.01, integerFactory());
+        loadedFilter.add(1_000);
+        Assertions.assertTrue(loadedFilter.loadState(ByteBuffer.wrap(filter.getState())));
+        for (int key = 1; key <= 500; key++) {
+            Assertions.assertTrue(loadedFilter.mightContain(key), "loaded key not found: " + key);
+        }
+        Assertions.assertTrue(loadedFilter.mightContain(1_000));
+        Assertions.assertEquals(501, loadedFilter.getSize());
+
+        CountingBloomFilter<Integer> resizedFilter = new CountingBloomFilter<>(5_000, 0.01, integerFactory());
+        Assertions.assertFalse(resizedFilter.loadState(ByteBuffer.wrap(filter.getState())));
+    }
+}
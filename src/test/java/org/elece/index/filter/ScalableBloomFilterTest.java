@@ -0,0 +1,101 @@
+package org.elece.index.filter;
+
+import org.elece.db.schema.model.builder.ColumnBuilder;
+import org.elece.exception.BTreeException;
+import org.elece.exception.SerializationException;
+import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.serializer.IntegerSerializer;
+import org.elece.sql.parser.expression.internal.SqlType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+class ScalableBloomFilterTest {
+    private static BinaryObjectFactory<Integer> integerFactory() {
+        return new IntegerSerializer().getBinaryObjectFactory(ColumnBuilder.builder().setSqlType(SqlType.intType).build());
+    }
+
+    @Test
+    void test_growsPastInitialCapacity() throws BTreeException, SerializationException {
+        ScalableBloomFilter<Integer> filter = new ScalableBloomFilter<>(1_000, 0.01, integerFactory());
+
+        for (int key = 1; key <= 10_000; key++) {
+            filter.add(key);
+        }
+        // Layers hold 1000, 2000, 4000 and 8000 keys.
+        Assertions.assertEquals(4, filter.getLayerCount());
+        for (int key = 1; key <= 10_000; key++) {
+            Assertions.assertTrue(filter.mightContain(key), "present key wrongly reported absent: " + key);
+        }
+
+        int probes = 10_000;
+        int falsePositives = 0;
+        for (int key = 20_001; key <= 20_000 + probes; key++) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / probes;
+        // Allow generous headroom over the configured rate to absorb hashing variance without flaking.
+        Assertions.assertTrue(observed < 0.01 * 5, "observed false positive rate too high: " + observed);
+    }
+
+    @Test
+    void test_churnReusesLayers() throws BTreeException, SerializationException {
+        ScalableBloomFilter<Integer> filter = new ScalableBloomFilter<>(1_000, 0.01, integerFactory());
+
+        for (int round = 0; round < 20; round++) {
+            for (int key = round * 500 + 1; key <= round * 500 + 500; key++) {
+                filter.add(key);
+            }
+            if (round > 0) {
+                for (int key = (round - 1) * 500 + 1; key <= round * 500; key++) {
+                    filter.remove(key);
+                }
+            }
+        }
+
+        Assertions.assertTrue(filter.getLayerCount() <= 2, "unexpected layer count: " + filter.getLayerCount());
+        for (int key = 19 * 500 + 1; key <= 20 * 500; key++) {
+            Assertions.assertTrue(filter.mightContain(key), "removal hid an unrelated key: " + key);
+        }
+        int positives = 0;
+        for (int key = 1; key <= 19 * 500; key++) {
+            if (filter.mightContain(key)) {
+                positives++;
+            }
+        }
+        Assertions.assertTrue(positives < 19 * 500 * 0.05, "removed keys still reported present: " + positives);
+    }
+
+    @Test
+    void test_stateRestoresEveryLayer() throws BTreeException, SerializationException {
+        ScalableBloomFilter<Integer> filter = new ScalableBloomFilter<>(100, 0.01, integerFactory());
+        for (int key = 1; key <= 1_000; key++) {
+            filter.add(key);
+        }
+
+        ScalableBloomFilter<Integer> loadedFilter = new ScalableBloomFilter<>(100, 0.01, integerFactory());
+        Assertions.assertTrue(loadedFilter.loadState(ByteBuffer.wrap(filter.getState())));
+        Assertions.assertEquals(filter.getLayerCount(), loadedFilter.getLayerCount());
+        for (int key = 1; key <= 1_000; key++) {
+            Assertions.assertTrue(loadedFilter.mightContain(key), "loaded key not found: " + key);
+        }
+
+        // Removals keep working on the loaded layers.
+        for (int key = 1; key <= 1_000; key++) {
+            loadedFilter.remove(key);
+        }
+        int positives = 0;
+        for (int key = 1; key <= 1_000; key++) {
+            if (loadedFilter.mightContain(key)) {
+                positives++;
+            }
+        }
+        Assertions.assertTrue(positives < 1_000 * 0.1, "removed keys still reported present: " + positives);
+
+        ScalableBloomFilter<Integer> resizedFilter = new ScalableBloomFilter<>(500, 0.01, integerFactory());
+        Assertions.assertFalse(resizedFilter.loadState(ByteBuffer.wrap(filter.getState())));
+    }
+}
@@ -1,23 +1,28 @@
 package org.elece.query.e2e;
 
 import org.elece.db.schema.SchemaManager;
+import org.elece.db.schema.SchemaSearcher;
 import org.elece.db.schema.model.Column;
 import org.elece.db.schema.model.Table;
 import org.elece.exception.*;
 import org.elece.index.IndexManager;
 import org.elece.memory.Pointer;
+import org.elece.query.QueryPlanner;
 import org.elece.sql.analyzer.SqlAnalyzer;
 import org.elece.sql.optimizer.SqlOptimizer;
 import org.elece.sql.parser.SqlParser;
 import org.elece.sql.parser.expression.internal.SqlType;
 import org.elece.sql.parser.statement.CreateTableStatement;
 import org.elece.sql.parser.statement.InsertStatement;
+import org.elece.sql.parser.statement.SelectStatement;
 import org.elece.sql.parser.statement.Statement;
 import org.elece.tcp.DependencyContainer;
 import org.elece.utils.BinaryUtils;
 import org.elece.utils.SerializationUtils;
+import org.junit.jupiter.api.Assertions;
 
 import java.util.List;
+import java.util.function.IntFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -39,6 +44,96 @@ public class E2eUtils {
         return parsedStatement;
     }
 
+    public static void plan(DependencyContainer dependencyContainer, String statement) throws ParserException,
+                                                                                              TokenizerException,
+                                                                                              AnalyzerException,
+                                                                                              SchemaException,
+                                                                                              BTreeException,
+                                                                                              SerializationException,
+                                                                                              StorageException,
+                                                                                              DeserializationException,
+                                                                                              DbException,
+                                                                                              QueryException,
+                                                                                              ProtoException,
+                                                                                              InterruptedTaskException,
+                                                                                              FileChannelException {
+        Statement preparedStatement = prepareStatement(dependencyContainer.getSchemaManager(), statement);
+        dependencyContainer.getQueryPlanner().plan(preparedStatement, new MockedClientInterface());
+    }
+
+    /**
+     * Finds the column in the first table of the schema.
+     */
+    public static Column findColumn(DependencyContainer dependencyContainer, String name) throws SchemaException {
+        Table table = dependencyContainer.getSchemaManager().getSchema().getTables().getFirst();
+        return SchemaSearcher.findColumn(table, name).orElseThrow();
+    }
+
+    public static void planAndValidateQuery(DependencyContainer dependencyContainer, String query,
+                                            List<Column> selectedColumns,
+                                            List<List<Object>> expectedValues) throws ParserException,
+                                                                                      TokenizerException,
+                                                                                      AnalyzerException,
+                                                                                      SchemaException,
+                                                                                      BTreeException,
+                                                                                      SerializationException,
+                                                                                      StorageException,
+                                                                                      DeserializationException,
+                                                                                      DbException,
+                                                                                      QueryException,
+                                                                                      ProtoException,
+                                                                                      InterruptedTaskException,
+                                                                                      FileChannelException {
+        planAndValidateQuery(dependencyContainer, dependencyContainer.getQueryPlanner(), query, selectedColumns, expectedValues);
+    }
+
+    /**
+     * Plans the query with the given planner, which may be built on top of spied dependencies, and checks the
+     * selected rows.
+     */
+    public static void planAndValidateQuery(DependencyContainer dependencyContainer, QueryPlanner queryPlanner,
+                                            String query, List<Column> selectedColumns,
+                                            List<List<Object>> expectedValues) throws ParserException,
+                                                                                      TokenizerException,
+                                                                                      AnalyzerException,
+                                                                                      SchemaException,
+                                                                                      BTreeException,
+                                                                                      SerializationException,
+                                                                                      StorageException,
+                                                                                      DeserializationException,
+                                                                                      DbException,
+                                                                                      QueryException,
+                                                                                      ProtoException,
+                                                                                      InterruptedTaskException,
+                                                                                      FileChannelException {
+        SelectStatement selectStatement = (SelectStatement) prepareStatement(dependencyContainer.getSchemaManager(), query);
+        MockedClientInterface clientInterface = new MockedClientInterface();
+        queryPlanner.plan(selectStatement, clientInterface);
+
+        MockedClientInterface.SelectResponse selectResponse = clientInterface.getSelectResponse();
+        List<List<String>> rows = selectResponse.getRows();
+        Assertions.assertEquals(expectedValues.size(), rows.size());
+
+        for (int rowIndex = 0; rowIndex < expectedValues.size(); rowIndex++) {
+            List<Object> expectedRow = expectedValues.get(rowIndex);
+            List<String> actualRow = rows.get(rowIndex);
+
+            Assertions.assertEquals(expectedRow.size(), actualRow.size());
+            for (int index = 0; index < expectedRow.size(); index++) {
+                Object expectedValue = expectedRow.get(index);
+
+                Column column = selectedColumns.get(index);
+                Object actualValue = actualRow.get(index);
+                actualValue = switch (column.getSqlType().getType()) {
+                    case INT -> Integer.parseInt(actualValue.toString());
+                    case BOOL -> Boolean.parseBoolean(actualValue.toString());
+                    case VARCHAR -> actualValue.toString().substring(1, actualValue.toString().length() - 1);
+                };
+                Assertions.assertEquals(expectedValue, actualValue);
+            }
+        }
+    }
+
     public static String extractValue(String attributeName, String response) {
         String regexPattern = attributeName + ":\\s*(.*)";
         Pattern pattern = Pattern.compile(regexPattern, Pattern.MULTILINE);
@@ -133,4 +228,37 @@ public class E2eUtils {
             dependencyContainer.getQueryPlanner().plan(insertStatement, clientInterface);
         }
     }
+
+    /**
+     * Creates a table and fills it with rows, half of them before the indexes are created, which loads them into the
+     * indexes, and the other half after, which adds them to the indexes as they are inserted.
+     *
+     * @param insertStatement Builds the insert statement of the row with the given identifier, starting at 1.
+     */
+    public static void createIndexedTable(DependencyContainer dependencyContainer, String createTableStatement,
+                                          List<String> createIndexStatements, int rowCount,
+                                          IntFunction<String> insertStatement) throws ParserException,
+                                                                                      TokenizerException,
+                                                                                      AnalyzerException,
+                                                                                      SchemaException,
+                                                                                      BTreeException,
+                                                                                      SerializationException,
+                                                                                      StorageException,
+                                                                                      DeserializationException,
+                                                                                      DbException,
+                                                                                      QueryException,
+                                                                                      ProtoException,
+                                                                                      InterruptedTaskException,
+                                                                                      FileChannelException {
+        plan(dependencyContainer, createTableStatement);
+        for (int id = 1; id <= rowCount / 2; id++) {
+            plan(dependencyContainer, insertStatement.apply(id));
+        }
+        for (String createIndexStatement : createIndexStatements) {
+            plan(dependencyContainer, createIndexStatement);
+        }
+        for (int id = rowCount / 2 + 1; id <= rowCount; id++) {
+            plan(dependencyContainer, insertStatement.apply(id));
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package org.elece.query.e2e;
+
+import org.elece.config.DbConfig;
+import org.elece.db.DatabaseStorageManager;
+import org.elece.db.schema.model.Column;
+import org.elece.exception.*;
+import org.elece.query.QueryPlanner;
+import org.elece.tcp.DependencyContainer;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+/**
+ * Plans queries with a {@link QueryPlanner} built on a spied {@link DatabaseStorageManager}, to count the rows the
+ * scans read from disk.
+ */
+public class ReadCountingQueryPlanner {
+    private final DependencyContainer dependencyContainer;
+    private final DatabaseStorageManager databaseStorageManager;
+    private final QueryPlanner queryPlanner;
+
+    public ReadCountingQueryPlanner(DependencyContainer dependencyContainer, DbConfig dbConfig) throws SchemaException {
+        this.dependencyContainer = dependencyContainer;
+        this.databaseStorageManager = Mockito.spy(dependencyContainer.getDatabaseStorageManager());
+        this.queryPlanner = new QueryPlanner(dependencyContainer.getSchemaManager(), databaseStorageManager,
+                dependencyContainer.getColumnIndexManagerProvider(), dependencyContainer.getSerializerRegistry(),
+                dependencyContainer.getFileHandlerPoolFactory().getFileHandlerPool(), dbConfig);
+    }
+
+    /**
+     * Plans the query, checks the selected rows and checks how many rows were read from disk to select them.
+     */
+    public void planAndValidateQuery(String query, List<Column> selectedColumns, List<List<Object>> expectedValues,
+                                     int expectedReads) throws ParserException,
+                                                               TokenizerException,
+                                                               AnalyzerException,
+                                                               SchemaException,
+                                                               BTreeException,
+                                                               SerializationException,
+                                                               StorageException,
+                                                               DeserializationException,
+                                                               DbException,
+                                                               QueryException,
+                                                               ProtoException,
+                                                               InterruptedTaskException,
+                                                               FileChannelException {
+        Mockito.clearInvocations(databaseStorageManager);
+        E2eUtils.planAndValidateQuery(dependencyContainer, queryPlanner, query, selectedColumns, expectedValues);
+        Mockito.verify(databaseStorageManager, Mockito.times(expectedReads)).select(Mockito.any());
+    }
+}
@@ -0,0 +1,149 @@
+package org.elece.query.e2e;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.exception.*;
+import org.elece.tcp.DependencyContainer;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SelectWithCompositeIndexE2eTest {
+    private static final String[] REGIONS = {"north", "north", "north", "south", "north", "south", "north", "south"};
+    private static final int[] YEARS = {2023, 2023, 2024, 2023, 2024, 2024, 2023, 2023};
+    private static final int[] MONTHS = {1, 5, 2, 3, 7, 1, 9, 3};
+
+    private static DbConfig dbConfig;
+    private static DependencyContainer dependencyContainer;
+    // Queries are planned with a spied storage, to count the rows read from disk by the scans.
+    private static ReadCountingQueryPlanner queryPlanner;
+
+    @BeforeAll
+    static void setUp() throws IOException, SchemaException, ParserException, AnalyzerException, TokenizerException,
+            BTreeException, QueryException, SerializationException, InterruptedTaskException,
+            StorageException, DeserializationException, ProtoException, FileChannelException,
+            DbException {
+        dbConfig = DefaultDbConfigBuilder.builder()
+                .setPort(3000)
+                .setBaseDbPath(Files.createTempDirectory("Select_Composite_Index_E2e_Test").toString())
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .build();
+
+        dependencyContainer = new DependencyContainer(dbConfig);
+        queryPlanner = new ReadCountingQueryPlanner(dependencyContainer, dbConfig);
+
+        dependencyContainer.getSchemaManager().createSchema("ordersDb");
+
+        E2eUtils.createIndexedTable(dependencyContainer,
+                "CREATE TABLE orders (id INT PRIMARY KEY, region VARCHAR(255), year INT, month INT, amount INT);",
+                List.of("CREATE INDEX region_date_index ON orders(region, year, month) INCLUDE (amount);"),
+                REGIONS.length,
+                id -> String.format("INSERT INTO orders (id, region, year, month, amount) VALUES (%d, \"%s\", %d, %d, %d);",
+                        id, REGIONS[id - 1], YEARS[id - 1], MONTHS[id - 1], id * 100));
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        FileTestUtils.deleteDirectory(dbConfig.getBaseDbPath());
+    }
+
+    @Test
+    @Order(1)
+    void test_equalityOnPrefix() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        queryPlanner.planAndValidateQuery(
+                "SELECT id, month FROM orders WHERE region = \"north\" AND year = 2023;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "month")),
+                List.of(
+                        List.of(1, 1),
+                        List.of(2, 5),
+                        List.of(7, 9)
+                ), 3);
+    }
+
+    @Test
+    @Order(2)
+    void test_rangeAfterPrefix() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        queryPlanner.planAndValidateQuery(
+                "SELECT id FROM orders WHERE region = \"north\" AND year = 2024 AND month > 1 AND month < 7;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id")),
+                List.of(
+                        List.of(3)
+                ), 1);
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT id, month FROM orders WHERE region = \"north\" AND year >= 2024;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "month")),
+                List.of(
+                        List.of(3, 2),
+                        List.of(5, 7)
+                ), 2);
+    }
+
+    @Test
+    @Order(3)
+    void test_conditionAfterGapIsFiltered() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        // The year has no condition, so only the region is matched by the scan, and the month is filtered on the rows.
+        queryPlanner.planAndValidateQuery(
+                "SELECT id FROM orders WHERE region = \"south\" AND month = 3;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id")),
+                List.of(
+                        List.of(4),
+                        List.of(8)
+                ), 3);
+    }
+
+    @Test
+    @Order(4)
+    void test_coveringCompositeIndex() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        queryPlanner.planAndValidateQuery(
+                "SELECT month, amount FROM orders WHERE region = \"south\" AND year = 2023;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "month"), E2eUtils.findColumn(dependencyContainer, "amount")),
+                List.of(
+                        List.of(3, 400),
+                        List.of(3, 800)
+                ), 0);
+    }
+
+    @Test
+    @Order(5)
+    void test_updateAndDeleteKeepKeysInSync() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        E2eUtils.plan(dependencyContainer, "UPDATE orders SET year = 2024 WHERE id = 1;");
+        E2eUtils.plan(dependencyContainer, "UPDATE orders SET amount = 900 WHERE id = 5;");
+        E2eUtils.plan(dependencyContainer, "DELETE FROM orders WHERE id = 2;");
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT id, month, amount FROM orders WHERE region = \"north\" AND year = 2024;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "month"), E2eUtils.findColumn(dependencyContainer, "amount")),
+                List.of(
+                        List.of(1, 1, 100),
+                        List.of(3, 2, 300),
+                        List.of(5, 7, 900)
+                ), 3);
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT id FROM orders WHERE region = \"north\" AND year = 2023;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id")),
+                List.of(
+                        List.of(7)
+                ), 1);
+    }
+}
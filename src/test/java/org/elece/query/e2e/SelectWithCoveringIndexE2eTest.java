@@ -0,0 +1,181 @@
+package org.elece.query.e2e;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.exception.*;
+import org.elece.tcp.DependencyContainer;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SelectWithCoveringIndexE2eTest {
+    private static final int[] AGES = {30, 40, 30, 50, 40, 30};
+
+    private static DbConfig dbConfig;
+    private static DependencyContainer dependencyContainer;
+    // Queries are planned with a spied storage, to tell whether the rows were read from disk or from the index.
+    private static ReadCountingQueryPlanner queryPlanner;
+
+    @BeforeAll
+    static void setUp() throws IOException, SchemaException, ParserException, AnalyzerException, TokenizerException,
+            BTreeException, QueryException, SerializationException, InterruptedTaskException,
+            StorageException, DeserializationException, ProtoException, FileChannelException,
+            DbException {
+        dbConfig = DefaultDbConfigBuilder.builder()
+                .setPort(3000)
+                .setBaseDbPath(Files.createTempDirectory("Select_Covering_Index_E2e_Test").toString())
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .build();
+
+        dependencyContainer = new DependencyContainer(dbConfig);
+        queryPlanner = new ReadCountingQueryPlanner(dependencyContainer, dbConfig);
+
+        dependencyContainer.getSchemaManager().createSchema("usersDb");
+
+        E2eUtils.createIndexedTable(dependencyContainer,
+                "CREATE TABLE users (id INT PRIMARY KEY, email VARCHAR(255), code INT, age INT, name VARCHAR(255), score INT);",
+                List.of("CREATE UNIQUE INDEX email_index ON users(email) INCLUDE (age);",
+                        "CREATE UNIQUE INDEX code_index ON users(code) INCLUDE (name);",
+                        "CREATE INDEX age_index ON users(age) INCLUDE (score);"),
+                AGES.length,
+                id -> String.format("INSERT INTO users (id, email, code, age, name, score) VALUES (%d, \"user%d\", %d, %d, \"name%d\", %d);",
+                        id, id, id * 10, AGES[id - 1], id, id * 100));
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        FileTestUtils.deleteDirectory(dbConfig.getBaseDbPath());
+    }
+
+    @Test
+    @Order(1)
+    void test_equalityOnCoveringIndex() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        queryPlanner.planAndValidateQuery(
+                "SELECT email, age FROM users WHERE email = \"user4\";",
+                List.of(E2eUtils.findColumn(dependencyContainer, "email"), E2eUtils.findColumn(dependencyContainer, "age")),
+                List.of(
+                        List.of("user4", 50)
+                ), 0);
+    }
+
+    @Test
+    @Order(2)
+    void test_rangeOnCoveringIndex() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        queryPlanner.planAndValidateQuery(
+                "SELECT code, name FROM users WHERE code > 20 AND code <= 50;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "code"), E2eUtils.findColumn(dependencyContainer, "name")),
+                List.of(
+                        List.of(30, "name3"),
+                        List.of(40, "name4"),
+                        List.of(50, "name5")
+                ), 0);
+    }
+
+    @Test
+    @Order(3)
+    void test_filterOnCoveredColumn() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        queryPlanner.planAndValidateQuery(
+                "SELECT name FROM users WHERE code >= 10 AND name = \"name2\";",
+                List.of(E2eUtils.findColumn(dependencyContainer, "name")),
+                List.of(
+                        List.of("name2")
+                ), 0);
+    }
+
+    @Test
+    @Order(4)
+    void test_nonUniqueCoveringIndex() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        queryPlanner.planAndValidateQuery(
+                "SELECT age, score FROM users WHERE age = 30;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "age"), E2eUtils.findColumn(dependencyContainer, "score")),
+                List.of(
+                        List.of(30, 100),
+                        List.of(30, 300),
+                        List.of(30, 600)
+                ), 0);
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT score FROM users WHERE age > 30;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "score")),
+                List.of(
+                        List.of(200),
+                        List.of(500),
+                        List.of(400)
+                ), 0);
+    }
+
+    @Test
+    @Order(5)
+    void test_uncoveredColumnReadsRows() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        queryPlanner.planAndValidateQuery(
+                "SELECT id, age FROM users WHERE email = \"user4\";",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "age")),
+                List.of(
+                        List.of(4, 50)
+                ), 1);
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT code, name FROM users WHERE code = 30 AND score = 300;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "code"), E2eUtils.findColumn(dependencyContainer, "name")),
+                List.of(
+                        List.of(30, "name3")
+                ), 1);
+    }
+
+    @Test
+    @Order(6)
+    void test_updateAndDeleteKeepCoveredValuesInSync() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        E2eUtils.plan(dependencyContainer, "UPDATE users SET name = \"renamed\", score = 700 WHERE id = 2;");
+        E2eUtils.plan(dependencyContainer, "UPDATE users SET age = 30 WHERE id = 4;");
+        E2eUtils.plan(dependencyContainer, "DELETE FROM users WHERE id = 3;");
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT code, name FROM users WHERE code <= 40;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "code"), E2eUtils.findColumn(dependencyContainer, "name")),
+                List.of(
+                        List.of(10, "name1"),
+                        List.of(20, "renamed"),
+                        List.of(40, "name4")
+                ), 0);
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT email, age FROM users WHERE email = \"user4\";",
+                List.of(E2eUtils.findColumn(dependencyContainer, "email"), E2eUtils.findColumn(dependencyContainer, "age")),
+                List.of(
+                        List.of("user4", 30)
+                ), 0);
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT age, score FROM users WHERE age >= 30 AND age <= 40;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "age"), E2eUtils.findColumn(dependencyContainer, "score")),
+                List.of(
+                        List.of(30, 100),
+                        List.of(30, 400),
+                        List.of(30, 600),
+                        List.of(40, 700),
+                        List.of(40, 500)
+                ), 0);
+    }
+}
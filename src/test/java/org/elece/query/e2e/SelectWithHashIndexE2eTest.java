@@ -0,0 +1,121 @@
+package org.elece.query.e2e;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.exception.*;
+import org.elece.tcp.DependencyContainer;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SelectWithHashIndexE2eTest {
+    private static final int ROW_COUNT = 6;
+
+    private static DbConfig dbConfig;
+    private static DependencyContainer dependencyContainer;
+    // Queries are planned with a spied storage, to count the rows read from disk by the scans.
+    private static ReadCountingQueryPlanner queryPlanner;
+
+    @BeforeAll
+    static void setUp() throws IOException, SchemaException, ParserException, AnalyzerException, TokenizerException,
+            BTreeException, QueryException, SerializationException, InterruptedTaskException,
+            StorageException, DeserializationException, ProtoException, FileChannelException,
+            DbException {
+        dbConfig = DefaultDbConfigBuilder.builder()
+                .setPort(3000)
+                .setBaseDbPath(Files.createTempDirectory("Select_Hash_Index_E2e_Test").toString())
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .build();
+
+        dependencyContainer = new DependencyContainer(dbConfig);
+        queryPlanner = new ReadCountingQueryPlanner(dependencyContainer, dbConfig);
+
+        dependencyContainer.getSchemaManager().createSchema("usersDb");
+
+        E2eUtils.createIndexedTable(dependencyContainer,
+                "CREATE TABLE users (id INT PRIMARY KEY, email VARCHAR(255), code INT, name VARCHAR(255));",
+                List.of("CREATE UNIQUE INDEX email_index ON users(email) USING HASH;",
+                        "CREATE UNIQUE INDEX code_index ON users(code) USING HASH;"),
+                ROW_COUNT,
+                id -> String.format("INSERT INTO users (id, email, code, name) VALUES (%d, \"user%d\", %d, \"name%d\");",
+                        id, id, id * 10, id));
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        FileTestUtils.deleteDirectory(dbConfig.getBaseDbPath());
+    }
+
+    @Test
+    @Order(1)
+    void test_equalityOnHashIndex() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        queryPlanner.planAndValidateQuery(
+                "SELECT id, name FROM users WHERE email = \"user2\";",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "name")),
+                List.of(
+                        List.of(2, "name2")
+                ), 1);
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT id, email FROM users WHERE code = 50;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "email")),
+                List.of(
+                        List.of(5, "user5")
+                ), 1);
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT id FROM users WHERE code = 70;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id")),
+                List.of(), 0);
+    }
+
+    @Test
+    @Order(2)
+    void test_rangeOnHashIndexIsFiltered() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        // The hash index has no order, so the range is filtered on the rows of the cluster index.
+        queryPlanner.planAndValidateQuery(
+                "SELECT id FROM users WHERE code > 20 AND code <= 40;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id")),
+                List.of(
+                        List.of(3),
+                        List.of(4)
+                ), ROW_COUNT);
+    }
+
+    @Test
+    @Order(3)
+    void test_updateAndDeleteKeepKeysInSync() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        E2eUtils.plan(dependencyContainer, "UPDATE users SET code = 70 WHERE id = 1;");
+        E2eUtils.plan(dependencyContainer, "DELETE FROM users WHERE id = 2;");
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT id, email FROM users WHERE code = 70;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "email")),
+                List.of(
+                        List.of(1, "user1")
+                ), 1);
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT id FROM users WHERE code = 10;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id")),
+                List.of(), 0);
+
+        queryPlanner.planAndValidateQuery(
+                "SELECT id FROM users WHERE email = \"user2\";",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id")),
+                List.of(), 0);
+    }
+}
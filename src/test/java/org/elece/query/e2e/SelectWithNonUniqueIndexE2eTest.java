@@ -0,0 +1,187 @@
+package org.elece.query.e2e;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.exception.*;
+import org.elece.tcp.DependencyContainer;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SelectWithNonUniqueIndexE2eTest {
+    private static final int[] CATEGORIES = {1, 2, 1, 3, 2, 1, 3, 1};
+
+    private static DbConfig dbConfig;
+    private static DependencyContainer dependencyContainer;
+
+    @BeforeAll
+    static void setUp() throws IOException, SchemaException, ParserException, AnalyzerException, TokenizerException,
+            BTreeException, QueryException, SerializationException, InterruptedTaskException,
+            StorageException, DeserializationException, ProtoException, FileChannelException,
+            DbException {
+        dbConfig = DefaultDbConfigBuilder.builder()
+                .setPort(3000)
+                .setBaseDbPath(Files.createTempDirectory("Select_Non_Unique_Index_E2e_Test").toString())
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .build();
+
+        dependencyContainer = new DependencyContainer(dbConfig);
+
+        dependencyContainer.getSchemaManager().createSchema("itemsDb");
+
+        E2eUtils.createIndexedTable(dependencyContainer,
+                "CREATE TABLE items (id INT PRIMARY KEY, category INT, tag VARCHAR(255));",
+                List.of("CREATE INDEX category_index ON items(category);", "CREATE INDEX tag_index ON items(tag);"),
+                CATEGORIES.length,
+                id -> String.format("INSERT INTO items (id, category, tag) VALUES (%d, %d, \"tag%d\");", id, CATEGORIES[id - 1], CATEGORIES[id - 1]));
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        FileTestUtils.deleteDirectory(dbConfig.getBaseDbPath());
+    }
+
+    @Test
+    @Order(1)
+    void test_equalityOnNonUniqueColumn() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category = 1;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(1, 1),
+                        List.of(3, 1),
+                        List.of(6, 1),
+                        List.of(8, 1)
+                ));
+    }
+
+    @Test
+    @Order(2)
+    void test_equalityOnNonUniqueColumn_absentValue() throws SchemaException, ParserException, BTreeException,
+            QueryException, SerializationException, InterruptedTaskException,
+            StorageException, DeserializationException, ProtoException,
+            FileChannelException, DbException, AnalyzerException,
+            TokenizerException {
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category = 4;",
+                List.of(),
+                List.of());
+    }
+
+    @Test
+    @Order(3)
+    void test_rangeOnNonUniqueColumn() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category > 1 AND category <= 2;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(2, 2),
+                        List.of(5, 2)
+                ));
+
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category >= 2;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(2, 2),
+                        List.of(5, 2),
+                        List.of(4, 3),
+                        List.of(7, 3)
+                ));
+
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category < 2;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(1, 1),
+                        List.of(3, 1),
+                        List.of(6, 1),
+                        List.of(8, 1)
+                ));
+    }
+
+    @Test
+    @Order(4)
+    void test_inequalityOnNonUniqueColumn() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category != 1;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(2, 2),
+                        List.of(5, 2),
+                        List.of(4, 3),
+                        List.of(7, 3)
+                ));
+
+        // The excluded value is the largest key, so the scan ends on keys it skips.
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category != 3;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(1, 1),
+                        List.of(3, 1),
+                        List.of(6, 1),
+                        List.of(8, 1),
+                        List.of(2, 2),
+                        List.of(5, 2)
+                ));
+    }
+
+    @Test
+    @Order(5)
+    void test_equalityOnNonUniqueVarcharColumn() throws SchemaException, ParserException, BTreeException,
+            QueryException, SerializationException, InterruptedTaskException,
+            StorageException, DeserializationException, ProtoException,
+            FileChannelException, DbException, AnalyzerException,
+            TokenizerException {
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, tag FROM items WHERE tag = \"tag3\";",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "tag")),
+                List.of(
+                        List.of(4, "tag3"),
+                        List.of(7, "tag3")
+                ));
+    }
+
+    @Test
+    @Order(6)
+    void test_deleteAndUpdateKeepNonUniqueIndexInSync() throws SchemaException, ParserException, BTreeException,
+            QueryException, SerializationException,
+            InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException,
+            FileChannelException, DbException, AnalyzerException,
+            TokenizerException {
+        E2eUtils.plan(dependencyContainer, "DELETE FROM items WHERE id = 3;");
+        E2eUtils.plan(dependencyContainer, "UPDATE items SET category = 3 WHERE id = 6;");
+
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category = 1;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(1, 1),
+                        List.of(8, 1)
+                ));
+
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category = 3;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(4, 3),
+                        List.of(6, 3),
+                        List.of(7, 3)
+                ));
+    }
+}
@@ -0,0 +1,168 @@
+package org.elece.query.e2e;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.db.schema.model.Column;
+import org.elece.db.schema.model.Index;
+import org.elece.db.schema.model.Table;
+import org.elece.exception.*;
+import org.elece.tcp.DependencyContainer;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SelectWithRowPointerIndexE2eTest {
+    private static final int[] CATEGORIES = {1, 2, 1, 3, 2, 1, 3, 1};
+
+    private static DbConfig dbConfig;
+    private static DependencyContainer dependencyContainer;
+
+    @BeforeAll
+    static void setUp() throws IOException, SchemaException, ParserException, AnalyzerException, TokenizerException,
+            BTreeException, QueryException, SerializationException, InterruptedTaskException,
+            StorageException, DeserializationException, ProtoException, FileChannelException,
+            DbException {
+        dbConfig = DefaultDbConfigBuilder.builder()
+                .setPort(3000)
+                .setBaseDbPath(Files.createTempDirectory("Select_Row_Pointer_Index_E2e_Test").toString())
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .setSecondaryIndexStrategy(DbConfig.SecondaryIndexStrategy.ROW_POINTER)
+                .build();
+
+        dependencyContainer = new DependencyContainer(dbConfig);
+
+        dependencyContainer.getSchemaManager().createSchema("itemsDb");
+
+        E2eUtils.createIndexedTable(dependencyContainer,
+                "CREATE TABLE items (id INT PRIMARY KEY, code INT UNIQUE, category INT, tag VARCHAR(255));",
+                List.of("CREATE INDEX category_index ON items(category);"),
+                CATEGORIES.length,
+                id -> String.format("INSERT INTO items (id, code, category, tag) VALUES (%d, %d, %d, \"tag%d\");", id, id * 10, CATEGORIES[id - 1], CATEGORIES[id - 1]));
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        FileTestUtils.deleteDirectory(dbConfig.getBaseDbPath());
+    }
+
+    @Test
+    @Order(1)
+    void test_equalityOnUniqueColumn() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, code FROM items WHERE code = 30;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "code")),
+                List.of(
+                        List.of(3, 30)
+                ));
+    }
+
+    @Test
+    @Order(2)
+    void test_rangeOnUniqueColumn() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, code FROM items WHERE code > 20 AND code <= 60;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "code")),
+                List.of(
+                        List.of(3, 30),
+                        List.of(4, 40),
+                        List.of(5, 50),
+                        List.of(6, 60)
+                ));
+    }
+
+    @Test
+    @Order(3)
+    void test_inequalityOnUniqueColumn() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, code FROM items WHERE code != 30 AND id < 5;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "code")),
+                List.of(
+                        List.of(1, 10),
+                        List.of(2, 20),
+                        List.of(4, 40)
+                ));
+    }
+
+    @Test
+    @Order(4)
+    void test_equalityAndRangeOnNonUniqueColumn() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category = 1;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(1, 1),
+                        List.of(3, 1),
+                        List.of(6, 1),
+                        List.of(8, 1)
+                ));
+
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category >= 2;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(2, 2),
+                        List.of(5, 2),
+                        List.of(4, 3),
+                        List.of(7, 3)
+                ));
+    }
+
+    @Test
+    @Order(5)
+    void test_deleteAndUpdateKeepRowPointersInSync() throws SchemaException, ParserException, BTreeException, QueryException,
+            SerializationException, InterruptedTaskException, StorageException,
+            DeserializationException, ProtoException, FileChannelException,
+            DbException, AnalyzerException, TokenizerException {
+        E2eUtils.plan(dependencyContainer, "DELETE FROM items WHERE id = 3;");
+        E2eUtils.plan(dependencyContainer, "UPDATE items SET category = 3, code = 65 WHERE id = 6;");
+
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, category FROM items WHERE category = 1;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(1, 1),
+                        List.of(8, 1)
+                ));
+
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, code, category FROM items WHERE code > 50;",
+                List.of(E2eUtils.findColumn(dependencyContainer, "id"), E2eUtils.findColumn(dependencyContainer, "code"), E2eUtils.findColumn(dependencyContainer, "category")),
+                List.of(
+                        List.of(6, 65, 3),
+                        List.of(7, 70, 3),
+                        List.of(8, 80, 1)
+                ));
+
+        E2eUtils.planAndValidateQuery(dependencyContainer,
+                "SELECT id, code FROM items WHERE code = 30;",
+                List.of(),
+                List.of());
+    }
+
+    @Test
+    @Order(6)
+    void test_indexesStoreTheirStrategy() throws SchemaException {
+        Table table = dependencyContainer.getSchemaManager().getSchema().getTables().getFirst();
+        for (Index index : table.getIndexes()) {
+            if (!index.getColumnName().equals(Column.CLUSTER_ID)) {
+                Assertions.assertEquals(DbConfig.SecondaryIndexStrategy.ROW_POINTER, index.getSecondaryIndexStrategy());
+            }
+        }
+    }
+}
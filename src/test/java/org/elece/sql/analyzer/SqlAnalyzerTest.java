@@ -127,6 +127,45 @@ class SqlAnalyzerTest {
         Assertions.assertThrows(AnalyzerException.class, () -> sqlAnalyzer.analyze(schemaManager, statement));
     }
 
+    @Test
+    void test_createIndexWithIncludedColumns() throws ParserException, TokenizerException, AnalyzerException {
+        SqlParser sqlParser = new SqlParser("CREATE UNIQUE INDEX user_name_index ON users(name) INCLUDE (id);");
+        Statement statement = sqlParser.parse();
+        sqlAnalyzer.analyze(schemaManager, statement);
+    }
+
+    @Test
+    void test_fail_createIndexWithIncludedColumns() throws ParserException, TokenizerException {
+        for (String included : List.of("age", "name", "id, id")) {
+            SqlParser sqlParser = new SqlParser(String.format("CREATE UNIQUE INDEX user_name_index ON users(name) INCLUDE (%s);", included));
+            Statement statement = sqlParser.parse();
+            Assertions.assertThrows(AnalyzerException.class, () -> sqlAnalyzer.analyze(schemaManager, statement));
+        }
+    }
+
+    @Test
+    void test_fail_createCompositeIndex() throws ParserException, TokenizerException {
+        for (String indexColumns : List.of("name, age", "name, name", "name, id")) {
+            SqlParser sqlParser = new SqlParser(String.format("CREATE INDEX user_name_index ON users(%s);", indexColumns));
+            Statement statement = sqlParser.parse();
+            Assertions.assertThrows(AnalyzerException.class, () -> sqlAnalyzer.analyze(schemaManager, statement));
+        }
+    }
+
+    @Test
+    void test_createHashIndex() throws ParserException, TokenizerException, AnalyzerException {
+        SqlParser sqlParser = new SqlParser("CREATE UNIQUE INDEX user_name_index ON users(name) USING HASH;");
+        Statement statement = sqlParser.parse();
+        sqlAnalyzer.analyze(schemaManager, statement);
+    }
+
+    @Test
+    void test_fail_createHashIndex() throws ParserException, TokenizerException {
+        SqlParser sqlParser = new SqlParser("CREATE INDEX user_name_index ON users(name) USING HASH;");
+        Statement statement = sqlParser.parse();
+        Assertions.assertThrows(AnalyzerException.class, () -> sqlAnalyzer.analyze(schemaManager, statement));
+    }
+
     @Test
     void test_createDb() throws ParserException, TokenizerException, AnalyzerException {
         SqlParser sqlParser = new SqlParser("CREATE DATABASE userDb;");
@@ -1,5 +1,6 @@
 package org.elece.sql.parser;
 
+import org.elece.db.schema.model.Index;
 import org.elece.exception.ParserException;
 import org.elece.exception.TokenizerException;
 import org.elece.sql.parser.expression.BinaryExpression;
@@ -12,6 +13,8 @@ import org.elece.sql.token.model.type.Symbol;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 class SqlParserTest {
     @Test
     void test_dropDb() throws ParserException, TokenizerException {
@@ -132,6 +135,50 @@ class SqlParserTest {
         Assertions.assertEquals("user_name_index", createIndexStatement.getName());
         Assertions.assertEquals("name", createIndexStatement.getColumn());
         Assertions.assertFalse(createIndexStatement.getUnique());
+        Assertions.assertEquals(List.of(), createIndexStatement.getIncludedColumns());
+    }
+
+    @Test
+    void test_createIndexWithIncludedColumns() throws ParserException, TokenizerException {
+        SqlParser sqlParser = new SqlParser("CREATE UNIQUE INDEX user_email_index ON users(email) INCLUDE (name, age);");
+        Statement statement = sqlParser.parse();
+        Assertions.assertInstanceOf(CreateIndexStatement.class, statement);
+
+        CreateIndexStatement createIndexStatement = (CreateIndexStatement) statement;
+        Assertions.assertEquals("users", createIndexStatement.getTable());
+        Assertions.assertEquals("user_email_index", createIndexStatement.getName());
+        Assertions.assertEquals("email", createIndexStatement.getColumn());
+        Assertions.assertTrue(createIndexStatement.getUnique());
+        Assertions.assertEquals(List.of("name", "age"), createIndexStatement.getIncludedColumns());
+    }
+
+    @Test
+    void test_createCompositeIndex() throws ParserException, TokenizerException {
+        SqlParser sqlParser = new SqlParser("CREATE INDEX user_location_index ON users(country, city, age) INCLUDE (name);");
+        Statement statement = sqlParser.parse();
+        Assertions.assertInstanceOf(CreateIndexStatement.class, statement);
+
+        CreateIndexStatement createIndexStatement = (CreateIndexStatement) statement;
+        Assertions.assertEquals("users", createIndexStatement.getTable());
+        Assertions.assertEquals("user_location_index", createIndexStatement.getName());
+        Assertions.assertEquals("country", createIndexStatement.getColumn());
+        Assertions.assertEquals(List.of("country", "city", "age"), createIndexStatement.getColumns());
+        Assertions.assertFalse(createIndexStatement.getUnique());
+        Assertions.assertEquals(List.of("name"), createIndexStatement.getIncludedColumns());
+    }
+
+    @Test
+    void test_createHashIndex() throws ParserException, TokenizerException {
+        SqlParser sqlParser = new SqlParser("CREATE UNIQUE INDEX user_email_index ON users(email) USING HASH INCLUDE (name);");
+        Statement statement = sqlParser.parse();
+        Assertions.assertInstanceOf(CreateIndexStatement.class, statement);
+
+        CreateIndexStatement createIndexStatement = (CreateIndexStatement) statement;
+        Assertions.assertEquals("user_email_index", createIndexStatement.getName());
+        Assertions.assertEquals("email", createIndexStatement.getColumn());
+        Assertions.assertTrue(createIndexStatement.getUnique());
+        Assertions.assertEquals(Index.Type.HASH, createIndexStatement.getType());
+        Assertions.assertEquals(List.of("name"), createIndexStatement.getIncludedColumns());
     }
 
     @Test
@@ -0,0 +1,120 @@
+package org.elece.storage.file;
+
+import org.elece.exception.FileChannelException;
+import org.elece.exception.StorageException;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class MappedFileChannelTest {
+    private Path dbPath;
+    private Path filePath;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dbPath = Files.createTempDirectory("Mapped_File_Channel_Test_Case");
+        filePath = Path.of(dbPath.toString(), "file.bin");
+    }
+
+    @AfterEach
+    void destroy() throws IOException {
+        FileTestUtils.deleteDirectory(dbPath.toString());
+    }
+
+    @Test
+    void test_writeGrowsFileAndReadsBack() throws StorageException, FileChannelException, IOException {
+        MappedFileChannel fileChannel = new MappedFileChannel(filePath);
+        Assertions.assertEquals(0L, fileChannel.size());
+        Assertions.assertEquals(0, fileChannel.read(0, 10).length);
+
+        fileChannel.write(0, new byte[]{1, 2, 3});
+        fileChannel.write(5, new byte[]{6, 7});
+        Assertions.assertEquals(7L, fileChannel.size());
+        Assertions.assertArrayEquals(new byte[]{1, 2, 3, 0, 0, 6, 7}, fileChannel.read(0, 7));
+
+        // Reads past the end of the file are truncated, the same way as with asynchronous channels.
+        Assertions.assertArrayEquals(new byte[]{6, 7}, fileChannel.readAsync(5, 10).join());
+
+        fileChannel.close();
+        Assertions.assertArrayEquals(new byte[]{1, 2, 3, 0, 0, 6, 7}, Files.readAllBytes(filePath));
+    }
+
+    @Test
+    void test_reopenMapsExistingContent() throws StorageException, FileChannelException, IOException {
+        Files.write(filePath, new byte[]{4, 5, 6});
+
+        MappedFileChannel fileChannel = new MappedFileChannel(filePath);
+        Assertions.assertEquals(3L, fileChannel.size());
+        Assertions.assertArrayEquals(new byte[]{5, 6}, fileChannel.read(1, 2));
+        fileChannel.close();
+    }
+
+    @Test
+    void test_allocate() throws StorageException, FileChannelException {
+        MappedFileChannel fileChannel = new MappedFileChannel(filePath);
+        fileChannel.write(0, new byte[]{1, 2, 3, 4});
+
+        Assertions.assertEquals(4L, fileChannel.allocate(2));
+        Assertions.assertEquals(6L, fileChannel.size());
+
+        Assertions.assertEquals(1L, fileChannel.allocate(1, 2));
+        Assertions.assertArrayEquals(new byte[]{1, 0, 0, 2, 3, 4, 0, 0}, fileChannel.read(0, 8));
+        fileChannel.close();
+    }
+
+    @Test
+    void test_spareCapacityIsNotVisible() throws StorageException, FileChannelException, IOException {
+        MappedFileChannel fileChannel = new MappedFileChannel(filePath);
+        for (int page = 0; page < 100; page++) {
+            Assertions.assertEquals(page * 4096L, fileChannel.allocate(4096));
+        }
+        fileChannel.write(100 * 4096L - 1, new byte[]{9});
+
+        // The mapping is grown in steps of at least twice its capacity, so the file on disk is ahead of its size.
+        Assertions.assertEquals(100 * 4096L, fileChannel.size());
+        Assertions.assertTrue(Files.size(filePath) >= fileChannel.size());
+        Assertions.assertEquals(0, fileChannel.read(100 * 4096L, 10).length);
+
+        fileChannel.close();
+        Assertions.assertEquals(100 * 4096L, Files.size(filePath));
+
+        MappedFileChannel reopenedFileChannel = new MappedFileChannel(filePath);
+        Assertions.assertArrayEquals(new byte[]{0, 9}, reopenedFileChannel.read(100 * 4096L - 2, 10));
+        reopenedFileChannel.close();
+    }
+
+    @Test
+    void test_reopenAfterCrashTrimsSpareCapacity() throws StorageException, FileChannelException, IOException {
+        MappedFileChannel fileChannel = new MappedFileChannel(filePath);
+        for (int page = 0; page < 100; page++) {
+            fileChannel.allocate(4096);
+        }
+        fileChannel.write(100 * 4096L - 1, new byte[]{9});
+        Assertions.assertTrue(Files.size(filePath) > fileChannel.size());
+
+        // Opening the file again without closing it first sees it as it is left by a crash.
+        MappedFileChannel reopenedFileChannel = new MappedFileChannel(filePath);
+        Assertions.assertEquals(100 * 4096L, reopenedFileChannel.size());
+        Assertions.assertEquals(100 * 4096L, reopenedFileChannel.allocate(4096));
+        Assertions.assertArrayEquals(new byte[]{9, 0}, reopenedFileChannel.read(100 * 4096L - 1, 2));
+        reopenedFileChannel.close();
+
+        Assertions.assertEquals(101 * 4096L, Files.size(filePath));
+        Assertions.assertFalse(Files.exists(Path.of(filePath + MappedFileChannel.SIZE_FILE_SUFFIX)));
+    }
+
+    @Test
+    void test_closedChannelRejectsOperations() throws StorageException, FileChannelException {
+        MappedFileChannel fileChannel = new MappedFileChannel(filePath);
+        fileChannel.close();
+
+        Assertions.assertThrows(FileChannelException.class, () -> fileChannel.read(0, 1));
+        Assertions.assertThrows(FileChannelException.class, () -> fileChannel.write(0, new byte[]{1}));
+    }
+}
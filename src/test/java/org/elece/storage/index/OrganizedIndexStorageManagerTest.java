@@ -0,0 +1,111 @@
+package org.elece.storage.index;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.db.schema.model.builder.ColumnBuilder;
+import org.elece.exception.*;
+import org.elece.index.IndexManager;
+import org.elece.index.TreeIndexManager;
+import org.elece.memory.Pointer;
+import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.memory.data.PointerBinaryObject;
+import org.elece.memory.tree.node.DefaultNodeFactory;
+import org.elece.serializer.IntegerSerializer;
+import org.elece.sql.parser.expression.internal.SqlType;
+import org.elece.storage.file.DefaultFileHandlerFactory;
+import org.elece.storage.file.UnrestrictedFileHandlerPool;
+import org.elece.storage.index.header.DefaultIndexHeaderManagerFactory;
+import org.elece.storage.index.session.factory.DefaultSessionFactory;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+class OrganizedIndexStorageManagerTest {
+    private Path dbPath;
+    private DbConfig dbConfig;
+    private BinaryObjectFactory<Integer> kBinaryObjectFactory;
+    private PointerBinaryObject.Factory vBinaryObjectFactory;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dbPath = Files.createTempDirectory("Organized_Index_Storage_Manager_Test_Case");
+        dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setBTreeDegree(4)
+                .setBTreeGrowthNodeAllocationCount(2)
+                .setSessionStrategy(DbConfig.SessionStrategy.IMMEDIATE)
+                .build();
+        kBinaryObjectFactory = new IntegerSerializer().getBinaryObjectFactory(ColumnBuilder.builder().setSqlType(SqlType.intType).build());
+        vBinaryObjectFactory = new PointerBinaryObject.Factory();
+    }
+
+    @AfterEach
+    void destroy() throws IOException {
+        FileTestUtils.deleteDirectory(dbPath.toString());
+    }
+
+    @Test
+    void test_indexesGrowingInTheSameChunk() throws BTreeException, StorageException, SerializationException,
+                                                    InterruptedTaskException, FileChannelException, IOException {
+        IndexStorageManager indexStorageManager = new OrganizedIndexStorageManager("shared", new DefaultIndexHeaderManagerFactory(), dbConfig, new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig));
+        IndexManager<Integer, Pointer> firstIndexManager = createIndexManager(1, indexStorageManager);
+        IndexManager<Integer, Pointer> secondIndexManager = createIndexManager(2, indexStorageManager);
+
+        // Both indexes keep allocating extents after each other, so neither has a contiguous region in the chunk.
+        for (int key = 1; key <= 200; key++) {
+            firstIndexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key, 0));
+            secondIndexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key + 1000L, 0));
+        }
+
+        for (int key = 1; key <= 200; key++) {
+            Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, key, 0)), firstIndexManager.getIndex(key));
+            Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, key + 1000L, 0)), secondIndexManager.getIndex(key));
+        }
+
+        indexStorageManager.purgeIndex(1);
+        Assertions.assertFalse(indexStorageManager.exists(1));
+        for (int key = 1; key <= 200; key++) {
+            Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, key + 1000L, 0)), secondIndexManager.getIndex(key));
+        }
+    }
+
+    @Test
+    void test_removedNodesAreReused() throws BTreeException, StorageException, SerializationException,
+                                             InterruptedTaskException, FileChannelException, IOException {
+        IndexStorageManager indexStorageManager = new OrganizedIndexStorageManager("reused", new DefaultIndexHeaderManagerFactory(), dbConfig, new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig));
+        IndexManager<Integer, Pointer> indexManager = createIndexManager(1, indexStorageManager);
+        Path indexFilePath = Path.of(dbPath.toString(), "index.reused.0");
+
+        for (int key = 1; key <= 200; key++) {
+            indexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key, 0));
+        }
+        long fileSize = Files.size(indexFilePath);
+
+        // Emptying and refilling the index needs as many nodes as before, which all come from the removed ones.
+        for (int round = 0; round < 3; round++) {
+            for (int key = 1; key <= 200; key++) {
+                Assertions.assertTrue(indexManager.removeIndex(key));
+            }
+            for (int key = 1; key <= 200; key++) {
+                indexManager.addIndex(key, new Pointer(Pointer.TYPE_DATA, key, 0));
+            }
+        }
+
+        Assertions.assertEquals(fileSize, Files.size(indexFilePath));
+        for (int key = 1; key <= 200; key++) {
+            Assertions.assertEquals(Optional.of(new Pointer(Pointer.TYPE_DATA, key, 0)), indexManager.getIndex(key));
+        }
+    }
+
+    private IndexManager<Integer, Pointer> createIndexManager(int indexId, IndexStorageManager indexStorageManager) {
+        return new TreeIndexManager<>(indexId, indexStorageManager, DefaultSessionFactory.getInstance(dbConfig), dbConfig,
+                kBinaryObjectFactory, vBinaryObjectFactory, new DefaultNodeFactory<>(kBinaryObjectFactory, vBinaryObjectFactory));
+    }
+}
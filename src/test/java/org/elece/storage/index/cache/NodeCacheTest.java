@@ -0,0 +1,109 @@
+package org.elece.storage.index.cache;
+
+import org.elece.memory.Pointer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+class NodeCacheTest {
+    private static Pointer pointer(long position) {
+        return new Pointer(Pointer.TYPE_NODE, position, 0);
+    }
+
+    @Test
+    void test_returnsCopiesOfCachedNodes() {
+        NodeCache nodeCache = new NodeCache(4);
+        byte[] data = new byte[]{1, 2, 3};
+        nodeCache.put(1, pointer(0), data);
+        data[0] = 9;
+
+        Optional<byte[]> cached = nodeCache.get(1, pointer(0));
+        Assertions.assertTrue(cached.isPresent());
+        Assertions.assertArrayEquals(new byte[]{1, 2, 3}, cached.get());
+
+        cached.get()[1] = 9;
+        Assertions.assertArrayEquals(new byte[]{1, 2, 3}, nodeCache.get(1, pointer(0)).orElseThrow());
+    }
+
+    @Test
+    void test_keysAreScopedByIndex() {
+        NodeCache nodeCache = new NodeCache(4);
+        nodeCache.put(1, pointer(0), new byte[]{1});
+        nodeCache.put(2, pointer(0), new byte[]{2});
+
+        Assertions.assertArrayEquals(new byte[]{1}, nodeCache.get(1, pointer(0)).orElseThrow());
+        Assertions.assertArrayEquals(new byte[]{2}, nodeCache.get(2, pointer(0)).orElseThrow());
+
+        nodeCache.invalidateIndex(1);
+        Assertions.assertTrue(nodeCache.get(1, pointer(0)).isEmpty());
+        Assertions.assertTrue(nodeCache.get(2, pointer(0)).isPresent());
+    }
+
+    @Test
+    void test_putIfUnchangedKeepsNewerContent() {
+        NodeCache nodeCache = new NodeCache(4);
+        long version = nodeCache.version(1, pointer(0));
+        nodeCache.put(1, pointer(0), new byte[]{2});
+        nodeCache.putIfUnchanged(1, pointer(0), new byte[]{1}, nodeCache.version(1, pointer(0)));
+
+        Assertions.assertArrayEquals(new byte[]{2}, nodeCache.get(1, pointer(0)).orElseThrow());
+
+        nodeCache.invalidate(1, pointer(0));
+        nodeCache.putIfUnchanged(1, pointer(0), new byte[]{1}, version);
+        Assertions.assertTrue(nodeCache.get(1, pointer(0)).isEmpty());
+    }
+
+    @Test
+    void test_putIfUnchangedSkipsReadsThatRacedWithAWrite() {
+        NodeCache nodeCache = new NodeCache(4);
+        long version = nodeCache.version(1, pointer(0));
+
+        // The write reached the disk after the read started, and its cached copy was evicted in the meantime.
+        nodeCache.markChanged(1, pointer(0));
+        nodeCache.putIfUnchanged(1, pointer(0), new byte[]{1}, version);
+        Assertions.assertTrue(nodeCache.get(1, pointer(0)).isEmpty());
+
+        nodeCache.putIfUnchanged(1, pointer(0), new byte[]{2}, nodeCache.version(1, pointer(0)));
+        Assertions.assertArrayEquals(new byte[]{2}, nodeCache.get(1, pointer(0)).orElseThrow());
+    }
+
+    @Test
+    void test_evictsWithinCapacityAndKeepsReferencedNodes() {
+        NodeCache nodeCache = new NodeCache(3);
+        for (int position = 0; position < 3; position++) {
+            nodeCache.put(1, pointer(position), new byte[]{(byte) position});
+        }
+
+        // First insertion past capacity clears every reference bit and recycles the oldest slot.
+        nodeCache.put(1, pointer(3), new byte[]{3});
+        Assertions.assertEquals(3, nodeCache.size());
+        Assertions.assertTrue(nodeCache.get(1, pointer(0)).isEmpty());
+
+        // A hit gives the node a second chance, so the next eviction skips it.
+        Assertions.assertTrue(nodeCache.get(1, pointer(1)).isPresent());
+        nodeCache.put(1, pointer(4), new byte[]{4});
+        Assertions.assertTrue(nodeCache.get(1, pointer(1)).isPresent());
+        Assertions.assertTrue(nodeCache.get(1, pointer(2)).isEmpty());
+    }
+
+    @Test
+    void test_pinnedNodesAreNeverEvicted() {
+        NodeCache nodeCache = new NodeCache(2);
+        nodeCache.put(1, pointer(0), new byte[]{0});
+        nodeCache.put(1, pointer(1), new byte[]{1});
+        Assertions.assertTrue(nodeCache.pin(1, pointer(0)));
+        Assertions.assertTrue(nodeCache.pin(1, pointer(1)));
+
+        nodeCache.put(1, pointer(2), new byte[]{2});
+        Assertions.assertTrue(nodeCache.get(1, pointer(2)).isEmpty());
+        Assertions.assertTrue(nodeCache.get(1, pointer(0)).isPresent());
+        Assertions.assertTrue(nodeCache.get(1, pointer(1)).isPresent());
+
+        nodeCache.unpin(1, pointer(1));
+        nodeCache.put(1, pointer(2), new byte[]{2});
+        Assertions.assertTrue(nodeCache.get(1, pointer(2)).isPresent());
+        Assertions.assertTrue(nodeCache.get(1, pointer(0)).isPresent());
+        Assertions.assertTrue(nodeCache.get(1, pointer(1)).isEmpty());
+    }
+}
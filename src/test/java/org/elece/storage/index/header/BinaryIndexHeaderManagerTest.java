@@ -0,0 +1,128 @@
+package org.elece.storage.index.header;
+
+import org.elece.exception.StorageException;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+class BinaryIndexHeaderManagerTest {
+    private Path dbPath;
+    private Path headerPath;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dbPath = Files.createTempDirectory("Binary_Index_Header_Manager_Test_Case");
+        headerPath = Path.of(dbPath.toString(), "header.bin");
+    }
+
+    @AfterEach
+    void destroy() throws IOException {
+        FileTestUtils.deleteDirectory(dbPath.toString());
+    }
+
+    @Test
+    void test_headerSurvivesRestart() throws StorageException {
+        IndexHeaderManager indexHeaderManager = new BinaryIndexHeaderManager(headerPath);
+        indexHeaderManager.setIndexBeginningInChunk(1, new IndexHeaderManager.Location(0, 0));
+        indexHeaderManager.setIndexBeginningInChunk(2, new IndexHeaderManager.Location(0, 512));
+        indexHeaderManager.setIndexBeginningInChunk(1, new IndexHeaderManager.Location(1, 0));
+        indexHeaderManager.setRootOfIndex(1, new IndexHeaderManager.Location(0, 64));
+        indexHeaderManager.setRootOfIndex(1, new IndexHeaderManager.Location(1, 128));
+
+        IndexHeaderManager reopened = new BinaryIndexHeaderManager(headerPath);
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(1, 128)), reopened.getRootOfIndex(1));
+        Assertions.assertTrue(reopened.getRootOfIndex(2).isEmpty());
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 512)), reopened.getIndexBeginningInChunk(2, 0));
+        Assertions.assertEquals(List.of(1, 2), reopened.getIndexesInChunk(0));
+        Assertions.assertEquals(List.of(0, 1), reopened.getChunksOfIndex(1));
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 512)), reopened.getNextIndexBeginningInChunk(1, 0));
+        Assertions.assertEquals(Optional.of(2), reopened.getNextIndexIdInChunk(1, 0));
+        Assertions.assertTrue(reopened.getNextIndexIdInChunk(2, 0).isEmpty());
+    }
+
+    @Test
+    void test_movedIndexBeginningKeepsChunkOrder() throws StorageException {
+        IndexHeaderManager indexHeaderManager = new BinaryIndexHeaderManager(headerPath);
+        indexHeaderManager.setIndexBeginningInChunk(1, new IndexHeaderManager.Location(0, 0));
+        indexHeaderManager.setIndexBeginningInChunk(2, new IndexHeaderManager.Location(0, 256));
+        indexHeaderManager.setIndexBeginningInChunk(3, new IndexHeaderManager.Location(0, 512));
+
+        // Growing the first index pushes the beginning of the next one forward.
+        indexHeaderManager.setIndexBeginningInChunk(2, new IndexHeaderManager.Location(0, 384));
+
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 384)), indexHeaderManager.getNextIndexBeginningInChunk(1, 0));
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 512)), indexHeaderManager.getNextIndexBeginningInChunk(2, 0));
+    }
+
+    @Test
+    void test_logIsCompacted() throws StorageException, IOException {
+        IndexHeaderManager indexHeaderManager = new BinaryIndexHeaderManager(headerPath);
+        indexHeaderManager.setIndexBeginningInChunk(1, new IndexHeaderManager.Location(0, 0));
+        for (int root = 1; root <= 5000; root++) {
+            indexHeaderManager.setRootOfIndex(1, new IndexHeaderManager.Location(0, root * 64L));
+        }
+
+        Assertions.assertTrue(Files.size(headerPath) < 5000L * 17);
+        IndexHeaderManager reopened = new BinaryIndexHeaderManager(headerPath);
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 5000 * 64L)), reopened.getRootOfIndex(1));
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 0)), reopened.getIndexBeginningInChunk(1, 0));
+    }
+
+    @Test
+    void test_freeNodesSurviveRestart() throws StorageException {
+        IndexHeaderManager indexHeaderManager = new BinaryIndexHeaderManager(headerPath);
+        indexHeaderManager.addFreeNode(1, new IndexHeaderManager.Location(0, 64));
+        indexHeaderManager.addFreeNode(1, new IndexHeaderManager.Location(0, 128));
+        indexHeaderManager.addFreeNode(1, new IndexHeaderManager.Location(0, 64));
+        indexHeaderManager.addFreeNode(2, new IndexHeaderManager.Location(1, 0));
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 64)), indexHeaderManager.takeFreeNode(1));
+
+        IndexHeaderManager reopened = new BinaryIndexHeaderManager(headerPath);
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 128)), reopened.takeFreeNode(1));
+        Assertions.assertTrue(reopened.takeFreeNode(1).isEmpty());
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(1, 0)), reopened.takeFreeNode(2));
+        Assertions.assertTrue(reopened.takeFreeNode(3).isEmpty());
+    }
+
+    @Test
+    void test_clearedIndexSurvivesRestart() throws StorageException {
+        IndexHeaderManager indexHeaderManager = new BinaryIndexHeaderManager(headerPath);
+        indexHeaderManager.setIndexBeginningInChunk(1, new IndexHeaderManager.Location(0, 0));
+        indexHeaderManager.setRootOfIndex(1, new IndexHeaderManager.Location(0, 64));
+        indexHeaderManager.addFreeNode(1, new IndexHeaderManager.Location(0, 128));
+        indexHeaderManager.setRootOfIndex(2, new IndexHeaderManager.Location(0, 256));
+        indexHeaderManager.addFreeNode(2, new IndexHeaderManager.Location(0, 320));
+        indexHeaderManager.clearIndex(1);
+
+        IndexHeaderManager reopened = new BinaryIndexHeaderManager(headerPath);
+        Assertions.assertTrue(reopened.getRootOfIndex(1).isEmpty());
+        Assertions.assertTrue(reopened.takeFreeNode(1).isEmpty());
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 0)), reopened.getIndexBeginningInChunk(1, 0));
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 256)), reopened.getRootOfIndex(2));
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 320)), reopened.takeFreeNode(2));
+    }
+
+    @Test
+    void test_jsonHeaderIsConverted() throws StorageException, IOException {
+        IndexHeaderManager jsonIndexHeaderManager = new JsonIndexHeaderManager(headerPath);
+        jsonIndexHeaderManager.setIndexBeginningInChunk(1, new IndexHeaderManager.Location(0, 0));
+        jsonIndexHeaderManager.setIndexBeginningInChunk(2, new IndexHeaderManager.Location(0, 256));
+        jsonIndexHeaderManager.setRootOfIndex(2, new IndexHeaderManager.Location(0, 320));
+
+        new BinaryIndexHeaderManager(headerPath);
+        Assertions.assertNotEquals('{', Files.readAllBytes(headerPath)[0]);
+
+        IndexHeaderManager reopened = new BinaryIndexHeaderManager(headerPath);
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 320)), reopened.getRootOfIndex(2));
+        Assertions.assertEquals(Optional.of(new IndexHeaderManager.Location(0, 256)), reopened.getIndexBeginningInChunk(2, 0));
+        Assertions.assertEquals(Optional.of(2), reopened.getNextIndexIdInChunk(1, 0));
+    }
+}
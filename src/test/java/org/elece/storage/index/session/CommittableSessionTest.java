@@ -0,0 +1,167 @@
+package org.elece.storage.index.session;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.db.schema.model.builder.ColumnBuilder;
+import org.elece.exception.*;
+import org.elece.memory.KeyValueSize;
+import org.elece.memory.Pointer;
+import org.elece.memory.data.BinaryObjectFactory;
+import org.elece.memory.data.PointerBinaryObject;
+import org.elece.memory.tree.node.DefaultNodeFactory;
+import org.elece.memory.tree.node.LeafTreeNode;
+import org.elece.serializer.IntegerSerializer;
+import org.elece.sql.parser.expression.internal.SqlType;
+import org.elece.storage.file.DefaultFileHandlerFactory;
+import org.elece.storage.file.UnrestrictedFileHandlerPool;
+import org.elece.storage.index.OrganizedIndexStorageManager;
+import org.elece.storage.index.header.DefaultIndexHeaderManagerFactory;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CommittableSessionTest {
+    private static final int DEGREE = 4;
+
+    private Path dbPath;
+    private BinaryObjectFactory<Integer> kBinaryObjectFactory;
+    private PointerBinaryObject.Factory vBinaryObjectFactory;
+    private DefaultNodeFactory<Integer, Pointer> nodeFactory;
+    private KeyValueSize keyValueSize;
+    private CountingIndexStorageManager indexStorageManager;
+
+    @BeforeEach
+    void setUp() throws IOException, StorageException {
+        dbPath = Files.createTempDirectory("Committable_Session_Test_Case");
+        DbConfig dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setBTreeDegree(DEGREE)
+                .setBTreeGrowthNodeAllocationCount(2)
+                .setSessionStrategy(DbConfig.SessionStrategy.COMMITTABLE)
+                .build();
+        kBinaryObjectFactory = new IntegerSerializer().getBinaryObjectFactory(ColumnBuilder.builder().setSqlType(SqlType.intType).build());
+        vBinaryObjectFactory = new PointerBinaryObject.Factory();
+        nodeFactory = new DefaultNodeFactory<>(kBinaryObjectFactory, vBinaryObjectFactory);
+        keyValueSize = new KeyValueSize(kBinaryObjectFactory.size(), vBinaryObjectFactory.size());
+        indexStorageManager = new CountingIndexStorageManager(dbConfig);
+    }
+
+    @AfterEach
+    void destroy() throws IOException {
+        FileTestUtils.deleteDirectory(dbPath.toString());
+    }
+
+    @Test
+    void test_writesAreCoalescedUntilCommit() throws StorageException, InterruptedTaskException,
+                                                     FileChannelException, BTreeException, SerializationException {
+        CommittableSession<Integer> session = new CommittableSession<>(indexStorageManager, nodeFactory, 1, keyValueSize);
+        LeafTreeNode<Integer, Pointer> root = new LeafTreeNode<>(indexStorageManager.getEmptyNode(keyValueSize), kBinaryObjectFactory, vBinaryObjectFactory);
+        root.setAsRoot();
+        root.addKeyValue(1, new Pointer(Pointer.TYPE_DATA, 1, 0), DEGREE);
+        session.write(root);
+
+        root.addKeyValue(2, new Pointer(Pointer.TYPE_DATA, 2, 0), DEGREE);
+        session.write(root);
+        root.addKeyValue(3, new Pointer(Pointer.TYPE_DATA, 3, 0), DEGREE);
+        session.write(root);
+        session.update(root);
+        Assertions.assertEquals(0, indexStorageManager.updates.get());
+
+        session.commit();
+        Assertions.assertEquals(1, indexStorageManager.updates.get());
+
+        LeafTreeNode<Integer, Pointer> storedRoot = (LeafTreeNode<Integer, Pointer>) new ImmediateSession<>(indexStorageManager, nodeFactory, 1, keyValueSize).getRoot().orElseThrow();
+        Assertions.assertEquals(List.of(1, 2, 3), storedRoot.getKeyList(DEGREE));
+    }
+
+    @Test
+    void test_rollbackRestoresWrittenNodes() throws StorageException, InterruptedTaskException,
+                                                    FileChannelException, BTreeException, SerializationException {
+        ImmediateSession<Integer> immediateSession = new ImmediateSession<>(indexStorageManager, nodeFactory, 1, keyValueSize);
+        LeafTreeNode<Integer, Pointer> root = new LeafTreeNode<>(indexStorageManager.getEmptyNode(keyValueSize), kBinaryObjectFactory, vBinaryObjectFactory);
+        root.setAsRoot();
+        root.addKeyValue(1, new Pointer(Pointer.TYPE_DATA, 1, 0), DEGREE);
+        Pointer rootPointer = immediateSession.write(root).pointer();
+
+        CommittableSession<Integer> session = new CommittableSession<>(indexStorageManager, nodeFactory, 1, keyValueSize);
+        LeafTreeNode<Integer, Pointer> changedRoot = (LeafTreeNode<Integer, Pointer>) session.read(rootPointer);
+        changedRoot.addKeyValue(2, new Pointer(Pointer.TYPE_DATA, 2, 0), DEGREE);
+        // Writing a node that already exists must not make the rollback remove it.
+        session.write(changedRoot);
+        session.write(new LeafTreeNode<>(indexStorageManager.getEmptyNode(keyValueSize), kBinaryObjectFactory, vBinaryObjectFactory));
+        session.rollback();
+
+        LeafTreeNode<Integer, Pointer> storedRoot = (LeafTreeNode<Integer, Pointer>) immediateSession.read(rootPointer);
+        Assertions.assertEquals(List.of(1), storedRoot.getKeyList(DEGREE));
+    }
+
+    @Test
+    void test_removedNodesAreFreedAfterTheUpdates() throws StorageException, InterruptedTaskException,
+                                                           FileChannelException, BTreeException, SerializationException {
+        ImmediateSession<Integer> immediateSession = new ImmediateSession<>(indexStorageManager, nodeFactory, 1, keyValueSize);
+        LeafTreeNode<Integer, Pointer> root = new LeafTreeNode<>(indexStorageManager.getEmptyNode(keyValueSize), kBinaryObjectFactory, vBinaryObjectFactory);
+        root.setAsRoot();
+        root.addKeyValue(1, new Pointer(Pointer.TYPE_DATA, 1, 0), DEGREE);
+        Pointer rootPointer = immediateSession.write(root).pointer();
+        Pointer removedPointer = immediateSession.write(new LeafTreeNode<>(indexStorageManager.getEmptyNode(keyValueSize), kBinaryObjectFactory, vBinaryObjectFactory)).pointer();
+
+        CommittableSession<Integer> session = new CommittableSession<>(indexStorageManager, nodeFactory, 1, keyValueSize);
+        LeafTreeNode<Integer, Pointer> changedRoot = (LeafTreeNode<Integer, Pointer>) session.read(rootPointer);
+        changedRoot.addKeyValue(2, new Pointer(Pointer.TYPE_DATA, 2, 0), DEGREE);
+        session.update(changedRoot);
+        session.remove(session.read(removedPointer));
+
+        indexStorageManager.delayUpdates = true;
+        session.commit();
+        Assertions.assertEquals(1, indexStorageManager.removals.get());
+        Assertions.assertFalse(indexStorageManager.removedBeforeUpdates);
+    }
+
+    private static class CountingIndexStorageManager extends OrganizedIndexStorageManager {
+        private final AtomicInteger updates = new AtomicInteger();
+        private final AtomicInteger removals = new AtomicInteger();
+        private final List<CompletableFuture<Integer>> pendingUpdates = new CopyOnWriteArrayList<>();
+        private volatile boolean delayUpdates;
+        private volatile boolean removedBeforeUpdates;
+
+        private CountingIndexStorageManager(DbConfig dbConfig) throws IOException, StorageException {
+            super("session", new DefaultIndexHeaderManagerFactory(), dbConfig, new UnrestrictedFileHandlerPool(DefaultFileHandlerFactory.getInstance(), dbConfig));
+        }
+
+        @Override
+        public CompletableFuture<Integer> updateNode(int indexId, byte[] data, Pointer pointer, boolean root) throws
+                                                                                                           StorageException,
+                                                                                                           FileChannelException {
+            updates.incrementAndGet();
+            CompletableFuture<Integer> update = super.updateNode(indexId, data, pointer, root);
+            if (delayUpdates) {
+                update = update.thenApplyAsync(result -> result, CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+                pendingUpdates.add(update);
+            }
+            return update;
+        }
+
+        @Override
+        public CompletableFuture<Integer> removeNode(int indexId, Pointer pointer, KeyValueSize keyValueSize) throws
+                                                                                                             StorageException,
+                                                                                                             InterruptedTaskException,
+                                                                                                             FileChannelException {
+            removals.incrementAndGet();
+            if (pendingUpdates.isEmpty() || !pendingUpdates.stream().allMatch(CompletableFuture::isDone)) {
+                removedBeforeUpdates = true;
+            }
+            return super.removeNode(indexId, pointer, keyValueSize);
+        }
+    }
+}
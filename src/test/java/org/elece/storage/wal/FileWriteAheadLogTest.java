@@ -0,0 +1,141 @@
+package org.elece.storage.wal;
+
+import org.elece.config.DbConfig;
+import org.elece.config.DefaultDbConfigBuilder;
+import org.elece.exception.FileChannelException;
+import org.elece.exception.InterruptedTaskException;
+import org.elece.exception.StorageException;
+import org.elece.storage.file.AsyncFileChannel;
+import org.elece.utils.FileTestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+class FileWriteAheadLogTest {
+    private Path dbPath;
+    private Path dataPath;
+    private DbConfig dbConfig;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dbPath = Files.createTempDirectory("File_Write_Ahead_Log_Test_Case");
+        dataPath = Path.of(dbPath.toString(), "data.bin");
+        dbConfig = DefaultDbConfigBuilder.builder()
+                .setBaseDbPath(dbPath.toString())
+                .setWalEnabled(true)
+                .build();
+    }
+
+    @AfterEach
+    void destroy() throws IOException {
+        FileTestUtils.deleteDirectory(dbPath.toString());
+    }
+
+    @Test
+    void test_recoverReplaysWritesThatNeverReachedTheFile() throws StorageException, IOException {
+        WriteAheadLog crashedLog = new FileWriteAheadLog(dbConfig);
+        crashedLog.append(List.of(new LogRecord(dataPath, 0, new byte[]{1, 2, 3}))).join();
+        crashedLog.append(List.of(new LogRecord(dataPath, 1, new byte[]{9}), new LogRecord(dataPath, 4, new byte[]{5}))).join();
+
+        WriteAheadLog writeAheadLog = new FileWriteAheadLog(dbConfig);
+        Assertions.assertEquals(2, writeAheadLog.recover());
+        Assertions.assertArrayEquals(new byte[]{1, 9, 3, 0, 5}, readData());
+        Assertions.assertEquals(0L, walSize());
+
+        // Replaying an already truncated log is a no-op.
+        Assertions.assertEquals(0, writeAheadLog.recover());
+    }
+
+    @Test
+    void test_recoverStopsAtTornEntry() throws StorageException, IOException {
+        WriteAheadLog crashedLog = new FileWriteAheadLog(dbConfig);
+        crashedLog.append(List.of(new LogRecord(dataPath, 0, new byte[]{1, 2}))).join();
+        crashedLog.append(List.of(new LogRecord(dataPath, 2, new byte[]{3, 4}))).join();
+
+        Path walPath = Path.of(dbPath.toString(), FileWriteAheadLog.WAL_FILE_NAME);
+        byte[] log = Files.readAllBytes(walPath);
+        log[log.length - 1] ^= 0x7F;
+        Files.write(walPath, log, StandardOpenOption.TRUNCATE_EXISTING);
+
+        WriteAheadLog writeAheadLog = new FileWriteAheadLog(dbConfig);
+        Assertions.assertEquals(1, writeAheadLog.recover());
+        Assertions.assertArrayEquals(new byte[]{1, 2}, readData());
+    }
+
+    @Test
+    void test_channelWritesAreLoggedAndCheckpointed() throws StorageException, FileChannelException,
+                                                           InterruptedTaskException, IOException {
+        WriteAheadLog writeAheadLog = new FileWriteAheadLog(dbConfig);
+        WalFileChannel fileChannel = new WalFileChannel(new AsyncFileChannel(dataPath), dataPath, writeAheadLog);
+
+        List<CompletableFuture<Integer>> writes = new ArrayList<>();
+        for (int position = 0; position < 64; position++) {
+            writes.add(fileChannel.writeAsync(position, new byte[]{(byte) position}));
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+        Assertions.assertEquals(64L, fileChannel.allocate(8));
+        Assertions.assertTrue(walSize() > 0);
+
+        writeAheadLog.checkpoint();
+        Assertions.assertEquals(0L, walSize());
+
+        byte[] data = readData();
+        Assertions.assertEquals(72, data.length);
+        for (int position = 0; position < 64; position++) {
+            Assertions.assertEquals((byte) position, data[position]);
+        }
+
+        writeAheadLog.close();
+        fileChannel.close();
+    }
+
+    @Test
+    void test_channelAppliesChangesInLogOrder() throws StorageException, FileChannelException,
+                                                       InterruptedTaskException {
+        WriteAheadLog writeAheadLog = new FileWriteAheadLog(dbConfig);
+        WalFileChannel fileChannel = new WalFileChannel(new AsyncFileChannel(dataPath), dataPath, writeAheadLog);
+
+        // Every write overwrites the same byte, so the last one logged must be the last one applied.
+        List<CompletableFuture<Integer>> writes = new ArrayList<>();
+        for (int value = 0; value < 100; value++) {
+            writes.add(fileChannel.writeAsync(0, new byte[]{(byte) value}));
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+        Assertions.assertArrayEquals(new byte[]{99}, fileChannel.read(0, 1));
+
+        // Allocations issued before the previous ones are applied still get distinct positions.
+        List<CompletableFuture<Long>> allocations = new ArrayList<>();
+        for (int index = 0; index < 10; index++) {
+            allocations.add(fileChannel.allocateAsync(4));
+        }
+        for (int index = 0; index < 10; index++) {
+            Assertions.assertEquals(1L + 4L * index, allocations.get(index).join());
+        }
+        Assertions.assertEquals(41L, fileChannel.size());
+        Assertions.assertThrows(StorageException.class, () -> fileChannel.allocateAsync(0, 4));
+
+        writeAheadLog.close();
+        fileChannel.close();
+    }
+
+    private byte[] readData() {
+        try {
+            return Files.readAllBytes(dataPath);
+        } catch (IOException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+
+    private long walSize() throws IOException {
+        return Files.size(Path.of(dbPath.toString(), FileWriteAheadLog.WAL_FILE_NAME));
+    }
+}